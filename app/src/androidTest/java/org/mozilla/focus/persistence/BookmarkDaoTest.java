@@ -137,6 +137,22 @@ public class BookmarkDaoTest {
         assertEquals(0, dbBookmarks.size());
     }
 
+    @Test
+    public void addBookmarks_checkBookmarksMatchedByTitleOrUrlPrefix() {
+        // Given that we have a bookmark list in the data source
+        bookmarksDatabase.bookmarkDao().addBookmarks(BOOKMARK, BOOKMARK_2);
+
+        // Bookmarks having a word of the title or url starting with the query can be retrieved
+        List<BookmarkModel> dbBookmarks = bookmarksDatabase.bookmarkDao().queryBookmarksByText("yah*", 10);
+        assertEquals(1, dbBookmarks.size());
+        assertBookmarkEquals(BOOKMARK, dbBookmarks.get(0));
+        assertEquals(1, bookmarksDatabase.bookmarkDao().queryBookmarksByText("www* goo*", 10).size());
+
+        // And they can't once deleted
+        bookmarksDatabase.bookmarkDao().deleteBookmark(BOOKMARK);
+        assertEquals(0, bookmarksDatabase.bookmarkDao().queryBookmarksByText("yah*", 10).size());
+    }
+
     private void assertBookmarkEquals(BookmarkModel expectedBookmark, BookmarkModel actualBookmark) {
         assertEquals(expectedBookmark.getId(), actualBookmark.getId());
         assertEquals(expectedBookmark.getTitle(), actualBookmark.getTitle());
@@ -107,6 +107,7 @@ import org.mozilla.rocket.download.DownloadIndicatorViewModel
 import org.mozilla.rocket.extension.switchFrom
 import org.mozilla.rocket.landing.PortraitComponent
 import org.mozilla.rocket.landing.PortraitStateModel
+import org.mozilla.rocket.network.DnsPrefetcher
 import org.mozilla.rocket.nightmode.themed.ThemedCoordinatorLayout
 import org.mozilla.rocket.shopping.search.ui.ShoppingSearchActivity.Companion.getStartIntent
 import org.mozilla.rocket.shopping.search.ui.adapter.ShoppingSiteItem
@@ -140,6 +141,8 @@ class BrowserFragment : LocaleAwareFragment(), BrowserScreen, LifecycleOwner, Ba
     lateinit var chromeViewModelCreator: Lazy<ChromeViewModel>
     @Inject
     lateinit var promptMessageViewModelCreator: Lazy<ShoppingSearchPromptViewModel>
+    @Inject
+    lateinit var dnsPrefetcher: DnsPrefetcher
     private lateinit var chromeViewModel: ChromeViewModel
     private lateinit var bottomBarViewModel: BottomBarViewModel
     private lateinit var bottomBarItemAdapter: BottomBarItemAdapter
@@ -949,6 +952,7 @@ class BrowserFragment : LocaleAwareFragment(), BrowserScreen, LifecycleOwner, Ba
     ) {
         updateURL(url)
         if (SupportUtils.isUrl(url)) {
+            dnsPrefetcher.onNavigation(url)
             if (openNewTab) {
                 sessionManager.addTab(url, TabUtil.argument(null, isFromExternal, true))
                 // Per spec, if download indicator intro view is showed when new tabb is opened, just dismiss it anyway.
@@ -1373,8 +1377,6 @@ class BrowserFragment : LocaleAwareFragment(), BrowserScreen, LifecycleOwner, Ba
         private var tabTransitionAnimator: ValueAnimator? = null
 
         override fun onFocusChanged(session: Session?, factor: Factor) {
-            chromeViewModel.onFocusedUrlChanged(session?.url)
-            chromeViewModel.onFocusedTitleChanged(session?.title)
             if (session == null) {
                 if (factor === Factor.FACTOR_NO_FOCUS && !isStartedFromExternalApp) {
                     ScreenNavigator.get(context).popToHomeScreen(true)
@@ -1398,8 +1400,8 @@ class BrowserFragment : LocaleAwareFragment(), BrowserScreen, LifecycleOwner, Ba
             }
         }
 
-        override fun onSessionCountChanged(count: Int) {
-            chromeViewModel.onTabCountChanged(count)
+        override fun onSessionsChanged(changes: SessionManager.ChangeSet) {
+            chromeViewModel.onSessionsChanged(changes)
         }
 
         private fun transitToTab(targetTab: Session) {
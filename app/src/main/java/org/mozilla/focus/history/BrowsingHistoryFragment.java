@@ -71,6 +71,13 @@ public class BrowsingHistoryFragment extends PanelFragment implements View.OnCli
         mAdapter = new HistoryItemAdapter(mRecyclerView, getActivity(), mChromeViewModel, this);
         mRecyclerView.setAdapter(mAdapter);
         mRecyclerView.setLayoutManager(layoutManager);
+        BrowsingHistoryManager.getInstance().addChangedRowsListener(mAdapter);
+    }
+
+    @Override
+    public void onDestroyView() {
+        BrowsingHistoryManager.getInstance().removeChangedRowsListener(mAdapter);
+        super.onDestroyView();
     }
 
     @Override
@@ -12,8 +12,10 @@ import android.database.ContentObserver;
 import android.net.Uri;
 import android.os.Handler;
 
+import androidx.annotation.Nullable;
+
 import org.mozilla.focus.history.model.Site;
-import org.mozilla.focus.provider.HistoryContract;
+import org.mozilla.focus.provider.ChangeBatcher;
 import org.mozilla.focus.provider.HistoryContract.BrowsingHistory;
 import org.mozilla.focus.provider.QueryHandler;
 import org.mozilla.focus.provider.QueryHandler.AsyncDeleteListener;
@@ -21,10 +23,13 @@ import org.mozilla.focus.provider.QueryHandler.AsyncDeleteWrapper;
 import org.mozilla.focus.provider.QueryHandler.AsyncInsertListener;
 import org.mozilla.focus.provider.QueryHandler.AsyncQueryListener;
 import org.mozilla.focus.provider.QueryHandler.AsyncUpdateListener;
+import org.mozilla.focus.utils.ProviderUtils;
 import org.mozilla.icon.FavIconUtils;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Created by hart on 07/08/2017.
@@ -36,8 +41,10 @@ public class BrowsingHistoryManager {
 
     private WeakReference<ContentResolver> mResolver;
     private QueryHandler mQueryHandler;
+    private VisitRecorder mVisitRecorder;
     private BrowsingHistoryContentObserver mContentObserver;
     private ArrayList<ContentChangeListener> mListeners;
+    private final List<VisitListener> mVisitListeners = new CopyOnWriteArrayList<>();
 
     private final class BrowsingHistoryContentObserver extends ContentObserver {
 
@@ -57,6 +64,12 @@ public class BrowsingHistoryManager {
         void onContentChanged();
     }
 
+    public interface VisitListener {
+        void onVisit(String url, long timeStamp);
+
+        void onHistoryDeleted();
+    }
+
     public static BrowsingHistoryManager getInstance() {
         if (sInstance == null) {
             sInstance = new BrowsingHistoryManager();
@@ -68,6 +81,7 @@ public class BrowsingHistoryManager {
         ContentResolver resolver = context.getContentResolver();
         mResolver = new WeakReference<>(resolver);
         mQueryHandler = new QueryHandler(resolver);
+        mVisitRecorder = new VisitRecorder(resolver, mQueryHandler.getWorkerHandler());
         mContentObserver = new BrowsingHistoryContentObserver(null);
         mListeners = new ArrayList<>();
     }
@@ -100,6 +114,25 @@ public class BrowsingHistoryManager {
         }
     }
 
+    public void addVisitListener(VisitListener listener) {
+        mVisitListeners.add(listener);
+    }
+
+    public void removeVisitListener(VisitListener listener) {
+        mVisitListeners.remove(listener);
+    }
+
+    /**
+     * The listener gets the ids of the pages changed at most once per frame, on the main thread.
+     */
+    public void addChangedRowsListener(ChangeBatcher.Listener listener) {
+        ChangeBatcher.addListener(BrowsingHistory.CONTENT_URI, listener);
+    }
+
+    public void removeChangedRowsListener(ChangeBatcher.Listener listener) {
+        ChangeBatcher.removeListener(BrowsingHistory.CONTENT_URI, listener);
+    }
+
     public static Site prepareSiteForFirstInsert(String url, String title, long timeStamp) {
         return new Site(QueryHandler.LONG_NO_VALUE, title, url, QueryHandler.LONG_NO_VALUE, timeStamp, (String) QueryHandler.OBJECT_NO_VALUE);
     }
@@ -114,30 +147,73 @@ public class BrowsingHistoryManager {
         });
     }
 
+    /**
+     * Adds a visit to history in the next batch of writes, see {@link VisitRecorder}.
+     */
+    public void recordVisit(String url, String title, long timeStamp) {
+        mVisitRecorder.recordVisit(url, title, timeStamp);
+        for (VisitListener listener : mVisitListeners) {
+            listener.onVisit(url, timeStamp);
+        }
+    }
+
     public void delete(long id, AsyncDeleteListener listener) {
+        mVisitRecorder.flushSoon();
+        notifyHistoryDeleted();
         mQueryHandler.startDelete(QueryHandler.SITE_TOKEN, new AsyncDeleteWrapper(id, listener), BrowsingHistory.CONTENT_URI, BrowsingHistory._ID + " = ?", new String[]{Long.toString(id)});
     }
 
     public void deleteAll(AsyncDeleteListener listener) {
+        mVisitRecorder.discard();
+        notifyHistoryDeleted();
         mQueryHandler.startDelete(QueryHandler.SITE_TOKEN, new AsyncDeleteWrapper(-1, listener), BrowsingHistory.CONTENT_URI, "1", null);
     }
 
+    private void notifyHistoryDeleted() {
+        for (VisitListener listener : mVisitListeners) {
+            listener.onHistoryDeleted();
+        }
+    }
+
     public void updateLastEntry(final Site site, final AsyncUpdateListener listener) {
         mQueryHandler.postWorker(new Runnable() {
             @Override
             public void run() {
                 final ContentValues contentValues = QueryHandler.getContentValuesFromSite(site);
-                mQueryHandler.startUpdate(QueryHandler.SITE_TOKEN, listener, BrowsingHistory.CONTENT_URI, contentValues, BrowsingHistory._ID + " = ( SELECT " + BrowsingHistory._ID + " FROM " + HistoryContract.TABLE_NAME + " WHERE " + BrowsingHistory.URL + " = ? ORDER BY " + BrowsingHistory.LAST_VIEW_TIMESTAMP + " DESC)", new String[]{site.getUrl()});
+                mQueryHandler.startUpdate(QueryHandler.SITE_TOKEN, listener, BrowsingHistory.CONTENT_URI, contentValues, BrowsingHistory.URL + " = ?", new String[]{site.getUrl()});
             }
         });
     }
 
-    public void query(int offset, int limit, AsyncQueryListener listener) {
-        mQueryHandler.startQuery(QueryHandler.SITE_TOKEN, listener, Uri.parse(BrowsingHistory.CONTENT_URI.toString() + "?offset=" + offset + "&limit=" + limit), null, null, null, BrowsingHistory.LAST_VIEW_TIMESTAMP + " DESC");
+    /**
+     * Queries the page of history after the given site, most recent first. Pages are keyed by the
+     * last site of the previous one rather than by an offset, so they stay as cheap deep in history
+     * and don't shift when visits are recorded in between.
+     *
+     * @param after the last site of the previous page, or null for the first page
+     */
+    public void query(@Nullable Site after, int limit, AsyncQueryListener listener) {
+        mVisitRecorder.flushSoon();
+        final String selection = after == null ? null : ProviderUtils.getKeysetSelection(BrowsingHistory.LAST_VIEW_TIMESTAMP, BrowsingHistory._ID);
+        final String[] selectionArgs = after == null ? null : ProviderUtils.getKeysetSelectionArgs(after.getLastViewTimestamp(), after.getId());
+        mQueryHandler.startQuery(QueryHandler.SITE_TOKEN, listener, Uri.parse(BrowsingHistory.CONTENT_URI.toString() + "?limit=" + limit), QueryHandler.SITE_PROJECTION, selection, selectionArgs, ProviderUtils.getKeysetOrder(BrowsingHistory.LAST_VIEW_TIMESTAMP, BrowsingHistory._ID));
+    }
+
+    /**
+     * Queries the pages with the given ids, the ones no longer in history are left out.
+     */
+    public void queryByIds(long[] ids, AsyncQueryListener listener) {
+        final StringBuilder selection = new StringBuilder(BrowsingHistory._ID + " IN (");
+        for (int i = 0; i < ids.length; i++) {
+            selection.append(i == 0 ? "" : ",").append(ids[i]);
+        }
+        selection.append(")");
+        mQueryHandler.startQuery(QueryHandler.SITE_TOKEN, listener, BrowsingHistory.CONTENT_URI, QueryHandler.SITE_PROJECTION, selection.toString(), null, null);
     }
 
     public void queryTopSites(int limit, int minViewCount, AsyncQueryListener listener) {
-        mQueryHandler.startQuery(QueryHandler.SITE_TOKEN, listener, Uri.parse(BrowsingHistory.CONTENT_URI.toString() + "?limit=" + limit), null, BrowsingHistory.VIEW_COUNT + " >= ?", new String[]{Integer.toString(minViewCount)}, BrowsingHistory.VIEW_COUNT + " DESC");
+        mVisitRecorder.flushSoon();
+        mQueryHandler.startQuery(QueryHandler.SITE_TOKEN, listener, Uri.parse(BrowsingHistory.CONTENT_URI.toString() + "?limit=" + limit), QueryHandler.SITE_PROJECTION, BrowsingHistory.VIEW_COUNT + " >= ?", new String[]{Integer.toString(minViewCount)}, BrowsingHistory.FRECENCY + " DESC");
     }
 
     private static Site prepareSiteForUpdate(String title, String url, String fileUri) {
@@ -145,7 +221,7 @@ public class BrowsingHistoryManager {
     }
 
     public static void updateHistory(String title, String url, String fileUri) {
-        updateHistory(title, url, fileUri, null);
+        BrowsingHistoryManager.getInstance().mVisitRecorder.recordUpdate(url, title, fileUri);
     }
 
     public static void updateHistory(String title, String url, String fileUri, AsyncUpdateListener callback) {
@@ -0,0 +1,65 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.focus.history;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frecency of a site: its visits, each worth half as much every {@link #HALF_LIFE_DAYS} days.
+ *
+ * The stored score is log(decayed visits) + decay rate * time. All scores then decay at the same
+ * pace, so comparing them at any time gives the same order, and history can be ranked by the
+ * stored column without ever rewriting it. The score only changes when the site is visited.
+ */
+public final class Frecency {
+
+    public static final int HALF_LIFE_DAYS = 30;
+
+    private static final double DECAY_PER_MILLIS = Math.log(2) / TimeUnit.DAYS.toMillis(HALF_LIFE_DAYS);
+
+    private Frecency() {
+    }
+
+    /**
+     * @param frecency the score of the site, 0 if it hasn't been visited
+     * @return the score after a visit at the time
+     */
+    public static double visit(double frecency, long timestamp) {
+        final double origin = DECAY_PER_MILLIS * timestamp;
+        return origin + Math.log1p(Math.exp(frecency - origin));
+    }
+
+    /**
+     * @param frecency the score of the site, 0 if it hasn't been visited
+     * @return the score after a number of visits, all at the time
+     */
+    public static double visit(double frecency, long timestamp, long count) {
+        final double origin = DECAY_PER_MILLIS * timestamp;
+        return origin + Math.log(count + Math.exp(frecency - origin));
+    }
+
+    /**
+     * @return the score of the visits of both scores, like those of the pages of a site
+     */
+    public static double add(double frecency, double other) {
+        final double max = Math.max(frecency, other);
+        return max + Math.log1p(Math.exp(Math.min(frecency, other) - max));
+    }
+
+    /**
+     * @return the score of a site visited a number of times, lastly at the time
+     */
+    public static double of(long visitCount, long lastVisitTimestamp) {
+        return Math.log(Math.max(visitCount, 1)) + DECAY_PER_MILLIS * lastVisitTimestamp;
+    }
+
+    /**
+     * @return the visits of the site at the time, each weighted by how long ago it was
+     */
+    public static double decayedVisits(double frecency, long now) {
+        return Math.exp(frecency - DECAY_PER_MILLIS * now);
+    }
+}
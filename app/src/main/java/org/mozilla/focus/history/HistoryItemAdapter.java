@@ -8,6 +8,8 @@ package org.mozilla.focus.history;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Color;
+import android.net.Uri;
+import android.text.TextUtils;
 import android.text.format.DateUtils;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -15,7 +17,10 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.widget.PopupMenu;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
@@ -28,6 +33,7 @@ import org.mozilla.focus.fragment.ItemClosingPanelFragmentStatusListener;
 import org.mozilla.focus.fragment.PanelFragment;
 import org.mozilla.focus.history.model.DateSection;
 import org.mozilla.focus.history.model.Site;
+import org.mozilla.focus.provider.ChangeBatcher;
 import org.mozilla.focus.provider.QueryHandler;
 import org.mozilla.focus.site.SiteItemViewHolder;
 import org.mozilla.focus.telemetry.TelemetryWrapper;
@@ -36,9 +42,6 @@ import org.mozilla.icon.FavIconUtils;
 import org.mozilla.rocket.chrome.ChromeViewModel;
 import org.mozilla.threadutils.ThreadUtils;
 
-import java.io.File;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
@@ -48,7 +51,7 @@ import java.util.List;
  */
 
 public class HistoryItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> implements View.OnClickListener,
-        QueryHandler.AsyncQueryListener, QueryHandler.AsyncDeleteListener {
+        QueryHandler.AsyncQueryListener, QueryHandler.AsyncDeleteListener, ChangeBatcher.Listener {
 
     private static final int VIEW_TYPE_SITE = 1;
     private static final int VIEW_TYPE_DATE = 2;
@@ -63,7 +66,6 @@ public class HistoryItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
     private boolean mIsInitialQuery;
     private boolean mIsLoading;
     private boolean mIsLastPage;
-    private int mCurrentCount;
 
     public HistoryItemAdapter(RecyclerView recyclerView, Context context, ChromeViewModel chromeViewModel, ItemClosingPanelFragmentStatusListener historyListener) {
         mRecyclerView = recyclerView;
@@ -131,20 +133,6 @@ public class HistoryItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
                     if (menuItem.getItemId() == R.id.browsing_history_menu_delete) {
                         BrowsingHistoryManager.getInstance().delete(item.getId(), HistoryItemAdapter.this);
                         TelemetryWrapper.historyRemoveLink();
-                        // Delete favicon
-                        String uriString = item.getFavIconUri();
-                        if (uriString == null) {
-                            return false;
-                        }
-                        final URI fileUri;
-                        try {
-                            fileUri = new URI(uriString);
-                        } catch (URISyntaxException e) {
-                            e.printStackTrace();
-                            return false;
-                        }
-                        final Runnable runnable = new FileUtils.DeleteFileRunnable(new File(fileUri));
-                        ThreadUtils.postToBackgroundThread(runnable);
                     }
                     return false;
                 });
@@ -231,6 +219,52 @@ public class HistoryItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
         }
     }
 
+    @Override
+    public void onChange(@NonNull Uri uri, @Nullable long[] ids) {
+        // Unknown rows only change by a delete by selection: the deletes of this panel, already
+        // applied by onDeleteComplete, or the oldest pages being pruned.
+        if (ids == null || mIsInitialQuery) {
+            return;
+        }
+        BrowsingHistoryManager.getInstance().queryByIds(ids, result -> applyChanges(ids, result));
+    }
+
+    // The changed pages are taken out and put back in order, unless they come after the pages
+    // loaded so far and are left for the next one. Only the rows which moved or changed are
+    // then updated.
+    private void applyChanges(long[] ids, List result) {
+        final List<Site> sites = new ArrayList<>();
+        for (Object item : mItems) {
+            if (item instanceof Site && !contains(ids, ((Site) item).getId())) {
+                sites.add((Site) item);
+            }
+        }
+        for (Object item : result) {
+            final Site site = (Site) item;
+            int position = 0;
+            while (position < sites.size() && !isBefore(site, sites.get(position))) {
+                position++;
+            }
+            if (position < sites.size() || mIsLastPage) {
+                sites.add(position, site);
+            }
+        }
+
+        final List items = new ArrayList();
+        Site previous = null;
+        for (Site site : sites) {
+            if (previous == null || !isSameDay(previous.getLastViewTimestamp(), site.getLastViewTimestamp())) {
+                items.add(new DateSection(site.getLastViewTimestamp()));
+            }
+            items.add(site);
+            previous = site;
+        }
+        final DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new ItemDiffCallback(mItems, items));
+        mItems = items;
+        diff.dispatchUpdatesTo(this);
+        notifyStatusListener(mItems.isEmpty() ? BrowsingHistoryFragment.VIEW_TYPE_EMPTY : BrowsingHistoryFragment.VIEW_TYPE_NON_EMPTY);
+    }
+
     public void clear() {
         final Runnable runnable = new FileUtils.DeleteFolderRunnable(FileUtils.getFaviconFolder(mContext));
         ThreadUtils.postToBackgroundThread(runnable);
@@ -246,7 +280,6 @@ public class HistoryItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
             mItems.add(item);
             notifyItemRangeInserted(mItems.size() - 2, 2);
         }
-        ++mCurrentCount;
     }
 
     private void remove(int position) {
@@ -264,12 +297,13 @@ public class HistoryItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
             mItems.remove(position - 1);
             notifyItemRangeRemoved(position - 1, 2);
         }
-        --mCurrentCount;
     }
 
     private void loadMoreItems() {
         mIsLoading = true;
-        BrowsingHistoryManager.getInstance().query(mCurrentCount, PAGE_SIZE - (mCurrentCount % PAGE_SIZE), this);
+        // Date sections go before their items, so the last item is always a Site.
+        final Site last = mItems.isEmpty() ? null : (Site) mItems.get(mItems.size() - 1);
+        BrowsingHistoryManager.getInstance().query(last, PAGE_SIZE, this);
     }
 
     private void notifyStatusListener(@PanelFragment.ViewStatus int status) {
@@ -290,6 +324,21 @@ public class HistoryItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
         return -1;
     }
 
+    private static boolean contains(long[] ids, long id) {
+        for (long candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // In the order of the query, most recent first.
+    private static boolean isBefore(Site site, Site other) {
+        return site.getLastViewTimestamp() > other.getLastViewTimestamp()
+                || (site.getLastViewTimestamp() == other.getLastViewTimestamp() && site.getId() > other.getId());
+    }
+
     private static boolean isSameDay(long day1, long day2) {
         Calendar cal1 = Calendar.getInstance();
         Calendar cal2 = Calendar.getInstance();
@@ -298,6 +347,55 @@ public class HistoryItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
         return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) && cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
     }
 
+    private static class ItemDiffCallback extends DiffUtil.Callback {
+
+        private final List oldItems;
+        private final List newItems;
+
+        ItemDiffCallback(List oldItems, List newItems) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            final Object oldItem = oldItems.get(oldItemPosition);
+            final Object newItem = newItems.get(newItemPosition);
+            if (oldItem instanceof Site && newItem instanceof Site) {
+                return ((Site) oldItem).getId() == ((Site) newItem).getId();
+            } else if (oldItem instanceof DateSection && newItem instanceof DateSection) {
+                return isSameDay(((DateSection) oldItem).getTimestamp(), ((DateSection) newItem).getTimestamp());
+            }
+            return false;
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            final Object oldItem = oldItems.get(oldItemPosition);
+            final Object newItem = newItems.get(newItemPosition);
+            if (oldItem instanceof Site) {
+                final Site oldSite = (Site) oldItem;
+                final Site newSite = (Site) newItem;
+                return oldSite.getLastViewTimestamp() == newSite.getLastViewTimestamp()
+                        && TextUtils.equals(oldSite.getTitle(), newSite.getTitle())
+                        && TextUtils.equals(oldSite.getUrl(), newSite.getUrl())
+                        && TextUtils.equals(oldSite.getFavIconUri(), newSite.getFavIconUri());
+            }
+            // A date section only shows its day.
+            return true;
+        }
+    }
+
     private static class DateItemViewHolder extends RecyclerView.ViewHolder {
 
         private TextView textDate;
@@ -0,0 +1,127 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.focus.history;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.os.Handler;
+
+import org.mozilla.focus.provider.HistoryContract.BrowsingHistory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the history writes of the pages being browsed for a moment, so that a burst of them,
+ * like a redirect chain or a single page app navigating, is written in one transaction with one
+ * change notification.
+ *
+ * Visits and updates of the same url are merged into one row of values. They are sent to
+ * {@link org.mozilla.focus.provider.HistoryProvider#bulkInsert} {@link #FLUSH_DELAY_MS} after
+ * the first of them, or right away once {@link #MAX_PENDING} pages are waiting.
+ */
+public class VisitRecorder {
+
+    static final long FLUSH_DELAY_MS = 1000;
+    static final int MAX_PENDING = 32;
+
+    private final ContentResolver resolver;
+    private final Handler handler;
+    private final Map<String, ContentValues> pending = new LinkedHashMap<>();
+    private final Runnable flushRunnable = this::flush;
+    private boolean flushScheduled;
+
+    /**
+     * @param handler the thread writing to the provider, where the flush runs
+     */
+    public VisitRecorder(ContentResolver resolver, Handler handler) {
+        this.resolver = resolver;
+        this.handler = handler;
+    }
+
+    public synchronized void recordVisit(String url, String title, long timestamp) {
+        final ContentValues values = pendingValues(url);
+        final Long visits = values.getAsLong(BrowsingHistory.VIEW_COUNT);
+        values.put(BrowsingHistory.VIEW_COUNT, visits != null ? visits + 1 : 1);
+        final Long lastTimestamp = values.getAsLong(BrowsingHistory.LAST_VIEW_TIMESTAMP);
+        values.put(BrowsingHistory.LAST_VIEW_TIMESTAMP, lastTimestamp != null ? Math.max(lastTimestamp, timestamp) : timestamp);
+        if (title != null) {
+            values.put(BrowsingHistory.TITLE, title);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Sets the title or icon of a page, if it's in history by the time of the flush.
+     */
+    public synchronized void recordUpdate(String url, String title, String favIconUri) {
+        final ContentValues values = pendingValues(url);
+        if (title != null) {
+            values.put(BrowsingHistory.TITLE, title);
+        }
+        if (favIconUri != null) {
+            values.put(BrowsingHistory.FAV_ICON_URI, favIconUri);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Writes what is pending now, on the calling thread.
+     */
+    public void flush() {
+        final ContentValues[] values;
+        synchronized (this) {
+            handler.removeCallbacks(flushRunnable);
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            values = pending.values().toArray(new ContentValues[0]);
+            pending.clear();
+        }
+        resolver.bulkInsert(BrowsingHistory.CONTENT_URI, values);
+    }
+
+    /**
+     * Writes what is pending on the handler thread, before anything posted to it after this call.
+     */
+    public synchronized void flushSoon() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        handler.removeCallbacks(flushRunnable);
+        handler.post(flushRunnable);
+        flushScheduled = true;
+    }
+
+    /**
+     * Drops what is pending, when the history it would be added to is cleared.
+     */
+    public synchronized void discard() {
+        handler.removeCallbacks(flushRunnable);
+        flushScheduled = false;
+        pending.clear();
+    }
+
+    private ContentValues pendingValues(String url) {
+        ContentValues values = pending.get(url);
+        if (values == null) {
+            values = new ContentValues();
+            values.put(BrowsingHistory.URL, url);
+            pending.put(url, values);
+        }
+        return values;
+    }
+
+    private void scheduleFlush() {
+        if (pending.size() >= MAX_PENDING) {
+            flushSoon();
+        } else if (!flushScheduled) {
+            handler.postDelayed(flushRunnable, FLUSH_DELAY_MS);
+            flushScheduled = true;
+        }
+    }
+}
@@ -15,7 +15,8 @@ import androidx.annotation.NonNull;
 
 import org.mozilla.focus.utils.AppConstants;
 
-@Entity(tableName = "browsing_history", indices = {@Index("view_count")})
+@Entity(tableName = "browsing_history", indices = {@Index("view_count"), @Index("frecency"), @Index("last_view_timestamp"),
+        @Index(value = "url", unique = true)})
 public class Site {
 
     public Site(long id, String title, @NonNull String url, long viewCount, long lastViewTimestamp, String favIconUri) {
@@ -49,6 +50,9 @@ public class Site {
     @ColumnInfo(name = "fav_icon_uri")
     private String favIconUri;
 
+    @ColumnInfo(defaultValue = "0")
+    private double frecency;
+
     public long getId() {
         return this.id;
     }
@@ -98,6 +102,17 @@ public class Site {
         this.favIconUri = favIconUri;
     }
 
+    /**
+     * @see org.mozilla.focus.history.Frecency
+     */
+    public double getFrecency() {
+        return frecency;
+    }
+
+    public void setFrecency(double frecency) {
+        this.frecency = frecency;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof Site && ((Site) obj).getId() == this.getId();
@@ -24,13 +24,15 @@ import kotlinx.coroutines.launch
 import mozilla.components.concept.fetch.MutableHeaders
 import mozilla.components.concept.fetch.Request
 import mozilla.components.concept.fetch.interceptor.withInterceptors
-import mozilla.components.lib.fetch.httpurlconnection.HttpURLConnectionClient
 import org.mozilla.focus.telemetry.TelemetryWrapper
 import org.mozilla.focus.telemetry.TelemetryWrapper.isTelemetryEnabled
 import org.mozilla.focus.utils.FirebaseHelper
 import org.mozilla.focus.utils.IntentUtils
 import org.mozilla.focus.utils.Settings
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler.Priority
 import org.mozilla.rocket.msrp.data.LoggingInterceptor
+import org.mozilla.rocket.network.FetchClient
 import org.mozilla.telemetry.TelemetryHolder
 import org.mozilla.threadutils.ThreadUtils
 import java.io.IOException
@@ -306,7 +308,7 @@ class RocketMessagingService : FirebaseMessagingServiceWrapper() {
             )
             try {
 
-                HttpURLConnectionClient()
+                FetchClient.scheduled(Priority.BACKGROUND, Family.CONFIG)
                         .withInterceptors(LoggingInterceptor())
                         .fetch(request).use {
                             if (it.status == 200) {
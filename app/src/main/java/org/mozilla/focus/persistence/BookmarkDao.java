@@ -37,6 +37,7 @@ public interface BookmarkDao {
     @Query("DELETE FROM bookmarks")
     void deleteAllBookmarks();
 
-    @Query("SELECT * FROM bookmarks WHERE LOWER(title) LIKE :text LIMIT :bookmarksSuggestionLimit")
-    List<BookmarkModel> queryBookmarksByText(String text, int bookmarksSuggestionLimit);
+    @Query("SELECT bookmarks.* FROM bookmarks JOIN bookmarks_fts ON bookmarks.rowid = bookmarks_fts.rowid " +
+            "WHERE bookmarks_fts MATCH :query LIMIT :bookmarksSuggestionLimit")
+    List<BookmarkModel> queryBookmarksByText(String query, int bookmarksSuggestionLimit);
 }
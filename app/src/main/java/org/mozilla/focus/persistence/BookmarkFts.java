@@ -0,0 +1,31 @@
+package org.mozilla.focus.persistence;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the title and url of bookmarks. The rows live in bookmarks, and Room
+ * keeps the index in sync with triggers on it.
+ */
+@Fts4(contentEntity = BookmarkModel.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "bookmarks_fts")
+public class BookmarkFts {
+
+    private String title;
+
+    private String url;
+
+    public BookmarkFts(String title, String url) {
+        this.title = title;
+        this.url = url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+}
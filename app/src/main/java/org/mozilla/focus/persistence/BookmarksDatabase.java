@@ -3,10 +3,14 @@ package org.mozilla.focus.persistence;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 import android.content.Context;
 import androidx.annotation.NonNull;
 
-@Database(entities = {BookmarkModel.class}, version = 1)
+import org.mozilla.rocket.persistance.DatabaseConfig;
+
+@Database(entities = {BookmarkModel.class, BookmarkFts.class}, version = 2)
 public abstract class BookmarksDatabase extends RoomDatabase {
 
     private static volatile BookmarksDatabase instance;
@@ -17,12 +21,27 @@ public abstract class BookmarksDatabase extends RoomDatabase {
         if (instance == null) {
             synchronized (BookmarksDatabase.class) {
                 if (instance == null) {
-                    instance = Room.databaseBuilder(context.getApplicationContext(),
-                            BookmarksDatabase.class, "bookmarks.db")
+                    instance = DatabaseConfig.configure(context, Room.databaseBuilder(context.getApplicationContext(),
+                            BookmarksDatabase.class, "bookmarks.db"))
+                            .addMigrations(MIGRATION_1_2)
                             .build();
                 }
             }
         }
         return instance;
     }
+
+    private static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+
+        private static final String CREATE_FTS_TABLE = "CREATE VIRTUAL TABLE IF NOT EXISTS `bookmarks_fts` " +
+                "USING FTS4(`title` TEXT, `url` TEXT, tokenize=unicode61, content=`bookmarks`)";
+
+        // Room adds the triggers keeping the index in sync once the migration is done, the
+        // existing rows are indexed here.
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL(CREATE_FTS_TABLE);
+            database.execSQL("INSERT INTO `bookmarks_fts`(`bookmarks_fts`) VALUES('rebuild')");
+        }
+    };
 }
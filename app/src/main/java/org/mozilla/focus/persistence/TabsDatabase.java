@@ -8,14 +8,16 @@ import androidx.room.migration.Migration;
 import android.content.Context;
 import androidx.annotation.NonNull;
 
+import org.mozilla.rocket.persistance.DatabaseConfig;
+
 @Database(entities = {TabEntity.class}, version = 2)
 public abstract class TabsDatabase extends RoomDatabase {
 
     public abstract TabDao tabDao();
 
     public static TabsDatabase create(@NonNull Context context) {
-        return Room.databaseBuilder(context.getApplicationContext(),
-                TabsDatabase.class, "tabs.db")
+        return DatabaseConfig.configure(context, Room.databaseBuilder(context.getApplicationContext(),
+                TabsDatabase.class, "tabs.db"))
                 .addMigrations(MIGRATION_1_2)
                 .build();
     }
@@ -0,0 +1,202 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.focus.provider;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notifies the observers of a provider's content uri once per frame, whatever the number of rows
+ * changed in between, so a burst of writes costs one requery instead of one per write.
+ *
+ * The changes made between {@link #beginBatch()} and {@link #endBatch(boolean)} on a thread, like
+ * the rows of a transaction, are only counted when it ends, and dropped if it failed.
+ *
+ * Listeners in the app process can also get the ids of the rows changed, see
+ * {@link #addListener(Uri, Listener)}.
+ */
+public class ChangeBatcher {
+
+    public interface Listener {
+        /**
+         * @param ids the rows changed since the last call, or null if unknown rows changed
+         */
+        void onChange(@NonNull Uri uri, @Nullable long[] ids);
+    }
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static final Map<Uri, List<Listener>> sListeners = new HashMap<>();
+
+    private final ContentResolver mResolver;
+    private final Uri mUri;
+    private final ThreadLocal<Changes> mBatch = new ThreadLocal<>();
+
+    // Guarded by this.
+    private Changes mPending = new Changes();
+    private boolean mScheduled;
+
+    public ChangeBatcher(@NonNull ContentResolver resolver, @NonNull Uri uri) {
+        mResolver = resolver;
+        mUri = uri;
+    }
+
+    public static void addListener(@NonNull Uri uri, @NonNull Listener listener) {
+        synchronized (sListeners) {
+            List<Listener> listeners = sListeners.get(uri);
+            if (listeners == null) {
+                listeners = new ArrayList<>();
+                sListeners.put(uri, listeners);
+            }
+            listeners.add(listener);
+        }
+    }
+
+    public static void removeListener(@NonNull Uri uri, @NonNull Listener listener) {
+        synchronized (sListeners) {
+            final List<Listener> listeners = sListeners.get(uri);
+            if (listeners != null && listeners.remove(listener) && listeners.isEmpty()) {
+                sListeners.remove(uri);
+            }
+        }
+    }
+
+    public void beginBatch() {
+        if (mBatch.get() != null) {
+            throw new IllegalStateException("Batch already begun on this thread");
+        }
+        mBatch.set(new Changes());
+    }
+
+    public void endBatch(boolean successful) {
+        final Changes batch = mBatch.get();
+        if (batch == null) {
+            throw new IllegalStateException("No batch begun on this thread");
+        }
+        mBatch.remove();
+        if (successful && !batch.isEmpty()) {
+            synchronized (this) {
+                mPending.addAll(batch);
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Records a change to the row with the id.
+     */
+    public void onChange(long id) {
+        final Changes batch = mBatch.get();
+        if (batch != null) {
+            batch.add(id);
+            return;
+        }
+        synchronized (this) {
+            mPending.add(id);
+            schedule();
+        }
+    }
+
+    /**
+     * Records a change to rows whose ids aren't known, like a delete by selection.
+     */
+    public void onChange() {
+        final Changes batch = mBatch.get();
+        if (batch != null) {
+            batch.unknownRows = true;
+            return;
+        }
+        synchronized (this) {
+            mPending.unknownRows = true;
+            schedule();
+        }
+    }
+
+    // Choreographer needs a looper, so the frame callback is posted from the main thread.
+    private void schedule() {
+        if (!mScheduled) {
+            mScheduled = true;
+            sMainHandler.post(mPostFrameCallback);
+        }
+    }
+
+    private final Runnable mPostFrameCallback = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    };
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            deliver();
+        }
+    };
+
+    private void deliver() {
+        final Changes changes;
+        synchronized (this) {
+            changes = mPending;
+            mPending = new Changes();
+            mScheduled = false;
+        }
+
+        mResolver.notifyChange(mUri, null);
+
+        final Listener[] listeners;
+        synchronized (sListeners) {
+            final List<Listener> uriListeners = sListeners.get(mUri);
+            if (uriListeners == null) {
+                return;
+            }
+            listeners = uriListeners.toArray(new Listener[0]);
+        }
+        final long[] ids = changes.unknownRows ? null : changes.toIds();
+        for (Listener listener : listeners) {
+            listener.onChange(mUri, ids);
+        }
+    }
+
+    private static final class Changes {
+        final LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        boolean unknownRows;
+
+        void add(long id) {
+            ids.add(id);
+        }
+
+        void addAll(Changes changes) {
+            ids.addAll(changes.ids);
+            unknownRows |= changes.unknownRows;
+        }
+
+        boolean isEmpty() {
+            return ids.isEmpty() && !unknownRows;
+        }
+
+        long[] toIds() {
+            final long[] array = new long[ids.size()];
+            final Iterator<Long> iterator = ids.iterator();
+            for (int i = 0; i < array.length; i++) {
+                array[i] = iterator.next();
+            }
+            return array;
+        }
+    }
+}
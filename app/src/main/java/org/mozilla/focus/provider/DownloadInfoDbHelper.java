@@ -10,6 +10,8 @@ import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
+import org.mozilla.rocket.persistance.DatabaseConfig;
+
 import static org.mozilla.focus.provider.DownloadContract.Download;
 
 /**
@@ -32,6 +34,12 @@ public class DownloadInfoDbHelper {
 
         public OpenHelper(Context context, String name, SQLiteDatabase.CursorFactory factory, int version) {
             super(context, name, factory, version);
+            DatabaseConfig.configure(context, this);
+        }
+
+        @Override
+        public void onOpen(SQLiteDatabase db) {
+            DatabaseConfig.onOpen(db);
         }
 
         @Override
@@ -31,10 +31,12 @@ public class DownloadInfoProvider extends ContentProvider {
     }
 
     private DownloadInfoDbHelper mDbHelper;
+    private ChangeBatcher mChangeBatcher;
 
     @Override
     public boolean onCreate() {
         mDbHelper = DownloadInfoDbHelper.getsInstance(getContext());
+        mChangeBatcher = new ChangeBatcher(getContext().getContentResolver(), Download.CONTENT_URI);
         return true;
     }
 
@@ -85,7 +87,7 @@ public class DownloadInfoProvider extends ContentProvider {
 
         Uri uriWithId;
         if (id > 0) {
-            notifyChange();
+            mChangeBatcher.onChange(id);
             uriWithId = ContentUris.withAppendedId(uri, id);
         } else {
             uriWithId = null;
@@ -107,7 +109,7 @@ public class DownloadInfoProvider extends ContentProvider {
         }
 
         if (count > 0) {
-            notifyChange();
+            mChangeBatcher.onChange();
         }
         return count;
     }
@@ -125,16 +127,12 @@ public class DownloadInfoProvider extends ContentProvider {
         }
 
         if (count > 0) {
-            notifyChange();
+            mChangeBatcher.onChange();
         }
 
         return count;
     }
 
-    private void notifyChange() {
-        getContext().getContentResolver().notifyChange(Download.CONTENT_URI, null);
-    }
-
     private String getLimitParam(String offset, String limit) {
         return (limit == null) ? null : (offset == null) ? limit : offset + "," + limit;
     }
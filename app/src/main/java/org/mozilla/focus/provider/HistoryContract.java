@@ -37,5 +37,7 @@ public class HistoryContract {
         public static final String FAV_ICON = "fav_icon";
         // v2
         public static final String FAV_ICON_URI = "fav_icon_uri";
+        // v5
+        public static final String FRECENCY = "frecency";
     }
 }
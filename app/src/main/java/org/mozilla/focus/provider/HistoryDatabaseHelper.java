@@ -22,9 +22,6 @@ public class HistoryDatabaseHelper {
 
     private static final String DROP_TABLE_IF_EXISTS = "DROP TABLE IF EXISTS ";
     private static final String CREATE_TABLE_IF_NOT_EXISTS = "CREATE TABLE IF NOT EXISTS ";
-    private static final String DROP_TRIGGER_IF_EXISTS = "DROP TRIGGER IF EXISTS ";
-    private static final String CREATE_TRIGGER_IF_NOT_EXISTS = "CREATE TRIGGER IF NOT EXISTS ";
-    private static final int HISTORY_LIMIT = 2000;
 
     private static HistoryDatabaseHelper sInstacne;
 
@@ -52,19 +49,6 @@ public class HistoryDatabaseHelper {
                     BrowsingHistory.LAST_VIEW_TIMESTAMP + " INTEGER NOT NULL," +
                     BrowsingHistory.FAV_ICON + " BLOB" +
                     ");");
-
-            db.execSQL(DROP_TRIGGER_IF_EXISTS + Tables.BROWSING_HISTORY + "_inserted;");
-            db.execSQL(CREATE_TRIGGER_IF_NOT_EXISTS + Tables.BROWSING_HISTORY + "_inserted " +
-                    "   AFTER INSERT ON " + Tables.BROWSING_HISTORY +
-                    " WHEN (SELECT count() FROM " + Tables.BROWSING_HISTORY + ") > " + HISTORY_LIMIT +
-                    " BEGIN " +
-                    "   DELETE FROM " + Tables.BROWSING_HISTORY +
-                    "     WHERE " + BrowsingHistory._ID + " = " +
-                    "(SELECT " + BrowsingHistory._ID +
-                    " FROM " + Tables.BROWSING_HISTORY +
-                    " ORDER BY " + BrowsingHistory.LAST_VIEW_TIMESTAMP +
-                    " LIMIT 1);" +
-                    " END");
         }
 
         @Override
@@ -18,10 +18,16 @@ import android.database.Cursor;
 import android.net.Uri;
 import androidx.annotation.NonNull;
 
+import org.mozilla.focus.history.Frecency;
 import org.mozilla.focus.provider.HistoryContract.BrowsingHistory;
 import org.mozilla.focus.provider.HistoryDatabaseHelper.Tables;
 import org.mozilla.focus.utils.ProviderUtils;
 import org.mozilla.rocket.persistance.History.HistoryDatabase;
+import org.mozilla.rocket.persistance.History.HistoryPruneWorker;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 public class HistoryProvider extends ContentProvider {
 
@@ -33,10 +39,12 @@ public class HistoryProvider extends ContentProvider {
     }
 
     private SupportSQLiteOpenHelper mDbHelper;
+    private ChangeBatcher mChangeBatcher;
 
     @Override
     public boolean onCreate() {
         mDbHelper = HistoryDatabase.getInstance(getContext()).getOpenHelper();
+        mChangeBatcher = new ChangeBatcher(getContext().getContentResolver(), BrowsingHistory.CONTENT_URI);
         return true;
     }
 
@@ -46,14 +54,16 @@ public class HistoryProvider extends ContentProvider {
         int count;
         switch (sUriMatcher.match(uri)) {
             case BROWSING_HISTORY:
+                final List<String> favIconUris = queryFavIconUris(db, selection, selectionArgs);
                 count = db.delete(Tables.BROWSING_HISTORY, selection, selectionArgs);
+                deleteUnusedFavIcons(db, favIconUris);
                 break;
             default:
                 throw new UnsupportedOperationException("URI: " + uri);
         }
 
         if (count > 0) {
-            notifyBrowsingHistoryChange();
+            mChangeBatcher.onChange();
         }
         return count;
     }
@@ -76,6 +86,9 @@ public class HistoryProvider extends ContentProvider {
             case BROWSING_HISTORY:
                 final ContentValues values = new ContentValues(initialValues);
                 id = insertWithUrlUnique(db, values);
+                if (id >= 0) {
+                    HistoryPruneWorker.pruneIfNeeded(getContext(), HistoryDatabase.getRowCount(db));
+                }
                 break;
             default:
                 throw new UnsupportedOperationException("URI: " + uri);
@@ -84,11 +97,48 @@ public class HistoryProvider extends ContentProvider {
         if (id < 0) {
             return null;
         } else {
-            notifyBrowsingHistoryChange();
+            mChangeBatcher.onChange(id);
             return ContentUris.withAppendedId(uri, id);
         }
     }
 
+    /**
+     * Writes the visits and updates of a batch of pages in one transaction, with one change
+     * notification. See {@link #upsert(SupportSQLiteDatabase, ContentValues)} for the values.
+     *
+     * @return the number of pages written
+     */
+    @Override
+    public int bulkInsert(@NonNull Uri uri, @NonNull ContentValues[] values) {
+        if (sUriMatcher.match(uri) != BROWSING_HISTORY) {
+            throw new UnsupportedOperationException("URI: " + uri);
+        }
+        final SupportSQLiteDatabase db = mDbHelper.getWritableDatabase();
+        int count = 0;
+        boolean successful = false;
+        mChangeBatcher.beginBatch();
+        db.beginTransaction();
+        try {
+            for (ContentValues value : values) {
+                final long id = upsert(db, new ContentValues(value));
+                if (id >= 0) {
+                    count++;
+                    mChangeBatcher.onChange(id);
+                }
+            }
+            db.setTransactionSuccessful();
+            successful = true;
+        } finally {
+            db.endTransaction();
+            mChangeBatcher.endBatch(successful);
+        }
+
+        if (count > 0) {
+            HistoryPruneWorker.pruneIfNeeded(getContext(), HistoryDatabase.getRowCount(db));
+        }
+        return count;
+    }
+
     @Override
     public Cursor query(@NonNull Uri uri, String[] projection, String selection,
                         String[] selectionArgs, String sortOrder) {
@@ -117,11 +167,43 @@ public class HistoryProvider extends ContentProvider {
         final int count = db.update(Tables.BROWSING_HISTORY, OnConflictStrategy.ROLLBACK, values, selection, selectionArgs);
 
         if (count > 0) {
-            notifyBrowsingHistoryChange();
+            mChangeBatcher.onChange();
         }
         return count;
     }
 
+    /**
+     * Values with a {@link BrowsingHistory#LAST_VIEW_TIMESTAMP} are visits, see
+     * {@link #insertWithUrlUnique(SupportSQLiteDatabase, ContentValues)}. The others only update
+     * the page with the url, if it's in history.
+     *
+     * @return the id of the page written, or -1 if none was
+     */
+    private long upsert(SupportSQLiteDatabase db, ContentValues values) {
+        if (values.containsKey(BrowsingHistory.LAST_VIEW_TIMESTAMP)) {
+            return insertWithUrlUnique(db, values);
+        }
+        // The id is looked up first so observers learn which row changed.
+        final SupportSQLiteQuery query = SupportSQLiteQueryBuilder.builder(Tables.BROWSING_HISTORY)
+                .columns(new String[]{BrowsingHistory._ID})
+                .selection(BrowsingHistory.URL + " = ?", new String[]{values.getAsString(BrowsingHistory.URL)})
+                .create();
+        final long id;
+        try (Cursor c = db.query(query)) {
+            if (!c.moveToFirst()) {
+                return -1;
+            }
+            id = c.getLong(0);
+        }
+        final int count = db.update(Tables.BROWSING_HISTORY, OnConflictStrategy.ROLLBACK, values,
+                BrowsingHistory._ID + " = ?", new String[]{Long.toString(id)});
+        return count > 0 ? id : -1;
+    }
+
+    /**
+     * Adds visits to the page with the url, or a new page. {@link BrowsingHistory#VIEW_COUNT} is
+     * the number of visits, 1 if it's missing.
+     */
     private long insertWithUrlUnique(SupportSQLiteDatabase db, ContentValues values) {
         long id = -1;
         Cursor c = null;
@@ -135,14 +217,20 @@ public class HistoryProvider extends ContentProvider {
                     .create();
             c = db.query(query);
             if (c != null) {
+                final Long timestamp = values.getAsLong(BrowsingHistory.LAST_VIEW_TIMESTAMP);
+                final long visitTime = timestamp != null ? timestamp : System.currentTimeMillis();
+                final Long visits = values.getAsLong(BrowsingHistory.VIEW_COUNT);
+                final long visitCount = visits != null ? visits : 1;
                 if (c.moveToFirst()) {
                     id = c.getLong(c.getColumnIndex(BrowsingHistory._ID));
-                    values.put(BrowsingHistory.VIEW_COUNT, c.getLong((c.getColumnIndex(BrowsingHistory.VIEW_COUNT))) + 1);
+                    values.put(BrowsingHistory.VIEW_COUNT, c.getLong((c.getColumnIndex(BrowsingHistory.VIEW_COUNT))) + visitCount);
+                    values.put(BrowsingHistory.FRECENCY, Frecency.visit(c.getDouble(c.getColumnIndex(BrowsingHistory.FRECENCY)), visitTime, visitCount));
                     if (db.update(Tables.BROWSING_HISTORY, OnConflictStrategy.ROLLBACK, values, BrowsingHistory._ID + " = ?", new String[]{Long.toString(id)}) == 0) {
                         id = -1;
                     }
                 } else {
-                    values.put(BrowsingHistory.VIEW_COUNT, 1);
+                    values.put(BrowsingHistory.VIEW_COUNT, visitCount);
+                    values.put(BrowsingHistory.FRECENCY, Frecency.visit(0, visitTime, visitCount));
                     id = db.insert(Tables.BROWSING_HISTORY, OnConflictStrategy.ROLLBACK, values);
                 }
             }
@@ -154,7 +242,41 @@ public class HistoryProvider extends ContentProvider {
         }
     }
 
-    private void notifyBrowsingHistoryChange() {
-        getContext().getContentResolver().notifyChange(BrowsingHistory.CONTENT_URI, null);
+    private List<String> queryFavIconUris(SupportSQLiteDatabase db, String selection, String[] selectionArgs) {
+        final List<String> uris = new ArrayList<>();
+        final SupportSQLiteQuery query = SupportSQLiteQueryBuilder.builder(Tables.BROWSING_HISTORY)
+                .distinct()
+                .columns(new String[]{BrowsingHistory.FAV_ICON_URI})
+                .selection(selection, selectionArgs)
+                .create();
+        try (Cursor c = db.query(query)) {
+            while (c.moveToNext()) {
+                if (!c.isNull(0)) {
+                    uris.add(c.getString(0));
+                }
+            }
+        }
+        return uris;
+    }
+
+    // Icons are stored once for all the pages showing them, see FavIconUtils#saveBitmapToDirectory,
+    // so a file goes only with the last page using it.
+    private void deleteUnusedFavIcons(SupportSQLiteDatabase db, List<String> favIconUris) {
+        for (String uri : favIconUris) {
+            final SupportSQLiteQuery query = SupportSQLiteQueryBuilder.builder(Tables.BROWSING_HISTORY)
+                    .columns(new String[]{BrowsingHistory._ID})
+                    .selection(BrowsingHistory.FAV_ICON_URI + " = ?", new String[]{uri})
+                    .limit("1")
+                    .create();
+            try (Cursor c = db.query(query)) {
+                if (c.moveToFirst()) {
+                    continue;
+                }
+            }
+            final Uri fileUri = Uri.parse(uri);
+            if ("file".equals(fileUri.getScheme()) && fileUri.getPath() != null) {
+                new File(fileUri.getPath()).delete();
+            }
+        }
     }
 }
@@ -32,7 +32,21 @@ public class QueryHandler extends AsyncQueryHandler {
     public static final int SITE_TOKEN = 1;
     public static final int SCREENSHOT_TOKEN = 2;
     public static final long LONG_NO_VALUE = 0;
+    public static final double DOUBLE_NO_VALUE = 0;
     public static final Object OBJECT_NO_VALUE = null;
+
+    /**
+     * The columns read by {@link #cursorToSite(Cursor)}, for queries to project only what they use.
+     */
+    public static final String[] SITE_PROJECTION = {
+            HistoryContract.BrowsingHistory._ID,
+            HistoryContract.BrowsingHistory.TITLE,
+            HistoryContract.BrowsingHistory.URL,
+            HistoryContract.BrowsingHistory.VIEW_COUNT,
+            HistoryContract.BrowsingHistory.LAST_VIEW_TIMESTAMP,
+            HistoryContract.BrowsingHistory.FAV_ICON_URI
+    };
+
     private Handler mWorkerHandler;
 
     public static final class AsyncDeleteWrapper {
@@ -76,6 +90,10 @@ public class QueryHandler extends AsyncQueryHandler {
         mWorkerHandler.post(r);
     }
 
+    public Handler getWorkerHandler() {
+        return mWorkerHandler;
+    }
+
     @Override
     protected void onInsertComplete(int token, Object cookie, Uri uri) {
         switch (token) {
@@ -169,6 +187,9 @@ public class QueryHandler extends AsyncQueryHandler {
         if (site.getFavIconUri() != OBJECT_NO_VALUE) {
             values.put(HistoryContract.BrowsingHistory.FAV_ICON_URI, site.getFavIconUri());
         }
+        if (site.getFrecency() != DOUBLE_NO_VALUE) {
+            values.put(HistoryContract.BrowsingHistory.FRECENCY, site.getFrecency());
+        }
         return values;
     }
 
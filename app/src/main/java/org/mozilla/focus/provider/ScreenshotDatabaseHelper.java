@@ -9,6 +9,8 @@ import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
+import org.mozilla.rocket.persistance.DatabaseConfig;
+
 import org.mozilla.focus.provider.ScreenshotContract.Screenshot;
 
 /**
@@ -17,13 +19,14 @@ import org.mozilla.focus.provider.ScreenshotContract.Screenshot;
 
 public class ScreenshotDatabaseHelper {
 
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 2;
     private static final String DATABASE_NAME = "screenshot.db";
 
     private static final String DROP_TABLE_IF_EXISTS = "DROP TABLE IF EXISTS ";
     private static final String CREATE_TABLE_IF_NOT_EXISTS = "CREATE TABLE IF NOT EXISTS ";
     private static final String DROP_TRIGGER_IF_EXISTS = "DROP TRIGGER IF EXISTS ";
     private static final String CREATE_TRIGGER_IF_NOT_EXISTS = "CREATE TRIGGER IF NOT EXISTS ";
+    private static final String CREATE_INDEX_IF_NOT_EXISTS = "CREATE INDEX IF NOT EXISTS ";
     private static final int SCREENSHOT_LIMIT = 2000;
 
     private static ScreenshotDatabaseHelper sInstacne;
@@ -38,6 +41,12 @@ public class ScreenshotDatabaseHelper {
 
         public OpenHelper(Context context, String name, SQLiteDatabase.CursorFactory factory, int version) {
             super(context, name, factory, version);
+            DatabaseConfig.configure(context, this);
+        }
+
+        @Override
+        public void onOpen(SQLiteDatabase db) {
+            DatabaseConfig.onOpen(db);
         }
 
         @Override
@@ -63,11 +72,21 @@ public class ScreenshotDatabaseHelper {
                     " ORDER BY " + Screenshot.TIMESTAMP +
                     " LIMIT 1);" +
                     " END");
+
+            createTimestampIndex(db);
         }
 
         @Override
         public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            if (oldVersion < 2) {
+                createTimestampIndex(db);
+            }
+        }
 
+        // Serves the pages of ScreenshotManager.query() and the oldest screenshot to the trigger.
+        private static void createTimestampIndex(SQLiteDatabase db) {
+            db.execSQL(CREATE_INDEX_IF_NOT_EXISTS + "index_" + Tables.SCREENSHOT + "_" + Screenshot.TIMESTAMP +
+                    " ON " + Tables.SCREENSHOT + " (" + Screenshot.TIMESTAMP + ")");
         }
     }
 
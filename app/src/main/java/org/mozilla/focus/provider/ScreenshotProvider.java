@@ -32,10 +32,12 @@ public class ScreenshotProvider extends ContentProvider {
     }
 
     private ScreenshotDatabaseHelper mDbHelper;
+    private ChangeBatcher mChangeBatcher;
 
     @Override
     public boolean onCreate() {
         mDbHelper = ScreenshotDatabaseHelper.getsInstacne(getContext());
+        mChangeBatcher = new ChangeBatcher(getContext().getContentResolver(), Screenshot.CONTENT_URI);
         return true;
     }
 
@@ -80,7 +82,7 @@ public class ScreenshotProvider extends ContentProvider {
         if (id < 0) {
             return null;
         } else {
-            notifyScreenshotChange();
+            mChangeBatcher.onChange(id);
             return ContentUris.withAppendedId(uri, id);
         }
     }
@@ -118,8 +120,4 @@ public class ScreenshotProvider extends ContentProvider {
 
         return count;
     }
-
-    private void notifyScreenshotChange() {
-        getContext().getContentResolver().notifyChange(ScreenshotContract.Screenshot.CONTENT_URI, null);
-    }
 }
@@ -5,8 +5,10 @@ import androidx.lifecycle.LiveData;
 import org.jetbrains.annotations.NotNull;
 import org.mozilla.focus.persistence.BookmarkModel;
 import org.mozilla.focus.persistence.BookmarksDatabase;
+import org.mozilla.rocket.persistance.FtsQuery;
 import org.mozilla.threadutils.ThreadUtils;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -62,7 +64,11 @@ public class BookmarkRepository {
     }
 
     @NotNull
-    public List<BookmarkModel>  searchBookmarks(@NotNull String text, int bookmarksSuggestionLimit) {
-        return bookmarksDatabase.bookmarkDao().queryBookmarksByText(text, bookmarksSuggestionLimit);
+    public List<BookmarkModel> searchBookmarks(@NotNull String text, int bookmarksSuggestionLimit) {
+        final String query = FtsQuery.prefixMatch(text);
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        return bookmarksDatabase.bookmarkDao().queryBookmarksByText(query, bookmarksSuggestionLimit);
     }
 }
@@ -48,7 +48,6 @@ public class ScreenshotItemAdapter extends RecyclerView.Adapter<RecyclerView.Vie
     private boolean mIsInitialQuery;
     private boolean mIsLoading;
     private boolean mIsLastPage;
-    private int mCurrentCount;
 
     public ScreenshotItemAdapter(RecyclerView recyclerView, Activity activity, PanelFragmentStatusListener statusListener, GridLayoutManager layoutManager) {
         mRecyclerView = recyclerView;
@@ -182,7 +181,6 @@ public class ScreenshotItemAdapter extends RecyclerView.Adapter<RecyclerView.Vie
             mItems.add(item);
             notifyItemRangeInserted(mItems.size() - 2, 2);
         }
-        ++mCurrentCount;
     }
 
     private void remove(int position) {
@@ -200,12 +198,13 @@ public class ScreenshotItemAdapter extends RecyclerView.Adapter<RecyclerView.Vie
             mItems.remove(position - 1);
             notifyItemRangeRemoved(position - 1, 2);
         }
-        --mCurrentCount;
     }
 
     private void loadMoreItems() {
         mIsLoading = true;
-        ScreenshotManager.getInstance().query(mCurrentCount, PAGE_SIZE - (mCurrentCount % PAGE_SIZE), this);
+        // Date sections go before their items, so the last item is always a Screenshot.
+        final Screenshot last = mItems.isEmpty() ? null : (Screenshot) mItems.get(mItems.size() - 1);
+        ScreenshotManager.getInstance().query(last, PAGE_SIZE, this);
     }
 
     private void notifyStatusListener(@PanelFragment.ViewStatus int status) {
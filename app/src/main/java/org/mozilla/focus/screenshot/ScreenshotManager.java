@@ -10,6 +10,7 @@ import android.net.Uri;
 import android.text.TextUtils;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 import androidx.core.util.Pair;
@@ -29,6 +30,7 @@ import org.mozilla.focus.provider.QueryHandler.AsyncUpdateListener;
 import org.mozilla.focus.provider.ScreenshotContract.Screenshot;
 import org.mozilla.focus.utils.AppConfigWrapper;
 import org.mozilla.focus.utils.IOUtils;
+import org.mozilla.focus.utils.ProviderUtils;
 import org.mozilla.focus.web.WebViewProvider;
 import org.mozilla.threadutils.ThreadUtils;
 import org.mozilla.urlutils.UrlUtils;
@@ -93,8 +95,15 @@ public class ScreenshotManager {
         mQueryHandler.startUpdate(QueryHandler.SCREENSHOT_TOKEN, listener, Screenshot.CONTENT_URI, QueryHandler.getContentValuesFromScreenshot(screenshot), Screenshot._ID + " = ?", new String[]{Long.toString(screenshot.getId())});
     }
 
-    public void query(int offset, int limit, AsyncQueryListener listener) {
-        mQueryHandler.startQuery(QueryHandler.SCREENSHOT_TOKEN, listener, Uri.parse(Screenshot.CONTENT_URI.toString() + "?offset=" + offset + "&limit=" + limit), null, null, null, Screenshot.TIMESTAMP + " DESC");
+    /**
+     * Queries the page of screenshots after the given one, most recent first.
+     *
+     * @param after the last screenshot of the previous page, or null for the first page
+     */
+    public void query(@Nullable org.mozilla.focus.screenshot.model.Screenshot after, int limit, AsyncQueryListener listener) {
+        final String selection = after == null ? null : ProviderUtils.getKeysetSelection(Screenshot.TIMESTAMP, Screenshot._ID);
+        final String[] selectionArgs = after == null ? null : ProviderUtils.getKeysetSelectionArgs(after.getTimestamp(), after.getId());
+        mQueryHandler.startQuery(QueryHandler.SCREENSHOT_TOKEN, listener, Uri.parse(Screenshot.CONTENT_URI.toString() + "?limit=" + limit), null, selection, selectionArgs, ProviderUtils.getKeysetOrder(Screenshot.TIMESTAMP, Screenshot._ID));
     }
 
     @WorkerThread
@@ -96,7 +96,7 @@ internal class TabsSessionModel(private val sessionManager: SessionManager) : Ta
                     observer.onTabUpdate(session)
                 }
 
-                override fun onSessionCountChanged(count: Int) {
+                override fun onSessionsChanged(changes: SessionManager.ChangeSet) {
                     observer.onUpdate(sessionManager.getTabs())
                 }
 
@@ -134,10 +134,12 @@ internal class TabsSessionModel(private val sessionManager: SessionManager) : Ta
             session?.let { onTabModelChanged(it) }
         }
 
-        override fun onFocusChanged(session: Session?, factor: SessionManager.Factor) {
-            this.session?.let { it.unregister(this) }
-            this.session = session
-            this.session?.let { it.register(this) }
+        override fun onSessionsChanged(changes: SessionManager.ChangeSet) {
+            if (changes.isFocusChanged) {
+                this.session?.let { it.unregister(this) }
+                this.session = changes.focus
+                this.session?.let { it.register(this) }
+            }
         }
 
         internal abstract fun onTabModelChanged(session: Session)
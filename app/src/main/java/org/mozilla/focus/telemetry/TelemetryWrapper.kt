@@ -16,7 +16,6 @@ import android.os.StrictMode.ThreadPolicy.Builder
 import android.preference.PreferenceManager
 import android.util.Log
 import android.webkit.PermissionRequest
-import mozilla.components.lib.fetch.httpurlconnection.HttpURLConnectionClient
 import org.mozilla.focus.BuildConfig
 import org.mozilla.focus.R
 import org.mozilla.focus.provider.ScreenshotContract
@@ -30,11 +29,14 @@ import org.mozilla.focus.utils.AppConstants
 import org.mozilla.focus.utils.Browsers
 import org.mozilla.focus.utils.FirebaseHelper
 import org.mozilla.focus.utils.Settings
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler.Priority
 import org.mozilla.rocket.abtesting.LocalAbTesting
 import org.mozilla.rocket.content.common.data.ContentTabTelemetryData
 import org.mozilla.rocket.content.common.data.TabSwipeTelemetryData
 import org.mozilla.rocket.home.contenthub.ui.ContentHub
 import org.mozilla.rocket.home.data.ContentPrefRepo
+import org.mozilla.rocket.network.FetchClient
 import org.mozilla.rocket.theme.ThemeManager
 import org.mozilla.strictmodeviolator.StrictModeViolation
 import org.mozilla.telemetry.Telemetry
@@ -491,7 +493,7 @@ object TelemetryWrapper {
 
             val serializer = JSONPingSerializer()
             val storage = FileTelemetryStorage(configuration, serializer)
-            val client = TelemetryClient(HttpURLConnectionClient())
+            val client = TelemetryClient(FetchClient.scheduled(Priority.BACKGROUND, Family.TELEMETRY))
             val scheduler = JobSchedulerTelemetryScheduler()
 
             TelemetryHolder.set(
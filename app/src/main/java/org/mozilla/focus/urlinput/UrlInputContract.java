@@ -47,8 +47,7 @@ public class UrlInputContract {
          * Called when user input any text in Url bar
          *
          * @param input
-         * @param isThrottled
          */
-        void onInput(@NonNull CharSequence input, boolean isThrottled);
+        void onInput(@NonNull CharSequence input);
     }
 }
@@ -29,6 +29,9 @@ import dagger.Lazy
 import kotlinx.android.synthetic.main.fragment_urlinput.input_container
 import kotlinx.android.synthetic.main.fragment_urlinput.awesomeBar
 import kotlinx.android.synthetic.main.fragment_urlinput.search_suggestion_block
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.cancel
 import mozilla.components.browser.domains.autocomplete.ShippedDomainsProvider
 import mozilla.components.ui.autocomplete.InlineAutocompleteEditText
 import org.mozilla.focus.R
@@ -53,11 +56,14 @@ import org.mozilla.rocket.chrome.ChromeViewModel
 import org.mozilla.rocket.chrome.ChromeViewModel.OpenUrlAction
 import org.mozilla.rocket.content.appComponent
 import org.mozilla.rocket.content.getActivityViewModel
+import org.mozilla.rocket.network.DnsPrefetcher
 import org.mozilla.rocket.tabs.SessionManager
 import org.mozilla.rocket.tabs.TabsSessionProvider
 import org.mozilla.rocket.urlinput.QuickSearch
 import org.mozilla.rocket.urlinput.QuickSearchAdapter
 import org.mozilla.rocket.urlinput.QuickSearchViewModel
+import org.mozilla.rocket.urlinput.SearchSuggestionEngine
+import org.mozilla.rocket.urlinput.VisitedDomainsProvider
 import java.util.Locale
 import javax.inject.Inject
 
@@ -71,6 +77,12 @@ class UrlInputFragment : Fragment(), UrlInputContract.View, View.OnClickListener
     lateinit var quickSearchViewModelCreator: Lazy<QuickSearchViewModel>
     @Inject
     lateinit var chromeViewModelCreator: Lazy<ChromeViewModel>
+    @Inject
+    lateinit var searchSuggestionEngine: SearchSuggestionEngine
+    @Inject
+    lateinit var dnsPrefetcher: DnsPrefetcher
+    @Inject
+    lateinit var visitedDomainsProvider: VisitedDomainsProvider
 
     private val autoCompleteProvider: ShippedDomainsProvider = ShippedDomainsProvider()
     private lateinit var presenter: UrlInputContract.Presenter
@@ -82,23 +94,24 @@ class UrlInputFragment : Fragment(), UrlInputContract.View, View.OnClickListener
     private lateinit var dismissView: View
     private lateinit var quickSearchRecyclerView: RecyclerView
     private lateinit var quickSearchView: ViewGroup
-    private var lastRequestTime: Long = 0
     private var autoCompleteInProgress: Boolean = false
     private var allowSuggestion: Boolean = false
     private var isUserInput = true
     private var privateMode: Boolean = false
+    private val uiScope = CoroutineScope(Dispatchers.Main)
 
     override fun onCreate(bundle: Bundle?) {
         appComponent().inject(this)
         super.onCreate(bundle)
         val userAgent = WebViewProvider.getUserAgentString(activity)
         this.presenter = UrlInputPresenter(SearchEngineManager.getInstance()
-                .getDefaultSearchEngine(activity), userAgent)
+                .getDefaultSearchEngine(activity), searchSuggestionEngine, userAgent, uiScope)
         chromeViewModel = getActivityViewModel(chromeViewModelCreator)
 
         context?.let {
             autoCompleteProvider.initialize(it.applicationContext)
         }
+        visitedDomainsProvider.initialize()
     }
 
     override fun onCreateView(
@@ -229,6 +242,11 @@ class UrlInputFragment : Fragment(), UrlInputContract.View, View.OnClickListener
         presenter.setView(null)
     }
 
+    override fun onDestroy() {
+        super.onDestroy()
+        uiScope.cancel()
+    }
+
     override fun onConfigurationChanged(newConfig: Configuration) {
         super.onConfigurationChanged(newConfig)
         updateUrlInputHeight()
@@ -407,8 +425,11 @@ class UrlInputFragment : Fragment(), UrlInputContract.View, View.OnClickListener
             return
         }
         autoCompleteInProgress = true
-        autoCompleteProvider.getAutocompleteSuggestion(searchText)?.let { result ->
+        // Sites the user has been to come before the shipped list.
+        (visitedDomainsProvider.getAutocompleteSuggestion(searchText)
+                ?: autoCompleteProvider.getAutocompleteSuggestion(searchText))?.let { result ->
             urlView.applyAutocompleteResult(InlineAutocompleteEditText.AutocompleteResult(result.text, result.source, result.totalItems) { result.url })
+            dnsPrefetcher.warmUpNow(result.url)
         } ?: run {
             urlView.applyAutocompleteResult(InlineAutocompleteEditText.AutocompleteResult(searchText, "", 0))
         }
@@ -424,27 +445,19 @@ class UrlInputFragment : Fragment(), UrlInputContract.View, View.OnClickListener
         }
         if (allowSuggestion) {
             awesomeBar.onInputChanged(originalText.toLowerCase(Locale.getDefault()))
-            this@UrlInputFragment.presenter.onInput(originalText, detectThrottle())
+            this@UrlInputFragment.presenter.onInput(originalText)
         }
         val visibility = if (TextUtils.isEmpty(originalText)) View.GONE else View.VISIBLE
         this@UrlInputFragment.clearView.visibility = visibility
         isUserInput = originalText == autocompleteText
     }
 
-    private fun detectThrottle(): Boolean {
-        val now = System.currentTimeMillis()
-        val throttled = now - lastRequestTime < REQUEST_THROTTLE_THRESHOLD
-        lastRequestTime = now
-        return throttled
-    }
-
     companion object {
 
         private const val ARGUMENT_URL = "url"
         private const val ARGUMENT_PARENT_FRAGMENT = "parent_frag_tag"
         private const val ARGUMENT_ALLOW_SUGGESTION = "allow_suggestion"
         private const val ARGUMENT_BOOLEAN_PRIVATE_MODE = "boolean_private_mode"
-        private const val REQUEST_THROTTLE_THRESHOLD = 300
 
         /**
          * Create a new UrlInputFragment and animate the url input view from the position/size of the
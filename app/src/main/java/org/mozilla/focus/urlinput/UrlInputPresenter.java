@@ -5,50 +5,45 @@
 
 package org.mozilla.focus.urlinput;
 
-import android.os.AsyncTask;
 import androidx.annotation.NonNull;
-import android.text.TextUtils;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.mozilla.focus.network.SocketTags;
+import kotlinx.coroutines.CoroutineScope;
+
 import org.mozilla.focus.search.SearchEngine;
 import org.mozilla.focus.utils.SupportUtils;
-import org.mozilla.httptask.SimpleLoadUrlTask;
+import org.mozilla.rocket.urlinput.SearchSuggestionEngine;
 
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 public class UrlInputPresenter implements UrlInputContract.Presenter {
 
     private UrlInputContract.View view;
     final private SearchEngine searchEngine;
+    final private SearchSuggestionEngine suggestionEngine;
     final private String userAgent;
-    private static final int MAX_SUGGESTION_COUNT = 5;
+    final private CoroutineScope scope;
 
-    private AsyncTask queryTask;
+    private SearchSuggestionEngine.Query query;
 
-    UrlInputPresenter(@NonNull SearchEngine searchEngine, String userAgent) {
+    UrlInputPresenter(@NonNull SearchEngine searchEngine, @NonNull SearchSuggestionEngine suggestionEngine, String userAgent, @NonNull CoroutineScope scope) {
         this.searchEngine = searchEngine;
+        this.suggestionEngine = suggestionEngine;
         this.userAgent = userAgent;
+        this.scope = scope;
     }
 
     @Override
     public void setView(UrlInputContract.View view) {
         this.view = view;
-        // queryTask holds a WeakReference to view, cancel the task too.
-        if (view == null && queryTask != null) {
-            queryTask.cancel(false);
+        // the query delivers suggestions to the view, cancel it too.
+        if (view == null) {
+            cancelQuery();
         }
     }
 
     @Override
-    public void onInput(@NonNull CharSequence input, boolean isThrottled) {
-        if (isThrottled && queryTask != null) {
-            queryTask.cancel(true);
-        }
+    public void onInput(@NonNull CharSequence input) {
+        cancelQuery();
         if (view == null) {
             return;
         }
@@ -64,50 +59,17 @@ public class UrlInputPresenter implements UrlInputContract.Presenter {
             return;
         }
 
-        if (queryTask != null) {
-            queryTask.cancel(true);
-            queryTask = null;
-        }
-
-        queryTask = new QueryTask(view).execute(searchEngine.buildSearchSuggestionUrl(input.toString()), userAgent, Integer.toString(SocketTags.SEARCH_SUGGESTION));
-
-
-    }
-
-    private static class QueryTask extends SimpleLoadUrlTask {
-
-        private WeakReference<UrlInputContract.View> viewWeakReference;
-
-        QueryTask(UrlInputContract.View view) {
-            viewWeakReference = new WeakReference<>(view);
-        }
-
-        @Override
-        protected void onPostExecute(String line) {
-            if (TextUtils.isEmpty(line)) {
-                return;
-            }
-            List<CharSequence> suggests = null;
-            try {
-                JSONArray response = new JSONArray(line);
-                JSONArray suggestions = response.getJSONArray(1);
-                int size = suggestions.length();
-                suggests = new ArrayList<>(size);
-
-                for (int i = 0; i < Math.min(size, MAX_SUGGESTION_COUNT); i++) {
-                    suggests.add(suggestions.getString(i));
-                }
-            } catch (JSONException ignored) {
-            } finally {
-                if (suggests == null) {
-                    suggests = Collections.emptyList();
-                }
-            }
-
-            UrlInputContract.View view = viewWeakReference.get();
+        query = suggestionEngine.query(scope, searchEngine, input.toString(), userAgent, suggestions -> {
             if (view != null) {
-                view.setSuggestions(suggests);
+                view.setSuggestions(new ArrayList<>(suggestions));
             }
+        });
+    }
+
+    private void cancelQuery() {
+        if (query != null) {
+            query.cancel();
+            query = null;
         }
     }
 }
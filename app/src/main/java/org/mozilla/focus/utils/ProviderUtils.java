@@ -13,4 +13,21 @@ public class ProviderUtils {
     public static String getLimitParam(String offset, String limit) {
         return (limit == null) ? null : (offset == null) ? limit : offset + "," + limit;
     }
+
+    /**
+     * Selects the rows coming after the one with the given key and id in {@link #getKeysetOrder}, so
+     * the next page seeks the index instead of skipping all the rows before it like an offset does.
+     */
+    public static String getKeysetSelection(String keyColumn, String idColumn) {
+        return keyColumn + " <= ? AND (" + keyColumn + " < ? OR " + idColumn + " < ?)";
+    }
+
+    public static String[] getKeysetSelectionArgs(long key, long id) {
+        final String keyArg = Long.toString(key);
+        return new String[]{keyArg, keyArg, Long.toString(id)};
+    }
+
+    public static String getKeysetOrder(String keyColumn, String idColumn) {
+        return keyColumn + " DESC, " + idColumn + " DESC";
+    }
 }
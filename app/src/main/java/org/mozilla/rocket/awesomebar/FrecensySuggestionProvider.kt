@@ -11,29 +11,14 @@ import android.graphics.Color
 import mozilla.components.concept.awesomebar.AwesomeBar
 import org.mozilla.focus.R
 import org.mozilla.focus.history.model.Site
+import org.mozilla.focus.persistence.BookmarkModel
 import org.mozilla.focus.repository.BookmarkRepository
 import org.mozilla.focus.utils.DimenUtils
 import org.mozilla.icon.FavIconUtils
 import org.mozilla.rocket.persistance.History.HistoryRepository
 import org.mozilla.rocket.tabs.SessionManager
-import java.util.Locale
 import java.util.UUID
 
-private class AwesomeBarSite(
-    var site: Site,
-    var weight: Double,
-    var tabId: String = "",
-    var isBookmark: Boolean = false
-) : Comparable<AwesomeBarSite> {
-    override fun compareTo(other: AwesomeBarSite): Int {
-        return if (this.weight > other.weight) {
-            1
-        } else {
-            0
-        }
-    }
-}
-
 /**
  * Mix History, Bookmark, Tabs all together with a simple algorithm.
  *
@@ -52,135 +37,71 @@ class FrecensySuggestionProvider(
     override val id: String = UUID.randomUUID().toString()
 
     companion object {
-        private const val DEFAULT_SITE_ID = -1L
-        private const val DEFAULT_SITE_VIEW_COUNT = 100L
-        private const val DEFAULT_SITE_WEIGHT = 0.0
-
-        private const val SUGGESTION_BOOKMARK_MULTIPLIER = 1.75
-        private const val SUGGESTION_TAB_MULTIPLIER = 2.0
         private const val SUGGESTION_HISTORY_LIMIT = 10
         private const val SUGGESTION_TAB_LIMIT = 3
         private const val SUGGESTION_QUERY_LIMIT = 100
-        private const val DAY_IN_MS = 24 * 60 * 60 * 1000
-        private const val FRECENCY_DAY_5 = 5.0 * DAY_IN_MS
-        private const val FRECENCY_DAY_15 = 15.0 * DAY_IN_MS
-        private const val FRECENCY_DAY_32 = 32.0 * DAY_IN_MS
-        private const val FRECENCY_DAY_91 = 91.0 * DAY_IN_MS
-
-        private const val FRECENCY_WEIGHT_5 = 100.0
-        private const val FRECENCY_WEIGHT_15 = 70.0
-        private const val FRECENCY_WEIGHT_32 = 50.0
-        private const val FRECENCY_WEIGHT_91 = 30.0
-        private const val FRECENCY_WEIGHT_OTHER = 10.0
     }
 
+    // Scoped to the url input, which makes a provider each time it opens.
+    private val historyCache = RefiningQueryCache<Site>(SUGGESTION_QUERY_LIMIT, SUGGESTION_HISTORY_LIMIT) {
+        arrayOf(it.title, it.url)
+    }
+    private val bookmarkCache = RefiningQueryCache<BookmarkModel>(SUGGESTION_QUERY_LIMIT, SUGGESTION_HISTORY_LIMIT) {
+        arrayOf(it.title, it.url)
+    }
+    private val ranker = SuggestionRanker(SUGGESTION_TAB_LIMIT, SUGGESTION_HISTORY_LIMIT)
+
     override suspend fun onInputChanged(text: String): List<AwesomeBar.Suggestion> {
 
         if (text.isEmpty()) {
             return emptyList()
         }
-        val history = historyRepository.searchHistory("%$text%", SUGGESTION_QUERY_LIMIT)
-        val bookmarks = bookmarkRepository.searchBookmarks("%$text%", SUGGESTION_QUERY_LIMIT)
+        val history = historyCache.get(text, historyRepository::searchHistory)
+        val bookmarks = bookmarkCache.get(text, bookmarkRepository::searchBookmarks)
         val tabs = sessionManager.getTabs()
         val now = System.currentTimeMillis()
-        val candidate = HashMap<String, AwesomeBarSite>()
-        var idSeq = DEFAULT_SITE_ID
-
-        // add all history entries to candidate
-        history.forEach {
-            val diff = now - it.lastViewTimestamp
-            val weight = when {
-                diff < FRECENCY_DAY_5 -> FRECENCY_WEIGHT_5
-                diff < FRECENCY_DAY_15 -> FRECENCY_WEIGHT_15
-                diff < FRECENCY_DAY_32 -> FRECENCY_WEIGHT_32
-                diff < FRECENCY_DAY_91 -> FRECENCY_WEIGHT_91
-                else -> FRECENCY_WEIGHT_OTHER
-            }
-            candidate[it.url] = AwesomeBarSite(site = it, weight = weight * it.viewCount)
-        }
-
-        // add all bookmark entries to candidate
-        // if it's in the history, the weight times 1.75
-        // if it's not in history, give it the weight 10K (100  * 100 view count)
-        bookmarks.forEach {
-            if (candidate[it.url] == null) {
-                candidate[it.url] =
-                    AwesomeBarSite(
-                        site = Site(idSeq--, it.title, it.url, DEFAULT_SITE_VIEW_COUNT, now, ""),
-                        weight = FRECENCY_WEIGHT_5 * DEFAULT_SITE_VIEW_COUNT,
-                        isBookmark = true
-                    )
-            } else {
-                candidate[it.url]?.isBookmark = true
-                candidate[it.url]?.weight =
-                    candidate[it.url]?.weight?.times(SUGGESTION_BOOKMARK_MULTIPLIER) ?: DEFAULT_SITE_WEIGHT
-            }
-        }
-
-        // add all tab entries to candidate
-        // if it's in the history+bookmark, the weight times 1.75
-        // if it's not in history+bookmark, give it the weight 10K (100  * 100 view count)
-        tabs.forEach {
-            val url = it.url
-            val title = it.title
-            if (url == null || !url.contains(text) && !title.toLowerCase(Locale.getDefault())
-                    .contains(text)
-            ) {
-                return@forEach
-            }
-            val desc = context.resources.getString(R.string.awesomebar_switch_to_tab)
-            if (candidate[url] == null) {
-                candidate[url] = AwesomeBarSite(
-                    site = Site(idSeq--, it.title, desc, DEFAULT_SITE_VIEW_COUNT, now, ""),
-                    weight = FRECENCY_WEIGHT_5 * DEFAULT_SITE_VIEW_COUNT,
-                    tabId = it.id
-                )
-            } else {
-                candidate[url]?.weight =
-                    candidate[url]?.weight?.times(SUGGESTION_TAB_MULTIPLIER) ?: DEFAULT_SITE_WEIGHT
-                candidate[url]?.tabId = it.id
-                candidate[url]?.site?.url = desc
-            }
+        val switchToTab = context.resources.getString(R.string.awesomebar_switch_to_tab)
+
+        return synchronized(ranker) {
+            ranker.reset()
+            history.forEach { ranker.addHistory(it, now) }
+            bookmarks.forEach { ranker.addBookmark(it.title, it.url) }
+            tabs.forEach { ranker.addTab(it.id, it.title, it.url, text) }
+            ArrayList<SuggestionRanker.Candidate>(SUGGESTION_TAB_LIMIT + SUGGESTION_HISTORY_LIMIT)
+                .apply { ranker.rankTo(this) }
+                .map { makeAwesomeBarSuggestion(it, switchToTab) }
         }
-        val allCandidate = candidate.values.sortedByDescending { it.weight }
-
-        return allCandidate.filter { it.tabId.isNotEmpty() }.take(SUGGESTION_TAB_LIMIT)
-            .toMutableList()
-            .apply {
-                addAll(allCandidate.filter { it.tabId.isEmpty() }.take(SUGGESTION_HISTORY_LIMIT))
-            }
-            .map { awesomeBarSite ->
-                makeAwesomeBarSuggestion(awesomeBarSite)
-            }
     }
 
+    // Candidates are reused for the next input, so only their values are kept here.
     private fun makeAwesomeBarSuggestion(
-        awesomeBarSite: AwesomeBarSite
+        candidate: SuggestionRanker.Candidate,
+        switchToTab: String
     ): AwesomeBar.Suggestion {
 
-        val site = awesomeBarSite.site
-        val tabId = awesomeBarSite.tabId
-        val url = site.url
-        val title = site.title ?: ""
-        val siteId = site.id.toString()
+        val tabId = candidate.tabId
+        val url = candidate.url
+        val favIconUri = candidate.favIconUri ?: ""
+        val title = candidate.title ?: ""
+        val siteId = candidate.id.toString()
 
         return AwesomeBar.Suggestion(
             provider = this,
             id = siteId,
             title = title,
-            description = url,
+            description = if (tabId.isNotEmpty()) switchToTab else url,
 
             icon = if (tabId.isNotEmpty()) {
                 { _, _ -> switchToTabIcon }
             } else {
-                { _, _ -> chooseTheRightBitmap(awesomeBarSite) }
+                { _, _ -> chooseTheRightBitmap(url, favIconUri) }
             },
 
             onSuggestionClicked = when {
                 tabId.isNotEmpty() -> {
                     { onSwitchTabAction(sessionManager, tabId) }
                 }
-                awesomeBarSite.isBookmark -> {
+                candidate.isBookmark -> {
                     { onBookmarkAction(url) }
                 }
                 else -> {
@@ -190,9 +111,7 @@ class FrecensySuggestionProvider(
         )
     }
 
-    private fun chooseTheRightBitmap(awesomeBarSite: AwesomeBarSite): Bitmap? {
-        val favIconUri: String = awesomeBarSite.site.favIconUri ?: ""
-
+    private fun chooseTheRightBitmap(url: String, favIconUri: String): Bitmap? {
         val bitmapFromUri: Bitmap? = FavIconUtils.getBitmapFromUri(context, favIconUri)
 
         return if (bitmapFromUri == null || DimenUtils.iconTooBlurry(
@@ -204,7 +123,6 @@ class FrecensySuggestionProvider(
                 if (bitmapFromUri == null) Color.WHITE else FavIconUtils.getDominantColor(
                     bitmapFromUri
                 )
-            val url: String = awesomeBarSite.site.url
             DimenUtils.getInitialBitmap(
                 context.resources,
                 FavIconUtils.getRepresentativeCharacter(url),
@@ -0,0 +1,65 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.awesomebar
+
+import org.mozilla.rocket.persistance.FtsQuery
+
+/**
+ * Keeps the rows found for the last text typed in the url bar. A text extending it only matches
+ * a subset of them, so those are filtered in memory with [FtsQuery.matches] instead of searching
+ * the index again.
+ *
+ * The rows come ordered and at most [limit] of them, so the filtered ones are still the first of
+ * the new result. The index is searched again when the text is not an extension, or when fewer
+ * than [minRows] are left out of a result which was cut at the limit.
+ *
+ * @param columns the indexed columns of a row
+ */
+internal class RefiningQueryCache<T>(
+    private val limit: Int,
+    private val minRows: Int,
+    private val columns: (T) -> Array<String?>
+) {
+
+    private var lastText: String? = null
+    private var rows: List<T> = emptyList()
+    private var complete = false
+
+    /**
+     * @param search searches the index for the text, returning at most [limit] rows
+     */
+    @Synchronized
+    fun get(text: String, search: (text: String, limit: Int) -> List<T>): List<T> {
+        val words = FtsQuery.words(text)
+        if (words.isEmpty()) {
+            clear()
+            return emptyList()
+        }
+
+        val last = lastText
+        if (last != null && text.startsWith(last)) {
+            val filtered = rows.filter { FtsQuery.matches(words, *columns(it)) }
+            if (complete || filtered.size >= minRows) {
+                lastText = text
+                rows = filtered
+                return filtered
+            }
+        }
+
+        val found = search(text, limit)
+        lastText = text
+        rows = found
+        complete = found.size < limit
+        return found
+    }
+
+    @Synchronized
+    fun clear() {
+        lastText = null
+        rows = emptyList()
+        complete = false
+    }
+}
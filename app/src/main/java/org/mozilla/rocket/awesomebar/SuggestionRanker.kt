@@ -0,0 +1,138 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.awesomebar
+
+import org.mozilla.focus.history.Frecency
+import org.mozilla.focus.history.model.Site
+
+/**
+ * Mixes history, bookmarks and tabs matching the input into the suggestions of the url bar.
+ *
+ * History is weighted by frecency. Bookmarks and tabs not in history weigh as much as a site
+ * visited [DEFAULT_VIEW_COUNT] times today, and weigh history up by [BOOKMARK_MULTIPLIER] and
+ * [TAB_MULTIPLIER] when they are. The top [tabLimit] tabs come first, then the top [siteLimit]
+ * others.
+ *
+ * Candidates are reused from one input to the next, so the result is only valid until the next
+ * call to [reset]. Not thread safe.
+ */
+internal class SuggestionRanker(
+    tabLimit: Int,
+    siteLimit: Int
+) {
+
+    class Candidate {
+        var id = 0L
+        var title: String? = null
+        var url = ""
+        var favIconUri: String? = null
+        var weight = 0.0
+        var tabId = ""
+        var isBookmark = false
+    }
+
+    private val pool = ArrayList<Candidate>()
+    private var used = 0
+    private val byUrl = HashMap<String, Candidate>()
+    private val tabRanker = TopKRanker<Candidate>(tabLimit)
+    private val siteRanker = TopKRanker<Candidate>(siteLimit)
+    private var idSeq = PLACEHOLDER_ID
+
+    fun reset() {
+        byUrl.clear()
+        used = 0
+        idSeq = PLACEHOLDER_ID
+    }
+
+    /**
+     * Adds the sites of history first, since bookmarks and tabs weigh them up.
+     */
+    fun addHistory(site: Site, now: Long) {
+        if (byUrl.containsKey(site.url)) {
+            return
+        }
+        obtain(site.url).apply {
+            id = site.id
+            title = site.title
+            favIconUri = site.favIconUri
+            weight = VISIT_WEIGHT * Frecency.decayedVisits(site.frecency, now)
+        }
+    }
+
+    fun addBookmark(title: String?, url: String) {
+        val candidate = byUrl[url]
+        if (candidate == null) {
+            obtain(url).apply {
+                id = idSeq--
+                this.title = title
+                weight = PLACEHOLDER_WEIGHT
+                isBookmark = true
+            }
+        } else if (!candidate.isBookmark) {
+            candidate.isBookmark = true
+            candidate.weight *= BOOKMARK_MULTIPLIER
+        }
+    }
+
+    /**
+     * Adds the tab if its url or title contains the text, ignoring case.
+     */
+    fun addTab(tabId: String, title: String?, url: String?, text: String) {
+        if (url == null || !url.contains(text, ignoreCase = true) && title?.contains(text, ignoreCase = true) != true) {
+            return
+        }
+        val candidate = byUrl[url]
+        if (candidate == null) {
+            obtain(url).apply {
+                id = idSeq--
+                this.title = title
+                weight = PLACEHOLDER_WEIGHT
+                this.tabId = tabId
+            }
+        } else if (candidate.tabId.isEmpty()) {
+            candidate.weight *= TAB_MULTIPLIER
+            candidate.tabId = tabId
+        }
+    }
+
+    /**
+     * Adds the top tabs to the list and then the top other candidates, highest weight first.
+     */
+    fun rankTo(out: MutableList<Candidate>) {
+        for (i in 0 until used) {
+            val candidate = pool[i]
+            if (candidate.tabId.isNotEmpty()) {
+                tabRanker.offer(candidate, candidate.weight)
+            } else {
+                siteRanker.offer(candidate, candidate.weight)
+            }
+        }
+        tabRanker.drainTo(out)
+        siteRanker.drainTo(out)
+    }
+
+    private fun obtain(url: String): Candidate {
+        if (used == pool.size) {
+            pool.add(Candidate())
+        }
+        val candidate = pool[used++]
+        candidate.url = url
+        candidate.favIconUri = null
+        candidate.tabId = ""
+        candidate.isBookmark = false
+        byUrl[url] = candidate
+        return candidate
+    }
+
+    companion object {
+        private const val PLACEHOLDER_ID = -1L
+        private const val DEFAULT_VIEW_COUNT = 100.0
+        private const val VISIT_WEIGHT = 100.0
+        private const val PLACEHOLDER_WEIGHT = VISIT_WEIGHT * DEFAULT_VIEW_COUNT
+        private const val BOOKMARK_MULTIPLIER = 1.75
+        private const val TAB_MULTIPLIER = 2.0
+    }
+}
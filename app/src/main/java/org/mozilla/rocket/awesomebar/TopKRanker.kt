@@ -0,0 +1,101 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.awesomebar
+
+/**
+ * Keeps the [k] items of highest score out of those offered, in a heap with the lowest of them
+ * on top, so each offer is O(log k) and nothing else is kept. Items of the same score rank in
+ * the order they were offered.
+ *
+ * The arrays are reused after [drainTo], for the next round.
+ */
+internal class TopKRanker<T>(private val k: Int) {
+
+    private val items = arrayOfNulls<Any>(k)
+    private val scores = DoubleArray(k)
+    private val orders = IntArray(k)
+    private var size = 0
+    private var offered = 0
+
+    fun offer(item: T, score: Double) {
+        val order = offered++
+        if (size < k) {
+            items[size] = item
+            scores[size] = score
+            orders[size] = order
+            siftUp(size++)
+        } else if (k > 0 && isLower(0, score, order)) {
+            items[0] = item
+            scores[0] = score
+            orders[0] = order
+            siftDown(0)
+        }
+    }
+
+    /**
+     * Adds the items kept to the list, highest score first, and starts a new round.
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun drainTo(out: MutableList<T>) {
+        val start = out.size
+        while (size > 0) {
+            out.add(items[0] as T)
+            val last = --size
+            items[0] = items[last]
+            scores[0] = scores[last]
+            orders[0] = orders[last]
+            items[last] = null
+            siftDown(0)
+        }
+        out.subList(start, out.size).reverse()
+        offered = 0
+    }
+
+    // Whether the item at the index ranks below the score offered in that order.
+    private fun isLower(index: Int, score: Double, order: Int): Boolean =
+        scores[index] < score || scores[index] == score && orders[index] > order
+
+    private fun siftUp(index: Int) {
+        var child = index
+        while (child > 0) {
+            val parent = (child - 1) / 2
+            if (!isLower(child, scores[parent], orders[parent])) {
+                return
+            }
+            swap(child, parent)
+            child = parent
+        }
+    }
+
+    private fun siftDown(index: Int) {
+        var parent = index
+        while (true) {
+            val left = parent * 2 + 1
+            if (left >= size) {
+                return
+            }
+            val right = left + 1
+            val lowest = if (right < size && isLower(right, scores[left], orders[left])) right else left
+            if (!isLower(lowest, scores[parent], orders[parent])) {
+                return
+            }
+            swap(parent, lowest)
+            parent = lowest
+        }
+    }
+
+    private fun swap(i: Int, j: Int) {
+        val item = items[i]
+        items[i] = items[j]
+        items[j] = item
+        val score = scores[i]
+        scores[i] = scores[j]
+        scores[j] = score
+        val order = orders[i]
+        orders[i] = orders[j]
+        orders[j] = order
+    }
+}
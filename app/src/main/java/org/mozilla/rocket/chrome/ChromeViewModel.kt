@@ -26,6 +26,7 @@ import org.mozilla.rocket.helper.StorageHelper
 import org.mozilla.rocket.nightmode.AdjustBrightnessDialog
 import org.mozilla.rocket.persistance.History.HistoryRepository
 import org.mozilla.rocket.privately.PrivateMode
+import org.mozilla.rocket.tabs.SessionManager
 import org.mozilla.rocket.tabs.web.Download
 import org.mozilla.rocket.util.ToastMessage
 import org.mozilla.rocket.util.ToastMessage.Companion.LENGTH_LONG
@@ -164,6 +165,14 @@ class ChromeViewModel(
         }
     }
 
+    fun onSessionsChanged(changes: SessionManager.ChangeSet) {
+        onTabCountChanged(changes.count)
+        if (changes.isFocusChanged) {
+            onFocusedUrlChanged(changes.focus?.url)
+            onFocusedTitleChanged(changes.focus?.title)
+        }
+    }
+
     fun onFocusedUrlChanged(url: String?) {
         if (url != currentUrl.value) {
             currentUrl.value = url
@@ -1,8 +1,15 @@
 package org.mozilla.rocket.content.common.data
 
+import android.util.JsonReader
 import org.json.JSONArray
 import org.json.JSONObject
+import org.mozilla.rocket.util.forEachName
+import org.mozilla.rocket.util.optDouble
+import org.mozilla.rocket.util.optInt
 import org.mozilla.rocket.util.optJsonArray
+import org.mozilla.rocket.util.optLong
+import org.mozilla.rocket.util.optObjectList
+import org.mozilla.rocket.util.optString
 import org.mozilla.rocket.util.toJsonObject
 
 data class ApiEntity(
@@ -40,6 +47,19 @@ data class ApiEntity(
                 ApiEntity(1, emptyList())
             }
         }
+
+        fun fromJson(reader: JsonReader): ApiEntity {
+            var version = 0L
+            var subcategories = emptyList<ApiCategory>()
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_VERSION -> version = reader.optLong()
+                    KEY_SUBCATEGORIES -> subcategories = reader.optObjectList { ApiCategory.fromJson(it) }
+                    else -> reader.skipValue()
+                }
+            }
+            return ApiEntity(version, subcategories)
+        }
     }
 }
 
@@ -78,6 +98,23 @@ data class ApiCategory(
                 items
             )
         }
+
+        fun fromJson(reader: JsonReader): ApiCategory {
+            var componentType = ""
+            var subcategoryName = ""
+            var subcategoryId = 0
+            var items = emptyList<ApiItem>()
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_COMPONENT_TYPE -> componentType = reader.optString()
+                    KEY_SUBCATEGORY_NAME -> subcategoryName = reader.optString()
+                    KEY_SUBCATEGORY_ID -> subcategoryId = reader.optInt()
+                    KEY_ITEMS -> items = reader.optObjectList { ApiItem.fromJson(it) }
+                    else -> reader.skipValue()
+                }
+            }
+            return ApiCategory(componentType, subcategoryName, subcategoryId, items)
+        }
     }
 }
 
@@ -150,5 +187,57 @@ data class ApiItem(
                 jsonObject.optLong(KEY_END_DATE),
                 jsonObject.optInt(KEY_DESTINATION_TYPE)
             )
+
+        fun fromJson(reader: JsonReader): ApiItem {
+            var sourceName = ""
+            var categoryName = ""
+            var subCategoryId = ""
+            var image = ""
+            var destination = ""
+            var title = ""
+            var componentId = ""
+            var price = ""
+            var discount = ""
+            var score = 0F
+            var scoreReviews = ""
+            var description = ""
+            var endDate = 0L
+            var destinationType = 0
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_SOURCE_NAME -> sourceName = reader.optString()
+                    KEY_CATEGORY_NAME -> categoryName = reader.optString()
+                    KEY_SUB_CATEGORY_ID -> subCategoryId = reader.optString()
+                    KEY_IMAGE -> image = reader.optString()
+                    KEY_DESTINATION -> destination = reader.optString()
+                    KEY_TITLE -> title = reader.optString()
+                    KEY_COMPONENT_ID -> componentId = reader.optString()
+                    KEY_PRICE -> price = reader.optString()
+                    KEY_DISCOUNT -> discount = reader.optString()
+                    KEY_SCORE -> score = reader.optDouble(0.toDouble()).toFloat()
+                    KEY_SCORE_REVIEWS -> scoreReviews = reader.optString()
+                    KEY_DESCRIPTION -> description = reader.optString()
+                    KEY_END_DATE -> endDate = reader.optLong()
+                    KEY_DESTINATION_TYPE -> destinationType = reader.optInt()
+                    else -> reader.skipValue()
+                }
+            }
+            return ApiItem(
+                sourceName,
+                categoryName,
+                subCategoryId,
+                image,
+                destination,
+                title,
+                componentId,
+                price,
+                discount,
+                score,
+                scoreReviews,
+                description,
+                endDate,
+                destinationType
+            )
+        }
     }
 }
@@ -0,0 +1,152 @@
+package org.mozilla.rocket.content.common.data
+
+import android.util.Log
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.withContext
+import org.mozilla.httprequest.NetworkMetrics
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.rocket.content.Result
+import org.mozilla.rocket.util.sha256
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A memory plus disk cache for content which is fine to show stale while a fresh copy is loading.
+ *
+ * Entries younger than [ttlMillis] are served without asking the network. Older ones are served
+ * right away and refreshed behind them, the refreshed copy is emitted only if it differs.
+ *
+ * @param diskStore keeps entries across process restarts, memory only if null
+ * @param family what a request saved by a fresh entry is counted as in [NetworkMetrics]
+ */
+class ContentCache<T : Any>(
+    private val ttlMillis: Long,
+    private val diskStore: DiskStore<T>? = null,
+    private val family: Family = Family.OTHER,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    private val memory = ConcurrentHashMap<String, Entry<T>>()
+
+    /**
+     * Emits the cached value, if any, then the fetched one when the cached value is stale or
+     * missing. A failed refresh behind a cached value is not emitted, the cached value stays.
+     */
+    fun stream(key: String, fetch: suspend () -> Result<T>): Flow<Result<T>> = flow {
+        val cached = read(key)
+        if (cached != null) {
+            emit(Result.Success(cached.value))
+            if (cached.isFresh()) {
+                NetworkMetrics.getInstance().recordCacheHit(family)
+                return@flow
+            }
+        }
+
+        val result = fetch()
+        if (result is Result.Success) {
+            write(key, result.data)
+            if (cached?.value != result.data) {
+                emit(result)
+            }
+        } else if (cached == null) {
+            emit(result)
+        }
+    }
+
+    /**
+     * @return the fresh cached value or the fetched one, the stale cached value if the fetch fails
+     */
+    suspend fun get(key: String, fetch: suspend () -> Result<T>): Result<T> {
+        val cached = read(key)
+        if (cached != null && cached.isFresh()) {
+            NetworkMetrics.getInstance().recordCacheHit(family)
+            return Result.Success(cached.value)
+        }
+        val result = fetch()
+        return when {
+            result is Result.Success -> {
+                write(key, result.data)
+                result
+            }
+            cached != null -> Result.Success(cached.value)
+            else -> result
+        }
+    }
+
+    /**
+     * @return the value in memory, fresh or not, without touching the disk
+     */
+    fun peek(key: String): T? = memory[key]?.value
+
+    fun isFresh(key: String): Boolean = memory[key]?.isFresh() == true
+
+    fun put(key: String, value: T) {
+        memory[key] = Entry(value, clock())
+    }
+
+    private suspend fun read(key: String): Entry<T>? {
+        memory[key]?.let { return it }
+        val store = diskStore ?: return null
+        return withContext(Dispatchers.IO) { store.read(key) }?.also { memory[key] = it }
+    }
+
+    private suspend fun write(key: String, value: T) {
+        val entry = Entry(value, clock())
+        memory[key] = entry
+        diskStore?.let { store ->
+            withContext(Dispatchers.IO) { store.write(key, entry) }
+        }
+    }
+
+    private fun Entry<T>.isFresh(): Boolean = clock() - timestamp < ttlMillis
+
+    class Entry<T>(val value: T, val timestamp: Long)
+
+    /**
+     * Keeps one file per key under [dir], the file modification time is the entry timestamp.
+     */
+    class DiskStore<T>(
+        private val dir: File,
+        private val encode: (T) -> String,
+        private val decode: (String) -> T
+    ) {
+
+        fun read(key: String): Entry<T>? {
+            val file = fileOf(key)
+            if (!file.exists()) {
+                return null
+            }
+            return try {
+                Entry(decode(file.readText()), file.lastModified())
+            } catch (e: Exception) {
+                // a corrupted or outdated entry, drop it and load from the network
+                Log.w(TAG, "Unable to read cached content", e)
+                file.delete()
+                null
+            }
+        }
+
+        fun write(key: String, entry: Entry<T>) {
+            try {
+                dir.mkdirs()
+                val file = fileOf(key)
+                file.writeText(encode(entry.value))
+                file.setLastModified(entry.timestamp)
+            } catch (e: IOException) {
+                Log.w(TAG, "Unable to write cached content", e)
+            }
+        }
+
+        private fun fileOf(key: String) = File(dir, key.sha256())
+    }
+
+    companion object {
+        private const val TAG = "ContentCache"
+
+        fun apiEntityStore(cacheDir: File, name: String): DiskStore<ApiEntity> =
+            DiskStore(File(cacheDir, "content/$name"), { it.toJsonObject().toString() }, { ApiEntity.fromJson(it) })
+    }
+}
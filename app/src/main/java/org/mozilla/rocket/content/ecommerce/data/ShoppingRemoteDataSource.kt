@@ -1,51 +1,57 @@
 package org.mozilla.rocket.content.ecommerce.data
 
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mozilla.components.concept.fetch.Request
 import org.mozilla.focus.utils.FirebaseHelper
+import org.mozilla.httprequest.NetworkMetrics.Family
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.Result.Error
 import org.mozilla.rocket.content.Result.Success
 import org.mozilla.rocket.content.common.data.ApiEntity
+import org.mozilla.rocket.network.FetchClient
+import org.mozilla.rocket.util.decodeJson
 import org.mozilla.rocket.util.safeApiCall
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 
 class ShoppingRemoteDataSource : ShoppingDataSource {
 
-    override suspend fun getDeals(): Result<ApiEntity> = withContext(Dispatchers.IO) {
+    override suspend fun getDeals(): Result<ApiEntity> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
-                sendHttpRequest(request = Request(url = getDealsApiEndpoint(), method = Request.Method.GET),
+                sendCoalescedHttpRequest(request = Request(url = getDealsApiEndpoint(), method = Request.Method.GET),
+                    resultKey = "deals",
                     onSuccess = {
-                        Success(ApiEntity.fromJson(it.body.string()))
+                        Success(it.body.decodeJson { reader -> ApiEntity.fromJson(reader) })
                     },
                     onError = {
                         Error(it)
-                    }
+                    },
+                    family = Family.CONTENT
                 )
             },
             errorMessage = "Unable to get remote deals products"
         )
     }
 
-    override suspend fun getCoupons(): Result<ApiEntity> = withContext(Dispatchers.IO) {
+    override suspend fun getCoupons(): Result<ApiEntity> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
-                sendHttpRequest(request = Request(url = getCouponsApiEndpoint(), method = Request.Method.GET),
+                sendCoalescedHttpRequest(request = Request(url = getCouponsApiEndpoint(), method = Request.Method.GET),
+                    resultKey = "coupons",
                     onSuccess = {
-                        Success(ApiEntity.fromJson(it.body.string()))
+                        Success(it.body.decodeJson { reader -> ApiEntity.fromJson(reader) })
                     },
                     onError = {
                         Error(it)
-                    }
+                    },
+                    family = Family.CONTENT
                 )
             },
             errorMessage = "Unable to get remote coupons"
         )
     }
 
-    override suspend fun getVouchers(): Result<String> = withContext(Dispatchers.IO) {
+    override suspend fun getVouchers(): Result<String> = withContext(FetchClient.dispatcher) {
         val vouchers = FirebaseHelper.getFirebase().getRcString(STR_E_COMMERCE_SHOPPING_LINKS)
         return@withContext if (vouchers.isNotEmpty()) {
             Success(vouchers)
@@ -54,7 +60,7 @@ class ShoppingRemoteDataSource : ShoppingDataSource {
         }
     }
 
-    override suspend fun getShoppingTabItems(): Result<String> = withContext(Dispatchers.IO) {
+    override suspend fun getShoppingTabItems(): Result<String> = withContext(FetchClient.dispatcher) {
         val hasVoucherResult = getVouchers()
         return@withContext Success(
             if (hasVoucherResult is Success) {
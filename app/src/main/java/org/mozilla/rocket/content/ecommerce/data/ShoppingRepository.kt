@@ -1,16 +1,21 @@
 package org.mozilla.rocket.content.ecommerce.data
 
+import kotlinx.coroutines.flow.Flow
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.common.data.ApiEntity
+import org.mozilla.rocket.content.common.data.ContentCache
 
-class ShoppingRepository(private val shoppingDataSource: ShoppingDataSource) {
+class ShoppingRepository(
+    private val shoppingDataSource: ShoppingDataSource,
+    private val cache: ContentCache<ApiEntity>
+) {
 
-    suspend fun getDeals(): Result<ApiEntity> {
-        return shoppingDataSource.getDeals()
+    fun getDeals(): Flow<Result<ApiEntity>> {
+        return cache.stream(KEY_DEALS) { shoppingDataSource.getDeals() }
     }
 
-    suspend fun getCoupons(): Result<ApiEntity> {
-        return shoppingDataSource.getCoupons()
+    fun getCoupons(): Flow<Result<ApiEntity>> {
+        return cache.stream(KEY_COUPONS) { shoppingDataSource.getCoupons() }
     }
 
     suspend fun getVouchers(): Result<String> {
@@ -20,4 +25,9 @@ class ShoppingRepository(private val shoppingDataSource: ShoppingDataSource) {
     suspend fun getShoppingTabItems(): Result<String> {
         return shoppingDataSource.getShoppingTabItems()
     }
-}
\ No newline at end of file
+
+    companion object {
+        private const val KEY_DEALS = "deals"
+        private const val KEY_COUPONS = "coupons"
+    }
+}
@@ -1,7 +1,10 @@
 package org.mozilla.rocket.content.ecommerce.di
 
+import android.content.Context
 import dagger.Module
 import dagger.Provides
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.rocket.content.common.data.ContentCache
 import org.mozilla.rocket.content.ecommerce.data.ShoppingRemoteDataSource
 import org.mozilla.rocket.content.ecommerce.data.ShoppingRepository
 import org.mozilla.rocket.content.ecommerce.domain.GetCouponsUseCase
@@ -12,11 +15,14 @@ import org.mozilla.rocket.content.ecommerce.ui.CouponViewModel
 import org.mozilla.rocket.content.ecommerce.ui.DealViewModel
 import org.mozilla.rocket.content.ecommerce.ui.ShoppingViewModel
 import org.mozilla.rocket.content.ecommerce.ui.VoucherViewModel
+import java.util.concurrent.TimeUnit
 import javax.inject.Singleton
 
 @Module
 object ShoppingModule {
 
+    private val CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30)
+
     @JvmStatic
     @Singleton
     @Provides
@@ -26,8 +32,11 @@ object ShoppingModule {
     @JvmStatic
     @Singleton
     @Provides
-    fun provideShoppingRepository(shoppingDataSource: ShoppingRemoteDataSource): ShoppingRepository =
-        ShoppingRepository(shoppingDataSource)
+    fun provideShoppingRepository(context: Context, shoppingDataSource: ShoppingRemoteDataSource): ShoppingRepository =
+        ShoppingRepository(
+            shoppingDataSource,
+            ContentCache(CACHE_TTL_MILLIS, ContentCache.apiEntityStore(context.cacheDir, "shopping"), Family.CONTENT)
+        )
 
     @JvmStatic
     @Singleton
@@ -1,12 +1,13 @@
 package org.mozilla.rocket.content.ecommerce.domain
 
+import kotlinx.coroutines.flow.Flow
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.common.data.ApiEntity
 import org.mozilla.rocket.content.ecommerce.data.ShoppingRepository
 
 class GetDealsUseCase(private val repository: ShoppingRepository) {
 
-    suspend operator fun invoke(): Result<ApiEntity> {
+    operator fun invoke(): Flow<Result<ApiEntity>> {
         return repository.getDeals()
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.launch
 import org.mozilla.focus.telemetry.TelemetryWrapper
 import org.mozilla.rocket.adapter.DelegateAdapter
@@ -51,12 +52,15 @@ class DealViewModel(
 
     fun getDealsUiModelList() {
         launchDataLoad {
-            val result = getDeals()
-            if (result is Result.Success) {
-                versionId = result.data.version
-                _dealItems.postValue(ShoppingMapper.toDeals(result.data))
-            } else if (result is Result.Error) {
-                throw (result.exception)
+            getDeals().collect { result ->
+                if (result is Result.Success) {
+                    versionId = result.data.version
+                    _dealItems.value = ShoppingMapper.toDeals(result.data)
+                    // cached deals are on screen, a refresh may still follow
+                    _isDataLoading.value = State.Idle
+                } else if (result is Result.Error) {
+                    throw (result.exception)
+                }
             }
         }
     }
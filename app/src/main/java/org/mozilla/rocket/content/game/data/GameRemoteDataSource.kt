@@ -2,53 +2,59 @@ package org.mozilla.rocket.content.game.data
 
 import android.graphics.Bitmap
 import android.graphics.BitmapFactory
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mozilla.components.concept.fetch.Request
 import org.mozilla.focus.utils.FirebaseHelper
+import org.mozilla.httprequest.NetworkMetrics.Family
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.common.data.ApiEntity
 import org.mozilla.rocket.content.common.data.ApiItem
+import org.mozilla.rocket.network.FetchClient
+import org.mozilla.rocket.util.decodeJson
 import org.mozilla.rocket.util.safeApiCall
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 import java.io.InputStream
 import java.net.URL
 
 class GameRemoteDataSource : GameDataSource {
 
-    override suspend fun getInstantGameList(): Result<ApiEntity> = withContext(Dispatchers.IO) {
+    override suspend fun getInstantGameList(): Result<ApiEntity> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
-                sendHttpRequest(request = Request(url = getInstantGameApiEndpoint(), method = Request.Method.GET),
+                sendCoalescedHttpRequest(request = Request(url = getInstantGameApiEndpoint(), method = Request.Method.GET),
+                    resultKey = "instant_games",
                     onSuccess = {
-                        Result.Success(ApiEntity.fromJson(it.body.string()))
+                        Result.Success(it.body.decodeJson { reader -> ApiEntity.fromJson(reader) })
                     },
                     onError = {
                         Result.Error(it)
-                    }
+                    },
+                    family = Family.CONTENT
                 )
             },
             errorMessage = "Unable to get remote instant game list"
         )
     }
 
-    override suspend fun getDownloadGameList(): Result<ApiEntity> = withContext(Dispatchers.IO) {
+    override suspend fun getDownloadGameList(): Result<ApiEntity> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
-                sendHttpRequest(request = Request(url = getDownloadGameApiEndpoint(), method = Request.Method.GET),
+                sendCoalescedHttpRequest(request = Request(url = getDownloadGameApiEndpoint(), method = Request.Method.GET),
+                    resultKey = "download_games",
                     onSuccess = {
-                        Result.Success(ApiEntity.fromJson(it.body.string()))
+                        Result.Success(it.body.decodeJson { reader -> ApiEntity.fromJson(reader) })
                     },
                     onError = {
                         Result.Error(it)
-                    }
+                    },
+                    family = Family.CONTENT
                 )
             },
             errorMessage = "Unable to get remote download game list"
         )
     }
 
-    override suspend fun getBitmapFromImageLink(imageUrl: String): Result<Bitmap> = withContext(Dispatchers.IO) {
+    override suspend fun getBitmapFromImageLink(imageUrl: String): Result<Bitmap> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
                 val inputStream = URL(imageUrl).content as InputStream
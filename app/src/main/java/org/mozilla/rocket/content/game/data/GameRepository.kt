@@ -1,18 +1,23 @@
 package org.mozilla.rocket.content.game.data
 
 import android.graphics.Bitmap
+import kotlinx.coroutines.flow.Flow
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.common.data.ApiEntity
 import org.mozilla.rocket.content.common.data.ApiItem
+import org.mozilla.rocket.content.common.data.ContentCache
 
 class GameRepository(
     private val remoteDataSource: GameDataSource,
-    private val localDataSource: GameDataSource
+    private val localDataSource: GameDataSource,
+    private val cache: ContentCache<ApiEntity>
 ) {
 
-    suspend fun getInstantGameList(): Result<ApiEntity> = remoteDataSource.getInstantGameList()
+    fun getInstantGameList(): Flow<Result<ApiEntity>> =
+        cache.stream(KEY_INSTANT_GAMES) { remoteDataSource.getInstantGameList() }
 
-    suspend fun getDownloadGameList(): Result<ApiEntity> = remoteDataSource.getDownloadGameList()
+    fun getDownloadGameList(): Flow<Result<ApiEntity>> =
+        cache.stream(KEY_DOWNLOAD_GAMES) { remoteDataSource.getDownloadGameList() }
 
     suspend fun getBitmapFromImageLink(imageUrl: String): Result<Bitmap> = remoteDataSource.getBitmapFromImageLink(imageUrl)
 
@@ -23,7 +28,7 @@ class GameRepository(
     suspend fun getRecentlyPlayedGames(): Result<ApiEntity> = localDataSource.getRecentlyPlayedGameList()
 
     suspend fun getMyGames(): Result<ApiEntity> {
-        val result = remoteDataSource.getDownloadGameList()
+        val result = cache.get(KEY_DOWNLOAD_GAMES) { remoteDataSource.getDownloadGameList() }
         return if (result is Result.Success) {
             localDataSource.getMyGameList(result.data)
         } else {
@@ -34,4 +39,9 @@ class GameRepository(
     fun shouldShowRecentPlayedSpotlight(): Boolean = localDataSource.shouldShowRecentPlayedSpotlight()
 
     fun setRecentPlayedSpotlightHasShown() = localDataSource.setRecentPlayedSpotlightHasShown()
+
+    companion object {
+        private const val KEY_INSTANT_GAMES = "instant_games"
+        private const val KEY_DOWNLOAD_GAMES = "download_games"
+    }
 }
\ No newline at end of file
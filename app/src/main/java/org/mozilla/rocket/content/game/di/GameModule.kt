@@ -3,6 +3,8 @@ package org.mozilla.rocket.content.game.di
 import android.content.Context
 import dagger.Module
 import dagger.Provides
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.rocket.content.common.data.ContentCache
 import org.mozilla.rocket.content.game.data.GameLocalDataSource
 import org.mozilla.rocket.content.game.data.GameRemoteDataSource
 import org.mozilla.rocket.content.game.data.GameRepository
@@ -17,11 +19,14 @@ import org.mozilla.rocket.content.game.domain.SetRecentPlayedSpotlightIsShownUse
 import org.mozilla.rocket.content.game.domain.ShouldShowRecentPlayedSpotlightUseCase
 import org.mozilla.rocket.content.game.ui.DownloadGameViewModel
 import org.mozilla.rocket.content.game.ui.InstantGameViewModel
+import java.util.concurrent.TimeUnit
 import javax.inject.Singleton
 
 @Module
 object GameModule {
 
+    private val CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30)
+
     @JvmStatic
     @Singleton
     @Provides
@@ -37,8 +42,15 @@ object GameModule {
     @JvmStatic
     @Singleton
     @Provides
-    fun provideGameRepository(gameRemoteDataSource: GameRemoteDataSource, gameLocalDataSource: GameLocalDataSource): GameRepository =
-        GameRepository(gameRemoteDataSource, gameLocalDataSource)
+    fun provideGameRepository(
+        appContext: Context,
+        gameRemoteDataSource: GameRemoteDataSource,
+        gameLocalDataSource: GameLocalDataSource
+    ): GameRepository = GameRepository(
+        gameRemoteDataSource,
+        gameLocalDataSource,
+        ContentCache(CACHE_TTL_MILLIS, ContentCache.apiEntityStore(appContext.cacheDir, "game"), Family.CONTENT)
+    )
 
     @JvmStatic
     @Singleton
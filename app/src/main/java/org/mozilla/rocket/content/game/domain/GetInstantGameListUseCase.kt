@@ -1,12 +1,13 @@
 package org.mozilla.rocket.content.game.domain
 
+import kotlinx.coroutines.flow.Flow
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.common.data.ApiEntity
 import org.mozilla.rocket.content.game.data.GameRepository
 
 class GetInstantGameListUseCase(private val repository: GameRepository) {
 
-    suspend operator fun invoke(): Result<ApiEntity> {
+    operator fun invoke(): Flow<Result<ApiEntity>> {
         return repository.getInstantGameList()
     }
 }
\ No newline at end of file
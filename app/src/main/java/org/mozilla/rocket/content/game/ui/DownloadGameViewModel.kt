@@ -6,6 +6,7 @@ import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.launch
 import org.mozilla.focus.R
 import org.mozilla.focus.telemetry.TelemetryWrapper
@@ -67,16 +68,19 @@ class DownloadGameViewModel(
 
     private fun getGameUiModelList() {
         launchDataLoad {
-            val result = getDownloadGameList()
-            if (result is Result.Success) {
-                versionId = result.data.version
-                val downloadGameList = GameDataMapper.toGameUiModel(result.data)
-                getMyGameCategoryUiModel()?.let {
-                    mergeMyGameToGameUiModelList(downloadGameList, it)
+            getDownloadGameList().collect { result ->
+                if (result is Result.Success) {
+                    versionId = result.data.version
+                    val downloadGameList = GameDataMapper.toGameUiModel(result.data)
+                    getMyGameCategoryUiModel()?.let {
+                        mergeMyGameToGameUiModelList(downloadGameList, it)
+                    }
+                    _downloadGameItems.value = downloadGameList
+                    // cached games are on screen, a refresh may still follow
+                    _isDataLoading.value = State.Idle
+                } else if (result is Result.Error) {
+                    throw (result.exception)
                 }
-                _downloadGameItems.postValue(downloadGameList)
-            } else if (result is Result.Error) {
-                throw (result.exception)
             }
         }
     }
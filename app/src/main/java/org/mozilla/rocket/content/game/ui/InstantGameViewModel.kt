@@ -7,6 +7,7 @@ import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.launch
 import org.mozilla.focus.R
 import org.mozilla.focus.telemetry.TelemetryWrapper
@@ -107,16 +108,19 @@ class InstantGameViewModel(
 
     private fun getGameUiModelList() {
         launchDataLoad {
-            val result = getInstantGameList()
-            if (result is Result.Success) {
-                versionId = result.data.version
-                val instantGameList = GameDataMapper.toGameUiModel(result.data)
-                getRecentlyPlayedCategoryUiModel()?.let {
-                    mergeRecentlyPlayedToGameUiModelList(instantGameList, it)
+            getInstantGameList().collect { result ->
+                if (result is Result.Success) {
+                    versionId = result.data.version
+                    val instantGameList = GameDataMapper.toGameUiModel(result.data)
+                    getRecentlyPlayedCategoryUiModel()?.let {
+                        mergeRecentlyPlayedToGameUiModelList(instantGameList, it)
+                    }
+                    _instantGameItems.value = instantGameList
+                    // cached games are on screen, a refresh may still follow
+                    _isDataLoading.value = State.Idle
+                } else if (result is Result.Error) {
+                    throw (result.exception)
                 }
-                _instantGameItems.postValue(instantGameList)
-            } else if (result is Result.Error) {
-                throw (result.exception)
             }
         }
     }
@@ -0,0 +1,83 @@
+package org.mozilla.rocket.content.news.data
+
+import androidx.paging.PageKeyedDataSource
+import org.mozilla.httprequest.NetworkMetrics
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler
+import org.mozilla.httprequest.NetworkScheduler.Priority
+import org.mozilla.rocket.content.common.data.ContentCache
+import org.mozilla.rocket.content.news.data.NewsDataSourceFactory.PageKey
+import java.util.concurrent.Executor
+
+/**
+ * Serves the first page of [delegate] from [cache] so a feed shows up right away when it's opened
+ * again. A stale first page is refreshed on [revalidateExecutor] behind it, since the list only
+ * shows up once [loadInitial] returns, and the data source is invalidated if the refreshed page
+ * differs so the list reloads with it. Later pages always come from [delegate].
+ */
+class CachedFirstPageDataSource(
+    private val delegate: PageKeyedDataSource<PageKey, NewsItem>,
+    private val cache: ContentCache<FirstPage>,
+    private val key: String,
+    private val revalidateExecutor: Executor = NetworkScheduler.getInstance().executor(Priority.PREFETCH)
+) : PageKeyedDataSource<PageKey, NewsItem>() {
+
+    override fun loadInitial(params: LoadInitialParams<PageKey>, callback: LoadInitialCallback<PageKey, NewsItem>) {
+        val cached = cache.peek(key)
+        if (cached == null) {
+            delegate.loadInitial(params, FirstPageCallback { page ->
+                cache.put(key, page)
+                callback.onResult(page.items, page.previousKey, page.nextKey)
+            })
+            return
+        }
+
+        callback.onResult(cached.items, cached.previousKey, cached.nextKey)
+        if (cache.isFresh(key)) {
+            NetworkMetrics.getInstance().recordCacheHit(Family.NEWS)
+            return
+        }
+        revalidateExecutor.execute {
+            if (isInvalid) {
+                return@execute
+            }
+            delegate.loadInitial(params, FirstPageCallback { page ->
+                cache.put(key, page)
+                if (!page.hasSameItems(cached)) {
+                    invalidate()
+                }
+            })
+        }
+    }
+
+    override fun loadBefore(params: LoadParams<PageKey>, callback: LoadCallback<PageKey, NewsItem>) {
+        delegate.loadBefore(params, callback)
+    }
+
+    override fun loadAfter(params: LoadParams<PageKey>, callback: LoadCallback<PageKey, NewsItem>) {
+        delegate.loadAfter(params, callback)
+    }
+
+    class FirstPage(
+        val items: List<NewsItem>,
+        val previousKey: PageKey?,
+        val nextKey: PageKey?
+    ) {
+        // NewsTitleItem has no equals(), the header only depends on the provider anyway
+        fun hasSameItems(other: FirstPage): Boolean =
+            items.filterIsInstance<NewsItem.NewsContentItem>() == other.items.filterIsInstance<NewsItem.NewsContentItem>()
+    }
+
+    private class FirstPageCallback(
+        private val onFirstPage: (FirstPage) -> Unit
+    ) : LoadInitialCallback<PageKey, NewsItem>() {
+
+        override fun onResult(data: List<NewsItem>, position: Int, totalCount: Int, previousPageKey: PageKey?, nextPageKey: PageKey?) {
+            onResult(data, previousPageKey, nextPageKey)
+        }
+
+        override fun onResult(data: List<NewsItem>, previousPageKey: PageKey?, nextPageKey: PageKey?) {
+            onFirstPage(FirstPage(data, previousPageKey, nextPageKey))
+        }
+    }
+}
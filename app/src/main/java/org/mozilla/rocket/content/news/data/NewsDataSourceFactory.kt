@@ -2,11 +2,14 @@ package org.mozilla.rocket.content.news.data
 
 import android.content.Context
 import androidx.paging.DataSource
+import androidx.paging.PageKeyedDataSource
+import org.mozilla.rocket.content.common.data.ContentCache
 import org.mozilla.rocket.content.news.data.dailyhunt.DailyHuntNewsRemoteDataSource
 import org.mozilla.rocket.content.news.data.dailyhunt.DailyHuntProvider
 import org.mozilla.rocket.content.news.data.newspoint.NewsPointNewsRemoteDataSource
 import org.mozilla.rocket.content.news.data.rss.RssNewsRemoteDataSource
 import org.mozilla.rocket.content.news.domain.GetAdditionalSourceInfoUseCase
+import java.util.concurrent.TimeUnit
 
 class NewsDataSourceFactory(
     private val appContext: Context,
@@ -16,7 +19,16 @@ class NewsDataSourceFactory(
     lateinit var category: String
     lateinit var language: String
 
+    // memory only, news items are not worth a disk format of their own
+    private val firstPageCache = ContentCache<CachedFirstPageDataSource.FirstPage>(FIRST_PAGE_TTL_MILLIS)
+
     override fun create(): DataSource<PageKey, NewsItem> {
+        val dataSource = createRemoteDataSource()
+        val cacheKey = "${dataSource.javaClass.simpleName}/$category/$language"
+        return CachedFirstPageDataSource(dataSource, firstPageCache, cacheKey)
+    }
+
+    private fun createRemoteDataSource(): PageKeyedDataSource<PageKey, NewsItem> {
         val newsProvider = NewsProvider.getNewsProvider()
         return if (newsProvider?.isNewsPoint() == true) {
             val dailyHuntProvider = DailyHuntProvider.getProvider(appContext)
@@ -34,4 +46,8 @@ class NewsDataSourceFactory(
         class PageNumberKey(val number: Int) : PageKey()
         class PageUrlKey(val url: String) : PageKey()
     }
+
+    companion object {
+        private val FIRST_PAGE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10)
+    }
 }
\ No newline at end of file
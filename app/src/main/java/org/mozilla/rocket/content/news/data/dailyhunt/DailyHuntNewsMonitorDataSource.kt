@@ -1,20 +1,22 @@
 package org.mozilla.rocket.content.news.data.dailyhunt
 
 import android.net.Uri
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mozilla.components.concept.fetch.MutableHeaders
 import mozilla.components.concept.fetch.Request
 import org.json.JSONArray
 import org.json.JSONObject
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler.Priority
 import org.mozilla.rocket.content.news.data.NewsItem
 import org.mozilla.rocket.content.news.data.NewsMonitorDataSource
+import org.mozilla.rocket.network.FetchClient
 import org.mozilla.rocket.util.sendHttpRequest
 import java.net.URLEncoder
 
 class DailyHuntNewsMonitorDataSource(private val newsProvider: DailyHuntProvider?) : NewsMonitorDataSource {
 
-    override suspend fun trackItemsShown(items: List<NewsItem>) = withContext(Dispatchers.IO) {
+    override suspend fun trackItemsShown(items: List<NewsItem>) = withContext(FetchClient.dispatcher(Priority.BACKGROUND)) {
         if (items.isEmpty() || items[0] !is NewsItem.NewsContentItem) {
             return@withContext
         }
@@ -35,7 +37,8 @@ class DailyHuntNewsMonitorDataSource(private val newsProvider: DailyHuntProvider
             },
             onError = {
                 // do noting
-            }
+            },
+            family = Family.NEWS
         )
 
         sendHttpRequest(
@@ -48,7 +51,8 @@ class DailyHuntNewsMonitorDataSource(private val newsProvider: DailyHuntProvider
             },
             onError = {
                 // do noting
-            }
+            },
+            family = Family.NEWS
         )
     }
 
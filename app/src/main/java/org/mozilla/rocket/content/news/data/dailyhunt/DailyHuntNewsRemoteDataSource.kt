@@ -2,18 +2,26 @@ package org.mozilla.rocket.content.news.data.dailyhunt
 
 import android.content.Context
 import android.net.Uri
+import android.util.JsonReader
 import androidx.paging.PageKeyedDataSource
 import mozilla.components.concept.fetch.MutableHeaders
 import mozilla.components.concept.fetch.Request
 import org.mozilla.focus.R
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler.Priority
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.news.data.NewsDataSourceFactory.PageKey
 import org.mozilla.rocket.content.news.data.NewsItem
 import org.mozilla.rocket.content.news.data.NewsSourceInfo
 import org.mozilla.rocket.content.news.domain.GetAdditionalSourceInfoUseCase
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.decodeJson
+import org.mozilla.rocket.util.forEachElement
+import org.mozilla.rocket.util.forEachName
+import org.mozilla.rocket.util.optLong
+import org.mozilla.rocket.util.optObjectList
+import org.mozilla.rocket.util.optString
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 import org.mozilla.rocket.util.sha256
-import org.mozilla.rocket.util.toJsonObject
 import java.net.URLEncoder
 
 class DailyHuntNewsRemoteDataSource(
@@ -79,25 +87,24 @@ class DailyHuntNewsRemoteDataSource(
             pages = pages,
             pageSize = pageSize
         )
-        return sendHttpRequest(
+        return sendCoalescedHttpRequest(
             request = Request(
                 url = getApiEndpoint(params),
                 method = Request.Method.GET,
                 headers = createApiHeaders(params)
             ),
+            resultKey = "dailyhunt_news",
             onSuccess = {
                 try {
-                    val body = it.body.string()
-                    val nextPageKey = PageKey.PageUrlKey(parseNextPageUrl(body))
-                    val items = fromJson(body)
-                    Result.Success(nextPageKey to items)
+                    Result.Success(it.body.decodeJson(::fromJson))
                 } catch (e: Exception) {
                     Result.Error(e)
                 }
             },
             onError = {
                 Result.Error(it)
-            }
+            },
+            family = Family.NEWS
         )
     }
 
@@ -105,25 +112,25 @@ class DailyHuntNewsRemoteDataSource(
         val params = parseUrlParams(nextPageUrl).toMutableMap().apply {
             put("ts", System.currentTimeMillis().toString())
         }
-        return sendHttpRequest(
+        return sendCoalescedHttpRequest(
             request = Request(
                 url = getApiEndpoint(params),
                 method = Request.Method.GET,
                 headers = createApiHeaders(params)
             ),
+            resultKey = "dailyhunt_news",
             onSuccess = {
                 try {
-                    val body = it.body.string()
-                    val nextPageKey = PageKey.PageUrlKey(parseNextPageUrl(body))
-                    val items = fromJson(body)
-                    Result.Success(nextPageKey to items)
+                    Result.Success(it.body.decodeJson(::fromJson))
                 } catch (e: Exception) {
                     Result.Error(e)
                 }
             },
             onError = {
                 Result.Error(it)
-            }
+            },
+            priority = Priority.PREFETCH,
+            family = Family.NEWS
         )
     }
 
@@ -193,54 +200,111 @@ class DailyHuntNewsRemoteDataSource(
         return encodedParams
     }
 
-    private fun parseNextPageUrl(jsonString: String): String = jsonString.toJsonObject()
-            .optJSONObject("data")
-            ?.optString("nextPageUrl") ?: ""
+    private fun fromJson(reader: JsonReader): Pair<PageKey.PageUrlKey, List<NewsItem>> {
+        var nextPageUrl = ""
+        var trackingUrl = ""
+        var attributionUrl = ""
+        var rows = emptyList<Row>()
+        reader.forEachName { name ->
+            when (name) {
+                "data" -> reader.forEachName { dataName ->
+                    when (dataName) {
+                        "rows" -> rows = reader.optObjectList(::parseRow)
+                        "trackUrl" -> trackingUrl = reader.optString()
+                        "nextPageUrl" -> nextPageUrl = reader.optString()
+                        else -> reader.skipValue()
+                    }
+                }
+                "track" -> reader.forEachName { trackName ->
+                    when (trackName) {
+                        "comscoreUrls" -> reader.forEachElement {
+                            val url = reader.optString()
+                            if (attributionUrl.isEmpty()) {
+                                attributionUrl = url
+                            }
+                        }
+                        else -> reader.skipValue()
+                    }
+                }
+                else -> reader.skipValue()
+            }
+        }
 
-    private fun fromJson(jsonString: String): List<NewsItem> {
-        val jsonObject = jsonString.toJsonObject()
-        val newsArray = jsonObject.optJSONObject("data").optJSONArray("rows")
-        val trackingUrl = jsonObject.optJSONObject("data")?.optString("trackUrl") ?: ""
-        val attributionUrl = jsonObject.optJSONObject("track")?.optJSONArray("comscoreUrls")?.optString(0) ?: ""
+        // The tracking urls may come after the rows in the stream, so the items are built once
+        // the whole response is read.
         val targetImageDimension = appContext.resources.getDimensionPixelSize(R.dimen.item_news_inner_width).toString()
-        return (0 until newsArray.length())
-            .map { index ->
-                val item = newsArray.getJSONObject(index)
-                val imageUrl = try {
-                    item.optJSONArray("images")?.getString(0)?.run {
-                        this.replace("{CMD}", "crop")
-                            .replace("{W}", targetImageDimension)
-                            .replace("{H}", targetImageDimension)
-                            .replace("{Q}", "75")
-                            .replace("{EXT}", "webp")
-                    } ?: ""
-                } catch (e: Exception) {
-                    e.printStackTrace()
-                    ""
-                }
+        val items = rows.map { row ->
+            val imageUrl = row.image.replace("{CMD}", "crop")
+                .replace("{W}", targetImageDimension)
+                .replace("{H}", targetImageDimension)
+                .replace("{Q}", "75")
+                .replace("{EXT}", "webp")
 
-                val linkUrl = if (item.optString("deepLinkUrl").isNotEmpty()) {
-                    item.optString("deepLinkUrl") + "&puid=${URLEncoder.encode(newsProvider?.userId, "UTF-8")}"
-                } else {
-                    ""
-                }
+            val linkUrl = if (row.deepLinkUrl.isNotEmpty()) {
+                row.deepLinkUrl + "&puid=${URLEncoder.encode(newsProvider?.userId, "UTF-8")}"
+            } else {
+                ""
+            }
+
+            NewsItem.NewsContentItem(
+                row.title,
+                linkUrl,
+                imageUrl,
+                row.source,
+                row.publishTime,
+                linkUrl.sha256(),
+                feed = "dailyhunt",
+                trackingUrl = trackingUrl,
+                trackingId = row.id,
+                trackingData = row.trackData,
+                attributionUrl = attributionUrl
+            )
+        }
+        return PageKey.PageUrlKey(nextPageUrl) to items
+    }
 
-                NewsItem.NewsContentItem(
-                    item.optString("title"),
-                    linkUrl,
-                    imageUrl,
-                    item.optString("source"),
-                    item.optLong("publishTime"),
-                    linkUrl.sha256(),
-                    feed = "dailyhunt",
-                    trackingUrl = trackingUrl,
-                    trackingId = item.optString("id"),
-                    trackingData = item.optString("trackData"),
-                    attributionUrl = attributionUrl
-                )
+    private fun parseRow(reader: JsonReader): Row {
+        var title = ""
+        var deepLinkUrl = ""
+        var image = ""
+        var source = ""
+        var publishTime = 0L
+        var id = ""
+        var trackData = ""
+        reader.forEachName { name ->
+            when (name) {
+                "title" -> title = reader.optString()
+                "deepLinkUrl" -> deepLinkUrl = reader.optString()
+                "images" -> {
+                    var isFirst = true
+                    reader.forEachElement {
+                        val url = reader.optString()
+                        if (isFirst) {
+                            image = url
+                            isFirst = false
+                        }
+                    }
+                }
+                "source" -> source = reader.optString()
+                "publishTime" -> publishTime = reader.optLong()
+                "id" -> id = reader.optString()
+                "trackData" -> trackData = reader.optString()
+                else -> reader.skipValue()
             }
+        }
+        return Row(title, deepLinkUrl, image, source, publishTime, id, trackData)
     }
 
+    private class Row(
+        val title: String,
+        val deepLinkUrl: String,
+        val image: String,
+        val source: String,
+        val publishTime: Long,
+        val id: String,
+        val trackData: String
+    )
+
     companion object {
         private const val API_URL = "http://feed.dailyhunt.in/api/v2/syndication/items"
     }
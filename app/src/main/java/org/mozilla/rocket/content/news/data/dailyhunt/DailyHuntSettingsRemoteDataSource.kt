@@ -1,38 +1,41 @@
 package org.mozilla.rocket.content.news.data.dailyhunt
 
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mozilla.components.concept.fetch.MutableHeaders
 import mozilla.components.concept.fetch.Request
+import org.mozilla.httprequest.NetworkMetrics.Family
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.Result.Success
 import org.mozilla.rocket.content.news.data.NewsCategory
 import org.mozilla.rocket.content.news.data.NewsLanguage
 import org.mozilla.rocket.content.news.data.NewsSettingsDataSource
 import org.mozilla.rocket.content.news.data.NewsSourceInfo
+import org.mozilla.rocket.network.FetchClient
 import org.mozilla.rocket.util.safeApiCall
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 import org.mozilla.rocket.util.toJsonObject
 
 class DailyHuntSettingsRemoteDataSource(private val newsProvider: DailyHuntProvider?) : NewsSettingsDataSource {
 
-    override suspend fun getSupportLanguages(): Result<List<NewsLanguage>> = withContext(Dispatchers.IO) {
+    override suspend fun getSupportLanguages(): Result<List<NewsLanguage>> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
                 val partner = newsProvider?.partnerCode ?: ""
                 val timestamp = System.currentTimeMillis().toString()
-                sendHttpRequest(
+                sendCoalescedHttpRequest(
                     request = Request(
                         url = getLanguageApiEndpoint(partner, timestamp),
                         method = Request.Method.GET,
                         headers = createLanguageApiHeaders(partner, timestamp)
                     ),
+                    resultKey = "dailyhunt_languages",
                     onSuccess = {
                         Success(toNewsLanguage(it.body.string()))
                     },
                     onError = {
                         Result.Error(it)
-                    })
+                    },
+                    family = Family.NEWS)
             },
             errorMessage = "Unable to get remote news languages"
         )
@@ -50,24 +53,26 @@ class DailyHuntSettingsRemoteDataSource(private val newsProvider: DailyHuntProvi
         throw UnsupportedOperationException("Can't set user preference news languages setting to server")
     }
 
-    override suspend fun getSupportCategories(language: String): Result<List<NewsCategory>> = withContext(Dispatchers.IO) {
+    override suspend fun getSupportCategories(language: String): Result<List<NewsCategory>> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
                 val partner = newsProvider?.partnerCode ?: ""
                 val timestamp = System.currentTimeMillis().toString()
                 val uid = newsProvider?.userId ?: ""
-                sendHttpRequest(
+                sendCoalescedHttpRequest(
                     request = Request(
                         url = getCategoryApiEndpoint(partner, language, timestamp, uid),
                         method = Request.Method.GET,
                         headers = createCategoryApiHeaders(partner, language, timestamp, uid)),
+                    resultKey = "dailyhunt_categories",
                     onSuccess = {
                         val categories = parseCategoriesResult(it.body.string())
                         Success(categories)
                     },
                     onError = {
                         Result.Error(it)
-                    }
+                    },
+                    family = Family.NEWS
                 )
             },
             errorMessage = "Unable to get remote news categories"
@@ -3,11 +3,13 @@ package org.mozilla.rocket.content.news.data.newspoint
 import androidx.paging.PageKeyedDataSource
 import mozilla.components.concept.fetch.Request
 import org.json.JSONObject
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler.Priority
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.news.data.NewsDataSourceFactory.PageKey
 import org.mozilla.rocket.content.news.data.NewsItem
 import org.mozilla.rocket.content.news.data.NewsProvider
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 import org.mozilla.rocket.util.sha256
 import java.text.ParseException
 import java.text.SimpleDateFormat
@@ -23,7 +25,7 @@ class NewsPointNewsRemoteDataSource(
         val pageSize = params.requestedLoadSize
         val pages = 1
 
-        when (val result = fetchNewsItems(category, language, pageSize, pages)) {
+        when (val result = fetchNewsItems(category, language, pageSize, pages, Priority.VISIBLE_CONTENT)) {
             is Result.Success -> callback.onResult(result.data, null, PageKey.PageNumberKey(2))
             is Result.Error -> result.exception.printStackTrace()
         }
@@ -33,7 +35,7 @@ class NewsPointNewsRemoteDataSource(
         val pageSize = params.requestedLoadSize
         val pages = (params.key as PageKey.PageNumberKey).number
 
-        when (val result = fetchNewsItems(category, language, pageSize, pages)) {
+        when (val result = fetchNewsItems(category, language, pageSize, pages, Priority.PREFETCH)) {
             is Result.Success -> callback.onResult(result.data, PageKey.PageNumberKey(pages - 1))
             is Result.Error -> result.exception.printStackTrace()
         }
@@ -43,18 +45,19 @@ class NewsPointNewsRemoteDataSource(
         val pageSize = params.requestedLoadSize
         val pages = (params.key as PageKey.PageNumberKey).number
 
-        when (val result = fetchNewsItems(category, language, pageSize, pages)) {
+        when (val result = fetchNewsItems(category, language, pageSize, pages, Priority.PREFETCH)) {
             is Result.Success -> callback.onResult(result.data, PageKey.PageNumberKey(pages + 1))
             is Result.Error -> result.exception.printStackTrace()
         }
     }
 
-    private fun fetchNewsItems(category: String, language: String, pages: Int, pageSize: Int): Result<List<NewsItem>> {
-        return sendHttpRequest(
+    private fun fetchNewsItems(category: String, language: String, pages: Int, pageSize: Int, priority: Priority): Result<List<NewsItem>> {
+        return sendCoalescedHttpRequest(
             request = Request(
                 url = getApiEndpoint(category, language, pages, pageSize),
                 method = Request.Method.GET
             ),
+            resultKey = "newspoint_news",
             onSuccess = {
                 try {
                     Result.Success(fromJson(it.body.string()))
@@ -64,7 +67,9 @@ class NewsPointNewsRemoteDataSource(
             },
             onError = {
                 Result.Error(it)
-            }
+            },
+            priority = priority,
+            family = Family.NEWS
         )
     }
 
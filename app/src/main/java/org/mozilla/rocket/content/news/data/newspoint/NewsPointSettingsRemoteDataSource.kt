@@ -1,9 +1,9 @@
 package org.mozilla.rocket.content.news.data.newspoint
 
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mozilla.components.concept.fetch.Request
 import org.json.JSONArray
+import org.mozilla.httprequest.NetworkMetrics.Family
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.Result.Success
 import org.mozilla.rocket.content.news.data.NewsCategory
@@ -12,24 +12,27 @@ import org.mozilla.rocket.content.news.data.NewsProvider
 import org.mozilla.rocket.content.news.data.NewsSettingsDataSource
 import org.mozilla.rocket.content.news.data.NewsSourceInfo
 import org.mozilla.rocket.content.news.data.dailyhunt.DailyHuntProvider
+import org.mozilla.rocket.network.FetchClient
 import org.mozilla.rocket.util.safeApiCall
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 
 class NewsPointSettingsRemoteDataSource(
     private val newsProvider: NewsProvider?,
     private val dailyHuntProvider: DailyHuntProvider?
 ) : NewsSettingsDataSource {
 
-    override suspend fun getSupportLanguages(): Result<List<NewsLanguage>> = withContext(Dispatchers.IO) {
+    override suspend fun getSupportLanguages(): Result<List<NewsLanguage>> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
-                sendHttpRequest(request = Request(url = getLanguageApiEndpoint(), method = Request.Method.GET),
+                sendCoalescedHttpRequest(request = Request(url = getLanguageApiEndpoint(), method = Request.Method.GET),
+                    resultKey = "newspoint_languages",
                     onSuccess = {
                         Success(NewsLanguage.fromJson(it.body.string()))
                     },
                     onError = {
                         Result.Error(it)
-                    }
+                    },
+                    family = Family.NEWS
                 )
             },
             errorMessage = "Unable to get remote news languages"
@@ -48,16 +51,18 @@ class NewsPointSettingsRemoteDataSource(
         throw UnsupportedOperationException("Can't set user preference news languages setting to server")
     }
 
-    override suspend fun getSupportCategories(language: String): Result<List<NewsCategory>> = withContext(Dispatchers.IO) {
+    override suspend fun getSupportCategories(language: String): Result<List<NewsCategory>> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
-                sendHttpRequest(request = Request(url = getCategoryApiEndpoint(language), method = Request.Method.GET),
+                sendCoalescedHttpRequest(request = Request(url = getCategoryApiEndpoint(language), method = Request.Method.GET),
+                    resultKey = "newspoint_categories",
                     onSuccess = {
                         Success(parseCategoriesResult(it.body.string()))
                     },
                     onError = {
                         Result.Error(it)
-                    }
+                    },
+                    family = Family.NEWS
                 )
             },
             errorMessage = "Unable to get remote news categories"
@@ -1,14 +1,20 @@
 package org.mozilla.rocket.content.news.data.rss
 
+import android.util.JsonReader
 import androidx.paging.PageKeyedDataSource
 import mozilla.components.concept.fetch.Request
-import org.json.JSONArray
 import org.mozilla.focus.locale.Locales
+import org.mozilla.httprequest.NetworkMetrics.Family
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.news.data.NewsDataSourceFactory.PageKey
 import org.mozilla.rocket.content.news.data.NewsItem
 import org.mozilla.rocket.content.news.data.NewsProvider
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.decodeJson
+import org.mozilla.rocket.util.forEachElement
+import org.mozilla.rocket.util.forEachName
+import org.mozilla.rocket.util.optString
+import org.mozilla.rocket.util.optStringOrNull
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 import org.mozilla.rocket.util.sha256
 import java.text.ParseException
 import java.text.SimpleDateFormat
@@ -50,18 +56,20 @@ class RssNewsRemoteDataSource(
         return if (pages != 1) {
             Result.Error(Exception("No pagination support for the RSS news"))
         } else {
-            sendHttpRequest(
+            sendCoalescedHttpRequest(
                 request = Request(url = getApiEndpoint(category), method = Request.Method.GET),
+                resultKey = "rss_news",
                 onSuccess = {
                     try {
-                        Result.Success(fromJson(it.body.string()))
+                        Result.Success(it.body.decodeJson(::fromJson))
                     } catch (e: Exception) {
                         Result.Error(e)
                     }
                 },
                 onError = {
                     Result.Error(it)
-                }
+                },
+                family = Family.NEWS
             )
         }
     }
@@ -78,27 +86,27 @@ class RssNewsRemoteDataSource(
         )
     }
 
-    private fun fromJson(jsonString: String): List<NewsItem> {
+    private fun fromJson(reader: JsonReader): List<NewsItem> {
         val newsList = ArrayList<NewsItem>()
-        val items = JSONArray(jsonString)
-        for (i in 0 until items.length()) {
-            val jsonObject = items.getJSONObject(i)
-            val title = jsonObject.optString("title")
-            val link = jsonObject.optString("link")
-            val imageUrl: String? = jsonObject.optString("image")?.let {
-                if (it == "null") {
-                    null
-                } else {
-                    it
+        val dateFormat = SimpleDateFormat("EEE, d MMM yyyy HH:mm:ss Z", Locale.US)
+        reader.forEachElement {
+            var title = ""
+            var link = ""
+            var imageUrl: String? = ""
+            var source = ""
+            var publishDate = ""
+            reader.forEachName { name ->
+                when (name) {
+                    "title" -> title = reader.optString()
+                    "link" -> link = reader.optString()
+                    "image" -> imageUrl = reader.optStringOrNull()?.takeIf { it != "null" }
+                    "source" -> source = reader.optString()
+                    "pubDate" -> publishDate = reader.optString()
+                    else -> reader.skipValue()
                 }
             }
-            val source = jsonObject.optString("source")
-            val publishDate = jsonObject.optString("pubDate")
-            if (title == null || link == null || publishDate == null) {
-                continue
-            }
             val publishTime = try {
-                SimpleDateFormat("EEE, d MMM yyyy HH:mm:ss Z", Locale.US).parse(publishDate).time
+                dateFormat.parse(publishDate).time
             } catch (e: ParseException) {
                 e.printStackTrace()
                 Long.MIN_VALUE
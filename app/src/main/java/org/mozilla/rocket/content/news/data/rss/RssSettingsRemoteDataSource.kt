@@ -1,10 +1,10 @@
 package org.mozilla.rocket.content.news.data.rss
 
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mozilla.components.concept.fetch.Request
 import org.json.JSONArray
 import org.mozilla.focus.R
+import org.mozilla.httprequest.NetworkMetrics.Family
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.Result.Success
 import org.mozilla.rocket.content.news.data.NewsCategory
@@ -13,8 +13,9 @@ import org.mozilla.rocket.content.news.data.NewsProvider
 import org.mozilla.rocket.content.news.data.NewsSettingsDataSource
 import org.mozilla.rocket.content.news.data.NewsSourceInfo
 import org.mozilla.rocket.content.news.data.rss.RssSettingsLocalDataSource.Companion.DUMMY_NEWS_LANGUAGE
+import org.mozilla.rocket.network.FetchClient
 import org.mozilla.rocket.util.safeApiCall
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 
 class RssSettingsRemoteDataSource(private val newsProvider: NewsProvider?) : NewsSettingsDataSource {
 
@@ -34,16 +35,18 @@ class RssSettingsRemoteDataSource(private val newsProvider: NewsProvider?) : New
         throw UnsupportedOperationException("Can't set user preference news languages setting to server")
     }
 
-    override suspend fun getSupportCategories(language: String): Result<List<NewsCategory>> = withContext(Dispatchers.IO) {
+    override suspend fun getSupportCategories(language: String): Result<List<NewsCategory>> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
             call = {
-                sendHttpRequest(request = Request(url = getCategoryApiEndpoint(), method = Request.Method.GET),
+                sendCoalescedHttpRequest(request = Request(url = getCategoryApiEndpoint(), method = Request.Method.GET),
+                    resultKey = "rss_categories",
                     onSuccess = {
                         Success(parseCategoriesResult(it.body.string()))
                     },
                     onError = {
                         Result.Error(it)
-                    }
+                    },
+                    family = Family.NEWS
                 )
             },
             errorMessage = "Unable to get remote news categories"
@@ -1,7 +1,15 @@
 package org.mozilla.rocket.content.travel.data
 
+import android.util.JsonReader
 import org.json.JSONObject
+import org.mozilla.rocket.util.forEachElement
+import org.mozilla.rocket.util.forEachName
 import org.mozilla.rocket.util.getJsonArray
+import org.mozilla.rocket.util.optBoolean
+import org.mozilla.rocket.util.optDouble
+import org.mozilla.rocket.util.optInt
+import org.mozilla.rocket.util.optObjectList
+import org.mozilla.rocket.util.optString
 import org.mozilla.rocket.util.toJsonObject
 
 // api entity for Booking.com
@@ -31,6 +39,18 @@ data class BcAutocompleteApiEntity(val result: List<BcAutocompleteApiItem>) : Bc
                 BcAutocompleteApiEntity(emptyList())
             }
         }
+
+        fun fromJson(reader: JsonReader): BcAutocompleteApiEntity {
+            var result = emptyList<BcAutocompleteApiItem>()
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_RESULT -> result = reader.optObjectList { BcAutocompleteApiItem.fromJson(it) }
+                        .filter { item -> TYPE_CITY == item.type || TYPE_REGION == item.type }
+                    else -> reader.skipValue()
+                }
+            }
+            return BcAutocompleteApiEntity(result)
+        }
     }
 }
 
@@ -59,6 +79,27 @@ data class BcAutocompleteApiItem(
                     jsonObject.optString(KEY_TYPE),
                     jsonObject.optString(KEY_URL)
                 )
+
+        fun fromJson(reader: JsonReader): BcAutocompleteApiItem {
+            var id = ""
+            var name = ""
+            var country = ""
+            var countryCode = ""
+            var type = ""
+            var url = ""
+            reader.forEachName { key ->
+                when (key) {
+                    KEY_ID -> id = reader.optString()
+                    KEY_NAME -> name = reader.optString()
+                    KEY_COUNTRY_NAME -> country = reader.optString()
+                    KEY_COUNTRY_CODE -> countryCode = reader.optString()
+                    KEY_TYPE -> type = reader.optString()
+                    KEY_URL -> url = reader.optString()
+                    else -> reader.skipValue()
+                }
+            }
+            return BcAutocompleteApiItem(id, name, country, countryCode, type, url)
+        }
     }
 }
 
@@ -75,6 +116,17 @@ data class BcHotelApiEntity(val result: List<BcHotelApiItem?>) : BcApiEntity() {
                 BcHotelApiEntity(emptyList())
             }
         }
+
+        fun fromJson(reader: JsonReader, affiliateId: String): BcHotelApiEntity {
+            var result = emptyList<BcHotelApiItem?>()
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_RESULT -> result = reader.optObjectList { BcHotelApiItem.fromJson(it, affiliateId) }
+                    else -> reader.skipValue()
+                }
+            }
+            return BcHotelApiEntity(result)
+        }
     }
 }
 
@@ -182,6 +234,146 @@ data class BcHotelApiItem(
                 return null
             }
         }
+
+        /**
+         * Streaming counterpart of [fromJson], an item missing one of the sections the
+         * JSONObject version depends on is still consumed but mapped to null.
+         */
+        fun fromJson(reader: JsonReader, affiliateId: String): BcHotelApiItem? {
+            var id = 0
+            var hotelData: HotelData? = null
+            var minPrice = 0f
+            var hasRoomData = false
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_HOTEL_ID -> id = reader.optInt()
+                    KEY_HOTEL_DATA -> hotelData = readHotelData(reader)
+                    KEY_ROOM -> {
+                        hasRoomData = true
+                        reader.forEachElement {
+                            val roomMinPrice = readRoomMinPrice(reader)
+                            if ((minPrice == 0f || minPrice > roomMinPrice) && roomMinPrice > 0) {
+                                minPrice = roomMinPrice
+                            }
+                        }
+                    }
+                    else -> reader.skipValue()
+                }
+            }
+            val data = hotelData?.takeIf { it.isComplete && hasRoomData } ?: return null
+
+            return BcHotelApiItem(
+                    id,
+                    data.mainPhotoUrl ?: data.firstPhotoUrl ?: "",
+                    data.name,
+                    data.reviewScore,
+                    data.creditCardRequired,
+                    data.description,
+                    data.hasFreeWifi,
+                    minPrice,
+                    data.currency,
+                    data.payAtProperty,
+                    data.url + affiliateId,
+                    SOURCE_NAME,
+                    SOURCE
+            )
+        }
+
+        private fun readHotelData(reader: JsonReader): HotelData {
+            val data = HotelData()
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_DATA_NAME -> data.name = reader.optString()
+                    KEY_DATA_REVIEW_SCORE -> data.reviewScore = reader.optDouble().toFloat()
+                    KEY_DATA_CREDITCARD_REQUIRED -> data.creditCardRequired = reader.optBoolean()
+                    KEY_DATA_HOTEL_DESCRIPTION -> data.description = reader.optString()
+                    KEY_DATA_CURRENCY -> data.currency = reader.optString()
+                    KEY_DATA_URL -> data.url = reader.optString()
+                    KEY_DATA_HOTEL_PHOTOS -> {
+                        data.hasPhotos = true
+                        reader.forEachElement { readPhoto(reader, data) }
+                    }
+                    KEY_DATA_HOTEL_FACILITIES -> {
+                        data.hasFacilities = true
+                        reader.forEachElement {
+                            reader.forEachName { facilityName ->
+                                when (facilityName) {
+                                    KEY_DATA_HOTEL_FACILITIES_TYPE_ID -> if (reader.optString() == FACILITY_ID_FREE_WIFI) {
+                                        data.hasFreeWifi = true
+                                    }
+                                    else -> reader.skipValue()
+                                }
+                            }
+                        }
+                    }
+                    KEY_DATA_PAYMENT_OPTIONS -> {
+                        data.hasPaymentOptions = true
+                        reader.forEachName { paymentName ->
+                            when (paymentName) {
+                                KEY_DATA_PAYMENT_OPTIONS_PAY_AT_PROPERTY -> data.payAtProperty = reader.optBoolean()
+                                else -> reader.skipValue()
+                            }
+                        }
+                    }
+                    else -> reader.skipValue()
+                }
+            }
+            return data
+        }
+
+        private fun readPhoto(reader: JsonReader, data: HotelData) {
+            var url = ""
+            var isMain = false
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_DATA_HOTEL_PHOTOS_URL_ORIGINAL -> url = reader.optString()
+                    KEY_DATA_HOTEL_PHOTOS_MAIN -> isMain = reader.optBoolean()
+                    else -> reader.skipValue()
+                }
+            }
+            if (data.firstPhotoUrl == null) {
+                data.firstPhotoUrl = url
+            }
+            if (isMain && data.mainPhotoUrl == null) {
+                data.mainPhotoUrl = url
+            }
+        }
+
+        private fun readRoomMinPrice(reader: JsonReader): Float {
+            var minPrice = Float.NaN
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_ROOM_INFO -> reader.forEachName { infoName ->
+                        when (infoName) {
+                            KEY_ROOM_INFO_MIN_PRICE -> minPrice = reader.optDouble().toFloat()
+                            else -> reader.skipValue()
+                        }
+                    }
+                    else -> reader.skipValue()
+                }
+            }
+            return minPrice
+        }
+    }
+
+    private class HotelData {
+        var name = ""
+        var reviewScore = Float.NaN
+        var creditCardRequired = false
+        var description = ""
+        var currency = ""
+        var url = ""
+        var firstPhotoUrl: String? = null
+        var mainPhotoUrl: String? = null
+        var hasFreeWifi = false
+        var payAtProperty = false
+        var hasPhotos = false
+        var hasFacilities = false
+        var hasPaymentOptions = false
+
+        val isComplete: Boolean
+            get() = hasPhotos && hasFacilities && hasPaymentOptions
+    }
     }
 }
 
@@ -195,6 +387,23 @@ data class BcTranslationApiEntity(val result: BcTranslationApiItem) : BcApiEntit
 
             return BcTranslationApiEntity(result)
         }
+
+        fun fromJson(reader: JsonReader): BcTranslationApiEntity {
+            var result: BcTranslationApiItem? = null
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_RESULT -> reader.forEachElement {
+                        if (result == null) {
+                            result = BcTranslationApiItem.fromJson(reader)
+                        } else {
+                            reader.skipValue()
+                        }
+                    }
+                    else -> reader.skipValue()
+                }
+            }
+            return BcTranslationApiEntity(requireNotNull(result) { "Empty translation result" })
+        }
     }
 }
 
@@ -208,5 +417,28 @@ data class BcTranslationApiItem(val name: String) {
             val name = (translations[0] as JSONObject).optString(KEY_NAME)
             return BcTranslationApiItem(name)
         }
+
+        fun fromJson(reader: JsonReader): BcTranslationApiItem {
+            var name: String? = null
+            reader.forEachName { key ->
+                when (key) {
+                    KEY_TRANSLATIONS -> reader.forEachElement {
+                        if (name == null) {
+                            reader.forEachName { translationKey ->
+                                when (translationKey) {
+                                    KEY_NAME -> name = reader.optString()
+                                    else -> reader.skipValue()
+                                }
+                            }
+                            name = name ?: ""
+                        } else {
+                            reader.skipValue()
+                        }
+                    }
+                    else -> reader.skipValue()
+                }
+            }
+            return BcTranslationApiItem(requireNotNull(name) { "Empty translations" })
+        }
     }
 }
\ No newline at end of file
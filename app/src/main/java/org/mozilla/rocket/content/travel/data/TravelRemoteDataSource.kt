@@ -1,31 +1,35 @@
 package org.mozilla.rocket.content.travel.data
 
 import android.net.Uri
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mozilla.components.concept.fetch.MutableHeaders
 import mozilla.components.concept.fetch.Request
 import org.mozilla.focus.locale.Locales
 import org.mozilla.focus.utils.FirebaseHelper
+import org.mozilla.httprequest.NetworkMetrics.Family
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.common.data.ApiEntity
+import org.mozilla.rocket.network.FetchClient
+import org.mozilla.rocket.util.decodeJson
 import org.mozilla.rocket.util.safeApiCall
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.util.sendCoalescedHttpRequest
 import org.mozilla.rocket.util.toJsonObject
 import java.util.Locale
 
 class TravelRemoteDataSource : TravelDataSource {
 
-    override suspend fun getExploreList(): Result<ApiEntity> = withContext(Dispatchers.IO) {
+    override suspend fun getExploreList(): Result<ApiEntity> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
-                    sendHttpRequest(request = Request(url = getExploreApiEndpoint(), method = Request.Method.GET),
+                    sendCoalescedHttpRequest(request = Request(url = getExploreApiEndpoint(), method = Request.Method.GET),
+                            resultKey = "explore",
                             onSuccess = {
-                                Result.Success(ApiEntity.fromJson(it.body.string()))
+                                Result.Success(it.body.decodeJson { reader -> ApiEntity.fromJson(reader) })
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get remote travel explore data"
@@ -36,16 +40,18 @@ class TravelRemoteDataSource : TravelDataSource {
         TODO("not implemented")
     }
 
-    override suspend fun searchCity(keyword: String): Result<BcAutocompleteApiEntity> = withContext(Dispatchers.IO) {
+    override suspend fun searchCity(keyword: String): Result<BcAutocompleteApiEntity> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
-                    sendHttpRequest(request = Request(url = getSearchCityApiEndpoint(keyword), method = Request.Method.GET, headers = createHeaders()),
+                    sendCoalescedHttpRequest(request = Request(url = getSearchCityApiEndpoint(keyword), method = Request.Method.GET, headers = createHeaders()),
+                            resultKey = "search_city",
                             onSuccess = {
-                                Result.Success(BcAutocompleteApiEntity.fromJson(it.body.string()))
+                                Result.Success(it.body.decodeJson { reader -> BcAutocompleteApiEntity.fromJson(reader) })
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get search city result"
@@ -56,83 +62,94 @@ class TravelRemoteDataSource : TravelDataSource {
         TODO("not implemented")
     }
 
-    override suspend fun getCityWikiName(name: String): Result<String> = withContext(Dispatchers.IO) {
+    override suspend fun getCityWikiName(name: String): Result<String> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
-                    sendHttpRequest(request = Request(url = getWikiNameApiEndpoint(name)),
+                    sendCoalescedHttpRequest(request = Request(url = getWikiNameApiEndpoint(name)),
+                            resultKey = "wiki_name",
                             onSuccess = {
                                 Result.Success(getWikiNameFromJson(it.body.string()))
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get wiki name"
         )
     }
 
-    override suspend fun getCityWikiImage(name: String): Result<String> = withContext(Dispatchers.IO) {
+    override suspend fun getCityWikiImage(name: String): Result<String> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
-                    sendHttpRequest(request = Request(url = getWikiImageApiEndpoint(name)),
+                    sendCoalescedHttpRequest(request = Request(url = getWikiImageApiEndpoint(name)),
+                            resultKey = "wiki_image",
                             onSuccess = {
                                 Result.Success(getWikiImageFromJson(it.body.string()))
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get wiki image"
         )
     }
 
-    override suspend fun getCityWikiExtract(name: String): Result<String> = withContext(Dispatchers.IO) {
+    override suspend fun getCityWikiExtract(name: String): Result<String> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
-                    sendHttpRequest(request = Request(url = getWikiExtractApiEndpoint(name)),
+                    sendCoalescedHttpRequest(request = Request(url = getWikiExtractApiEndpoint(name)),
+                            resultKey = "wiki_extract",
                             onSuccess = {
                                 Result.Success(getWikiExtractFromJson(it.body.string()))
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get wiki extract"
         )
     }
 
-    override suspend fun getCityVideos(keyword: String): Result<VideoApiEntity> = withContext(Dispatchers.IO) {
+    override suspend fun getCityVideos(keyword: String): Result<VideoApiEntity> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
-                    sendHttpRequest(request = Request(url = getVideosApiEndpoint(keyword), method = Request.Method.GET, headers = createVideoHeaders()),
+                    sendCoalescedHttpRequest(request = Request(url = getVideosApiEndpoint(keyword), method = Request.Method.GET, headers = createVideoHeaders()),
+                            resultKey = "videos",
                             onSuccess = {
-                                Result.Success(VideoApiEntity.fromJson(it.body.string()))
+                                Result.Success(it.body.decodeJson { reader -> VideoApiEntity.fromJson(reader) })
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get video result"
         )
     }
 
-    override suspend fun getCityHotels(id: String, type: String, offset: Int): Result<BcHotelApiEntity> = withContext(Dispatchers.IO) {
+    override suspend fun getCityHotels(id: String, type: String, offset: Int): Result<BcHotelApiEntity> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
                     require(offset % BOOKING_COM_HOTELS_OFFSET_BASE == 0) { "Offset is not multiple of 100, which means end is reached" }
                     require(type == BcAutocompleteApiEntity.TYPE_CITY || type == BcAutocompleteApiEntity.TYPE_REGION) { "Type not supported" }
+                    val affiliateId = getBcAffiliateId()
 
-                    sendHttpRequest(request = Request(url = getHotelsApiEndpoint(id, type, offset), method = Request.Method.GET, headers = createHeaders()),
+                    sendCoalescedHttpRequest(request = Request(url = getHotelsApiEndpoint(id, type, offset), method = Request.Method.GET, headers = createHeaders()),
+                            resultKey = listOf("hotels", affiliateId),
                             onSuccess = {
-                                Result.Success(BcHotelApiEntity.fromJson(it.body.string(), getBcAffiliateId()))
+                                Result.Success(it.body.decodeJson { reader -> BcHotelApiEntity.fromJson(reader, affiliateId) })
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get hotels result"
@@ -151,34 +168,38 @@ class TravelRemoteDataSource : TravelDataSource {
         TODO("not implemented")
     }
 
-    override suspend fun getEnglishName(id: String, type: String): Result<String> = withContext(Dispatchers.IO) {
+    override suspend fun getEnglishName(id: String, type: String): Result<String> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
-                    sendHttpRequest(request = Request(url = getTranslationApiEndpoint(id, type), method = Request.Method.GET, headers = createHeaders()),
+                    sendCoalescedHttpRequest(request = Request(url = getTranslationApiEndpoint(id, type), method = Request.Method.GET, headers = createHeaders()),
+                            resultKey = "translation",
                             onSuccess = {
-                                Result.Success(BcTranslationApiEntity.fromJson(it.body.string()).result.name)
+                                Result.Success(it.body.decodeJson { reader -> BcTranslationApiEntity.fromJson(reader) }.result.name)
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get English name"
         )
     }
 
-    override suspend fun getMoreHotelsUrl(name: String, id: String, type: String): Result<String> = withContext(Dispatchers.IO) {
+    override suspend fun getMoreHotelsUrl(name: String, id: String, type: String): Result<String> = withContext(FetchClient.dispatcher) {
         return@withContext safeApiCall(
                 call = {
-                    sendHttpRequest(request = Request(url = getSearchCityApiEndpoint(name), method = Request.Method.GET, headers = createHeaders()),
+                    sendCoalescedHttpRequest(request = Request(url = getSearchCityApiEndpoint(name), method = Request.Method.GET, headers = createHeaders()),
+                            resultKey = listOf("more_hotels_url", id, type),
                             onSuccess = {
-                                val apiEntity = BcAutocompleteApiEntity.fromJson(it.body.string())
+                                val apiEntity = it.body.decodeJson { reader -> BcAutocompleteApiEntity.fromJson(reader) }
                                 val apiItem = apiEntity.result.first { item -> item.id == id && item.type == type }
                                 Result.Success(apiItem.url)
                             },
                             onError = {
                                 Result.Error(it)
-                            }
+                            },
+                            family = Family.TRAVEL
                     )
                 },
                 errorMessage = "Unable to get more hotels url"
@@ -1,19 +1,26 @@
 package org.mozilla.rocket.content.travel.data
 
 import android.net.Uri
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.Flow
 import org.mozilla.focus.locale.Locales
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.common.data.ApiEntity
+import org.mozilla.rocket.content.common.data.ContentCache
 import java.util.Locale
 
 class TravelRepository(
     private val remoteDataSource: TravelRemoteDataSource,
-    private val localDataSource: TravelLocalDataSource
+    private val localDataSource: TravelLocalDataSource,
+    private val cache: ContentCache<ApiEntity>
 ) {
 
-    suspend fun getExploreList(): Result<ApiEntity> {
-        return remoteDataSource.getExploreList()
-    }
+    fun getExploreList(): Flow<Result<ApiEntity>> =
+        cache.stream(KEY_EXPLORE_LIST) { remoteDataSource.getExploreList() }
+
+    suspend fun getCachedExploreList(): Result<ApiEntity> =
+        cache.get(KEY_EXPLORE_LIST) { remoteDataSource.getExploreList() }
 
     suspend fun getBucketList(): Result<List<BucketListCity>> {
         return localDataSource.getBucketList()
@@ -33,8 +40,11 @@ class TravelRepository(
 
     suspend fun getCityWiki(name: String): Result<Wiki> {
         val encodedName = Uri.encode(name)
-        val resultExtract = remoteDataSource.getCityWikiExtract(encodedName)
-        val resultImage = remoteDataSource.getCityWikiImage(encodedName)
+        val (resultExtract, resultImage) = coroutineScope {
+            val extract = async { remoteDataSource.getCityWikiExtract(encodedName) }
+            val image = async { remoteDataSource.getCityWikiImage(encodedName) }
+            extract.await() to image.await()
+        }
 
         if (resultImage !is Result.Success || resultExtract !is Result.Success) {
             return Result.Error(Exception())
@@ -75,5 +85,6 @@ class TravelRepository(
 
     companion object {
         private const val WIKI_URL = "https://%s.wikipedia.org/wiki/%s"
+        private const val KEY_EXPLORE_LIST = "explore_list"
     }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package org.mozilla.rocket.content.travel.data
 
+import android.util.JsonReader
 import org.json.JSONObject
+import org.mozilla.rocket.util.forEachName
 import org.mozilla.rocket.util.getJsonArray
+import org.mozilla.rocket.util.optObjectList
+import org.mozilla.rocket.util.optString
 
 data class VideoApiEntity(val videos: List<VideoApiItem>) {
     companion object {
@@ -13,6 +17,9 @@ data class VideoApiEntity(val videos: List<VideoApiItem>) {
                 VideoApiEntity(emptyList())
             }
         }
+
+        fun fromJson(reader: JsonReader): VideoApiEntity =
+            VideoApiEntity(reader.optObjectList { VideoApiItem.fromJson(it) })
     }
 }
 
@@ -50,5 +57,32 @@ data class VideoApiItem(
                 jsonObject.optString(KEY_COMPONENT_ID),
                 jsonObject.optString(KEY_SOURCE)
             )
+
+        fun fromJson(reader: JsonReader): VideoApiItem {
+            var title = ""
+            var channelTitle = ""
+            var publishedAt = ""
+            var thumbnail = ""
+            var duration = ""
+            var link = ""
+            var viewCount = ""
+            var componentId = ""
+            var source = ""
+            reader.forEachName { name ->
+                when (name) {
+                    KEY_TITLE -> title = reader.optString()
+                    KEY_CHANNEL_TITLE -> channelTitle = reader.optString()
+                    KEY_PUBLISHED_AT -> publishedAt = reader.optString()
+                    KEY_THUMBNAIL -> thumbnail = reader.optString()
+                    KEY_DURATION -> duration = reader.optString()
+                    KEY_LINK -> link = reader.optString()
+                    KEY_VIEW_COUNT -> viewCount = reader.optString()
+                    KEY_COMPONENT_ID -> componentId = reader.optString()
+                    KEY_SOURCE -> source = reader.optString()
+                    else -> reader.skipValue()
+                }
+            }
+            return VideoApiItem(title, channelTitle, publishedAt, thumbnail, duration, link, viewCount.toInt(), componentId, source)
+        }
     }
 }
\ No newline at end of file
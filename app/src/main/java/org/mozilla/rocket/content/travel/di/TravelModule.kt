@@ -3,6 +3,8 @@ package org.mozilla.rocket.content.travel.di
 import android.content.Context
 import dagger.Module
 import dagger.Provides
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.rocket.content.common.data.ContentCache
 import org.mozilla.rocket.content.travel.data.TravelLocalDataSource
 import org.mozilla.rocket.content.travel.data.TravelOnboardingRepository
 import org.mozilla.rocket.content.travel.data.TravelRemoteDataSource
@@ -32,11 +34,14 @@ import org.mozilla.rocket.content.travel.ui.TravelCitySearchViewModel
 import org.mozilla.rocket.content.travel.ui.TravelCityViewModel
 import org.mozilla.rocket.content.travel.ui.TravelExploreViewModel
 import org.mozilla.rocket.content.travel.ui.TravelViewModel
+import java.util.concurrent.TimeUnit
 import javax.inject.Singleton
 
 @Module
 object TravelModule {
 
+    private val CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30)
+
     @JvmStatic
     @Singleton
     @Provides
@@ -51,9 +56,14 @@ object TravelModule {
     @Singleton
     @Provides
     fun provideTravelRepository(
+        appContext: Context,
         travelRemoteDataSource: TravelRemoteDataSource,
         travelLocalDataSource: TravelLocalDataSource
-    ): TravelRepository = TravelRepository(travelRemoteDataSource, travelLocalDataSource)
+    ): TravelRepository = TravelRepository(
+        travelRemoteDataSource,
+        travelLocalDataSource,
+        ContentCache(CACHE_TTL_MILLIS, ContentCache.apiEntityStore(appContext.cacheDir, "travel"), Family.TRAVEL)
+    )
 
     @JvmStatic
     @Singleton
@@ -11,7 +11,7 @@ class AddToBucketListUseCase(private val travelRepository: TravelRepository) {
     }
 
     private suspend fun getImageUrl(id: String): String {
-        val exploreCityResult = travelRepository.getExploreList()
+        val exploreCityResult = travelRepository.getCachedExploreList()
         if (exploreCityResult is Result.Success) {
             val apiEntity = exploreCityResult.data
             for (category in apiEntity.subcategories) {
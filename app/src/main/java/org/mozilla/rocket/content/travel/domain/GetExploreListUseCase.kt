@@ -1,11 +1,12 @@
 package org.mozilla.rocket.content.travel.domain
 
+import kotlinx.coroutines.flow.Flow
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.content.common.data.ApiEntity
 import org.mozilla.rocket.content.travel.data.TravelRepository
 
 class GetExploreListUseCase(private val travelRepository: TravelRepository) {
 
-    suspend operator fun invoke(): Result<ApiEntity> =
+    operator fun invoke(): Flow<Result<ApiEntity>> =
             travelRepository.getExploreList()
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.yield
 import org.mozilla.focus.R
@@ -54,7 +55,7 @@ class TravelCityViewModel(
     private val setTravelDiscoveryAsDefault: SetTravelDiscoveryAsDefaultUseCase
 ) : ViewModel() {
 
-    private val data = ArrayList<DelegateAdapter.UiModel>()
+    private lateinit var sections: Sections
 
     private val _isDataLoading = MutableLiveData<State>()
     val isDataLoading: LiveData<State> = _isDataLoading
@@ -103,90 +104,113 @@ class TravelCityViewModel(
     }
 
     fun getLatestItems(context: Context, city: BaseCityData) {
-        data.clear()
+        sections = Sections(SectionHeaderUiModel(SectionType.Explore(city.name)))
         dataLoadingCount = 0
         hotelsCount = 0
         isHotelLoading = false
         this.city = city
 
+        val videoQuery = String.format(VIDEO_QUERY_PATTERN, Uri.encode(city.name), context.resources.getString(R.string.travel_vertical_title))
+        val wikiSourceName = context.resources.getString(R.string.travel_content_wiki_source_name)
+
         loadMoreJob?.cancel()
         loadingJob?.cancel()
-        loadingJob = launchDataLoad(
-            {
-                // TODO: add price items
-
-                // add explore
-                data.add(SectionHeaderUiModel(SectionType.Explore(city.name)))
-
-                val englishNameResult = getEnglishName(city.id, city.type)
-                val englishName = if (englishNameResult is Result.Success) {
-                    _englishCityName.value = englishNameResult.data
-                    englishNameResult.data
-                } else {
-                    city.name
-                }
-                this.city = city.copy(nameInEnglish = englishName)
-
-                val igResult = getIg(englishName)
-                if (igResult is Result.Success) {
-                    data.add(TravelMapper.toExploreIgUiModel(igResult.data))
+        loadingJob = launchDataLoad {
+            // TODO: add price items
+
+            // Only ig waits for the English name, everything else starts right away and shows up as
+            // soon as it's loaded. Cancelling loadingJob cancels all of them.
+            coroutineScope {
+                launch {
+                    val englishNameResult = getEnglishName(city.id, city.type)
+                    val englishName = if (englishNameResult is Result.Success) {
+                        _englishCityName.value = englishNameResult.data
+                        englishNameResult.data
+                    } else {
+                        city.name
+                    }
+                    this@TravelCityViewModel.city = this@TravelCityViewModel.city.copy(nameInEnglish = englishName)
+
+                    val igResult = getIg(englishName)
+                    if (igResult is Result.Success) {
+                        publish { ig = listOf(TravelMapper.toExploreIgUiModel(igResult.data)) }
+                    }
                 }
 
-                val videoResult = getVideos(String.format(VIDEO_QUERY_PATTERN, Uri.encode(city.name), context.resources.getString(R.string.travel_vertical_title)))
-                if (videoResult is Result.Success) {
-                    data.addAll(
-                            videoResult.data.videos.map {
+                launch {
+                    val videoResult = getVideos(videoQuery)
+                    if (videoResult is Result.Success) {
+                        publish {
+                            videos = videoResult.data.videos.map {
                                 // TODO: handle real read stats
                                 TravelMapper.toVideoUiModel(it, false)
                             }
-                    )
+                        }
+                    }
                 }
 
-                val wikiResult = getWiki(city.name)
-                if (wikiResult is Result.Success) {
-                    data.add(TravelMapper.toExploreWikiUiModel(wikiResult.data, context.resources.getString(R.string.travel_content_wiki_source_name)))
+                launch {
+                    val wikiResult = getWiki(city.name)
+                    if (wikiResult is Result.Success) {
+                        publish { wiki = listOf(TravelMapper.toExploreWikiUiModel(wikiResult.data, wikiSourceName)) }
+                    }
                 }
 
-                // add hotel section header
-                val moreHotelsUrlResult = getMoreHotelsUrl(city.name, city.id, city.type)
-                val hotelHeader = if (moreHotelsUrlResult is Result.Success) {
-                    SectionHeaderUiModel(SectionType.TopHotels, moreHotelsUrlResult.data)
-                } else {
-                    SectionHeaderUiModel(SectionType.TopHotels)
+                launch {
+                    val moreHotelsUrlResult = getMoreHotelsUrl(city.name, city.id, city.type)
+                    if (moreHotelsUrlResult is Result.Success) {
+                        publish { hotelHeader = SectionHeaderUiModel(SectionType.TopHotels, moreHotelsUrlResult.data) }
+                    }
                 }
-                data.add(hotelHeader)
-                yield()
 
-                _items.postValue(data)
-            }, {
-                // add hotels
-                loadHotels()
+                launch {
+                    loadHotels()
+                }
             }
-        )
+            showContent()
+        }
     }
 
     private suspend fun loadHotels() {
-        data.add(loadingUiModel)
-        _items.postValue(data)
-
         isHotelLoading = true
+        sections.hotels.add(loadingUiModel)
+        render()
+
         val hotelResult = getHotels(city.id, city.type, hotelsCount)
 
-        data.remove(loadingUiModel)
         yield()
+        sections.hotels.remove(loadingUiModel)
         if (hotelResult is Result.Success) {
             hotelsCount += hotelResult.data.result.size
-            data.addAll(
+            sections.hotels.addAll(
                 hotelResult.data.result.filterNotNull()
                     .filter { it.price > 0f }
                     .map { TravelMapper.toHotelUiModel(it) }
             )
         }
 
-        _items.postValue(data)
+        publish()
         isHotelLoading = false
     }
 
+    // The page shows up with the first loaded section, or once everything failed.
+    private fun publish(update: Sections.() -> Unit = {}) {
+        sections.update()
+        render()
+        showContent()
+    }
+
+    private fun render() {
+        _items.value = sections.toList()
+    }
+
+    private fun showContent() {
+        if (!sections.isShown) {
+            sections.isShown = true
+            setDataLoadingState(State.Idle)
+        }
+    }
+
     private fun loadMoreHotels() {
         if (!isHotelLoading) {
             loadMoreJob = backgroundTask {
@@ -316,13 +340,11 @@ class TravelCityViewModel(
         }
     }
 
-    private fun launchDataLoad(block1: suspend () -> Unit, block2: suspend () -> Unit): Job {
+    private fun launchDataLoad(block: suspend () -> Unit): Job {
         return viewModelScope.launch {
             try {
                 setDataLoadingState(State.Loading)
-                block1()
-                setDataLoadingState(State.Idle)
-                block2()
+                block()
             } catch (ce: CancellationException) {
                 // do nothing
             } catch (t: Throwable) {
@@ -362,6 +384,28 @@ class TravelCityViewModel(
         }
     }
 
+    /**
+     * The page content by section, so each one can be filled in whenever it's loaded while the page
+     * keeps its order.
+     */
+    private class Sections(private val exploreHeader: SectionHeaderUiModel) {
+        var ig: List<DelegateAdapter.UiModel> = emptyList()
+        var videos: List<DelegateAdapter.UiModel> = emptyList()
+        var wiki: List<DelegateAdapter.UiModel> = emptyList()
+        var hotelHeader = SectionHeaderUiModel(SectionType.TopHotels)
+        val hotels = ArrayList<DelegateAdapter.UiModel>()
+        var isShown = false
+
+        fun toList(): List<DelegateAdapter.UiModel> = ArrayList<DelegateAdapter.UiModel>().apply {
+            add(exploreHeader)
+            addAll(ig)
+            addAll(videos)
+            addAll(wiki)
+            add(hotelHeader)
+            addAll(hotels)
+        }
+    }
+
     data class OpenLinkAction(val url: String, val telemetryData: ContentTabTelemetryData)
 
     sealed class State {
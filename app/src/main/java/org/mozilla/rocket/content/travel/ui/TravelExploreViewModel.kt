@@ -5,6 +5,7 @@ import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.launch
 import org.mozilla.focus.telemetry.TelemetryWrapper
 import org.mozilla.rocket.adapter.DelegateAdapter
@@ -43,22 +44,24 @@ class TravelExploreViewModel(private val getExploreList: GetExploreListUseCase)
 
     private fun getExploreUiModelList() {
         launchDataLoad {
-            val data = ArrayList<DelegateAdapter.UiModel>()
+            // add explore list, a cached list first and the refreshed one if it changed
+            getExploreList().collect { exploreListResult ->
+                val data = ArrayList<DelegateAdapter.UiModel>()
 
-            // add search
-            data.add(CitySearchUiModel())
+                // add search
+                data.add(CitySearchUiModel())
 
-            // add explore list
-            val exploreListResult = getExploreList()
-            if (exploreListResult is Result.Success) {
-                versionId = exploreListResult.data.version
-                data.addAll(
-                    TravelMapper.toExploreList(exploreListResult.data)
-                )
-            }
+                if (exploreListResult is Result.Success) {
+                    versionId = exploreListResult.data.version
+                    data.addAll(
+                        TravelMapper.toExploreList(exploreListResult.data)
+                    )
+                }
 
-            // TODO: handle error
-            _exploreItems.postValue(data)
+                // TODO: handle error
+                _exploreItems.postValue(data)
+                _isDataLoading.value = State.Idle
+            }
         }
     }
 
@@ -15,17 +15,26 @@ import androidx.lifecycle.LiveData
 import androidx.lifecycle.Observer
 import kotlinx.android.synthetic.main.activity_debug.*
 import org.json.JSONArray
+import org.mozilla.cachedrequestloader.HttpCacheStats
 import org.mozilla.focus.R
 import org.mozilla.focus.utils.FirebaseHelper
 import org.mozilla.focus.utils.Settings
+import org.mozilla.httprequest.NetworkMetrics
+import org.mozilla.rocket.content.appComponent
+import org.mozilla.rocket.network.DnsPrefetcher
 import org.mozilla.rocket.preference.stringLiveData
 import java.util.concurrent.TimeUnit
+import javax.inject.Inject
 
 class DebugActivity : AppCompatActivity() {
 
+    @Inject
+    lateinit var dnsPrefetcher: DnsPrefetcher
+
     private lateinit var preference: SharedPreferences
 
     override fun onCreate(savedInstanceState: Bundle?) {
+        appComponent().inject(this)
         super.onCreate(savedInstanceState)
         setContentView(R.layout.activity_debug)
         setSupportActionBar(toolbar)
@@ -35,6 +44,7 @@ class DebugActivity : AppCompatActivity() {
         initDebugLocale()
         initDebugMissionReminderNotification()
         initDebugServerPush()
+        initDebugNetworkMetrics()
     }
 
     private fun initDebugServerPush() {
@@ -44,6 +54,24 @@ class DebugActivity : AppCompatActivity() {
         }
     }
 
+    private fun initDebugNetworkMetrics() {
+        debug_network_metrics.setOnClickListener {
+            val metrics = NetworkMetrics.getInstance().dump().ifEmpty { "No requests yet" } + "\n\n" + HttpCacheStats.dump() + "\n" + dnsPrefetcher.dump()
+            AlertDialog.Builder(this)
+                    .setTitle("Network Metrics")
+                    .setMessage(metrics)
+                    .setPositiveButton("Copy") { _, _ ->
+                        copyToClipboard("networkMetrics", metrics)
+                        Toast.makeText(this, "Network metrics copied", Toast.LENGTH_SHORT).show()
+                    }
+                    .setNegativeButton("Reset") { _, _ ->
+                        NetworkMetrics.getInstance().reset()
+                        HttpCacheStats.reset()
+                    }
+                    .show()
+        }
+    }
+
     override fun onSupportNavigateUp(): Boolean {
         onBackPressed()
         return true
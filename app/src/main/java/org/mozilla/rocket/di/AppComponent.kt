@@ -54,6 +54,7 @@ import org.mozilla.rocket.content.travel.ui.TravelBucketListFragment
 import org.mozilla.rocket.content.travel.ui.TravelCityActivity
 import org.mozilla.rocket.content.travel.ui.TravelCitySearchActivity
 import org.mozilla.rocket.content.travel.ui.TravelExploreFragment
+import org.mozilla.rocket.debugging.DebugActivity
 import org.mozilla.rocket.download.data.DownloadCompleteReceiver
 import org.mozilla.rocket.download.data.RelocateService
 import org.mozilla.rocket.firstrun.FirstrunFragment
@@ -156,6 +157,7 @@ interface AppComponent {
     fun inject(firstrunFragment: FirstrunFragment)
     fun inject(downloadCompleteReceiver: DownloadCompleteReceiver)
     fun inject(relocateService: RelocateService)
+    fun inject(debugActivity: DebugActivity)
 
     @VisibleForTesting
     fun chromeViewModel(): ChromeViewModel
@@ -22,6 +22,9 @@ import dagger.Module
 import dagger.Provides
 import org.mozilla.focus.utils.NewFeatureNotice
 import org.mozilla.focus.utils.Settings
+import org.mozilla.rocket.network.DnsPrefetcher
+import org.mozilla.rocket.urlinput.SearchSuggestionEngine
+import org.mozilla.rocket.urlinput.VisitedDomainsProvider
 import javax.inject.Singleton
 
 /**
@@ -49,4 +52,16 @@ class AppModule(private val appContext: Context) {
     @Singleton
     @Provides
     fun provideNewFeatureNotice(appContext: Context): NewFeatureNotice = NewFeatureNotice.getInstance(appContext)
+
+    @Singleton
+    @Provides
+    fun provideSearchSuggestionEngine(): SearchSuggestionEngine = SearchSuggestionEngine()
+
+    @Singleton
+    @Provides
+    fun provideDnsPrefetcher(): DnsPrefetcher = DnsPrefetcher()
+
+    @Singleton
+    @Provides
+    fun provideVisitedDomainsProvider(appContext: Context): VisitedDomainsProvider = VisitedDomainsProvider(appContext)
 }
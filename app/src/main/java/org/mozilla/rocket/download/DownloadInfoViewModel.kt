@@ -30,7 +30,6 @@ class DownloadInfoViewModel(private val repository: DownloadsRepository) : ViewM
 
     private val downloadInfoPack: DownloadInfoPack = DownloadInfoPack(ArrayList(), -1, -1)
 
-    private var itemCount = 0
     private var isLoading = false
     private var isLastPage = false
     private var progressUpdateListener: OnProgressUpdateListener? = null
@@ -81,7 +80,6 @@ class DownloadInfoViewModel(private val repository: DownloadsRepository) : ViewM
         if (init) {
             isLastPage = false
             isOpening = false
-            itemCount = 0
             downloadInfoPack.list.clear()
         }
         if (isLastPage) {
@@ -90,10 +88,9 @@ class DownloadInfoViewModel(private val repository: DownloadsRepository) : ViewM
         }
 
         viewModelScope.launch {
-            val list = repository.getDownloads(itemCount, PAGE_SIZE)
+            val list = repository.getDownloads(downloadInfoPack.list.lastOrNull()?.rowId, PAGE_SIZE)
             downloadInfoPack.list.addAll(list)
             downloadInfoPack.notifyType = DownloadInfoPack.Constants.NOTIFY_DATASET_CHANGED
-            itemCount = downloadInfoPack.list.size
             downloadInfoObservable.value = downloadInfoPack
             isOpening = false
             isLoading = false
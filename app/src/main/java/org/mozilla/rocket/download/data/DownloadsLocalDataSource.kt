@@ -128,8 +128,14 @@ class DownloadsLocalDataSource(private val appContext: Context) {
         }
     }
 
-    suspend fun getDownloads(offset: Int, limit: Int) = suspendCoroutine<List<DownloadInfo>> { continuation ->
-        val uri = DownloadContract.Download.CONTENT_URI.toString() + "?offset=" + offset + "&limit=" + limit
+    /**
+     * Gets the page of downloads after the given row, newest first. Seeking the row id keeps deep
+     * pages as cheap as the first one, and rows added in between don't shift them.
+     *
+     * @param beforeRowId the row id of the last download of the previous page, or null for the first page
+     */
+    suspend fun getDownloads(beforeRowId: Long?, limit: Int) = suspendCoroutine<List<DownloadInfo>> { continuation ->
+        val uri = DownloadContract.Download.CONTENT_URI.toString() + "?limit=" + limit
         queryHandler.startQuery(
             TOKEN,
             object : AsyncQueryListener {
@@ -139,8 +145,8 @@ class DownloadsLocalDataSource(private val appContext: Context) {
             },
             Uri.parse(uri),
             null,
-            null,
-            null,
+            beforeRowId?.let { DownloadContract.Download._ID + " < ?" },
+            beforeRowId?.let { arrayOf(it.toString()) },
             DownloadContract.Download._ID + " DESC"
         )
     }
@@ -37,8 +37,10 @@ class DownloadsRepository(
     fun hasDownloadItem(downloadId: Long) =
         downloadsLocalDataSource.hasDownloadItem(downloadId)
 
-    suspend fun getDownloads(offset: Int, pageSize: Int) =
-        downloadsLocalDataSource.getDownloads(offset, pageSize).mapNotNull { downloadInfo ->
+    // Downloads gone from DownloadManager are kept as recorded, so a page holds every row read and
+    // the row id of its last item keys the next one.
+    suspend fun getDownloads(beforeRowId: Long?, pageSize: Int) =
+        downloadsLocalDataSource.getDownloads(beforeRowId, pageSize).mapNotNull { downloadInfo ->
             downloadInfo.joinWithDownloadManagerResult()
         }
 
@@ -48,6 +48,7 @@ import org.mozilla.rocket.msrp.domain.HasUnreadMissionsUseCase
 import org.mozilla.rocket.msrp.domain.IsMsrpAvailableUseCase
 import org.mozilla.rocket.msrp.domain.LastReadMissionIdUseCase
 import org.mozilla.rocket.msrp.domain.RefreshMissionsUseCase
+import org.mozilla.rocket.network.DnsPrefetcher
 import org.mozilla.rocket.theme.ThemeManager
 import org.mozilla.rocket.util.ToastMessage
 
@@ -79,7 +80,8 @@ class HomeViewModel(
     shouldShowThemeOnboardingUseCase: ShouldShowThemeOnboardingUseCase,
     setThemeOnboardingIsShownUseCase: SetThemeOnboardingIsShownUseCase,
     private val shouldShowSetDefaultBrowserOnboardingUseCase: ShouldShowSetDefaultBrowserOnboardingUseCase,
-    private val setSetDefaultBrowserOnboardingIsShownUseCase: SetSetDefaultBrowserOnboardingIsShownUseCase
+    private val setSetDefaultBrowserOnboardingIsShownUseCase: SetSetDefaultBrowserOnboardingIsShownUseCase,
+    private val dnsPrefetcher: DnsPrefetcher
 ) : ViewModel(), TopSiteClickListener {
 
     val sitePages = MutableLiveData<List<SitePage>>()
@@ -174,6 +176,7 @@ class HomeViewModel(
 
     private fun updateTopSitesData() = viewModelScope.launch {
         val topSiteList = getTopSitesUseCase()
+        dnsPrefetcher.warmUp(topSiteList.filterIsInstance<Site.UrlSite>().map { it.url }, TOP_SITES_PER_PAGE)
         sitePages.value = if (topSiteList.isNotEmpty()) {
             topSiteList.addDummyTopSites().toSitePages().also { sitePages ->
                 val sitePosition = when (val result = pinTopSiteResult) {
@@ -288,6 +291,10 @@ class HomeViewModel(
         }
     }
 
+    override fun onTopSitePressed(site: Site.UrlSite) {
+        dnsPrefetcher.warmUpNow(site.url)
+    }
+
     override fun onTopSiteLongClicked(site: Site, position: Int): Boolean =
             if (site is Site.UrlSite.RemovableSite || site is Site.DummySite) {
                 val pageIndex = requireNotNull(topSitesPageIndex.value)
@@ -47,6 +47,7 @@ import org.mozilla.rocket.msrp.domain.HasUnreadMissionsUseCase
 import org.mozilla.rocket.msrp.domain.IsMsrpAvailableUseCase
 import org.mozilla.rocket.msrp.domain.LastReadMissionIdUseCase
 import org.mozilla.rocket.msrp.domain.RefreshMissionsUseCase
+import org.mozilla.rocket.network.DnsPrefetcher
 import org.mozilla.rocket.shopping.search.data.ShoppingSearchRepository
 import javax.inject.Singleton
 
@@ -85,7 +86,8 @@ object HomeModule {
         shouldShowThemeOnboardingUseCase: ShouldShowThemeOnboardingUseCase,
         setThemeOnboardingIsShownUseCase: SetThemeOnboardingIsShownUseCase,
         shouldShowSetDefaultBrowserOnboardingUseCase: ShouldShowSetDefaultBrowserOnboardingUseCase,
-        setSetDefaultBrowserOnboardingIsShownUseCase: SetSetDefaultBrowserOnboardingIsShownUseCase
+        setSetDefaultBrowserOnboardingIsShownUseCase: SetSetDefaultBrowserOnboardingIsShownUseCase,
+        dnsPrefetcher: DnsPrefetcher
     ): HomeViewModel = HomeViewModel(
         settings,
         getTopSitesUseCase,
@@ -114,7 +116,8 @@ object HomeModule {
         shouldShowThemeOnboardingUseCase,
         setThemeOnboardingIsShownUseCase,
         shouldShowSetDefaultBrowserOnboardingUseCase,
-        setSetDefaultBrowserOnboardingIsShownUseCase
+        setSetDefaultBrowserOnboardingIsShownUseCase,
+        dnsPrefetcher
     )
 
     @JvmStatic
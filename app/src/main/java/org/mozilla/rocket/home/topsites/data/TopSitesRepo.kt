@@ -15,6 +15,7 @@ import org.json.JSONObject
 import org.mozilla.fileutils.FileUtils
 import org.mozilla.focus.R
 import org.mozilla.focus.history.BrowsingHistoryManager
+import org.mozilla.focus.history.Frecency
 import org.mozilla.focus.history.model.Site
 import org.mozilla.focus.provider.HistoryContract
 import org.mozilla.focus.provider.HistoryDatabaseHelper
@@ -130,7 +131,10 @@ class TopSitesRepo(
             removeDefaultSite(site, defaultSitesResId)
         }
         withContext(Dispatchers.IO) {
-            updateTopSiteToDb(site.apply { viewCount = 1 })
+            updateTopSiteToDb(site.apply {
+                viewCount = 1
+                frecency = Frecency.of(1, System.currentTimeMillis())
+            })
         }
     }
 
@@ -196,7 +200,7 @@ class TopSitesRepo(
                 scheduleRefresh(handler)
             } else {
                 // Refresh is still scheduled implicitly in SaveBitmapsTask
-                FavIconUtils.SaveBitmapsTask(faviconFolder, urls, icons, UpdateHistoryWrapper(urls, handler),
+                FavIconUtils.SaveBitmapsTask(faviconFolder, icons, UpdateHistoryWrapper(urls, handler),
                         Bitmap.CompressFormat.PNG, DimenUtils.PNG_QUALITY_DONT_CARE).execute()
             }
             db.execSQL("DROP TABLE " + HistoryDatabaseHelper.Tables.BROWSING_HISTORY_LEGACY)
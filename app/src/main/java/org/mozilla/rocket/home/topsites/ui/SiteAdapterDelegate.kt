@@ -7,6 +7,7 @@ import android.graphics.Bitmap
 import android.graphics.Color
 import android.os.StrictMode
 import android.view.ContextThemeWrapper
+import android.view.MotionEvent
 import android.view.View
 import androidx.core.content.ContextCompat
 import androidx.core.view.ViewCompat
@@ -63,6 +64,12 @@ class SiteViewHolder(
                 }
 
                 itemView.setOnClickListener { topSiteClickListener.onTopSiteClicked(site, adapterPosition) }
+                itemView.setOnTouchListener { _, event ->
+                    if (event.actionMasked == MotionEvent.ACTION_DOWN) {
+                        topSiteClickListener.onTopSitePressed(site)
+                    }
+                    false
+                }
                 if (site is Site.UrlSite.FixedSite) {
                     itemView.setOnLongClickListener(null)
                 } else {
@@ -92,9 +99,11 @@ class SiteViewHolder(
                 pin_indicator.visibility = View.GONE
 
                 itemView.setOnClickListener { topSiteClickListener.onTopSiteClicked(site, adapterPosition) }
+                itemView.setOnTouchListener(null)
                 itemView.setOnLongClickListener(null)
             }
             is Site.DummySite -> {
+                itemView.setOnTouchListener(null)
                 itemView.setOnLongClickListener {
                     it.tag = TOP_SITE_LONG_CLICK_TARGET
                     topSiteClickListener.onTopSiteLongClicked(site, adapterPosition)
@@ -207,4 +216,8 @@ fun Site.UrlSite.toSiteModel(): org.mozilla.focus.history.model.Site =
 interface TopSiteClickListener {
     fun onTopSiteClicked(site: Site, position: Int)
     fun onTopSiteLongClicked(site: Site, position: Int): Boolean
+    /**
+     * Called on touch down, ahead of [onTopSiteClicked], so the site can be prepared to open.
+     */
+    fun onTopSitePressed(site: Site.UrlSite) = Unit
 }
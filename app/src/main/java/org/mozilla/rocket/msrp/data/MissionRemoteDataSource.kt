@@ -1,18 +1,27 @@
 package org.mozilla.rocket.msrp.data
 
+import android.util.JsonReader
 import android.util.Log
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import mozilla.components.concept.fetch.MutableHeaders
 import mozilla.components.concept.fetch.Request
 import mozilla.components.concept.fetch.Response
 import mozilla.components.concept.fetch.interceptor.withInterceptors
-import mozilla.components.lib.fetch.httpurlconnection.HttpURLConnectionClient
-import org.json.JSONArray
 import org.json.JSONObject
 import org.mozilla.focus.BuildConfig
 import org.mozilla.focus.utils.FirebaseHelper
+import org.mozilla.httprequest.NetworkMetrics
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler.Priority
+import org.mozilla.rocket.network.FetchClient
 import org.mozilla.rocket.util.Result
+import org.mozilla.rocket.util.decodeJson
+import org.mozilla.rocket.util.forEachElement
+import org.mozilla.rocket.util.forEachName
+import org.mozilla.rocket.util.optBoolean
+import org.mozilla.rocket.util.optInt
+import org.mozilla.rocket.util.optLong
+import org.mozilla.rocket.util.optString
 import java.io.IOException
 import java.util.Locale
 import java.util.TimeZone
@@ -37,7 +46,7 @@ class MissionRemoteDataSource {
      *
      * @return a list of [Mission]s the user can join or has joined
      */
-    suspend fun getMissions(accessToken: String?): Result<List<Mission>, RewardServiceError> = withContext(Dispatchers.IO) {
+    suspend fun getMissions(accessToken: String?): Result<List<Mission>, RewardServiceError> = withContext(FetchClient.dispatcher) {
         val token = accessToken
                 ?: return@withContext Result.error<List<Mission>, RewardServiceError>(error = RewardServiceError.Unauthorized)
 
@@ -63,10 +72,7 @@ class MissionRemoteDataSource {
             400 -> Result.error(error = RewardServiceError.Unauthorized)
             403 -> Result.error(error = RewardServiceError.AccountDisabled)
             200 -> {
-                val json = response.body.string()
-                log("response=$json")
-
-                val missions = convertToMissionList(json)
+                val missions = response.body.decodeJson(::convertToMissionList)
                 log("mission list=$missions")
 
                 Result.success(missions)
@@ -75,70 +81,145 @@ class MissionRemoteDataSource {
         }
     }
 
-    private fun convertToMissionList(json: String): List<Mission> {
-        val root = JSONObject(json)
-        val missionArray = root.getJSONArray("result")
-
-        return (0 until missionArray.length()).mapNotNull {
-            val missionJson = missionArray.getJSONObject(it)
-
-            val interestEvents = parseInterestEvents(missionJson.optJSONArray("events"))
-
-            val missionType = MissionType.valueOf(missionJson.optString("missionType"))
-                    ?: return@mapNotNull null
-
-            val progress = parseProgress(missionType, missionJson.optJSONObject("progress"))
-                    ?: return@mapNotNull null
-
-            val parameters = missionJson.optJSONObject("parameters")
-
-            Mission(
-                mid = missionJson.optString("mid"),
-                missionType = missionJson.optString("missionType"),
-                title = missionJson.optString("title"),
-                missionName = missionJson.optString("missionName"),
-                description = missionJson.optString("description"),
-                imageUrl = missionJson.optString("imageUrl"),
-                endpoint = missionJson.optString("joinEndpoint"),
-                redeem = missionJson.optString("redeemEndpoint"),
-                events = interestEvents,
-                important = missionJson.optBoolean("important"),
-                minVersion = missionJson.optInt("minVersion"),
-                minVerDialogTitle = missionJson.optString("minVerDialogTitle"),
-                minVerDialogMessage = missionJson.optString("minVerDialogMessage"),
-                minVerDialogImage = missionJson.optString("minVerDialogImage"),
-                joinEndDate = missionJson.optLong("joinEndDate"),
-                expiredDate = missionJson.optLong("expiredDate"),
-                redeemEndDate = missionJson.optLong("redeemEndDate"),
-                rewardExpiredDate = missionJson.optLong("rewardExpiredDate"),
-                status = missionJson.optInt("status"),
-                missionProgress = progress,
-                totalDays = parameters?.optInt("totalDays") ?: 0
-            )
+    private fun convertToMissionList(reader: JsonReader): List<Mission> {
+        val missions = ArrayList<Mission>()
+        reader.forEachName { name ->
+            when (name) {
+                "result" -> reader.forEachElement {
+                    readMission(reader)?.let { missions.add(it) }
+                }
+                else -> reader.skipValue()
+            }
         }
+        return missions
     }
 
-    private fun parseInterestEvents(events: JSONArray): List<String> {
-        return (0 until events.length()).map { events.optString(it) }
+    private fun readMission(reader: JsonReader): Mission? {
+        var mid = ""
+        var missionTypeName = ""
+        var title = ""
+        var missionName = ""
+        var description = ""
+        var imageUrl = ""
+        var endpoint = ""
+        var redeem = ""
+        var events = emptyList<String>()
+        var important = false
+        var minVersion = 0
+        var minVerDialogTitle = ""
+        var minVerDialogMessage = ""
+        var minVerDialogImage = ""
+        var joinEndDate = 0L
+        var expiredDate = 0L
+        var redeemEndDate = 0L
+        var rewardExpiredDate = 0L
+        var status = 0
+        var progress: ProgressFields? = null
+        var totalDays = 0
+        reader.forEachName { name ->
+            when (name) {
+                "mid" -> mid = reader.optString()
+                "missionType" -> missionTypeName = reader.optString()
+                "title" -> title = reader.optString()
+                "missionName" -> missionName = reader.optString()
+                "description" -> description = reader.optString()
+                "imageUrl" -> imageUrl = reader.optString()
+                "joinEndpoint" -> endpoint = reader.optString()
+                "redeemEndpoint" -> redeem = reader.optString()
+                "events" -> events = parseInterestEvents(reader)
+                "important" -> important = reader.optBoolean()
+                "minVersion" -> minVersion = reader.optInt()
+                "minVerDialogTitle" -> minVerDialogTitle = reader.optString()
+                "minVerDialogMessage" -> minVerDialogMessage = reader.optString()
+                "minVerDialogImage" -> minVerDialogImage = reader.optString()
+                "joinEndDate" -> joinEndDate = reader.optLong()
+                "expiredDate" -> expiredDate = reader.optLong()
+                "redeemEndDate" -> redeemEndDate = reader.optLong()
+                "rewardExpiredDate" -> rewardExpiredDate = reader.optLong()
+                "status" -> status = reader.optInt()
+                "progress" -> progress = readProgress(reader)
+                "parameters" -> reader.forEachName { parameterName ->
+                    when (parameterName) {
+                        "totalDays" -> totalDays = reader.optInt()
+                        else -> reader.skipValue()
+                    }
+                }
+                else -> reader.skipValue()
+            }
+        }
+
+        val missionType = MissionType.valueOf(missionTypeName) ?: return null
+        val missionProgress = parseProgress(missionType, progress ?: return null) ?: return null
+
+        return Mission(
+            mid = mid,
+            missionType = missionTypeName,
+            title = title,
+            missionName = missionName,
+            description = description,
+            imageUrl = imageUrl,
+            endpoint = endpoint,
+            redeem = redeem,
+            events = events,
+            important = important,
+            minVersion = minVersion,
+            minVerDialogTitle = minVerDialogTitle,
+            minVerDialogMessage = minVerDialogMessage,
+            minVerDialogImage = minVerDialogImage,
+            joinEndDate = joinEndDate,
+            expiredDate = expiredDate,
+            redeemEndDate = redeemEndDate,
+            rewardExpiredDate = rewardExpiredDate,
+            status = status,
+            missionProgress = missionProgress,
+            totalDays = totalDays
+        )
     }
 
-    private fun parseProgress(missionType: MissionType?, progress: JSONObject): MissionProgress? {
+    private fun parseInterestEvents(reader: JsonReader): List<String> {
+        val events = ArrayList<String>()
+        reader.forEachElement { events.add(reader.optString()) }
+        return events
+    }
+
+    private fun readProgress(reader: JsonReader): ProgressFields {
+        val progress = ProgressFields()
+        reader.forEachName { name ->
+            when (name) {
+                "joinDate" -> progress.joinDate = reader.optLong()
+                "currentDayCount" -> progress.currentDay = reader.optInt()
+                "totalDays" -> progress.totalDays = reader.optInt()
+                "message" -> progress.message = reader.optString()
+                else -> reader.skipValue()
+            }
+        }
+        return progress
+    }
+
+    private fun parseProgress(missionType: MissionType?, progress: ProgressFields): MissionProgress? {
         return when (missionType) {
             is MissionType.MissionDaily -> MissionProgress.TypeDaily(
-                joinDate = progress.optLong("joinDate"),
-                currentDay = progress.optInt("currentDayCount"),
-                totalDays = progress.optInt("totalDays"),
-                message = progress.optString("message")
+                joinDate = progress.joinDate,
+                currentDay = progress.currentDay,
+                totalDays = progress.totalDays,
+                message = progress.message
             )
 
             else -> null
         }
     }
 
+    private class ProgressFields {
+        var joinDate = 0L
+        var currentDay = 0
+        var totalDays = 0
+        var message = ""
+    }
+
     /**
      * Join to the given mission
      */
-    suspend fun joinMission(mission: Mission, accessToken: String?): Result<JoinMissionResult, RewardServiceError> = withContext(Dispatchers.IO) {
+    suspend fun joinMission(mission: Mission, accessToken: String?): Result<JoinMissionResult, RewardServiceError> = withContext(FetchClient.dispatcher) {
         val token = accessToken
                 ?: return@withContext Result.error<JoinMissionResult, RewardServiceError>(error = RewardServiceError.Unauthorized)
 
@@ -195,7 +276,7 @@ class MissionRemoteDataSource {
     /**
      * Check-in missions that is interested in the given ping
      */
-    suspend fun checkInMission(ping: String, accessToken: String?): Result<List<Mission>, RewardServiceError> = withContext(Dispatchers.IO) {
+    suspend fun checkInMission(ping: String, accessToken: String?): Result<List<Mission>, RewardServiceError> = withContext(FetchClient.dispatcher(Priority.BACKGROUND)) {
         val token = accessToken
                 ?: return@withContext Result.error<List<Mission>, RewardServiceError>(error = RewardServiceError.Unauthorized)
 
@@ -216,7 +297,7 @@ class MissionRemoteDataSource {
         )
     }
 
-    suspend fun quitMission(mission: Mission, accessToken: String?): Result<QuitMissionResult, RewardServiceError> = withContext(Dispatchers.IO) {
+    suspend fun quitMission(mission: Mission, accessToken: String?): Result<QuitMissionResult, RewardServiceError> = withContext(FetchClient.dispatcher) {
         val token = accessToken
                 ?: return@withContext Result.error<QuitMissionResult, RewardServiceError>(error = RewardServiceError.Unauthorized)
 
@@ -260,7 +341,7 @@ class MissionRemoteDataSource {
         }
     }
 
-    suspend fun redeem(userToken: String?, redeemEndPoint: String): Result<RewardCouponDoc, RedeemServiceError> = withContext(Dispatchers.IO) {
+    suspend fun redeem(userToken: String?, redeemEndPoint: String): Result<RewardCouponDoc, RedeemServiceError> = withContext(FetchClient.dispatcher) {
 
         if (userToken == null) {
             return@withContext Result.error<RewardCouponDoc, RedeemServiceError>(error = RedeemServiceError.NotLogin("Please login first"))
@@ -285,7 +366,9 @@ class MissionRemoteDataSource {
 
             // pretending we are doing some network request here...
             // since we only have one data source, we'll just do it in the repository.
-            HttpURLConnectionClient().withInterceptors(LoggingInterceptor()).fetch(request).use { response ->
+            NetworkMetrics.withFamily(Family.MSRP) {
+                FetchClient.withInterceptors(LoggingInterceptor()).fetch(request)
+            }.use { response ->
                 return@withContext when {
                     response.status == 500 -> { // 500 is define in the server spec...in the future.
                         val resJson = JSONObject(response.body.string())
@@ -353,10 +436,12 @@ class MissionRemoteDataSource {
 
     private fun <T> sendRequest(request: Request, onSuccess: (Response) -> T, onError: (Exception) -> T): T {
         return try {
-            return HttpURLConnectionClient()
-                    .withInterceptors(LoggingInterceptor())
-                    .fetch(request)
-                    .use { onSuccess(it) }
+            return NetworkMetrics.withFamily(Family.MSRP) {
+                FetchClient
+                        .withInterceptors(LoggingInterceptor())
+                        .fetch(request)
+                        .use { onSuccess(it) }
+            }
         } catch (e: IOException) {
             onError(e)
         }
@@ -0,0 +1,148 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.network
+
+import android.os.SystemClock
+import androidx.annotation.VisibleForTesting
+import org.mozilla.httprequest.NetworkScheduler
+import org.mozilla.httprequest.NetworkScheduler.Priority
+import java.net.InetAddress
+import java.net.MalformedURLException
+import java.net.URL
+import java.net.UnknownHostException
+import java.util.ArrayDeque
+import java.util.Locale
+
+/**
+ * Resolves the hosts the user is likely to open next before they're opened, so the navigation
+ * doesn't wait for DNS. The resolver cache is shared by every app on the device, including the
+ * WebView, which is why resolving a host here pays off when a page loads.
+ *
+ * At most [budget] hosts are resolved per [budgetWindowMillis], and a host resolved in the last
+ * [warmMillis] isn't resolved again. A navigation to a host resolved within [warmMillis] counts
+ * as a hit, see [dump].
+ */
+class DnsPrefetcher @VisibleForTesting constructor(
+    private val resolve: (String) -> Unit,
+    private val submit: (Priority, Runnable) -> Unit,
+    private val clock: () -> Long,
+    private val budget: Int = BUDGET,
+    private val budgetWindowMillis: Long = BUDGET_WINDOW_MILLIS,
+    private val warmMillis: Long = WARM_MILLIS
+) {
+
+    constructor() : this(
+        { host -> InetAddress.getAllByName(host) },
+        { priority, task -> NetworkScheduler.getInstance().submit(priority, task) },
+        SystemClock::elapsedRealtime
+    )
+
+    private val warmedAt = LinkedHashMap<String, Long>()
+    private val spentAt = ArrayDeque<Long>()
+    private var resolved = 0
+    private var failed = 0
+    private var overBudget = 0
+    private var navigations = 0
+    private var hits = 0
+
+    /**
+     * Resolves the hosts of the first [maxCount] urls in the prefetch lane, for candidates shown
+     * on screen, e.g. top sites.
+     */
+    fun warmUp(urls: List<String>, maxCount: Int = MAX_BATCH) {
+        urls.asSequence()
+                .mapNotNull { hostOf(it) }
+                .distinct()
+                .take(maxCount)
+                .forEach { warmUp(it, Priority.PREFETCH) }
+    }
+
+    /**
+     * Resolves the host of [url] right away, for a navigation which is about to happen, e.g. on
+     * touch down or for the suggestion the url bar autocompletes to.
+     */
+    fun warmUpNow(url: String) {
+        hostOf(url)?.let { warmUp(it, Priority.INTERACTIVE) }
+    }
+
+    /**
+     * Counts a navigation to [url] towards the hit rate.
+     */
+    fun onNavigation(url: String) {
+        val host = hostOf(url) ?: return
+        synchronized(this) {
+            navigations++
+            val warmed = warmedAt[host]
+            if (warmed != null && clock() - warmed < warmMillis) {
+                hits++
+            }
+        }
+    }
+
+    fun dump(): String = synchronized(this) {
+        val hitRate = if (navigations == 0) 0 else hits * 100 / navigations
+        String.format(Locale.ROOT,
+                "dns prefetch: %d resolved, %d failed, %d over budget, %d/%d navigations warm (%d%%)",
+                resolved, failed, overBudget, hits, navigations, hitRate)
+    }
+
+    private fun warmUp(host: String, priority: Priority) {
+        if (!reserve(host)) {
+            return
+        }
+        submit(priority, Runnable {
+            val success = try {
+                resolve(host)
+                true
+            } catch (e: UnknownHostException) {
+                false
+            }
+            synchronized(this) {
+                if (success) resolved++ else failed++
+            }
+        })
+    }
+
+    // Takes a slot of the budget for the host unless it's still warm.
+    @Synchronized
+    private fun reserve(host: String): Boolean {
+        val now = clock()
+        val warmed = warmedAt[host]
+        if (warmed != null && now - warmed < warmMillis) {
+            return false
+        }
+        while (spentAt.isNotEmpty() && now - spentAt.peekFirst() >= budgetWindowMillis) {
+            spentAt.removeFirst()
+        }
+        if (spentAt.size >= budget) {
+            overBudget++
+            return false
+        }
+        spentAt.addLast(now)
+        warmedAt.remove(host)
+        warmedAt[host] = now
+        if (warmedAt.size > MAX_TRACKED_HOSTS) {
+            warmedAt.remove(warmedAt.keys.first())
+        }
+        return true
+    }
+
+    // Autocomplete results may come without a scheme.
+    private fun hostOf(url: String): String? = try {
+        URL(if (url.contains("://")) url else "http://$url").host.toLowerCase(Locale.ROOT).takeIf { it.isNotEmpty() }
+    } catch (e: MalformedURLException) {
+        null
+    }
+
+    companion object {
+        private const val BUDGET = 12
+        private const val BUDGET_WINDOW_MILLIS = 60_000L
+        // Well within the usual TTL of a DNS record.
+        private const val WARM_MILLIS = 120_000L
+        private const val MAX_BATCH = 8
+        private const val MAX_TRACKED_HOSTS = 64
+    }
+}
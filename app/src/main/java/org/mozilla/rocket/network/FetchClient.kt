@@ -0,0 +1,152 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.network
+
+import android.net.TrafficStats
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.suspendCancellableCoroutine
+import mozilla.components.concept.fetch.Client
+import mozilla.components.concept.fetch.Request
+import mozilla.components.concept.fetch.Response
+import mozilla.components.concept.fetch.interceptor.Interceptor
+import mozilla.components.concept.fetch.interceptor.withInterceptors
+import org.mozilla.httprequest.NetworkMetrics
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler
+import org.mozilla.httprequest.NetworkScheduler.Priority
+import org.mozilla.threadutils.ThreadUtils
+import java.io.IOException
+import java.net.HttpURLConnection
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * The app-wide HTTP client. Every remote data source should fetch through this one instance, so
+ * that all requests share the same keep-alive connection pool, timeouts, per-host limits and
+ * interceptors. Requests are scheduled by priority through [NetworkScheduler], and retried or
+ * failed fast per host by [ResilienceInterceptor].
+ */
+object FetchClient : Client() {
+
+    private const val CONNECT_TIMEOUT_MILLIS = 10_000L
+    private const val READ_TIMEOUT_MILLIS = 20_000L
+    private const val MAX_REQUESTS_PER_HOST = 4
+    private const val MAX_IDLE_CONNECTIONS = 8
+
+    private val interceptors = CopyOnWriteArrayList<Interceptor>()
+
+    private val resilience = ResilienceInterceptor()
+
+    private val engine: PooledHttpClient
+
+    private val dispatchers = Priority.values().associate {
+        it to NetworkScheduler.getInstance().executor(it).asCoroutineDispatcher()
+    }
+
+    /**
+     * The dispatcher remote data sources loading on-screen content should run their requests on.
+     */
+    val dispatcher: CoroutineDispatcher = dispatcher(Priority.VISIBLE_CONTENT)
+
+    init {
+        // HttpURLConnection keeps idle sockets in a process-wide pool, configured by these properties
+        System.setProperty("http.keepAlive", "true")
+        System.setProperty("http.maxConnections", MAX_IDLE_CONNECTIONS.toString())
+        engine = PooledHttpClient(CONNECT_TIMEOUT_MILLIS, READ_TIMEOUT_MILLIS, MAX_REQUESTS_PER_HOST)
+    }
+
+    /**
+     * @return the dispatcher running coroutines in the [NetworkScheduler] lane of [priority]
+     */
+    fun dispatcher(priority: Priority): CoroutineDispatcher = dispatchers.getValue(priority)
+
+    /**
+     * @return a client for callers which fetch from their own threads, e.g. telemetry uploads,
+     * each fetch waits for a slot in the [NetworkScheduler] lane of [priority] and is counted in
+     * [NetworkMetrics] under [family]
+     */
+    fun scheduled(priority: Priority, family: Family = Family.OTHER): Client = ScheduledClient(priority, family)
+
+    fun addInterceptor(interceptor: Interceptor) {
+        interceptors.addIfAbsent(interceptor)
+    }
+
+    fun removeInterceptor(interceptor: Interceptor) {
+        interceptors.remove(interceptor)
+    }
+
+    @Throws(IOException::class)
+    override fun fetch(request: Request): Response = engine.intercepted().fetch(request)
+
+    /**
+     * Fetches [request] in the [NetworkScheduler] lane of [priority] and hands the response to
+     * [read] on the same thread. Cancelling the calling coroutine drops the request if it's still
+     * queued and disconnects it otherwise, for requests which are often outdated before they
+     * complete, e.g. search suggestions.
+     *
+     * @param socketTag the TrafficStats tag of the request, untagged if 0
+     * @param family what the request is counted as in [NetworkMetrics]
+     */
+    suspend fun <T> fetchCancellable(
+        request: Request,
+        priority: Priority,
+        socketTag: Int = 0,
+        family: Family = Family.OTHER,
+        read: (Response) -> T
+    ): T = suspendCancellableCoroutine { continuation ->
+        val connection = AtomicReference<HttpURLConnection>()
+        val client = object : Client() {
+            override fun fetch(request: Request): Response = engine.fetch(request) {
+                connection.set(it)
+                // cancelled before there was a connection to disconnect
+                if (!continuation.isActive) {
+                    throw IOException("Request cancelled")
+                }
+            }
+        }
+        val task = NetworkScheduler.getInstance().submit(priority, Runnable {
+            if (socketTag != 0) {
+                TrafficStats.setThreadStatsTag(socketTag)
+            }
+            try {
+                // an outdated request is cancelled rather than retried, and its disconnect
+                // shouldn't count against the host
+                val result = runCatching {
+                    NetworkMetrics.withFamily(family) { client.intercepted(resilient = false).fetch(request).use(read) }
+                }
+                continuation.resumeWith(result)
+            } finally {
+                if (socketTag != 0) {
+                    TrafficStats.clearThreadStatsTag()
+                }
+            }
+        })
+        continuation.invokeOnCancellation {
+            task.cancel(false)
+            // closing the socket is I/O, and the cancelling thread is often the main thread
+            connection.get()?.let { ThreadUtils.postToBackgroundThread { it.disconnect() } }
+        }
+    }
+
+    private fun Client.intercepted(resilient: Boolean = true): Client {
+        val snapshot = interceptors.toTypedArray()
+        // outermost, so a retry goes through every other interceptor again
+        return when {
+            resilient -> withInterceptors(resilience, *snapshot)
+            snapshot.isEmpty() -> this
+            else -> withInterceptors(*snapshot)
+        }
+    }
+
+    private class ScheduledClient(private val priority: Priority, private val family: Family) : Client() {
+        override fun fetch(request: Request): Response {
+            return NetworkScheduler.getInstance().await(priority) {
+                NetworkMetrics.withFamily(family) { FetchClient.fetch(request) }
+            }
+        }
+    }
+}
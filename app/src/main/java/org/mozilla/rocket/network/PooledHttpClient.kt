@@ -0,0 +1,166 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.network
+
+import mozilla.components.concept.fetch.Client
+import mozilla.components.concept.fetch.Headers
+import mozilla.components.concept.fetch.MutableHeaders
+import mozilla.components.concept.fetch.Request
+import mozilla.components.concept.fetch.Response
+import org.mozilla.httprequest.NetworkMetrics
+import java.io.FilterInputStream
+import java.io.IOException
+import java.io.InputStream
+import java.net.HttpURLConnection
+import java.net.URL
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * A [Client] backed by [HttpURLConnection] which keeps connections alive between requests.
+ *
+ * Unlike [mozilla.components.lib.fetch.httpurlconnection.HttpURLConnectionClient], a connection
+ * is never disconnected once the response has been read. Closing the [Response] closes the body
+ * stream, which hands the socket back to the platform keep-alive pool for the next request to
+ * the same host. The number of requests in flight to a single host is capped by
+ * [maxRequestsPerHost], a caller over the cap waits until a previous response is closed.
+ */
+class PooledHttpClient(
+    private val connectTimeoutMillis: Long,
+    private val readTimeoutMillis: Long,
+    private val maxRequestsPerHost: Int
+) : Client() {
+
+    private val hostPermits = ConcurrentHashMap<String, Semaphore>()
+
+    @Throws(IOException::class)
+    override fun fetch(request: Request): Response = fetch(request) {}
+
+    /**
+     * @param onConnection gets the connection before it connects, disconnecting it from another
+     * thread aborts the request
+     */
+    @Throws(IOException::class)
+    fun fetch(request: Request, onConnection: (HttpURLConnection) -> Unit): Response {
+        val url = URL(request.url)
+        val permits = hostPermits.getOrPut(url.host) { Semaphore(maxRequestsPerHost, true) }
+        try {
+            permits.acquire()
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            throw IOException("Interrupted while waiting for a connection to ${url.host}", e)
+        }
+
+        val released = AtomicBoolean(false)
+        val release = {
+            if (released.compareAndSet(false, true)) {
+                permits.release()
+            }
+        }
+
+        val transfer = NetworkMetrics.getInstance().begin()
+        val connection = url.openConnection() as HttpURLConnection
+        try {
+            connection.setup(request)
+            onConnection(connection)
+            connection.connect()
+            transfer.connected()
+            request.body?.let { body ->
+                connection.outputStream.use { output -> body.useStream { it.copyTo(output) } }
+            }
+
+            val status = connection.responseCode
+            transfer.firstByte(status)
+            val stream = (if (status < HttpURLConnection.HTTP_BAD_REQUEST) connection.inputStream else connection.errorStream)
+                    ?: EMPTY_STREAM
+            return Response(
+                url = connection.url.toString(),
+                status = status,
+                headers = connection.collectHeaders(),
+                body = Response.Body(ReleasingInputStream(stream, transfer, release), connection.contentType)
+            )
+        } catch (e: Exception) {
+            transfer.fail(e)
+            // the connection is in an unknown state, don't let it go back to the pool
+            connection.disconnect()
+            release()
+            throw e
+        }
+    }
+
+    private fun HttpURLConnection.setup(request: Request) {
+        requestMethod = request.method.name
+        connectTimeout = request.connectTimeout.toMillis(connectTimeoutMillis).toInt()
+        readTimeout = request.readTimeout.toMillis(readTimeoutMillis).toInt()
+        instanceFollowRedirects = request.redirect == Request.Redirect.FOLLOW
+        useCaches = false
+        // has to be set before connecting, the body is written once connected
+        doOutput = request.body != null
+        request.headers?.forEach { header ->
+            addRequestProperty(header.name, header.value)
+        }
+    }
+
+    private fun HttpURLConnection.collectHeaders(): Headers {
+        val headers = MutableHeaders()
+        headerFields.forEach { (name, values) ->
+            // the status line is reported with a null name
+            if (name != null) {
+                values.forEach { headers.append(name, it) }
+            }
+        }
+        return headers
+    }
+
+    private fun Pair<Long, TimeUnit>?.toMillis(defaultMillis: Long): Long =
+            this?.let { (timeout, unit) -> unit.toMillis(timeout) } ?: defaultMillis
+
+    /**
+     * Gives the per-host permit back once the caller is done with the body. Closing the stream
+     * rather than disconnecting is what lets [HttpURLConnection] reuse the socket. The bytes read
+     * until then are what the request counts as its size in [NetworkMetrics].
+     */
+    private class ReleasingInputStream(
+        stream: InputStream,
+        private val transfer: NetworkMetrics.Transfer,
+        private val onClose: () -> Unit
+    ) : FilterInputStream(stream) {
+
+        override fun read(): Int = super.read().also {
+            if (it != -1) {
+                transfer.bytesRead(1)
+            }
+        }
+
+        override fun read(b: ByteArray, off: Int, len: Int): Int = super.read(b, off, len).also {
+            if (it > 0) {
+                transfer.bytesRead(it.toLong())
+            }
+        }
+
+        override fun read(b: ByteArray): Int = read(b, 0, b.size)
+
+        override fun close() {
+            try {
+                super.close()
+                transfer.finish()
+            } catch (e: IOException) {
+                transfer.fail(e)
+                throw e
+            } finally {
+                onClose()
+            }
+        }
+    }
+
+    companion object {
+        private val EMPTY_STREAM: InputStream = object : InputStream() {
+            override fun read(): Int = -1
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.network
+
+import mozilla.components.concept.fetch.Request
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.FutureTask
+
+/**
+ * Single-flight de-duplication of identical GET requests. While a request is in flight, any other
+ * caller asking for the same request waits for it and receives the same result, instead of
+ * sending a request of its own. Nothing is cached once the request completes.
+ */
+object RequestCoalescer {
+
+    private val inFlight = ConcurrentHashMap<Key, FutureTask<Any?>>()
+
+    /**
+     * Run [call] for [request], unless an identical request with an equal [resultKey] is
+     * already running, in which case wait for it and return its result.
+     *
+     * @param resultKey identifies how the response is turned into a result, including any value
+     * the parsing depends on. Callers only share a call if they would get the same result.
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun <T> coalesce(request: Request, resultKey: Any, call: () -> T): T {
+        if (request.method != Request.Method.GET || request.body != null) {
+            return call()
+        }
+
+        val key = Key(request, resultKey)
+        val task = FutureTask<Any?> { call() }
+        val running = inFlight.putIfAbsent(key, task)
+        if (running == null) {
+            try {
+                task.run()
+            } finally {
+                inFlight.remove(key, task)
+            }
+        }
+
+        return try {
+            (running ?: task).get() as T
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    private data class Key(
+        val url: String,
+        val headers: List<Pair<String, String>>,
+        val resultKey: Any
+    ) {
+        constructor(request: Request, resultKey: Any) : this(
+            request.url,
+            request.headers?.map { it.name.toLowerCase() to it.value }?.sortedBy { it.first } ?: emptyList(),
+            resultKey
+        )
+    }
+}
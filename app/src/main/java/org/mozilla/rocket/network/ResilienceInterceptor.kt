@@ -0,0 +1,174 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.network
+
+import mozilla.components.concept.fetch.Request
+import mozilla.components.concept.fetch.Response
+import mozilla.components.concept.fetch.interceptor.Interceptor
+import org.mozilla.httprequest.NetworkMetrics
+import java.io.IOException
+import java.net.MalformedURLException
+import java.net.URL
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.random.Random
+
+/**
+ * Keeps a slow or failing backend from being hammered by every screen that loads from it.
+ *
+ * A GET which fails with an [IOException], a 5xx or a 429 is sent again up to [maxRetries] times,
+ * after a random delay of up to [baseDelayMillis] doubled per attempt and capped at
+ * [maxDelayMillis]. Requests with other methods are never repeated.
+ *
+ * Each host has a circuit breaker. After [failureThreshold] failed attempts in a row it opens,
+ * and for [openMillis] every request to the host fails right away with a
+ * [CircuitOpenException], so callers fall back to what they have cached. Then a single request
+ * is let through, which closes the circuit if it succeeds and opens it again otherwise.
+ *
+ * Retries, trips and rejected requests are counted in [NetworkMetrics].
+ */
+class ResilienceInterceptor(
+    private val maxRetries: Int = MAX_RETRIES,
+    private val baseDelayMillis: Long = BASE_DELAY_MILLIS,
+    private val maxDelayMillis: Long = MAX_DELAY_MILLIS,
+    private val failureThreshold: Int = FAILURE_THRESHOLD,
+    private val openMillis: Long = OPEN_MILLIS,
+    private val clock: () -> Long = System::currentTimeMillis,
+    private val sleep: (Long) -> Unit = Thread::sleep,
+    private val random: Random = Random.Default
+) : Interceptor {
+
+    private val circuits = ConcurrentHashMap<String, Circuit>()
+
+    /**
+     * Thrown instead of sending a request to a host whose circuit breaker is open.
+     */
+    class CircuitOpenException(host: String) : IOException("Circuit open for $host")
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request
+        val host = hostOf(request) ?: return chain.proceed(request)
+        val circuit = circuits.getOrPut(host) { Circuit() }
+        val family = NetworkMetrics.currentFamily()
+        val attempts = if (request.method == Request.Method.GET && request.body == null) maxRetries + 1 else 1
+
+        var attempt = 0
+        while (true) {
+            if (!circuit.tryAcquire(clock())) {
+                NetworkMetrics.getInstance().recordCircuitRejection(family)
+                throw CircuitOpenException(host)
+            }
+
+            val response = try {
+                chain.proceed(request)
+            } catch (e: IOException) {
+                onFailure(circuit, family)
+                if (++attempt >= attempts || !backOff(attempt)) {
+                    throw e
+                }
+                NetworkMetrics.getInstance().recordRetry(family)
+                continue
+            } catch (e: Throwable) {
+                // not the host's fault, but a probe has to make way for the next one
+                circuit.releaseProbe()
+                throw e
+            }
+
+            if (!isRetryable(response.status)) {
+                circuit.onSuccess()
+                return response
+            }
+            onFailure(circuit, family)
+            if (attempt + 1 >= attempts) {
+                return response
+            }
+            response.close()
+            if (!backOff(++attempt)) {
+                throw IOException("Interrupted before retrying ${request.url}")
+            }
+            NetworkMetrics.getInstance().recordRetry(family)
+        }
+    }
+
+    private fun onFailure(circuit: Circuit, family: NetworkMetrics.Family) {
+        if (circuit.onFailure(clock())) {
+            NetworkMetrics.getInstance().recordCircuitTrip(family)
+        }
+    }
+
+    // Full jitter: a random delay up to the exponential bound, so clients which failed together
+    // don't come back together.
+    private fun backOff(attempt: Int): Boolean {
+        val bound = (baseDelayMillis shl (attempt - 1)).coerceAtMost(maxDelayMillis)
+        return try {
+            sleep(if (bound > 0) random.nextLong(bound + 1) else 0)
+            true
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            false
+        }
+    }
+
+    private fun isRetryable(status: Int) = status >= 500 || status == TOO_MANY_REQUESTS
+
+    private fun hostOf(request: Request): String? = try {
+        URL(request.url).host
+    } catch (e: MalformedURLException) {
+        null
+    }
+
+    private inner class Circuit {
+        private var failures = 0
+        private var openUntil = 0L
+        private var probing = false
+
+        @Synchronized
+        fun tryAcquire(now: Long): Boolean {
+            if (failures < failureThreshold) {
+                return true
+            }
+            if (now < openUntil || probing) {
+                return false
+            }
+            probing = true
+            return true
+        }
+
+        @Synchronized
+        fun releaseProbe() {
+            probing = false
+        }
+
+        @Synchronized
+        fun onSuccess() {
+            failures = 0
+            probing = false
+        }
+
+        /**
+         * @return true if the circuit opened because of this failure
+         */
+        @Synchronized
+        fun onFailure(now: Long): Boolean {
+            val wasProbing = probing
+            probing = false
+            failures++
+            if (failures < failureThreshold) {
+                return false
+            }
+            openUntil = now + openMillis
+            return wasProbing || failures == failureThreshold
+        }
+    }
+
+    companion object {
+        private const val MAX_RETRIES = 2
+        private const val BASE_DELAY_MILLIS = 250L
+        private const val MAX_DELAY_MILLIS = 2_000L
+        private const val FAILURE_THRESHOLD = 5
+        private const val OPEN_MILLIS = 30_000L
+        private const val TOO_MANY_REQUESTS = 429
+    }
+}
@@ -10,6 +10,8 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.mozilla.threadutils.ThreadUtils;
 import org.mozilla.httprequest.HttpRequest;
+import org.mozilla.httprequest.NetworkMetrics;
+import org.mozilla.httprequest.NetworkScheduler;
 
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
@@ -61,6 +63,10 @@ public class PartnerActivator {
         executor.execute(runnable);
     }
 
+    private void postNetworkWorker(Runnable runnable) {
+        NetworkScheduler.getInstance().submit(NetworkScheduler.Priority.BACKGROUND, runnable);
+    }
+
     private boolean statusInvalidate(Status currentStatus) {
         switch (currentStatus) {
             case Disabled:
@@ -171,7 +177,7 @@ public class PartnerActivator {
                 return;
             }
 
-            partnerActivator.postWorker(new FetchActivation(partnerActivator, PARTNER_ACTIVATION_SOURCE));
+            partnerActivator.postNetworkWorker(new FetchActivation(partnerActivator, PARTNER_ACTIVATION_SOURCE));
         }
     }
 
@@ -196,7 +202,8 @@ public class PartnerActivator {
                 TrafficStats.setThreadStatsTag(SOCKET_TAG_PARTNER);
 
                 URL request = new URL(sourceUrl);
-                String json = HttpRequest.get(request, HTTP_REQUEST_TIMEOUT, UserAgentString);
+                String json = NetworkMetrics.withFamily(NetworkMetrics.Family.CONFIG,
+                        () -> HttpRequest.get(request, HTTP_REQUEST_TIMEOUT, UserAgentString));
 
                 JSONArray activationJsonArray = null;
                 JSONArray jsonArray = new JSONObject(json).getJSONArray("data");
@@ -243,7 +250,7 @@ public class PartnerActivator {
                     partnerActivator.setLastCheckedTimestamp(System.currentTimeMillis());
                 }
 
-                partnerActivator.postWorker(new PingActivation(partnerActivator));
+                partnerActivator.postNetworkWorker(new PingActivation(partnerActivator));
 
             } catch (Exception e) {
                 PartnerUtil.log(e, "FetchActivation Exception");
@@ -0,0 +1,65 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.persistance;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * The journal settings shared by the databases of the app, whether Room or a plain open helper
+ * opens them.
+ *
+ * They use write-ahead logging, so readers don't wait for writers, except on low-RAM devices where
+ * Room already chooses not to. With the log, commits are synced as NORMAL: a crash can only lose
+ * the last commits, never corrupt the file, and the log is synced once per checkpoint instead of
+ * once per commit.
+ */
+public final class DatabaseConfig {
+
+    private static final String PRAGMA_SYNCHRONOUS_NORMAL = "PRAGMA synchronous = NORMAL";
+
+    private DatabaseConfig() {
+    }
+
+    public static <T extends RoomDatabase> RoomDatabase.Builder<T> configure(@NonNull Context context, @NonNull RoomDatabase.Builder<T> builder) {
+        return builder.setJournalMode(isWriteAheadLoggingEnabled(context) ? RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING : RoomDatabase.JournalMode.TRUNCATE)
+                .addCallback(SYNCHRONOUS_CALLBACK);
+    }
+
+    /**
+     * Call before the helper opens the database, and {@link #onOpen(SQLiteDatabase)} from its
+     * {@link SQLiteOpenHelper#onOpen(SQLiteDatabase)}.
+     */
+    public static void configure(@NonNull Context context, @NonNull SQLiteOpenHelper helper) {
+        helper.setWriteAheadLoggingEnabled(isWriteAheadLoggingEnabled(context));
+    }
+
+    public static void onOpen(@NonNull SQLiteDatabase db) {
+        if (!db.isReadOnly() && db.isWriteAheadLoggingEnabled()) {
+            db.execSQL(PRAGMA_SYNCHRONOUS_NORMAL);
+        }
+    }
+
+    private static boolean isWriteAheadLoggingEnabled(@NonNull Context context) {
+        final ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return activityManager == null || !activityManager.isLowRamDevice();
+    }
+
+    private static final RoomDatabase.Callback SYNCHRONOUS_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            if (!db.isReadOnly() && db.isWriteAheadLoggingEnabled()) {
+                db.execSQL(PRAGMA_SYNCHRONOUS_NORMAL);
+            }
+        }
+    };
+}
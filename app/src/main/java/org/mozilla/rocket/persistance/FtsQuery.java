@@ -0,0 +1,106 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.persistance;
+
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the MATCH expressions for the full-text indexes of history and bookmarks.
+ */
+public final class FtsQuery {
+
+    // The unicode61 tokenizer splits on everything but letters, digits and marks.
+    private static final String SEPARATORS = "[^\\p{L}\\p{N}\\p{M}]+";
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MAX_TOKENS = 8;
+
+    private FtsQuery() {
+    }
+
+    /**
+     * Turns what the user typed into a query for rows having a token starting with each word of
+     * it, e.g. "mozilla.org/fir" matches "https://www.mozilla.org/firefox".
+     *
+     * @return the query, or null if the text has nothing to match
+     */
+    @Nullable
+    public static String prefixMatch(String text) {
+        final List<String> words = words(text);
+        if (words.isEmpty()) {
+            return null;
+        }
+        final StringBuilder query = new StringBuilder();
+        for (String word : words) {
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append(word).append('*');
+        }
+        return query.toString();
+    }
+
+    /**
+     * @return the words of the text which {@link #prefixMatch(String)} makes terms of
+     */
+    public static List<String> words(String text) {
+        final List<String> words = new ArrayList<>();
+        // Lower case keeps words like "or" and "near" from being taken as operators.
+        for (String token : text.toLowerCase(Locale.ROOT).split(SEPARATORS)) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            words.add(token);
+            if (words.size() == MAX_TOKENS) {
+                break;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Matches a row in memory like the index would with the query of the words, leaving out
+     * diacritics as the tokenizer does.
+     *
+     * @param words the words of the query, see {@link #words(String)}
+     * @param columns the indexed columns of the row, which may be null
+     */
+    public static boolean matches(List<String> words, String... columns) {
+        final List<String> tokens = new ArrayList<>();
+        for (String column : columns) {
+            if (column != null) {
+                for (String token : removeDiacritics(column.toLowerCase(Locale.ROOT)).split(SEPARATORS)) {
+                    if (!token.isEmpty()) {
+                        tokens.add(token);
+                    }
+                }
+            }
+        }
+        for (String word : words) {
+            final String prefix = removeDiacritics(word);
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(prefix)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String removeDiacritics(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
@@ -6,9 +6,10 @@ import org.mozilla.focus.history.model.Site
 
 @Dao
 interface HistoryDao {
-    @Query("SELECT * FROM browsing_history WHERE LOWER(title) LIKE :text OR url LIKE :text LIMIT :suggestionLimit")
+    @Query("SELECT browsing_history.* FROM browsing_history JOIN browsing_history_fts ON browsing_history._id = browsing_history_fts.rowid " +
+            "WHERE browsing_history_fts MATCH :query ORDER BY frecency DESC LIMIT :suggestionLimit")
     fun queryHistoryByText(
-        text: String?,
+        query: String,
         suggestionLimit: Int
     ): List<Site>
 }
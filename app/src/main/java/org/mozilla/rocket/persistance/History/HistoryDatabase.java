@@ -1,18 +1,25 @@
 package org.mozilla.rocket.persistance.History;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import org.mozilla.focus.history.Frecency;
 import org.mozilla.focus.history.model.Site;
 import org.mozilla.focus.provider.HistoryContract;
 import org.mozilla.focus.provider.HistoryDatabaseHelper;
 import org.mozilla.rocket.home.topsites.data.TopSitesRepo;
+import org.mozilla.rocket.persistance.DatabaseConfig;
+
+import java.util.ArrayList;
+import java.util.List;
 
 // TODO: 8/23/18
 // We're only utilizing Room to migrate, but we have not yet remove the classic / old school
@@ -20,7 +27,7 @@ import org.mozilla.rocket.home.topsites.data.TopSitesRepo;
 // Current plan is to build something like the Place system in Firefox 3
 // https://developer.mozilla.org/en-US/docs/Mozilla/Tech/Places/Database
 
-@Database(entities = {Site.class}, version = 3)
+@Database(entities = {Site.class, SiteFts.class}, version = 7)
 public abstract class HistoryDatabase extends RoomDatabase {
 
     private static final String CREATE_TABLE_IF_NOT_EXISTS = "CREATE TABLE IF NOT EXISTS ";
@@ -31,6 +38,14 @@ public abstract class HistoryDatabase extends RoomDatabase {
             HistoryContract.BrowsingHistory.FAV_ICON + " BLOB" +
             ");";
 
+    /**
+     * Number of pages kept in history, older ones are removed by {@link HistoryPruneWorker}.
+     */
+    public static final int HISTORY_LIMIT = 2000;
+
+    private static final String TABLE_ROW_COUNT = "browsing_history_count";
+    private static final String ROW_COUNT = "row_count";
+
     private static volatile HistoryDatabase instance;
 
     public abstract HistoryDao historyDao();
@@ -39,9 +54,10 @@ public abstract class HistoryDatabase extends RoomDatabase {
         if (instance == null) {
             synchronized (HistoryDatabase.class) {
                 if (instance == null) {
-                    instance = Room.databaseBuilder(context.getApplicationContext(),
-                            HistoryDatabase.class, "history.db")
-                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3)
+                    instance = DatabaseConfig.configure(context, Room.databaseBuilder(context.getApplicationContext(),
+                            HistoryDatabase.class, "history.db"))
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7)
+                            .addCallback(ROW_COUNT_CALLBACK)
                             .build();
                 }
             }
@@ -49,6 +65,43 @@ public abstract class HistoryDatabase extends RoomDatabase {
         return instance;
     }
 
+    /**
+     * @return the number of rows in the history table, read from a counter kept by triggers
+     * instead of counting them.
+     */
+    public static long getRowCount(@NonNull SupportSQLiteDatabase database) {
+        try (Cursor cursor = database.query("SELECT " + ROW_COUNT + " FROM " + TABLE_ROW_COUNT)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    // The counter isn't an entity, so it's created on open for both new and migrated databases.
+    // It's seeded with a full count only the first time.
+    private static final Callback ROW_COUNT_CALLBACK = new Callback() {
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase database) {
+            database.beginTransaction();
+            try {
+                database.execSQL(CREATE_TABLE_IF_NOT_EXISTS + TABLE_ROW_COUNT + " (" +
+                        HistoryContract.BrowsingHistory._ID + " INTEGER PRIMARY KEY CHECK (" + HistoryContract.BrowsingHistory._ID + " = 0)," +
+                        ROW_COUNT + " INTEGER NOT NULL" +
+                        ");");
+                database.execSQL("INSERT INTO " + TABLE_ROW_COUNT +
+                        " SELECT 0, (SELECT count(*) FROM " + HistoryContract.TABLE_NAME + ")" +
+                        " WHERE NOT EXISTS (SELECT 1 FROM " + TABLE_ROW_COUNT + ")");
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE_ROW_COUNT + "_inserted" +
+                        " AFTER INSERT ON " + HistoryContract.TABLE_NAME +
+                        " BEGIN UPDATE " + TABLE_ROW_COUNT + " SET " + ROW_COUNT + " = " + ROW_COUNT + " + 1; END");
+                database.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE_ROW_COUNT + "_deleted" +
+                        " AFTER DELETE ON " + HistoryContract.TABLE_NAME +
+                        " BEGIN UPDATE " + TABLE_ROW_COUNT + " SET " + ROW_COUNT + " = " + ROW_COUNT + " - 1; END");
+                database.setTransactionSuccessful();
+            } finally {
+                database.endTransaction();
+            }
+        }
+    };
+
     private static final Migration MIGRATION_1_2 = new Migration(1, 2) {
 
         @Override
@@ -117,4 +170,112 @@ public abstract class HistoryDatabase extends RoomDatabase {
             database.execSQL(CREATE_INDEX);
         }
     };
+
+    private static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+
+        private static final String CREATE_FTS_TABLE = "CREATE VIRTUAL TABLE IF NOT EXISTS `browsing_history_fts` " +
+                "USING FTS4(`title` TEXT, `url` TEXT NOT NULL, tokenize=unicode61, content=`browsing_history`)";
+
+        // Room adds the triggers keeping the index in sync once the migration is done, the
+        // existing rows are indexed here.
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL(CREATE_FTS_TABLE);
+            database.execSQL("INSERT INTO `browsing_history_fts`(`browsing_history_fts`) VALUES('rebuild')");
+        }
+    };
+
+    private static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+
+        private static final String ADD_COLUMN = "ALTER TABLE " + HistoryContract.TABLE_NAME +
+                " ADD COLUMN " + HistoryContract.BrowsingHistory.FRECENCY + " REAL NOT NULL DEFAULT 0";
+        private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS index_browsing_history_frecency ON " +
+                HistoryContract.TABLE_NAME + "(" + HistoryContract.BrowsingHistory.FRECENCY + ")";
+
+        // Every past visit is taken as made at the last one, since only the count is known.
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL(ADD_COLUMN);
+            final Cursor cursor = database.query("SELECT " + HistoryContract.BrowsingHistory._ID +
+                    ", " + HistoryContract.BrowsingHistory.VIEW_COUNT +
+                    ", " + HistoryContract.BrowsingHistory.LAST_VIEW_TIMESTAMP +
+                    " FROM " + HistoryContract.TABLE_NAME);
+            try {
+                while (cursor.moveToNext()) {
+                    database.execSQL("UPDATE " + HistoryContract.TABLE_NAME +
+                                    " SET " + HistoryContract.BrowsingHistory.FRECENCY + " = ?" +
+                                    " WHERE " + HistoryContract.BrowsingHistory._ID + " = ?",
+                            new Object[]{Frecency.of(cursor.getLong(1), cursor.getLong(2)), cursor.getLong(0)});
+                }
+            } finally {
+                cursor.close();
+            }
+            database.execSQL(CREATE_INDEX);
+        }
+    };
+
+    private static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+
+        private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS index_browsing_history_last_view_timestamp ON " +
+                HistoryContract.TABLE_NAME + "(" + HistoryContract.BrowsingHistory.LAST_VIEW_TIMESTAMP + ")";
+
+        // The size cap of the first schema was a trigger counting the whole table on each insert.
+        // It has been gone since MIGRATION_1_2 replaced the table, but is dropped in case.
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("DROP TRIGGER IF EXISTS " + HistoryDatabaseHelper.Tables.BROWSING_HISTORY + "_inserted");
+            database.execSQL(CREATE_INDEX);
+        }
+    };
+
+    @VisibleForTesting
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+
+        private static final String CREATE_INDEX = "CREATE UNIQUE INDEX IF NOT EXISTS index_browsing_history_url ON " +
+                HistoryContract.TABLE_NAME + "(" + HistoryContract.BrowsingHistory.URL + ")";
+
+        // Pages were kept once per url by the provider, but not by the schema. Any duplicates are
+        // merged into the last viewed row before the url becomes unique, with the visits of all.
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            // The update of each kept row: its view count, frecency and id.
+            final List<Object[]> merged = new ArrayList<>();
+            final List<Long> duplicates = new ArrayList<>();
+            try (Cursor cursor = database.query("SELECT " + HistoryContract.BrowsingHistory._ID + ", " + HistoryContract.BrowsingHistory.URL + ", " +
+                    HistoryContract.BrowsingHistory.VIEW_COUNT + ", " + HistoryContract.BrowsingHistory.FRECENCY +
+                    " FROM " + HistoryContract.TABLE_NAME +
+                    " WHERE " + HistoryContract.BrowsingHistory.URL + " IN (SELECT " + HistoryContract.BrowsingHistory.URL +
+                    " FROM " + HistoryContract.TABLE_NAME +
+                    " GROUP BY " + HistoryContract.BrowsingHistory.URL + " HAVING count(*) > 1)" +
+                    " ORDER BY " + HistoryContract.BrowsingHistory.URL + ", " + HistoryContract.BrowsingHistory.LAST_VIEW_TIMESTAMP + " DESC, " +
+                    HistoryContract.BrowsingHistory._ID + " DESC")) {
+                String url = null;
+                Object[] page = null;
+                while (cursor.moveToNext()) {
+                    if (!cursor.getString(1).equals(url)) {
+                        // The first row of a url is the last viewed one, which is kept.
+                        url = cursor.getString(1);
+                        page = new Object[]{cursor.getLong(2), cursor.getDouble(3), cursor.getLong(0)};
+                        merged.add(page);
+                    } else {
+                        page[0] = (long) page[0] + cursor.getLong(2);
+                        page[1] = Frecency.add((double) page[1], cursor.getDouble(3));
+                        duplicates.add(cursor.getLong(0));
+                    }
+                }
+            }
+            for (Object[] page : merged) {
+                database.execSQL("UPDATE " + HistoryContract.TABLE_NAME +
+                        " SET " + HistoryContract.BrowsingHistory.VIEW_COUNT + " = ?, " + HistoryContract.BrowsingHistory.FRECENCY + " = ?" +
+                        " WHERE " + HistoryContract.BrowsingHistory._ID + " = ?", page);
+            }
+            for (long id : duplicates) {
+                database.execSQL("DELETE FROM " + HistoryContract.TABLE_NAME +
+                        " WHERE " + HistoryContract.BrowsingHistory._ID + " = ?", new Object[]{id});
+            }
+            // Room keeps the full-text index in sync only after migrating.
+            database.execSQL("INSERT INTO `browsing_history_fts`(`browsing_history_fts`) VALUES('rebuild')");
+            database.execSQL(CREATE_INDEX);
+        }
+    };
 }
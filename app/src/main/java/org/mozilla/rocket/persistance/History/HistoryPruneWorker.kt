@@ -0,0 +1,74 @@
+package org.mozilla.rocket.persistance.History
+
+import android.content.Context
+import androidx.work.Constraints
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequest
+import androidx.work.WorkManager
+import androidx.work.Worker
+import androidx.work.WorkerParameters
+import org.mozilla.focus.provider.HistoryContract
+
+/**
+ * Removes the least recently viewed pages once history has grown [PRUNE_SLACK] rows over
+ * [HistoryDatabase.HISTORY_LIMIT], so recording a visit never has to.
+ *
+ * Rows go in batches through the history provider, which deletes their unused icons and
+ * notifies observers.
+ */
+class HistoryPruneWorker(
+    context: Context,
+    params: WorkerParameters
+) : Worker(context, params) {
+
+    private val appContext: Context = context.applicationContext
+
+    override fun doWork(): Result {
+        val database = HistoryDatabase.getInstance(appContext).openHelper.writableDatabase
+        var excess = HistoryDatabase.getRowCount(database) - HistoryDatabase.HISTORY_LIMIT
+        while (excess > 0 && !isStopped) {
+            val batch = excess.coerceAtMost(BATCH_SIZE)
+            val deleted = appContext.contentResolver.delete(
+                HistoryContract.BrowsingHistory.CONTENT_URI,
+                "${HistoryContract.BrowsingHistory._ID} IN (SELECT ${HistoryContract.BrowsingHistory._ID}" +
+                        " FROM ${HistoryContract.TABLE_NAME}" +
+                        " ORDER BY ${HistoryContract.BrowsingHistory.LAST_VIEW_TIMESTAMP} LIMIT $batch)",
+                null
+            )
+            if (deleted == 0) {
+                break
+            }
+            excess -= deleted
+        }
+        return Result.success()
+    }
+
+    companion object {
+        private const val UNIQUE_WORK_NAME = "history_prune_worker"
+        private const val BATCH_SIZE = 200L
+
+        /**
+         * Rows allowed over the limit before pruning, so it runs once per that many new pages.
+         */
+        const val PRUNE_SLACK = 100
+
+        /**
+         * Prunes history in the background if it's over the limit by more than [PRUNE_SLACK].
+         *
+         * @param rowCount the current row count, see [HistoryDatabase.getRowCount]
+         */
+        @JvmStatic
+        fun pruneIfNeeded(context: Context, rowCount: Long) {
+            if (rowCount <= HistoryDatabase.HISTORY_LIMIT + PRUNE_SLACK) {
+                return
+            }
+            val request = OneTimeWorkRequest.Builder(HistoryPruneWorker::class.java)
+                    .setConstraints(Constraints.Builder()
+                            .setRequiresBatteryNotLow(true)
+                            .build())
+                    .build()
+            WorkManager.getInstance(context.applicationContext)
+                    .enqueueUniqueWork(UNIQUE_WORK_NAME, ExistingWorkPolicy.KEEP, request)
+        }
+    }
+}
@@ -2,7 +2,9 @@ package org.mozilla.rocket.persistance.History;
 
 import org.jetbrains.annotations.NotNull;
 import org.mozilla.focus.history.model.Site;
+import org.mozilla.rocket.persistance.FtsQuery;
 
+import java.util.Collections;
 import java.util.List;
 
 public class HistoryRepository {
@@ -13,8 +15,16 @@ public class HistoryRepository {
         historyDatabase = database;
     }
 
+    /**
+     * @return the most viewed sites having a word of their title or url starting with each word
+     * of the text
+     */
     @NotNull
     public List<Site> searchHistory(@NotNull String text, int suggestionLimit) {
-        return historyDatabase.historyDao().queryHistoryByText(text, suggestionLimit);
+        final String query = FtsQuery.prefixMatch(text);
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        return historyDatabase.historyDao().queryHistoryByText(query, suggestionLimit);
     }
 }
@@ -0,0 +1,41 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.rocket.persistance.History;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+import org.mozilla.focus.history.model.Site;
+
+/**
+ * Full-text index over the title and url of browsing history. The rows live in browsing_history,
+ * and Room keeps the index in sync with triggers on it.
+ */
+@Fts4(contentEntity = Site.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "browsing_history_fts")
+public class SiteFts {
+
+    private String title;
+
+    @NonNull
+    private String url;
+
+    public SiteFts(String title, @NonNull String url) {
+        this.title = title;
+        this.url = url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    @NonNull
+    public String getUrl() {
+        return url;
+    }
+}
@@ -2,38 +2,27 @@ package org.mozilla.rocket.shopping.search.data
 
 import android.content.Context
 import android.text.TextUtils
-import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.withContext
-import mozilla.components.concept.fetch.Request
 import org.json.JSONArray
 import org.json.JSONException
 import org.mozilla.focus.search.SearchEngineManager
 import org.mozilla.focus.utils.FirebaseHelper
 import org.mozilla.rocket.content.Result
-import org.mozilla.rocket.util.safeApiCall
-import org.mozilla.rocket.util.sendHttpRequest
+import org.mozilla.rocket.network.FetchClient
+import org.mozilla.rocket.urlinput.SearchSuggestionEngine
 
-class KeywordSuggestionRepository(appContext: Context) {
+class KeywordSuggestionRepository(
+    appContext: Context,
+    private val suggestionEngine: SearchSuggestionEngine
+) {
 
     private val searchEngine = SearchEngineManager.getInstance().getDefaultSearchEngine(appContext)
 
-    suspend fun fetchSuggestions(keyword: String): Result<List<String>> = withContext(Dispatchers.IO) {
-        return@withContext safeApiCall(
-            call = {
-                sendHttpRequest(request = Request(url = getSuggestionApiEndpoint(keyword), method = Request.Method.GET),
-                    onSuccess = {
-                        Result.Success(parseSuggestionResult(it.body.string()))
-                    },
-                    onError = {
-                        Result.Error(it)
-                    }
-                )
-            },
-            errorMessage = "Unable to get keyword suggestion"
-        )
-    }
+    fun fetchSuggestions(keyword: String): Flow<List<String>> =
+        suggestionEngine.suggestions(searchEngine, keyword)
 
-    suspend fun fetchTrendingTerms(): Result<List<String>> = withContext(Dispatchers.IO) {
+    suspend fun fetchTrendingTerms(): Result<List<String>> = withContext(FetchClient.dispatcher) {
         val terms = FirebaseHelper.getFirebase().getRcString(RC_KEY_STR_SHOPPING_SEARCH_TRENDING_TERMS)
         return@withContext if (terms.isEmpty()) {
             Result.Success(emptyList())
@@ -42,24 +31,6 @@ class KeywordSuggestionRepository(appContext: Context) {
         }
     }
 
-    private fun getSuggestionApiEndpoint(keyword: String): String {
-        return searchEngine.buildSearchSuggestionUrl(keyword)
-    }
-
-    private fun parseSuggestionResult(response: String): List<String> {
-        val suggestions = arrayListOf<String>()
-        if (!TextUtils.isEmpty(response)) {
-            val jsonArray = JSONArray(response)
-            val suggestionItems = jsonArray.getJSONArray(1)
-            val size = suggestionItems.length()
-
-            for (i in 0 until size.coerceAtMost(MAX_SUGGESTION_COUNT)) {
-                suggestions.add(suggestionItems.getString(i))
-            }
-        }
-        return suggestions
-    }
-
     private fun parseTrendingTerms(response: String): List<String> {
         val suggestions = arrayListOf<String>()
         if (!TextUtils.isEmpty(response)) {
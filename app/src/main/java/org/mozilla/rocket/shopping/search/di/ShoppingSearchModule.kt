@@ -22,6 +22,7 @@ import org.mozilla.rocket.shopping.search.ui.ShoppingSearchBottomBarViewModel
 import org.mozilla.rocket.shopping.search.ui.ShoppingSearchKeywordInputViewModel
 import org.mozilla.rocket.shopping.search.ui.ShoppingSearchPreferencesViewModel
 import org.mozilla.rocket.shopping.search.ui.ShoppingSearchResultViewModel
+import org.mozilla.rocket.urlinput.SearchSuggestionEngine
 import javax.inject.Singleton
 
 @Module
@@ -30,7 +31,10 @@ object ShoppingSearchModule {
     @JvmStatic
     @Singleton
     @Provides
-    fun provideKeywordSuggestionRepository(appContext: Context): KeywordSuggestionRepository = KeywordSuggestionRepository(appContext)
+    fun provideKeywordSuggestionRepository(
+        appContext: Context,
+        suggestionEngine: SearchSuggestionEngine
+    ): KeywordSuggestionRepository = KeywordSuggestionRepository(appContext, suggestionEngine)
 
     @JvmStatic
     @Singleton
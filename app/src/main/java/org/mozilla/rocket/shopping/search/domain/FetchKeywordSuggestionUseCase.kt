@@ -1,13 +1,18 @@
 package org.mozilla.rocket.shopping.search.domain
 
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
 import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.shopping.search.data.KeywordSuggestionRepository
 
 class FetchKeywordSuggestionUseCase(val repository: KeywordSuggestionRepository) {
 
-    suspend operator fun invoke(keyword: String): Result<List<String>> {
+    operator fun invoke(keyword: String): Flow<List<String>> {
         return if (keyword.isEmpty()) {
-            repository.fetchTrendingTerms()
+            flow {
+                val result = repository.fetchTrendingTerms()
+                emit(if (result is Result.Success) result.data else emptyList())
+            }
         } else {
             repository.fetchSuggestions(keyword)
         }
@@ -7,13 +7,14 @@ import androidx.lifecycle.LiveData
 import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import org.mozilla.focus.R
 import org.mozilla.focus.telemetry.TelemetryWrapper
-import org.mozilla.rocket.content.Result
 import org.mozilla.rocket.download.SingleLiveEvent
 import org.mozilla.rocket.shopping.search.domain.FetchKeywordSuggestionUseCase
 import org.mozilla.rocket.shopping.search.domain.GetSearchDescriptionUseCase
@@ -55,18 +56,14 @@ class ShoppingSearchKeywordInputViewModel(
         }
 
         fetchSuggestionsJob = viewModelScope.launch(Dispatchers.Default) {
-            var styledSuggestions: List<CharSequence>? = null
-            val fetchKeywordSuggestionResult = fetchKeywordSuggestion(keyword)
-            if (fetchKeywordSuggestionResult is Result.Success) {
-                styledSuggestions = applyStyle(keyword, fetchKeywordSuggestionResult.data)
-            }
-            currentUiModel = currentUiModel.copy(
-                    keywordSuggestions = styledSuggestions,
-                    hideClear = TextUtils.isEmpty(keyword)
-            )
-
-            withContext(Dispatchers.Main) {
-                emitUiModel()
+            try {
+                fetchKeywordSuggestion(keyword).collect { suggestions ->
+                    emitSuggestions(keyword, applyStyle(keyword, suggestions))
+                }
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                emitSuggestions(keyword, null)
             }
         }
 
@@ -108,6 +105,17 @@ class ShoppingSearchKeywordInputViewModel(
         }
     }
 
+    private suspend fun emitSuggestions(keyword: String, styledSuggestions: List<CharSequence>?) {
+        currentUiModel = currentUiModel.copy(
+                keywordSuggestions = styledSuggestions,
+                hideClear = TextUtils.isEmpty(keyword)
+        )
+
+        withContext(Dispatchers.Main) {
+            emitUiModel()
+        }
+    }
+
     private fun emitUiModel() {
         _uiModel.value = currentUiModel
     }
@@ -0,0 +1,143 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 20; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+package org.mozilla.rocket.urlinput
+
+import org.mozilla.focus.history.Frecency
+import java.util.Locale
+
+/**
+ * Prefix tree of hosts, each with the [Frecency] of its visits. Every node keeps the host with the
+ * highest score below it, so completing a prefix only walks the prefix.
+ *
+ * Hosts are kept without "www.". Scores only ever grow, and once there are more than [maxHosts]
+ * the tree is rebuilt with the top three quarters of them.
+ *
+ * Not thread safe.
+ */
+class DomainTrie(private val maxHosts: Int = MAX_HOSTS) {
+
+    private var root = Node()
+
+    var size = 0
+        private set
+
+    /**
+     * Adds visits to the host.
+     *
+     * @param frecency the score of the visits, see [Frecency]
+     */
+    fun add(host: String, frecency: Double) {
+        val key = normalize(host)
+        if (key.isEmpty()) {
+            return
+        }
+        var node = root
+        val path = ArrayList<Node>(key.length + 1)
+        path.add(node)
+        for (c in key) {
+            node = node.child(c) ?: node.addChild(c)
+            path.add(node)
+        }
+        if (node.host == null) {
+            node.host = key
+            node.score = frecency
+            size++
+        } else {
+            node.score = Frecency.add(node.score, frecency)
+        }
+        for (parent in path) {
+            val best = parent.best
+            if (best == null || best === node || node.score > best.score) {
+                parent.best = node
+            }
+        }
+        if (size > maxHosts) {
+            trim()
+        }
+    }
+
+    /**
+     * @return the top host starting with the prefix, with "www." if the prefix has it
+     */
+    fun complete(prefix: String): String? {
+        val lowerCase = prefix.toLowerCase(Locale.ROOT)
+        val www = lowerCase.startsWith(WWW)
+        val key = if (www) lowerCase.substring(WWW.length) else lowerCase
+        if (key.isEmpty()) {
+            return null
+        }
+        var node = root
+        for (c in key) {
+            node = node.child(c) ?: return null
+        }
+        val host = node.best?.host ?: return null
+        return if (www) WWW + host else host
+    }
+
+    fun clear() {
+        root = Node()
+        size = 0
+    }
+
+    private fun trim() {
+        val hosts = ArrayList<Node>(size)
+        collect(root, hosts)
+        hosts.sortByDescending { it.score }
+        clear()
+        for (node in hosts.subList(0, maxHosts * 3 / 4)) {
+            add(requireNotNull(node.host), node.score)
+        }
+    }
+
+    private fun collect(node: Node, hosts: MutableList<Node>) {
+        if (node.host != null) {
+            hosts.add(node)
+        }
+        for (i in 0 until node.childCount) {
+            collect(requireNotNull(node.children[i]), hosts)
+        }
+    }
+
+    private fun normalize(host: String): String {
+        val lowerCase = host.toLowerCase(Locale.ROOT)
+        return if (lowerCase.startsWith(WWW)) lowerCase.substring(WWW.length) else lowerCase
+    }
+
+    // Children are in small arrays rather than maps, most nodes have a single one.
+    private class Node {
+        var keys = CharArray(1)
+        var children = arrayOfNulls<Node>(1)
+        var childCount = 0
+        var host: String? = null
+        var score = 0.0
+        var best: Node? = null
+
+        fun child(c: Char): Node? {
+            for (i in 0 until childCount) {
+                if (keys[i] == c) {
+                    return children[i]
+                }
+            }
+            return null
+        }
+
+        fun addChild(c: Char): Node {
+            if (childCount == keys.size) {
+                keys = keys.copyOf(childCount * 2)
+                children = children.copyOf(childCount * 2)
+            }
+            val node = Node()
+            keys[childCount] = c
+            children[childCount] = node
+            childCount++
+            return node
+        }
+    }
+
+    companion object {
+        private const val MAX_HOSTS = 2000
+        private const val WWW = "www."
+    }
+}
@@ -0,0 +1,195 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 20; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+package org.mozilla.rocket.urlinput
+
+import android.os.SystemClock
+import androidx.annotation.VisibleForTesting
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.launch
+import mozilla.components.concept.fetch.MutableHeaders
+import mozilla.components.concept.fetch.Request
+import org.json.JSONArray
+import org.mozilla.focus.network.SocketTags
+import org.mozilla.focus.search.SearchEngine
+import org.mozilla.httprequest.NetworkMetrics
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler.Priority
+import org.mozilla.rocket.network.FetchClient
+import java.io.IOException
+import java.util.Locale
+
+/**
+ * Search suggestions for the url bar and shopping search.
+ *
+ * Suggestions are kept per search engine and query in an LRU cache, so deleting characters shows
+ * the earlier suggestions again without a request. A longer query is first answered by filtering
+ * the suggestions of its longest cached prefix, and only goes to the network if that leaves less
+ * than [maxCount] of them. A request waits until the user pauses typing, longer for a fast typist,
+ * and is disconnected as soon as the collector is cancelled by the next input.
+ */
+class SearchSuggestionEngine @VisibleForTesting constructor(
+    private val fetcher: Fetcher,
+    private val maxCount: Int,
+    private val clock: () -> Long
+) {
+
+    constructor() : this(RemoteFetcher, MAX_SUGGESTION_COUNT, SystemClock::elapsedRealtime)
+
+    interface Callback {
+        fun onSuggestions(suggestions: List<String>)
+    }
+
+    class Query internal constructor(private val job: Job) {
+        fun cancel() = job.cancel()
+    }
+
+    interface Fetcher {
+        @Throws(IOException::class)
+        suspend fun fetch(url: String, userAgent: String?): List<String>
+    }
+
+    private val cache = object : LinkedHashMap<String, List<String>>(CACHE_SIZE, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, List<String>>?): Boolean =
+            size > CACHE_SIZE
+    }
+
+    private var lastInputTime = 0L
+    private var averageInputInterval = MAX_DEBOUNCE_MILLIS
+
+    /**
+     * Emits the suggestions for [query], possibly twice: the ones filtered from a cached prefix
+     * right away, then the ones from the search engine. Collect it with the previous collection
+     * cancelled, e.g. with collectLatest or by cancelling its job.
+     *
+     * @param userAgent sent with the request, the default one of the http stack if null
+     */
+    @JvmOverloads
+    fun suggestions(searchEngine: SearchEngine, query: String, userAgent: String? = null): Flow<List<String>> =
+        suggestions(searchEngine.name, query, userAgent) { searchEngine.buildSearchSuggestionUrl(it) }
+
+    /**
+     * [suggestions] for Java callers, [callback] gets each emission on the main thread and nothing
+     * if the request fails.
+     *
+     * @param scope the scope of the caller, the query is cancelled with it
+     * @return the query to cancel once it's outdated
+     */
+    fun query(scope: CoroutineScope, searchEngine: SearchEngine, query: String, userAgent: String?, callback: Callback): Query =
+        Query(scope.launch(Dispatchers.Main) {
+            try {
+                suggestions(searchEngine, query, userAgent).collect { callback.onSuggestions(it) }
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                // no suggestions this time, e.g. offline
+            }
+        })
+
+    @VisibleForTesting
+    internal fun suggestions(
+        engineName: String,
+        query: String,
+        userAgent: String?,
+        buildUrl: (String) -> String?
+    ): Flow<List<String>> {
+        val debounceMillis = onInput()
+        return flow {
+            val normalized = query.trim().toLowerCase(Locale.getDefault())
+            if (normalized.isEmpty()) {
+                emit(emptyList<String>())
+                return@flow
+            }
+
+            val key = cacheKey(engineName, normalized)
+            val cached = synchronized(cache) { cache[key] }
+            if (cached != null) {
+                NetworkMetrics.getInstance().recordCacheHit(Family.SUGGESTIONS)
+                emit(cached.take(maxCount))
+                return@flow
+            }
+
+            val filtered = filterLongestPrefix(engineName, normalized)
+            if (filtered.size >= maxCount) {
+                NetworkMetrics.getInstance().recordCacheHit(Family.SUGGESTIONS)
+                emit(filtered.take(maxCount))
+                return@flow
+            }
+            val url = buildUrl(query)
+            if (filtered.isNotEmpty() || url == null) {
+                emit(filtered)
+            }
+            if (url == null) {
+                return@flow
+            }
+            delay(debounceMillis)
+            val suggestions = fetcher.fetch(url, userAgent)
+            synchronized(cache) { cache[key] = suggestions }
+            emit(suggestions.take(maxCount))
+        }
+    }
+
+    private fun filterLongestPrefix(engineName: String, query: String): List<String> {
+        synchronized(cache) {
+            for (length in query.length - 1 downTo 1) {
+                val suggestions = cache[cacheKey(engineName, query.substring(0, length))] ?: continue
+                return suggestions.filter { it.toLowerCase(Locale.getDefault()).startsWith(query) }
+            }
+        }
+        return emptyList()
+    }
+
+    // Waits a bit longer than the usual pause between keystrokes. A slow typist pauses after
+    // every keystroke anyway, so there's no point waiting for more.
+    private fun onInput(): Long = synchronized(this) {
+        val now = clock()
+        val interval = (now - lastInputTime).coerceAtMost(IDLE_INPUT_INTERVAL_MILLIS)
+        lastInputTime = now
+        averageInputInterval = (averageInputInterval * 2 + interval) / 3
+        if (averageInputInterval >= MAX_DEBOUNCE_MILLIS) {
+            MIN_DEBOUNCE_MILLIS
+        } else {
+            (averageInputInterval * 3 / 2).coerceIn(MIN_DEBOUNCE_MILLIS, MAX_DEBOUNCE_MILLIS)
+        }
+    }
+
+    private fun cacheKey(engineName: String, query: String) = "$engineName\n$query"
+
+    private object RemoteFetcher : Fetcher {
+
+        override suspend fun fetch(url: String, userAgent: String?): List<String> {
+            val headers = MutableHeaders().apply {
+                userAgent?.let { set("User-Agent", it) }
+            }
+            val request = Request(url = url, method = Request.Method.GET, headers = headers)
+            return FetchClient.fetchCancellable(request, Priority.INTERACTIVE, SocketTags.SEARCH_SUGGESTION, Family.SUGGESTIONS) { response ->
+                if (response.status != 200) {
+                    throw IOException("Unexpected status ${response.status}")
+                }
+                parseSuggestions(response.body.string())
+            }
+        }
+
+        // OpenSearch suggestions: ["query", ["suggestion", ...], ...]
+        private fun parseSuggestions(response: String): List<String> {
+            val suggestionItems = JSONArray(response).getJSONArray(1)
+            return (0 until suggestionItems.length()).map { suggestionItems.getString(it) }
+        }
+    }
+
+    companion object {
+        private const val MAX_SUGGESTION_COUNT = 5
+        private const val CACHE_SIZE = 64
+        private const val MIN_DEBOUNCE_MILLIS = 50L
+        private const val MAX_DEBOUNCE_MILLIS = 300L
+        private const val IDLE_INPUT_INTERVAL_MILLIS = 1000L
+    }
+}
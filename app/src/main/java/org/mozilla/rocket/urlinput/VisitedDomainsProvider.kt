@@ -0,0 +1,103 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 20; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+package org.mozilla.rocket.urlinput
+
+import android.content.Context
+import android.net.Uri
+import mozilla.components.browser.domains.autocomplete.DomainAutocompleteResult
+import org.mozilla.focus.history.BrowsingHistoryManager
+import org.mozilla.focus.history.Frecency
+import org.mozilla.focus.provider.HistoryContract.BrowsingHistory
+import org.mozilla.threadutils.ThreadUtils
+
+/**
+ * Completes the hosts of the pages in history, the most frecent first, for the url bar.
+ *
+ * History is read into a [DomainTrie] in the background the first time [initialize] is called,
+ * and the first time after some of it is deleted. Visits are added to it as they happen, so suggestions
+ * never touch the database. Until it's loaded there are no suggestions.
+ */
+class VisitedDomainsProvider(private val appContext: Context) : BrowsingHistoryManager.VisitListener {
+
+    private val lock = Any()
+    private var trie = DomainTrie()
+    private var loaded = false
+    private var loading = false
+    private var listening = false
+    private var generation = 0
+
+    fun initialize() {
+        val loadGeneration = synchronized(lock) {
+            if (!listening) {
+                BrowsingHistoryManager.getInstance().addVisitListener(this)
+                listening = true
+            }
+            if (loaded || loading) {
+                return
+            }
+            loading = true
+            generation
+        }
+        ThreadUtils.postToBackgroundThread { load(loadGeneration) }
+    }
+
+    fun getAutocompleteSuggestion(searchText: String): DomainAutocompleteResult? {
+        val host = synchronized(lock) {
+            if (!loaded) null else trie.complete(searchText)
+        } ?: return null
+        return DomainAutocompleteResult(
+            searchText + host.substring(searchText.length),
+            "http://$host",
+            SOURCE,
+            1
+        )
+    }
+
+    override fun onVisit(url: String, timeStamp: Long) {
+        val host = hostOf(url) ?: return
+        synchronized(lock) {
+            if (loaded) {
+                trie.add(host, Frecency.of(1, timeStamp))
+            }
+        }
+    }
+
+    // Deleted pages can't be taken off the scores of their hosts, so history is read again.
+    override fun onHistoryDeleted() {
+        synchronized(lock) {
+            trie.clear()
+            loaded = false
+            generation++
+        }
+    }
+
+    private fun load(loadGeneration: Int) {
+        val loadedTrie = DomainTrie()
+        appContext.contentResolver.query(
+            BrowsingHistory.CONTENT_URI,
+            arrayOf(BrowsingHistory.URL, BrowsingHistory.FRECENCY),
+            null,
+            null,
+            null
+        )?.use { cursor ->
+            while (cursor.moveToNext()) {
+                hostOf(cursor.getString(0))?.let { loadedTrie.add(it, cursor.getDouble(1)) }
+            }
+        }
+        synchronized(lock) {
+            loading = false
+            if (generation == loadGeneration) {
+                trie = loadedTrie
+                loaded = true
+            }
+        }
+    }
+
+    private fun hostOf(url: String): String? = Uri.parse(url).host?.takeIf { it.isNotEmpty() }
+
+    companion object {
+        private const val SOURCE = "history"
+    }
+}
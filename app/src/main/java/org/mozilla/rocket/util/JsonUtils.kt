@@ -1,8 +1,13 @@
 package org.mozilla.rocket.util
 
+import android.util.JsonReader
+import android.util.JsonToken
+import mozilla.components.concept.fetch.Response
 import org.json.JSONArray
 import org.json.JSONException
 import org.json.JSONObject
+import java.io.IOException
+import java.io.InputStreamReader
 
 @Throws(JSONException::class)
 fun String.toJsonArray(): JSONArray = JSONArray(this)
@@ -35,4 +40,132 @@ private fun <T> JSONArray.optSerialize(parser: (JSONObject) -> T): List<T> {
     return (0 until this.length())
             .mapNotNull { index -> this.optJSONObject(index) }
             .map { jsonObject -> parser(jsonObject) }
-}
\ No newline at end of file
+}
+
+/**
+ * Decode the body straight from the network stream, without holding the whole payload as a
+ * String and then as a JSONObject tree.
+ */
+@Throws(IOException::class)
+fun <T> Response.Body.decodeJson(decoder: (JsonReader) -> T): T {
+    return useStream { stream ->
+        JsonReader(InputStreamReader(stream, Charsets.UTF_8)).use(decoder)
+    }
+}
+
+/**
+ * Visit each member of the next object, [block] must consume the value (or skip it).
+ */
+@Throws(IOException::class)
+inline fun JsonReader.forEachName(block: (String) -> Unit) {
+    if (peek() != JsonToken.BEGIN_OBJECT) {
+        skipValue()
+        return
+    }
+    beginObject()
+    while (hasNext()) {
+        block(nextName())
+    }
+    endObject()
+}
+
+/**
+ * Visit each element of the next array, [block] must consume the element (or skip it).
+ */
+@Throws(IOException::class)
+inline fun JsonReader.forEachElement(block: () -> Unit) {
+    if (peek() != JsonToken.BEGIN_ARRAY) {
+        skipValue()
+        return
+    }
+    beginArray()
+    while (hasNext()) {
+        block()
+    }
+    endArray()
+}
+
+/**
+ * Read the next array of objects, the same way [optJsonArray] does, elements which are not
+ * objects are skipped.
+ */
+@Throws(IOException::class)
+fun <T> JsonReader.optObjectList(parser: (JsonReader) -> T): List<T> {
+    val list = ArrayList<T>()
+    forEachElement {
+        if (peek() == JsonToken.BEGIN_OBJECT) {
+            list.add(parser(this))
+        } else {
+            skipValue()
+        }
+    }
+    return list
+}
+
+@Throws(IOException::class)
+fun JsonReader.optString(fallback: String = ""): String = when (peek()) {
+    JsonToken.STRING, JsonToken.NUMBER -> nextString()
+    JsonToken.BOOLEAN -> nextBoolean().toString()
+    JsonToken.NULL -> {
+        nextNull()
+        fallback
+    }
+    else -> {
+        skipValue()
+        fallback
+    }
+}
+
+@Throws(IOException::class)
+fun JsonReader.optStringOrNull(): String? = if (peek() == JsonToken.NULL) {
+    nextNull()
+    null
+} else {
+    optString()
+}
+
+@Throws(IOException::class)
+fun JsonReader.optDouble(fallback: Double = Double.NaN): Double {
+    if (peek() != JsonToken.NUMBER && peek() != JsonToken.STRING) {
+        skipValue()
+        return fallback
+    }
+    return try {
+        nextDouble()
+    } catch (e: NumberFormatException) {
+        skipValue()
+        fallback
+    }
+}
+
+@Throws(IOException::class)
+fun JsonReader.optLong(fallback: Long = 0L): Long {
+    if (peek() != JsonToken.NUMBER && peek() != JsonToken.STRING) {
+        skipValue()
+        return fallback
+    }
+    return try {
+        nextLong()
+    } catch (e: NumberFormatException) {
+        // not an integral value, truncate like JSONObject.optLong does
+        val value = optDouble()
+        if (value.isNaN()) fallback else value.toLong()
+    }
+}
+
+@Throws(IOException::class)
+fun JsonReader.optInt(fallback: Int = 0): Int = optLong(fallback.toLong()).toInt()
+
+@Throws(IOException::class)
+fun JsonReader.optBoolean(fallback: Boolean = false): Boolean = when (peek()) {
+    JsonToken.BOOLEAN -> nextBoolean()
+    JsonToken.STRING -> when (nextString().toLowerCase()) {
+        "true" -> true
+        "false" -> false
+        else -> fallback
+    }
+    else -> {
+        skipValue()
+        fallback
+    }
+}
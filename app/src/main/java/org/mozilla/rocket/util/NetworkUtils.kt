@@ -18,8 +18,13 @@ package org.mozilla.rocket.util
 
 import mozilla.components.concept.fetch.Request
 import mozilla.components.concept.fetch.Response
-import mozilla.components.lib.fetch.httpurlconnection.HttpURLConnectionClient
+import org.mozilla.httprequest.NetworkMetrics
+import org.mozilla.httprequest.NetworkMetrics.Family
+import org.mozilla.httprequest.NetworkScheduler
+import org.mozilla.httprequest.NetworkScheduler.Priority
 import org.mozilla.rocket.content.Result
+import org.mozilla.rocket.network.FetchClient
+import org.mozilla.rocket.network.RequestCoalescer
 import java.io.IOException
 
 /**
@@ -35,12 +40,47 @@ suspend fun <T : Any> safeApiCall(call: suspend () -> Result<T>, errorMessage: S
     }
 }
 
-fun <T> sendHttpRequest(request: Request, onSuccess: (Response) -> T, onError: (Exception) -> T): T {
+/**
+ * Send the [request] in the [NetworkScheduler] lane of [priority], the lane slot is held until
+ * [onSuccess] has consumed the response. Callers already running on a [FetchClient] dispatcher
+ * send it right away. The request is counted in [NetworkMetrics] under [family].
+ */
+fun <T> sendHttpRequest(
+    request: Request,
+    onSuccess: (Response) -> T,
+    onError: (Exception) -> T,
+    priority: Priority = Priority.VISIBLE_CONTENT,
+    family: Family = Family.OTHER
+): T {
     return try {
-        return HttpURLConnectionClient()
-            .fetch(request)
-            .use { onSuccess(it) }
+        NetworkScheduler.getInstance().await(priority) {
+            NetworkMetrics.withFamily(family) {
+                FetchClient
+                    .fetch(request)
+                    .use { onSuccess(it) }
+            }
+        }
     } catch (e: IOException) {
         onError(e)
     }
 }
+
+/**
+ * Same as [sendHttpRequest], but concurrent identical GET requests with the same [resultKey]
+ * share one network call and receive the same result.
+ *
+ * @param resultKey equal only for callers whose [onSuccess] turns the response into the same
+ * result, so it must cover every value [onSuccess] reads besides the response itself.
+ */
+fun <T> sendCoalescedHttpRequest(
+    request: Request,
+    resultKey: Any,
+    onSuccess: (Response) -> T,
+    onError: (Exception) -> T,
+    priority: Priority = Priority.VISIBLE_CONTENT,
+    family: Family = Family.OTHER
+): T {
+    return RequestCoalescer.coalesce(request, resultKey) {
+        sendHttpRequest(request, onSuccess, onError, priority, family)
+    }
+}
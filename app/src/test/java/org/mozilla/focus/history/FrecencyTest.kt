@@ -0,0 +1,50 @@
+package org.mozilla.focus.history
+
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class FrecencyTest {
+
+    private val now = 1_580_000_000_000L
+    private val halfLife = TimeUnit.DAYS.toMillis(Frecency.HALF_LIFE_DAYS.toLong())
+
+    @Test
+    fun `Visits add up and halve every half-life`() {
+        val frecency = Frecency.visit(Frecency.visit(0.0, now), now)
+
+        Assert.assertEquals(2.0, Frecency.decayedVisits(frecency, now), DELTA)
+        Assert.assertEquals(1.0, Frecency.decayedVisits(frecency, now + halfLife), DELTA)
+    }
+
+    @Test
+    fun `Visits at the same time can be added at once`() {
+        val once = Frecency.visit(Frecency.of(2, now - halfLife), now, 3)
+        val oneByOne = Frecency.visit(Frecency.visit(Frecency.visit(Frecency.of(2, now - halfLife), now), now), now)
+
+        Assert.assertEquals(oneByOne, once, DELTA)
+        Assert.assertEquals(4.0, Frecency.decayedVisits(once, now), DELTA)
+    }
+
+    @Test
+    fun `Recent visits outrank older ones of the same count`() {
+        val old = Frecency.of(10, now - 3 * halfLife)
+        val recent = Frecency.of(2, now)
+
+        Assert.assertTrue(recent > old)
+        Assert.assertEquals(1.25, Frecency.decayedVisits(old, now), DELTA)
+    }
+
+    @Test
+    fun `Visits of different times decay at the same pace`() {
+        val early = Frecency.visit(Frecency.of(3, now - halfLife), now - halfLife / 2)
+        val late = Frecency.visit(0.0, now)
+        val ratio = Frecency.decayedVisits(early, now) / Frecency.decayedVisits(late, now)
+
+        Assert.assertEquals(ratio, Frecency.decayedVisits(early, now + 5 * halfLife) / Frecency.decayedVisits(late, now + 5 * halfLife), DELTA)
+    }
+
+    companion object {
+        private const val DELTA = 1e-6
+    }
+}
@@ -0,0 +1,130 @@
+package org.mozilla.focus.history
+
+import android.content.ContentResolver
+import android.content.Context
+import android.database.Cursor
+import android.os.Build
+import android.os.Handler
+import android.os.Looper
+import androidx.test.core.app.ApplicationProvider
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mozilla.focus.provider.HistoryContract
+import org.mozilla.focus.provider.HistoryContract.BrowsingHistory
+import org.mozilla.focus.provider.HistoryProvider
+import org.robolectric.Robolectric
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowLooper
+import java.util.concurrent.TimeUnit
+
+@RunWith(RobolectricTestRunner::class)
+@Config(maxSdk = Build.VERSION_CODES.P, minSdk = Build.VERSION_CODES.LOLLIPOP)
+class VisitRecorderTest {
+
+    private lateinit var resolver: ContentResolver
+    private lateinit var recorder: VisitRecorder
+
+    @Before
+    fun setUp() {
+        Robolectric.setupContentProvider(HistoryProvider::class.java, HistoryContract.AUTHORITY)
+        resolver = ApplicationProvider.getApplicationContext<Context>().contentResolver
+        // The history database outlives a test.
+        resolver.delete(BrowsingHistory.CONTENT_URI, null, null)
+        recorder = VisitRecorder(resolver, Handler(Looper.getMainLooper()))
+    }
+
+    @Test
+    fun `Writes of the same url are merged into one page`() {
+        recorder.recordVisit(URL, "Title", 1000)
+        recorder.recordUpdate(URL, null, ICON)
+        recorder.recordVisit(URL, null, 3000)
+        recorder.recordVisit(OTHER_URL, null, 2000)
+        recorder.flush()
+
+        Assert.assertEquals(2, countPages())
+        queryPage(URL) {
+            Assert.assertEquals(2L, it.getLong(it.getColumnIndex(BrowsingHistory.VIEW_COUNT)))
+            Assert.assertEquals(3000L, it.getLong(it.getColumnIndex(BrowsingHistory.LAST_VIEW_TIMESTAMP)))
+            Assert.assertEquals("Title", it.getString(it.getColumnIndex(BrowsingHistory.TITLE)))
+            Assert.assertEquals(ICON, it.getString(it.getColumnIndex(BrowsingHistory.FAV_ICON_URI)))
+        }
+    }
+
+    @Test
+    fun `Merged update and visit add to the visits of a page in history`() {
+        recorder.recordVisit(URL, "Title", 1000)
+        recorder.recordVisit(URL, null, 2000)
+        recorder.flush()
+
+        recorder.recordUpdate(URL, "New title", null)
+        recorder.recordVisit(URL, null, 3000)
+        recorder.flush()
+
+        Assert.assertEquals(1, countPages())
+        queryPage(URL) {
+            Assert.assertEquals(3L, it.getLong(it.getColumnIndex(BrowsingHistory.VIEW_COUNT)))
+            Assert.assertEquals(3000L, it.getLong(it.getColumnIndex(BrowsingHistory.LAST_VIEW_TIMESTAMP)))
+            Assert.assertEquals("New title", it.getString(it.getColumnIndex(BrowsingHistory.TITLE)))
+        }
+    }
+
+    @Test
+    fun `Updates of a page not in history add nothing`() {
+        recorder.recordUpdate(URL, "Title", ICON)
+        recorder.flush()
+
+        Assert.assertEquals(0, countPages())
+    }
+
+    @Test
+    fun `Writes are flushed after the delay`() {
+        recorder.recordVisit(URL, null, 1000)
+        ShadowLooper.runUiThreadTasks()
+        Assert.assertEquals(0, countPages())
+
+        ShadowLooper.idleMainLooper(VisitRecorder.FLUSH_DELAY_MS, TimeUnit.MILLISECONDS)
+        Assert.assertEquals(1, countPages())
+    }
+
+    @Test
+    fun `Writes are flushed early once too many pages are pending`() {
+        for (i in 1 until VisitRecorder.MAX_PENDING) {
+            recorder.recordVisit("$URL$i", null, 1000)
+        }
+        ShadowLooper.runUiThreadTasks()
+        Assert.assertEquals(0, countPages())
+
+        recorder.recordVisit(URL, null, 1000)
+        ShadowLooper.runUiThreadTasks()
+        Assert.assertEquals(VisitRecorder.MAX_PENDING, countPages())
+    }
+
+    @Test
+    fun `Discarded writes are never flushed`() {
+        recorder.recordVisit(URL, null, 1000)
+        recorder.recordUpdate(OTHER_URL, "Title", null)
+        recorder.discard()
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+
+        Assert.assertEquals(0, countPages())
+    }
+
+    private fun countPages(): Int =
+            resolver.query(BrowsingHistory.CONTENT_URI, null, null, null, null)!!.use { it.count }
+
+    private fun queryPage(url: String, assertions: (Cursor) -> Unit) {
+        resolver.query(BrowsingHistory.CONTENT_URI, null, "${BrowsingHistory.URL} = ?", arrayOf(url), null)!!.use {
+            Assert.assertTrue(it.moveToFirst())
+            assertions(it)
+        }
+    }
+
+    companion object {
+        private const val URL = "https://www.mozilla.org/"
+        private const val OTHER_URL = "https://developer.mozilla.org/"
+        private const val ICON = "file:///icons/mozilla.png"
+    }
+}
@@ -0,0 +1,136 @@
+package org.mozilla.focus.provider
+
+import android.content.ContentResolver
+import android.net.Uri
+import android.os.Build
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowLooper
+
+@RunWith(RobolectricTestRunner::class)
+@Config(maxSdk = Build.VERSION_CODES.P, minSdk = Build.VERSION_CODES.LOLLIPOP)
+class ChangeBatcherTest {
+
+    private val uri = Uri.parse("content://org.mozilla.test/items")
+    private lateinit var resolver: ContentResolver
+    private lateinit var batcher: ChangeBatcher
+    private val changes = mutableListOf<List<Long>?>()
+    private val listener = ChangeBatcher.Listener { _, ids -> changes.add(ids?.toList()) }
+
+    @Before
+    fun setUp() {
+        resolver = mock(ContentResolver::class.java)
+        batcher = ChangeBatcher(resolver, uri)
+        ChangeBatcher.addListener(uri, listener)
+    }
+
+    @After
+    fun tearDown() {
+        ChangeBatcher.removeListener(uri, listener)
+    }
+
+    @Test
+    fun `Changes in a frame are notified once`() {
+        batcher.onChange()
+        batcher.onChange()
+        batcher.onChange()
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        verify(resolver, times(1)).notifyChange(uri, null)
+
+        batcher.onChange()
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        verify(resolver, times(2)).notifyChange(uri, null)
+    }
+
+    @Test
+    fun `A successful batch is notified when it ends`() {
+        batcher.beginBatch()
+        batcher.onChange()
+        batcher.onChange()
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        verify(resolver, never()).notifyChange(uri, null)
+
+        batcher.endBatch(true)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        verify(resolver, times(1)).notifyChange(uri, null)
+    }
+
+    @Test
+    fun `A failed batch drops its changes`() {
+        batcher.beginBatch()
+        batcher.onChange()
+        batcher.endBatch(false)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        verify(resolver, never()).notifyChange(uri, null)
+    }
+
+    @Test
+    fun `An empty batch is not notified`() {
+        batcher.beginBatch()
+        batcher.endBatch(true)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        verify(resolver, never()).notifyChange(uri, null)
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun `Batches do not nest`() {
+        batcher.beginBatch()
+        try {
+            batcher.beginBatch()
+        } finally {
+            batcher.endBatch(false)
+        }
+    }
+
+    @Test
+    fun `Ids changed in a frame are delivered once`() {
+        batcher.onChange(1)
+        batcher.onChange(2)
+        batcher.onChange(1)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        Assert.assertEquals(listOf(listOf(1L, 2L)), changes)
+
+        batcher.onChange(3)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        Assert.assertEquals(listOf(listOf(1L, 2L), listOf(3L)), changes)
+    }
+
+    @Test
+    fun `Unknown rows changed in a frame are delivered as null`() {
+        batcher.onChange(1)
+        batcher.onChange()
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        Assert.assertEquals(listOf<List<Long>?>(null), changes)
+    }
+
+    @Test
+    fun `Ids of a batch are delivered only if it succeeds`() {
+        batcher.beginBatch()
+        batcher.onChange(1)
+        batcher.endBatch(false)
+        batcher.beginBatch()
+        batcher.onChange(2)
+        batcher.onChange(3)
+        batcher.endBatch(true)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        Assert.assertEquals(listOf(listOf(2L, 3L)), changes)
+    }
+
+    @Test
+    fun `Removed listeners get no ids`() {
+        ChangeBatcher.removeListener(uri, listener)
+        batcher.onChange(1)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        verify(resolver, times(1)).notifyChange(uri, null)
+        Assert.assertTrue(changes.isEmpty())
+    }
+}
@@ -0,0 +1,104 @@
+/* -*- Mode: Java; c-basic-offset: 4; tab-width: 4; indent-tabs-mode: nil; -*-
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.focus.utils;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(maxSdk = Build.VERSION_CODES.P, minSdk = Build.VERSION_CODES.LOLLIPOP)
+public class ProviderUtilsTest {
+
+    private static final String TABLE = "pages";
+    private static final String ID = "_id";
+    private static final String KEY = "timestamp";
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = SQLiteDatabase.create(null);
+        db.execSQL("CREATE TABLE " + TABLE + " (" + ID + " INTEGER PRIMARY KEY, " + KEY + " INTEGER NOT NULL)");
+        // Rows 2, 3 and 4 share a timestamp, so only the id orders them.
+        final long[][] rows = {{1, 100}, {2, 200}, {3, 200}, {4, 200}, {5, 300}};
+        for (long[] row : rows) {
+            db.execSQL("INSERT INTO " + TABLE + " VALUES (?, ?)", new Object[]{row[0], row[1]});
+        }
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void testLimitParam() {
+        assertNull(ProviderUtils.getLimitParam(null, null));
+        assertEquals("10", ProviderUtils.getLimitParam(null, "10"));
+        assertEquals("20,10", ProviderUtils.getLimitParam("20", "10"));
+    }
+
+    @Test
+    public void testKeysetSelectionSkipsTiesBeforeTheKey() {
+        assertEquals(Arrays.asList(2L, 1L), queryAfter(200, 3, 10));
+        assertEquals(Arrays.asList(3L, 2L, 1L), queryAfter(200, 4, 10));
+        assertEquals(Arrays.asList(4L, 3L, 2L, 1L), queryAfter(300, 5, 10));
+        assertEquals(new ArrayList<Long>(), queryAfter(100, 1, 10));
+    }
+
+    @Test
+    public void testKeysetPagesVisitEachRowOnce() {
+        final List<Long> ids = new ArrayList<>();
+        List<Long> page = queryFirst(2);
+        while (!page.isEmpty()) {
+            ids.addAll(page);
+            final long lastId = page.get(page.size() - 1);
+            page = queryAfter(keyOf(lastId), lastId, 2);
+        }
+        assertEquals(Arrays.asList(5L, 4L, 3L, 2L, 1L), ids);
+    }
+
+    private List<Long> queryFirst(int limit) {
+        return queryIds(null, null, limit);
+    }
+
+    private List<Long> queryAfter(long key, long id, int limit) {
+        return queryIds(ProviderUtils.getKeysetSelection(KEY, ID), ProviderUtils.getKeysetSelectionArgs(key, id), limit);
+    }
+
+    private List<Long> queryIds(String selection, String[] selectionArgs, int limit) {
+        final List<Long> ids = new ArrayList<>();
+        try (Cursor cursor = db.query(TABLE, new String[]{ID}, selection, selectionArgs, null, null,
+                ProviderUtils.getKeysetOrder(KEY, ID), Integer.toString(limit))) {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getLong(0));
+            }
+        }
+        return ids;
+    }
+
+    private long keyOf(long id) {
+        try (Cursor cursor = db.query(TABLE, new String[]{KEY}, ID + " = ?", new String[]{Long.toString(id)}, null, null, null)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+}
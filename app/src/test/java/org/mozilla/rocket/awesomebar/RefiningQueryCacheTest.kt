@@ -0,0 +1,37 @@
+package org.mozilla.rocket.awesomebar
+
+import org.junit.Assert
+import org.junit.Test
+
+class RefiningQueryCacheTest {
+
+    private val rows = listOf("mozilla.org", "mozilla.com", "developer.mozilla.org", "monday.com", "moz.com")
+    private val searches = mutableListOf<String>()
+
+    private fun search(text: String, limit: Int): List<String> {
+        searches.add(text)
+        return rows.filter { it.split('.').any { word -> word.startsWith(text) } }.take(limit)
+    }
+
+    @Test
+    fun `Longer text is filtered from the last rows`() {
+        val cache = RefiningQueryCache<String>(limit = 10, minRows = 2) { arrayOf(it) }
+
+        Assert.assertEquals(5, cache.get("mo", ::search).size)
+        Assert.assertEquals(listOf("mozilla.org", "mozilla.com", "developer.mozilla.org"), cache.get("mozi", ::search))
+        Assert.assertEquals(listOf("mozilla.org", "developer.mozilla.org"), cache.get("mozi org", ::search))
+        Assert.assertEquals(listOf("mo"), searches)
+
+        cache.get("moz", ::search)
+        Assert.assertEquals(listOf("mo", "moz"), searches)
+    }
+
+    @Test
+    fun `Cut results are searched again when too few rows are left`() {
+        val cache = RefiningQueryCache<String>(limit = 4, minRows = 4) { arrayOf(it) }
+
+        cache.get("mo", ::search)
+        Assert.assertEquals(listOf("mozilla.org", "mozilla.com", "developer.mozilla.org", "moz.com"), cache.get("moz", ::search))
+        Assert.assertEquals(listOf("mo", "moz"), searches)
+    }
+}
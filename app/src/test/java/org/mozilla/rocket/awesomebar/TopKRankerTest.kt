@@ -0,0 +1,37 @@
+package org.mozilla.rocket.awesomebar
+
+import org.junit.Assert
+import org.junit.Test
+
+class TopKRankerTest {
+
+    private val ranker = TopKRanker<String>(3)
+
+    @Test
+    fun `Highest scores are kept in order`() {
+        listOf("a" to 1.0, "b" to 5.0, "c" to 3.0, "d" to 4.0, "e" to 2.0).forEach { (item, score) ->
+            ranker.offer(item, score)
+        }
+
+        Assert.assertEquals(listOf("b", "d", "c"), drain())
+    }
+
+    @Test
+    fun `Same scores rank in the order offered`() {
+        listOf("a", "b", "c", "d").forEach { ranker.offer(it, 1.0) }
+        ranker.offer("e", 2.0)
+
+        Assert.assertEquals(listOf("e", "a", "b"), drain())
+    }
+
+    @Test
+    fun `Ranker starts over after draining`() {
+        ranker.offer("a", 1.0)
+        drain()
+        ranker.offer("b", 1.0)
+
+        Assert.assertEquals(listOf("b"), drain())
+    }
+
+    private fun drain(): List<String> = mutableListOf<String>().apply { ranker.drainTo(this) }
+}
@@ -0,0 +1,66 @@
+package org.mozilla.rocket.content.common.data
+
+import android.os.Build
+import android.util.JsonReader
+import org.junit.Assert
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.StringReader
+
+@RunWith(RobolectricTestRunner::class)
+@Config(maxSdk = Build.VERSION_CODES.P, minSdk = Build.VERSION_CODES.LOLLIPOP)
+class ApiEntityTest {
+
+    @Test
+    fun `Streaming decode matches the JSONObject decode`() {
+        val json = """
+            {
+              "version": 3,
+              "unknown": { "nested": [1, 2, 3] },
+              "subcategories": [
+                {
+                  "componentType": "banner",
+                  "subcategoryName": "Deals",
+                  "subcategoryId": "7",
+                  "items": [
+                    {
+                      "source_name": "shop",
+                      "title": "item",
+                      "image": "https://example.com/a.png",
+                      "score": 4.5,
+                      "end_date": 1585699200000,
+                      "destination_type": 1,
+                      "discount": null
+                    },
+                    "not an object"
+                  ]
+                }
+              ]
+            }
+        """.trimIndent()
+
+        val expected = ApiEntity.fromJson(json)
+        val actual = JsonReader(StringReader(json)).use { ApiEntity.fromJson(it) }
+
+        Assert.assertEquals(expected.version, actual.version)
+        Assert.assertEquals(expected.subcategories.size, actual.subcategories.size)
+        val expectedCategory = expected.subcategories[0]
+        val actualCategory = actual.subcategories[0]
+        Assert.assertEquals(expectedCategory.componentType, actualCategory.componentType)
+        Assert.assertEquals(expectedCategory.subcategoryName, actualCategory.subcategoryName)
+        Assert.assertEquals(expectedCategory.subcategoryId, actualCategory.subcategoryId)
+        Assert.assertEquals(1, actualCategory.items.size)
+        // JSONObject.optString maps an explicit null to "null", the streaming decoder uses the fallback
+        Assert.assertEquals(expectedCategory.items[0].copy(discount = ""), actualCategory.items[0])
+    }
+
+    @Test
+    fun `Streaming decode tolerates missing fields`() {
+        val actual = JsonReader(StringReader("""{"subcategories":[{"items":[{}]}]}""")).use { ApiEntity.fromJson(it) }
+
+        Assert.assertEquals(0L, actual.version)
+        Assert.assertEquals(ApiItem("", "", "", "", "", "", ""), actual.subcategories[0].items[0])
+    }
+}
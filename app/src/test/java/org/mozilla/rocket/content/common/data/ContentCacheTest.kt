@@ -0,0 +1,76 @@
+package org.mozilla.rocket.content.common.data
+
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert
+import org.junit.Test
+import org.mozilla.rocket.content.Result
+
+class ContentCacheTest {
+
+    private var now = 0L
+    private val cache = ContentCache<String>(TTL, clock = { now })
+
+    @Test
+    fun `Missing entry is fetched`() = runBlocking {
+        val results = cache.stream(KEY) { Result.Success("remote") }.toList()
+
+        Assert.assertEquals(listOf("remote"), results.map { (it as Result.Success).data })
+        Assert.assertEquals("remote", cache.peek(KEY))
+    }
+
+    @Test
+    fun `Fresh entry is served without fetching`() = runBlocking {
+        cache.put(KEY, "cached")
+        now += TTL - 1
+
+        val results = cache.stream(KEY) { throw AssertionError("should not fetch") }.toList()
+
+        Assert.assertEquals(listOf("cached"), results.map { (it as Result.Success).data })
+    }
+
+    @Test
+    fun `Stale entry is served then refreshed`() = runBlocking {
+        cache.put(KEY, "cached")
+        now += TTL
+
+        val results = cache.stream(KEY) { Result.Success("remote") }.toList()
+
+        Assert.assertEquals(listOf("cached", "remote"), results.map { (it as Result.Success).data })
+        Assert.assertTrue(cache.isFresh(KEY))
+    }
+
+    @Test
+    fun `Unchanged refresh is not emitted again`() = runBlocking {
+        cache.put(KEY, "cached")
+        now += TTL
+
+        val results = cache.stream(KEY) { Result.Success("cached") }.toList()
+
+        Assert.assertEquals(1, results.size)
+    }
+
+    @Test
+    fun `Failed refresh keeps the stale entry`() = runBlocking {
+        cache.put(KEY, "cached")
+        now += TTL
+
+        val results = cache.stream(KEY) { Result.Error(Exception()) }.toList()
+        val result = cache.get(KEY) { Result.Error(Exception()) }
+
+        Assert.assertEquals(listOf("cached"), results.map { (it as Result.Success).data })
+        Assert.assertEquals("cached", (result as Result.Success).data)
+    }
+
+    @Test
+    fun `Failed fetch without entry is emitted`() = runBlocking {
+        val results = cache.stream(KEY) { Result.Error(Exception()) }.toList()
+
+        Assert.assertTrue(results.single() is Result.Error)
+    }
+
+    companion object {
+        private const val KEY = "key"
+        private const val TTL = 1000L
+    }
+}
@@ -0,0 +1,113 @@
+package org.mozilla.rocket.content.news.data
+
+import androidx.paging.PageKeyedDataSource
+import org.junit.After
+import org.junit.Assert
+import org.junit.Test
+import org.mozilla.rocket.content.common.data.ContentCache
+import org.mozilla.rocket.content.news.data.NewsDataSourceFactory.PageKey
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class CachedFirstPageDataSourceTest {
+
+    private var now = 0L
+    private val cache = ContentCache<CachedFirstPageDataSource.FirstPage>(TTL, clock = { now })
+    private val executor = Executors.newSingleThreadExecutor()
+    private val remote = BlockingRemoteDataSource()
+
+    @After
+    fun tearDown() {
+        remote.release.countDown()
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun `Stale first page is served before the remote one is fetched`() {
+        cache.put(KEY, CachedFirstPageDataSource.FirstPage(listOf(item("cached")), null, null))
+        now += TTL
+        val dataSource = CachedFirstPageDataSource(remote, cache, KEY, executor)
+
+        val callback = RecordingCallback()
+        dataSource.loadInitial(PageKeyedDataSource.LoadInitialParams(PAGE_SIZE, false), callback)
+
+        // loadInitial returned while the remote fetch is still blocked
+        Assert.assertEquals(listOf(item("cached")), callback.data)
+        Assert.assertTrue(remote.started.await(1, TimeUnit.SECONDS))
+        Assert.assertFalse(dataSource.isInvalid)
+
+        remote.release.countDown()
+        executor.shutdown()
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS))
+
+        Assert.assertEquals(listOf(item("remote")), cache.peek(KEY)!!.items)
+        Assert.assertTrue(cache.isFresh(KEY))
+        Assert.assertTrue(dataSource.isInvalid)
+    }
+
+    @Test
+    fun `Same refreshed page does not invalidate the list`() {
+        remote.items = listOf(item("cached"))
+        remote.release.countDown()
+        cache.put(KEY, CachedFirstPageDataSource.FirstPage(listOf(item("cached")), null, null))
+        now += TTL
+        val dataSource = CachedFirstPageDataSource(remote, cache, KEY, executor)
+
+        dataSource.loadInitial(PageKeyedDataSource.LoadInitialParams(PAGE_SIZE, false), RecordingCallback())
+        executor.shutdown()
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS))
+
+        Assert.assertTrue(cache.isFresh(KEY))
+        Assert.assertFalse(dataSource.isInvalid)
+    }
+
+    @Test
+    fun `Missing first page is loaded from the remote one`() {
+        remote.release.countDown()
+        val dataSource = CachedFirstPageDataSource(remote, cache, KEY, executor)
+
+        val callback = RecordingCallback()
+        dataSource.loadInitial(PageKeyedDataSource.LoadInitialParams(PAGE_SIZE, false), callback)
+
+        Assert.assertEquals(listOf(item("remote")), callback.data)
+        Assert.assertEquals(listOf(item("remote")), cache.peek(KEY)!!.items)
+    }
+
+    private fun item(title: String) =
+            NewsItem.NewsContentItem(title, "https://example.com/$title", null, "source", 0L, "component")
+
+    private inner class BlockingRemoteDataSource : PageKeyedDataSource<PageKey, NewsItem>() {
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        var items: List<NewsItem> = listOf(item("remote"))
+
+        override fun loadInitial(params: LoadInitialParams<PageKey>, callback: LoadInitialCallback<PageKey, NewsItem>) {
+            started.countDown()
+            release.await()
+            callback.onResult(items, null, null)
+        }
+
+        override fun loadBefore(params: LoadParams<PageKey>, callback: LoadCallback<PageKey, NewsItem>) = Unit
+
+        override fun loadAfter(params: LoadParams<PageKey>, callback: LoadCallback<PageKey, NewsItem>) = Unit
+    }
+
+    private class RecordingCallback : PageKeyedDataSource.LoadInitialCallback<PageKey, NewsItem>() {
+        var data: List<NewsItem>? = null
+
+        override fun onResult(data: List<NewsItem>, position: Int, totalCount: Int, previousPageKey: PageKey?, nextPageKey: PageKey?) {
+            this.data = data
+        }
+
+        override fun onResult(data: List<NewsItem>, previousPageKey: PageKey?, nextPageKey: PageKey?) {
+            this.data = data
+        }
+    }
+
+    companion object {
+        private const val KEY = "news"
+        private const val TTL = 1000L
+        private const val PAGE_SIZE = 20
+    }
+}
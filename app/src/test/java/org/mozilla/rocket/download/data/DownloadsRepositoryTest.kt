@@ -0,0 +1,79 @@
+package org.mozilla.rocket.download.data
+
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.mockito.Mockito.mock
+import org.mockito.stubbing.Answer
+
+class DownloadsRepositoryTest {
+
+    // Newest first, as the local data source reads them.
+    private val recorded = (10L downTo 1L).map { rowId ->
+        DownloadInfo().apply {
+            this.rowId = rowId
+            downloadId = DOWNLOAD_ID_OFFSET + rowId
+        }
+    }
+    private val inDownloadManager = mutableMapOf<Long, DownloadInfo>()
+    private val pagesRead = mutableListOf<Long?>()
+
+    private lateinit var repository: DownloadsRepository
+
+    @Before
+    fun setUp() {
+        val localDataSource = mock(DownloadsLocalDataSource::class.java, Answer<Any?> { invocation ->
+            if (invocation.method.name == "getDownloads") {
+                val beforeRowId = invocation.arguments[0] as Long?
+                pagesRead.add(beforeRowId)
+                recorded.filter { beforeRowId == null || it.rowId!! < beforeRowId }.take(invocation.arguments[1] as Int)
+            } else {
+                null
+            }
+        })
+        val downloadManagerDataSource = mock(AndroidDownloadManagerDataSource::class.java, Answer<Any?> { invocation ->
+            if (invocation.method.name == "getDownload") {
+                inDownloadManager[invocation.arguments[0] as Long]
+            } else {
+                null
+            }
+        })
+        repository = DownloadsRepository(downloadManagerDataSource, localDataSource)
+    }
+
+    @Test
+    fun `A page of downloads gone from DownloadManager is kept as recorded`() = runBlocking {
+        val page = repository.getDownloads(null, 4)
+
+        Assert.assertEquals(listOf(10L, 9L, 8L, 7L), page.map { it.rowId })
+        Assert.assertEquals(listOf<Long?>(null), pagesRead)
+
+        val nextPage = repository.getDownloads(page.last().rowId, 4)
+
+        Assert.assertEquals(listOf(6L, 5L, 4L, 3L), nextPage.map { it.rowId })
+        Assert.assertEquals(listOf(null, 7L), pagesRead)
+    }
+
+    @Test
+    fun `Downloads in DownloadManager are joined to their row`() = runBlocking {
+        val joined = DownloadInfo().apply { downloadId = DOWNLOAD_ID_OFFSET + 5 }
+        inDownloadManager[DOWNLOAD_ID_OFFSET + 5] = joined
+
+        val page = repository.getDownloads(6, 2)
+
+        Assert.assertSame(joined, page[0])
+        Assert.assertEquals(5L, joined.rowId)
+        Assert.assertSame(recorded[6], page[1])
+    }
+
+    @Test
+    fun `Pages end at the oldest download`() = runBlocking {
+        Assert.assertEquals(listOf(2L, 1L), repository.getDownloads(3, 4).map { it.rowId })
+        Assert.assertTrue(repository.getDownloads(1, 4).isEmpty())
+    }
+
+    companion object {
+        private const val DOWNLOAD_ID_OFFSET = 100L
+    }
+}
@@ -0,0 +1,63 @@
+package org.mozilla.rocket.network
+
+import org.junit.Assert
+import org.junit.Test
+import org.mozilla.httprequest.NetworkScheduler.Priority
+import java.net.UnknownHostException
+
+class DnsPrefetcherTest {
+
+    private var now = 0L
+    private val resolved = mutableListOf<String>()
+    private val priorities = mutableListOf<Priority>()
+    private val prefetcher = DnsPrefetcher(
+        resolve = { host ->
+            if (host.endsWith(".invalid")) throw UnknownHostException(host)
+            resolved.add(host)
+        },
+        submit = { priority, task ->
+            priorities.add(priority)
+            task.run()
+        },
+        clock = { now },
+        budget = 3,
+        budgetWindowMillis = 1000,
+        warmMillis = 5000
+    )
+
+    @Test
+    fun `Each host is resolved once while warm`() {
+        prefetcher.warmUp(listOf("https://a.com/1", "https://a.com/2", "https://b.com", "file:///sdcard/page.html"))
+        prefetcher.warmUpNow("https://a.com/3")
+
+        Assert.assertEquals(listOf("a.com", "b.com"), resolved)
+        Assert.assertEquals(listOf(Priority.PREFETCH, Priority.PREFETCH), priorities)
+
+        now += 5000
+        prefetcher.warmUpNow("a.com")
+        Assert.assertEquals(listOf("a.com", "b.com", "a.com"), resolved)
+        Assert.assertEquals(Priority.INTERACTIVE, priorities.last())
+    }
+
+    @Test
+    fun `Hosts over the budget are skipped until the window passes`() {
+        prefetcher.warmUp(listOf("https://a.com", "https://b.com", "https://c.com", "https://d.com"))
+        Assert.assertEquals(listOf("a.com", "b.com", "c.com"), resolved)
+
+        now += 1000
+        prefetcher.warmUpNow("https://d.com")
+        Assert.assertEquals(listOf("a.com", "b.com", "c.com", "d.com"), resolved)
+        Assert.assertTrue(prefetcher.dump().contains("4 resolved, 0 failed, 1 over budget"))
+    }
+
+    @Test
+    fun `Navigations to warm hosts count as hits`() {
+        prefetcher.warmUp(listOf("https://a.com", "https://host.invalid"))
+        prefetcher.onNavigation("https://a.com/page")
+        prefetcher.onNavigation("https://b.com/page")
+        now += 5000
+        prefetcher.onNavigation("https://a.com/page")
+
+        Assert.assertTrue(prefetcher.dump().endsWith("1 resolved, 1 failed, 0 over budget, 1/3 navigations warm (33%)"))
+    }
+}
@@ -0,0 +1,52 @@
+package org.mozilla.rocket.network
+
+import mozilla.components.concept.fetch.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+
+class PooledHttpClientTest {
+
+    private val server = MockWebServer()
+    private val client = PooledHttpClient(1000, 1000, 2)
+
+    @Before
+    fun setUp() {
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `POST sends its body`() {
+        server.enqueue(MockResponse().setBody("ok"))
+
+        val response = client.fetch(Request(
+            url = server.url("/upload").toString(),
+            method = Request.Method.POST,
+            body = Request.Body.fromString("payload")
+        ))
+
+        Assert.assertEquals(200, response.status)
+        Assert.assertEquals("ok", response.use { it.body.string() })
+        val recorded = server.takeRequest()
+        Assert.assertEquals("POST", recorded.method)
+        Assert.assertEquals("payload", recorded.body.readUtf8())
+    }
+
+    @Test
+    fun `GET sends no body`() {
+        server.enqueue(MockResponse().setBody("ok"))
+
+        val response = client.fetch(Request(url = server.url("/list").toString()))
+
+        Assert.assertEquals("ok", response.use { it.body.string() })
+        Assert.assertEquals(0L, server.takeRequest().bodySize)
+    }
+}
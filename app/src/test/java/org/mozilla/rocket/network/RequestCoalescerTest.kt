@@ -0,0 +1,107 @@
+package org.mozilla.rocket.network
+
+import mozilla.components.concept.fetch.Request
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class RequestCoalescerTest {
+
+    @Test
+    fun `Concurrent identical requests share one call`() {
+        val calls = AtomicInteger()
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        val request = Request(url = "https://example.com/list")
+        val executor = Executors.newFixedThreadPool(2)
+
+        val first = executor.submit<String> {
+            RequestCoalescer.coalesce(request, "list") {
+                calls.incrementAndGet()
+                started.countDown()
+                release.await()
+                "result"
+            }
+        }
+        started.await()
+        val second = executor.submit<String> {
+            RequestCoalescer.coalesce(request, "list") {
+                calls.incrementAndGet()
+                "other"
+            }
+        }
+        // give the second caller time to join the running call
+        Thread.sleep(100)
+        release.countDown()
+
+        Assert.assertEquals("result", first.get(1, TimeUnit.SECONDS))
+        Assert.assertEquals("result", second.get(1, TimeUnit.SECONDS))
+        Assert.assertEquals(1, calls.get())
+        executor.shutdown()
+    }
+
+    @Test
+    fun `Concurrent requests with different result keys are not shared`() {
+        val calls = AtomicInteger()
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        val request = Request(url = "https://example.com/list")
+        val executor = Executors.newFixedThreadPool(2)
+
+        val first = executor.submit<String> {
+            RequestCoalescer.coalesce(request, listOf("item", "1")) {
+                calls.incrementAndGet()
+                started.countDown()
+                release.await()
+                "first"
+            }
+        }
+        started.await()
+        val second = executor.submit<String> {
+            RequestCoalescer.coalesce(request, listOf("item", "2")) {
+                calls.incrementAndGet()
+                "second"
+            }
+        }
+
+        Assert.assertEquals("second", second.get(1, TimeUnit.SECONDS))
+        release.countDown()
+        Assert.assertEquals("first", first.get(1, TimeUnit.SECONDS))
+        Assert.assertEquals(2, calls.get())
+        executor.shutdown()
+    }
+
+    @Test
+    fun `Sequential requests are not cached`() {
+        val calls = AtomicInteger()
+        val request = Request(url = "https://example.com/list")
+
+        repeat(2) {
+            RequestCoalescer.coalesce(request, "list") { calls.incrementAndGet() }
+        }
+
+        Assert.assertEquals(2, calls.get())
+    }
+
+    @Test
+    fun `Non GET requests are never shared`() {
+        val calls = AtomicInteger()
+        val request = Request(url = "https://example.com/list", method = Request.Method.POST)
+
+        repeat(2) {
+            RequestCoalescer.coalesce(request, "list") { calls.incrementAndGet() }
+        }
+
+        Assert.assertEquals(2, calls.get())
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun `Failure is rethrown to the caller`() {
+        RequestCoalescer.coalesce(Request(url = "https://example.com/fail"), "list") {
+            throw IllegalStateException("failed")
+        }
+    }
+}
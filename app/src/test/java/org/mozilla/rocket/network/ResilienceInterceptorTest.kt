@@ -0,0 +1,118 @@
+package org.mozilla.rocket.network
+
+import mozilla.components.concept.fetch.MutableHeaders
+import mozilla.components.concept.fetch.Request
+import mozilla.components.concept.fetch.Response
+import mozilla.components.concept.fetch.interceptor.Interceptor
+import org.junit.Assert
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.IOException
+
+class ResilienceInterceptorTest {
+
+    private var now = 0L
+    private val delays = mutableListOf<Long>()
+    private val interceptor = ResilienceInterceptor(
+        maxRetries = 2,
+        baseDelayMillis = 100,
+        maxDelayMillis = 1000,
+        failureThreshold = 3,
+        openMillis = 1000,
+        clock = { now },
+        sleep = { delays.add(it) }
+    )
+
+    @Test
+    fun `Failed GET is retried with bounded backoff`() {
+        val chain = FakeChain(GET, listOf(IOException(), 503, 200))
+
+        val response = interceptor.intercept(chain)
+
+        Assert.assertEquals(200, response.status)
+        Assert.assertEquals(3, chain.calls)
+        Assert.assertEquals(2, delays.size)
+        Assert.assertTrue(delays[0] <= 100 && delays[1] <= 200)
+    }
+
+    @Test
+    fun `POST is never retried`() {
+        val chain = FakeChain(Request(url = URL, method = Request.Method.POST), listOf(IOException(), 200))
+
+        assertFails { interceptor.intercept(chain) }
+
+        Assert.assertEquals(1, chain.calls)
+    }
+
+    @Test
+    fun `Open circuit fails fast until a probe succeeds`() {
+        assertFails { interceptor.intercept(FakeChain(GET, listOf(IOException(), IOException(), IOException()))) }
+
+        val rejected = FakeChain(GET, listOf(200))
+        try {
+            interceptor.intercept(rejected)
+            Assert.fail()
+        } catch (e: ResilienceInterceptor.CircuitOpenException) {
+            Assert.assertEquals(0, rejected.calls)
+        }
+
+        now += 1000
+        val probe = FakeChain(GET, listOf(200))
+        Assert.assertEquals(200, interceptor.intercept(probe).status)
+        Assert.assertEquals(200, interceptor.intercept(FakeChain(GET, listOf(200))).status)
+    }
+
+    @Test
+    fun `Probe failing with another exception lets the next request probe`() {
+        assertFails { interceptor.intercept(FakeChain(GET, listOf(IOException(), IOException(), IOException()))) }
+
+        now += 1000
+        try {
+            interceptor.intercept(FakeChain(GET, listOf(IllegalStateException())))
+            Assert.fail()
+        } catch (e: IllegalStateException) {
+            // expected
+        }
+
+        Assert.assertEquals(200, interceptor.intercept(FakeChain(GET, listOf(200))).status)
+    }
+
+    @Test
+    fun `Client errors do not count against the host`() {
+        repeat(5) {
+            Assert.assertEquals(404, interceptor.intercept(FakeChain(GET, listOf(404))).status)
+        }
+        Assert.assertEquals(200, interceptor.intercept(FakeChain(GET, listOf(200))).status)
+    }
+
+    private fun assertFails(block: () -> Unit) {
+        try {
+            block()
+            Assert.fail()
+        } catch (e: IOException) {
+            // expected
+        }
+    }
+
+    private class FakeChain(override val request: Request, private val outcomes: List<Any>) : Interceptor.Chain {
+        var calls = 0
+
+        override fun proceed(request: Request): Response {
+            val outcome = outcomes[calls++]
+            if (outcome is Exception) {
+                throw outcome
+            }
+            return Response(
+                url = request.url,
+                status = outcome as Int,
+                headers = MutableHeaders(),
+                body = Response.Body(ByteArrayInputStream(ByteArray(0)))
+            )
+        }
+    }
+
+    companion object {
+        private const val URL = "https://backend.example.com/items"
+        private val GET = Request(url = URL)
+    }
+}
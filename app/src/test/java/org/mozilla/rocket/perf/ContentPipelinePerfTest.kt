@@ -0,0 +1,196 @@
+package org.mozilla.rocket.perf
+
+import android.content.Context
+import android.os.Build
+import androidx.paging.PageKeyedDataSource
+import androidx.test.core.app.ApplicationProvider
+import kotlinx.coroutines.runBlocking
+import mozilla.components.concept.fetch.Request
+import org.junit.After
+import org.junit.AfterClass
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito
+import org.mozilla.focus.utils.FirebaseHelper
+import org.mozilla.focus.utils.FirebaseNoOpImp
+import org.mozilla.rocket.content.Result
+import org.mozilla.rocket.content.common.data.ApiEntity
+import org.mozilla.rocket.content.ecommerce.data.ShoppingRemoteDataSource
+import org.mozilla.rocket.content.game.data.GameRemoteDataSource
+import org.mozilla.rocket.content.news.data.NewsDataSourceFactory.PageKey
+import org.mozilla.rocket.content.news.data.NewsItem
+import org.mozilla.rocket.content.news.data.dailyhunt.DailyHuntNewsRemoteDataSource
+import org.mozilla.rocket.content.news.data.dailyhunt.DailyHuntProvider
+import org.mozilla.rocket.content.news.data.rss.RssNewsRemoteDataSource
+import org.mozilla.rocket.content.news.domain.GetAdditionalSourceInfoUseCase
+import org.mozilla.rocket.content.travel.data.TravelRemoteDataSource
+import org.mozilla.rocket.msrp.data.MissionRemoteDataSource
+import org.mozilla.rocket.network.FetchClient
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+
+/**
+ * Runs the remote data sources of the content pipeline against recorded payloads served by a
+ * local [FixtureServer], and reports wall time, decode time and allocations of each. The report
+ * is written to build/reports/perf so runs before and after a change can be compared offline.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [Build.VERSION_CODES.P])
+class ContentPipelinePerfTest {
+
+    private val server = FixtureServer()
+
+    @Before
+    fun setUp() {
+        FirebaseHelper.replaceContract(FirebaseNoOpImp(hashMapOf<String, Any>(
+            "bool_msrp_enabled" to true,
+            "str_msrp_api_host" to "https://msrp.test/",
+            "str_mission_list_endpoint" to ROUTE_MISSIONS
+        )))
+        server.route(ROUTE_RSS, FIXTURE_RSS)
+        server.route(ROUTE_DAILY_HUNT, FIXTURE_DAILY_HUNT)
+        server.route(ROUTE_SHOPPING_DEALS, FIXTURE_SHOPPING_DEALS)
+        server.route(ROUTE_INSTANT_GAMES, FIXTURE_INSTANT_GAMES)
+        server.route(ROUTE_TRAVEL_EXPLORE, FIXTURE_TRAVEL_EXPLORE)
+        server.route(ROUTE_MISSIONS, FIXTURE_MISSIONS)
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.close()
+    }
+
+    @Test
+    fun rssNews() {
+        val dataSource = RssNewsRemoteDataSource(null, "WORLD")
+        val measurement = measure("rss news", ROUTE_RSS, FIXTURE_RSS) { loadInitial(dataSource) }
+
+        Assert.assertEquals(80, measurement.items)
+    }
+
+    @Test
+    fun dailyHuntNews() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        val provider = DailyHuntProvider("key", "secret", "partner", true, "uid")
+        val sourceInfo = Mockito.mock(GetAdditionalSourceInfoUseCase::class.java)
+        val dataSource = DailyHuntNewsRemoteDataSource(context, sourceInfo, provider, "1", "en")
+        val measurement = measure("dailyhunt news", ROUTE_DAILY_HUNT, FIXTURE_DAILY_HUNT) { loadInitial(dataSource) }
+
+        Assert.assertEquals(40, measurement.items)
+    }
+
+    @Test
+    fun shoppingDeals() {
+        val dataSource = ShoppingRemoteDataSource()
+        val measurement = measure("shopping deals", ROUTE_SHOPPING_DEALS, FIXTURE_SHOPPING_DEALS) {
+            countItems(runBlocking { dataSource.getDeals() })
+        }
+
+        Assert.assertEquals(180, measurement.items)
+    }
+
+    @Test
+    fun instantGames() {
+        val dataSource = GameRemoteDataSource()
+        val measurement = measure("instant games", ROUTE_INSTANT_GAMES, FIXTURE_INSTANT_GAMES) {
+            countItems(runBlocking { dataSource.getInstantGameList() })
+        }
+
+        Assert.assertEquals(120, measurement.items)
+    }
+
+    @Test
+    fun travelExplore() {
+        val dataSource = TravelRemoteDataSource()
+        val measurement = measure("travel explore", ROUTE_TRAVEL_EXPLORE, FIXTURE_TRAVEL_EXPLORE) {
+            countItems(runBlocking { dataSource.getExploreList() })
+        }
+
+        Assert.assertEquals(100, measurement.items)
+    }
+
+    @Test
+    fun missions() {
+        val dataSource = MissionRemoteDataSource()
+        val measurement = measure("missions", ROUTE_MISSIONS, FIXTURE_MISSIONS) {
+            runBlocking { dataSource.getMissions("token") }.data?.size ?: 0
+        }
+
+        Assert.assertEquals(24, measurement.items)
+    }
+
+    @Test
+    fun slowNetworkIsAddedToWallTime() {
+        server.latencyMillis = 200
+        server.bytesPerSecond = 512 * 1024
+        val dataSource = ShoppingRemoteDataSource()
+        val measurement = PipelineMeter(warmups = 0, runs = 1).measure(
+            "shopping deals, slow",
+            server.sizeOf(FIXTURE_SHOPPING_DEALS),
+            { download(ROUTE_SHOPPING_DEALS) },
+            { countItems(runBlocking { dataSource.getDeals() }) }
+        )
+
+        val transferMicros = 200_000L + server.sizeOf(FIXTURE_SHOPPING_DEALS) * 1_000_000L / server.bytesPerSecond
+        Assert.assertEquals(180, measurement.items)
+        Assert.assertTrue(measurement.wallMicros >= transferMicros * 9 / 10)
+    }
+
+    private fun measure(name: String, route: String, fixture: String, load: () -> Int): PipelineMeter.Measurement =
+        meter.measure(name, server.sizeOf(fixture), { download(route) }, load)
+
+    private fun download(route: String) {
+        val request = Request(url = "https://fixture.test/$route", method = Request.Method.GET)
+        FetchClient.fetch(request).use { it.body.useStream { stream -> stream.readBytes() } }
+    }
+
+    private fun loadInitial(dataSource: PageKeyedDataSource<PageKey, NewsItem>): Int {
+        var count = 0
+        dataSource.loadInitial(
+            PageKeyedDataSource.LoadInitialParams(PAGE_SIZE, false),
+            object : PageKeyedDataSource.LoadInitialCallback<PageKey, NewsItem>() {
+                override fun onResult(data: List<NewsItem>, position: Int, totalCount: Int, previousPageKey: PageKey?, nextPageKey: PageKey?) {
+                    count = data.size
+                }
+
+                override fun onResult(data: List<NewsItem>, previousPageKey: PageKey?, nextPageKey: PageKey?) {
+                    count = data.size
+                }
+            }
+        )
+        return count
+    }
+
+    private fun countItems(result: Result<ApiEntity>): Int =
+        (result as Result.Success).data.subcategories.sumBy { it.items.size }
+
+    companion object {
+        private const val PAGE_SIZE = 40
+
+        private const val ROUTE_RSS = "news/google/topic"
+        private const val ROUTE_DAILY_HUNT = "syndication/items"
+        private const val ROUTE_SHOPPING_DEALS = "category=shoppingDeal"
+        private const val ROUTE_INSTANT_GAMES = "category=html5Game"
+        private const val ROUTE_TRAVEL_EXPLORE = "category=travelExplore"
+        private const val ROUTE_MISSIONS = "api/v1/missions"
+
+        private const val FIXTURE_RSS = "rss_news.json"
+        private const val FIXTURE_DAILY_HUNT = "dailyhunt_news.json"
+        private const val FIXTURE_SHOPPING_DEALS = "shopping_deals.json"
+        private const val FIXTURE_INSTANT_GAMES = "instant_games.json"
+        private const val FIXTURE_TRAVEL_EXPLORE = "travel_explore.json"
+        private const val FIXTURE_MISSIONS = "missions.json"
+
+        private val meter = PipelineMeter()
+
+        @JvmStatic
+        @AfterClass
+        fun report() {
+            meter.report(File("build/reports/perf/content-pipeline.txt"))
+        }
+    }
+}
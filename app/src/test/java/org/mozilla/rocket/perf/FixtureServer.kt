@@ -0,0 +1,83 @@
+package org.mozilla.rocket.perf
+
+import mozilla.components.concept.fetch.Response
+import mozilla.components.concept.fetch.interceptor.Interceptor
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import okio.Buffer
+import org.mozilla.rocket.network.FetchClient
+import java.io.Closeable
+import java.net.URLDecoder
+import java.net.URLEncoder
+import java.util.concurrent.TimeUnit
+
+/**
+ * A local stand-in for every host the app talks to. While it's running, all requests sent
+ * through [FetchClient] are redirected to it and answered with the fixture payload of the first
+ * [route] whose key is part of the original url, after [latencyMillis] and at [bytesPerSecond].
+ */
+class FixtureServer : Closeable {
+
+    var latencyMillis = 0L
+    var bytesPerSecond = 0L
+
+    private val routes = LinkedHashMap<String, String>()
+    private val server = MockWebServer()
+    private val redirect = RedirectInterceptor()
+
+    fun route(urlPart: String, fixture: String) {
+        routes[urlPart] = fixture
+    }
+
+    fun start() {
+        server.setDispatcher(FixtureDispatcher())
+        server.start()
+        FetchClient.addInterceptor(redirect)
+    }
+
+    override fun close() {
+        FetchClient.removeInterceptor(redirect)
+        server.shutdown()
+    }
+
+    /**
+     * @return the size of the fixture in bytes
+     */
+    fun sizeOf(fixture: String): Int = readFixture(fixture).size
+
+    private fun readFixture(fixture: String): ByteArray {
+        val stream = javaClass.classLoader!!.getResourceAsStream("perf/$fixture")
+                ?: throw IllegalArgumentException("Missing fixture $fixture")
+        return stream.use { it.readBytes() }
+    }
+
+    private inner class FixtureDispatcher : Dispatcher() {
+        override fun dispatch(request: RecordedRequest): MockResponse {
+            val originalUrl = URLDecoder.decode(request.path.removePrefix("/?url="), "UTF-8")
+            val fixture = routes.entries.firstOrNull { originalUrl.contains(it.key) }?.value
+                    ?: return MockResponse().setResponseCode(404)
+
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis)
+            }
+            val response = MockResponse()
+                    .setHeader("Content-Type", "application/json; charset=utf-8")
+                    .setBody(Buffer().write(readFixture(fixture)))
+            if (bytesPerSecond > 0) {
+                // the body is sent in slices every 10ms
+                response.throttleBody((bytesPerSecond / 100).coerceAtLeast(1), 10, TimeUnit.MILLISECONDS)
+            }
+            return response
+        }
+    }
+
+    private inner class RedirectInterceptor : Interceptor {
+        override fun intercept(chain: Interceptor.Chain): Response {
+            val original = chain.request
+            val url = server.url("/").toString() + "?url=" + URLEncoder.encode(original.url, "UTF-8")
+            return chain.proceed(original.copy(url = url))
+        }
+    }
+}
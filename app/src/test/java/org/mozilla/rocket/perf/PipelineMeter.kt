@@ -0,0 +1,117 @@
+package org.mozilla.rocket.perf
+
+import java.io.File
+import java.lang.management.ManagementFactory
+import java.util.Locale
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs a data source end to end a number of times and keeps the medians of its wall time, decode
+ * time and allocations.
+ *
+ * The decode time is the wall time minus the time it takes to only download the same payload,
+ * so it covers everything the data source does with the bytes. Allocations are counted on every
+ * thread but the ones of the [FixtureServer], since requests may run on the network threads.
+ */
+class PipelineMeter(
+    private val warmups: Int = 3,
+    private val runs: Int = 10
+) {
+
+    private val threads = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+    private val measurements = mutableListOf<Measurement>()
+
+    init {
+        if (threads.isThreadAllocatedMemorySupported) {
+            threads.isThreadAllocatedMemoryEnabled = true
+        }
+    }
+
+    /**
+     * @param download fetches the payload of [load] without decoding it
+     * @param load runs the data source and returns the number of items it decoded
+     */
+    fun measure(name: String, payloadBytes: Int, download: () -> Unit, load: () -> Int): Measurement {
+        repeat(warmups) {
+            download()
+            load()
+        }
+
+        val downloadNanos = LongArray(runs)
+        val wallNanos = LongArray(runs)
+        val allocatedBytes = LongArray(runs)
+        var items = 0
+        for (run in 0 until runs) {
+            downloadNanos[run] = timed(download)
+
+            val allocatedBefore = allocatedBytes()
+            val start = System.nanoTime()
+            items = load()
+            wallNanos[run] = System.nanoTime() - start
+            allocatedBytes[run] = allocatedBytes() - allocatedBefore
+        }
+
+        val wall = median(wallNanos)
+        val measurement = Measurement(
+            name,
+            payloadBytes,
+            items,
+            TimeUnit.NANOSECONDS.toMicros(wall),
+            TimeUnit.NANOSECONDS.toMicros((wall - median(downloadNanos)).coerceAtLeast(0)),
+            median(allocatedBytes)
+        )
+        measurements.add(measurement)
+        return measurement
+    }
+
+    /**
+     * Prints the measurements so far and writes them to [file] to compare runs.
+     */
+    fun report(file: File) {
+        val lines = listOf(Measurement.HEADER) + measurements.map { it.toString() }
+        lines.forEach { println(it) }
+        file.parentFile?.mkdirs()
+        file.writeText(lines.joinToString("\n", postfix = "\n"))
+    }
+
+    private fun timed(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        block()
+        return System.nanoTime() - start
+    }
+
+    private fun allocatedBytes(): Long {
+        if (!threads.isThreadAllocatedMemoryEnabled) {
+            return 0
+        }
+        return Thread.getAllStackTraces().keys
+                .filterNot { it.name.startsWith("MockWebServer") }
+                .map { threads.getThreadAllocatedBytes(it.id).coerceAtLeast(0) }
+                .sum()
+    }
+
+    private fun median(values: LongArray): Long = values.sorted()[values.size / 2]
+
+    class Measurement(
+        val name: String,
+        val payloadBytes: Int,
+        val items: Int,
+        val wallMicros: Long,
+        val decodeMicros: Long,
+        val allocatedBytes: Long
+    ) {
+        override fun toString(): String = String.format(
+            Locale.ROOT,
+            "%-24s %10d %6d %10d %10d %12d",
+            name, payloadBytes, items, wallMicros, decodeMicros, allocatedBytes
+        )
+
+        companion object {
+            val HEADER: String = String.format(
+                Locale.ROOT,
+                "%-24s %10s %6s %10s %10s %12s",
+                "data source", "payload B", "items", "wall us", "decode us", "allocated B"
+            )
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.mozilla.rocket.perf
+
+import org.junit.AfterClass
+import org.junit.Assert
+import org.junit.Test
+import org.mozilla.focus.history.Frecency
+import org.mozilla.focus.history.model.Site
+import org.mozilla.rocket.awesomebar.SuggestionRanker
+import java.io.File
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * Ranks the suggestions of the url bar out of 10k history sites, 1k bookmarks and 200 tabs for
+ * each keystroke of a typed input, and reports wall time and allocations of each.
+ */
+class SuggestionRankingPerfTest {
+
+    private val now = 1_580_000_000_000L
+    private val random = Random(42)
+    private val history = List(HISTORY_SIZE) { i ->
+        Site(i.toLong(), "Page $i of ${host(i)}", "https://${host(i)}/page/$i", 1, now, null).apply {
+            frecency = Frecency.of(random.nextLong(1, 50), now - random.nextLong(TimeUnit.DAYS.toMillis(90)))
+        }
+    }
+    private val bookmarks = List(BOOKMARK_SIZE) { i -> "Bookmark $i" to "https://${host(i * 7)}/page/${i * 7}" }
+    private val tabs = List(TAB_SIZE) { i -> Triple("tab$i", "Tab $i of ${host(i * 3)}", "https://${host(i * 3)}/page/${i * 3}") }
+
+    @Test
+    fun rankEveryKeystroke() {
+        val ranker = SuggestionRanker(TAB_LIMIT, SITE_LIMIT)
+        val out = ArrayList<SuggestionRanker.Candidate>(TAB_LIMIT + SITE_LIMIT)
+        val measurement = meter.measure("awesomebar ranking", 0, {}) {
+            var count = 0
+            for (length in 1..INPUT.length) {
+                val text = INPUT.substring(0, length)
+                ranker.reset()
+                history.forEach { ranker.addHistory(it, now) }
+                bookmarks.forEach { ranker.addBookmark(it.first, it.second) }
+                tabs.forEach { ranker.addTab(it.first, it.second, it.third, text) }
+                out.clear()
+                ranker.rankTo(out)
+                count = out.size
+            }
+            count
+        }
+
+        Assert.assertEquals(TAB_LIMIT + SITE_LIMIT, measurement.items)
+    }
+
+    private fun host(i: Int) = "site${i % HOST_COUNT}.example.com"
+
+    companion object {
+        private const val HISTORY_SIZE = 10_000
+        private const val BOOKMARK_SIZE = 1_000
+        private const val TAB_SIZE = 200
+        private const val HOST_COUNT = 500
+        private const val TAB_LIMIT = 3
+        private const val SITE_LIMIT = 10
+        private const val INPUT = "site1.example"
+
+        private val meter = PipelineMeter()
+
+        @JvmStatic
+        @AfterClass
+        fun report() {
+            meter.report(File("build/reports/perf/awesomebar-ranking.txt"))
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.mozilla.rocket.persistance
+
+import org.junit.Assert
+import org.junit.Test
+
+class FtsQueryTest {
+
+    @Test
+    fun `Each word of the text becomes a prefix term`() {
+        Assert.assertEquals("mozilla* org* fir*", FtsQuery.prefixMatch("Mozilla.org/Fir"))
+    }
+
+    @Test
+    fun `Operators are matched as words`() {
+        Assert.assertEquals("news* or* near*", FtsQuery.prefixMatch("news OR NEAR"))
+    }
+
+    @Test
+    fun `Text without words has nothing to match`() {
+        Assert.assertNull(FtsQuery.prefixMatch("://"))
+        Assert.assertNull(FtsQuery.prefixMatch(""))
+    }
+
+    @Test
+    fun `Rows are matched in memory by word prefixes`() {
+        val words = FtsQuery.words("Mozilla.org/Fir")
+
+        Assert.assertTrue(FtsQuery.matches(words, "Firefox", "https://www.mozilla.org/firefox"))
+        Assert.assertTrue(FtsQuery.matches(words, null, "https://www.mozilla.org/firefox"))
+        Assert.assertFalse(FtsQuery.matches(words, "Firefox", "https://www.mozilla.com"))
+        Assert.assertFalse(FtsQuery.matches(FtsQuery.words("zilla"), "Mozilla"))
+    }
+}
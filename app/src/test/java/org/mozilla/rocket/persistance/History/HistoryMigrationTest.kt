@@ -0,0 +1,94 @@
+package org.mozilla.rocket.persistance.History
+
+import android.database.sqlite.SQLiteConstraintException
+import android.os.Build
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.sqlite.db.SupportSQLiteOpenHelper
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory
+import androidx.test.core.app.ApplicationProvider
+import org.junit.After
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mozilla.focus.history.Frecency
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(maxSdk = Build.VERSION_CODES.P, minSdk = Build.VERSION_CODES.LOLLIPOP)
+class HistoryMigrationTest {
+
+    private lateinit var helper: SupportSQLiteOpenHelper
+    private lateinit var database: SupportSQLiteDatabase
+
+    @Before
+    fun setUp() {
+        // An in-memory database with the tables of version 6.
+        val configuration = SupportSQLiteOpenHelper.Configuration.builder(ApplicationProvider.getApplicationContext())
+                .name(null)
+                .callback(object : SupportSQLiteOpenHelper.Callback(6) {
+                    override fun onCreate(db: SupportSQLiteDatabase) {
+                        db.execSQL("CREATE TABLE browsing_history (_id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, title TEXT, " +
+                                "url TEXT NOT NULL, view_count INTEGER NOT NULL, last_view_timestamp INTEGER NOT NULL, " +
+                                "fav_icon_uri TEXT, frecency REAL NOT NULL DEFAULT 0)")
+                        db.execSQL("CREATE VIRTUAL TABLE browsing_history_fts USING FTS4(title TEXT, url TEXT NOT NULL, content=browsing_history)")
+                    }
+
+                    override fun onUpgrade(db: SupportSQLiteDatabase, oldVersion: Int, newVersion: Int) = Unit
+                })
+                .build()
+        helper = FrameworkSQLiteOpenHelperFactory().create(configuration)
+        database = helper.writableDatabase
+    }
+
+    @After
+    fun tearDown() {
+        helper.close()
+    }
+
+    @Test
+    fun `Duplicate pages are merged into the last viewed one with the visits of all`() {
+        insertPage(1, URL, 2, 1000)
+        insertPage(2, URL, 3, 3000)
+        insertPage(3, URL, 1, 2000)
+        insertPage(4, OTHER_URL, 4, 1500)
+
+        HistoryDatabase.MIGRATION_6_7.migrate(database)
+
+        database.query("SELECT _id, view_count, frecency FROM browsing_history ORDER BY _id").use {
+            Assert.assertEquals(2, it.count)
+
+            Assert.assertTrue(it.moveToNext())
+            Assert.assertEquals(2L, it.getLong(0))
+            Assert.assertEquals(6L, it.getLong(1))
+            val frecency = Frecency.add(Frecency.add(Frecency.of(2, 1000), Frecency.of(3, 3000)), Frecency.of(1, 2000))
+            Assert.assertEquals(frecency, it.getDouble(2), 1e-9)
+            Assert.assertTrue(it.getDouble(2) > Frecency.of(3, 3000))
+
+            Assert.assertTrue(it.moveToNext())
+            Assert.assertEquals(4L, it.getLong(0))
+            Assert.assertEquals(4L, it.getLong(1))
+            Assert.assertEquals(Frecency.of(4, 1500), it.getDouble(2), 1e-9)
+        }
+    }
+
+    @Test(expected = SQLiteConstraintException::class)
+    fun `Urls are unique after the migration`() {
+        insertPage(1, URL, 1, 1000)
+
+        HistoryDatabase.MIGRATION_6_7.migrate(database)
+
+        insertPage(2, URL, 1, 2000)
+    }
+
+    private fun insertPage(id: Long, url: String, viewCount: Long, timestamp: Long) {
+        database.execSQL("INSERT INTO browsing_history (_id, url, view_count, last_view_timestamp, frecency) VALUES (?, ?, ?, ?, ?)",
+                arrayOf(id, url, viewCount, timestamp, Frecency.of(viewCount, timestamp)))
+    }
+
+    companion object {
+        private const val URL = "https://www.mozilla.org/"
+        private const val OTHER_URL = "https://developer.mozilla.org/"
+    }
+}
@@ -0,0 +1,113 @@
+package org.mozilla.rocket.persistance.History
+
+import android.content.ContentResolver
+import android.content.ContentUris
+import android.content.ContentValues
+import android.content.Context
+import android.database.sqlite.SQLiteDatabase
+import android.os.Build
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.test.core.app.ApplicationProvider
+import androidx.work.ListenableWorker
+import androidx.work.testing.SynchronousExecutor
+import androidx.work.testing.TestWorkerBuilder
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mozilla.focus.provider.HistoryContract
+import org.mozilla.focus.provider.HistoryContract.BrowsingHistory
+import org.mozilla.focus.provider.HistoryProvider
+import org.robolectric.Robolectric
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(maxSdk = Build.VERSION_CODES.P, minSdk = Build.VERSION_CODES.LOLLIPOP)
+class HistoryPruneWorkerTest {
+
+    private lateinit var context: Context
+    private lateinit var resolver: ContentResolver
+    private lateinit var database: SupportSQLiteDatabase
+
+    @Before
+    fun setUp() {
+        Robolectric.setupContentProvider(HistoryProvider::class.java, HistoryContract.AUTHORITY)
+        context = ApplicationProvider.getApplicationContext()
+        resolver = context.contentResolver
+        // The history database outlives a test.
+        resolver.delete(BrowsingHistory.CONTENT_URI, null, null)
+        database = HistoryDatabase.getInstance(context).openHelper.writableDatabase
+    }
+
+    @Test
+    fun `Row count follows inserts and deletes through the provider`() {
+        Assert.assertEquals(0L, HistoryDatabase.getRowCount(database))
+
+        val first = insertPage("https://www.mozilla.org/", 1000)
+        insertPage("https://developer.mozilla.org/", 2000)
+        insertPage("https://support.mozilla.org/", 3000)
+        Assert.assertEquals(3L, HistoryDatabase.getRowCount(database))
+
+        // Another visit to a page in history updates its row.
+        insertPage("https://www.mozilla.org/", 4000)
+        Assert.assertEquals(3L, HistoryDatabase.getRowCount(database))
+
+        resolver.delete(BrowsingHistory.CONTENT_URI, "${BrowsingHistory._ID} = ?", arrayOf(first.toString()))
+        Assert.assertEquals(2L, HistoryDatabase.getRowCount(database))
+
+        resolver.delete(BrowsingHistory.CONTENT_URI, null, null)
+        Assert.assertEquals(0L, HistoryDatabase.getRowCount(database))
+    }
+
+    @Test
+    fun `Pruning removes the oldest pages over the limit`() {
+        val excess = HistoryPruneWorker.PRUNE_SLACK + 150
+        seedPages(HistoryDatabase.HISTORY_LIMIT + excess)
+
+        Assert.assertEquals(ListenableWorker.Result.success(), buildWorker().doWork())
+
+        Assert.assertEquals(HistoryDatabase.HISTORY_LIMIT.toLong(), HistoryDatabase.getRowCount(database))
+        database.query("SELECT min(${BrowsingHistory.LAST_VIEW_TIMESTAMP}) FROM ${HistoryContract.TABLE_NAME}").use {
+            Assert.assertTrue(it.moveToFirst())
+            Assert.assertEquals(excess.toLong(), it.getLong(0))
+        }
+    }
+
+    @Test
+    fun `Pruning under the limit removes nothing`() {
+        seedPages(HistoryDatabase.HISTORY_LIMIT)
+
+        Assert.assertEquals(ListenableWorker.Result.success(), buildWorker().doWork())
+
+        Assert.assertEquals(HistoryDatabase.HISTORY_LIMIT.toLong(), HistoryDatabase.getRowCount(database))
+    }
+
+    private fun insertPage(url: String, timestamp: Long): Long {
+        val values = ContentValues()
+        values.put(BrowsingHistory.URL, url)
+        values.put(BrowsingHistory.LAST_VIEW_TIMESTAMP, timestamp)
+        return ContentUris.parseId(resolver.insert(BrowsingHistory.CONTENT_URI, values)!!)
+    }
+
+    // Written to the database directly, so the provider doesn't schedule a prune itself.
+    private fun seedPages(count: Int) {
+        database.beginTransaction()
+        try {
+            for (i in 0 until count) {
+                val values = ContentValues()
+                values.put(BrowsingHistory.URL, "https://www.mozilla.org/$i")
+                values.put(BrowsingHistory.VIEW_COUNT, 1)
+                values.put(BrowsingHistory.LAST_VIEW_TIMESTAMP, i)
+                database.insert(HistoryContract.TABLE_NAME, SQLiteDatabase.CONFLICT_NONE, values)
+            }
+            database.setTransactionSuccessful()
+        } finally {
+            database.endTransaction()
+        }
+        Assert.assertEquals(count.toLong(), HistoryDatabase.getRowCount(database))
+    }
+
+    private fun buildWorker(): HistoryPruneWorker =
+            TestWorkerBuilder.from(context, HistoryPruneWorker::class.java, SynchronousExecutor()).build()
+}
@@ -0,0 +1,47 @@
+package org.mozilla.rocket.urlinput
+
+import org.junit.Assert
+import org.junit.Test
+import org.mozilla.focus.history.Frecency
+
+class DomainTrieTest {
+
+    private val now = 1_580_000_000_000L
+    private val trie = DomainTrie(maxHosts = 4)
+
+    @Test
+    fun `Most frecent host with the prefix is completed`() {
+        trie.add("www.google.com", Frecency.of(2, now))
+        trie.add("github.com", Frecency.of(3, now))
+        trie.add("gitlab.com", Frecency.of(1, now))
+
+        Assert.assertEquals("github.com", trie.complete("g"))
+        Assert.assertEquals("google.com", trie.complete("Go"))
+        Assert.assertEquals("www.gitlab.com", trie.complete("www.gitl"))
+        Assert.assertNull(trie.complete("bing"))
+        Assert.assertNull(trie.complete(""))
+    }
+
+    @Test
+    fun `Visits add up per host`() {
+        trie.add("github.com", Frecency.of(3, now))
+        trie.add("google.com", Frecency.of(2, now))
+        trie.add("www.google.com", Frecency.of(2, now))
+
+        Assert.assertEquals(2, trie.size)
+        Assert.assertEquals("google.com", trie.complete("g"))
+    }
+
+    @Test
+    fun `Least frecent hosts are dropped over the limit`() {
+        listOf("a.com", "b.com", "c.com", "d.com").forEachIndexed { i, host ->
+            trie.add(host, Frecency.of(i + 2L, now))
+        }
+        trie.add("e.com", Frecency.of(1, now))
+
+        Assert.assertEquals(3, trie.size)
+        Assert.assertNull(trie.complete("a"))
+        Assert.assertNull(trie.complete("e"))
+        Assert.assertEquals("d.com", trie.complete("d"))
+    }
+}
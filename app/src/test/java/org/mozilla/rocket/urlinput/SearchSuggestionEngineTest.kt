@@ -0,0 +1,80 @@
+package org.mozilla.rocket.urlinput
+
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert
+import org.junit.Test
+
+class SearchSuggestionEngineTest {
+
+    private val fetchedUrls = mutableListOf<String>()
+    private val responses = mutableMapOf<String, List<String>>()
+    private val fetcher = object : SearchSuggestionEngine.Fetcher {
+        override suspend fun fetch(url: String, userAgent: String?): List<String> {
+            fetchedUrls.add(url)
+            return responses[url] ?: emptyList()
+        }
+    }
+    private val engine = SearchSuggestionEngine(fetcher, 3, { 0L })
+
+    @Test
+    fun `Deleting a character is answered from the cache`() = runBlocking {
+        responses["ab"] = listOf("ab1", "ab2")
+        responses["abc"] = listOf("abc1")
+
+        suggest("ab")
+        suggest("abc")
+        val results = suggest("ab")
+
+        Assert.assertEquals(listOf(listOf("ab1", "ab2")), results)
+        Assert.assertEquals(listOf("ab", "abc"), fetchedUrls)
+    }
+
+    @Test
+    fun `Longer query is filtered from its cached prefix`() = runBlocking {
+        responses["a"] = listOf("ab1", "ab2", "ab3", "ac")
+
+        suggest("a")
+        val results = suggest("ab")
+
+        Assert.assertEquals(listOf(listOf("ab1", "ab2", "ab3")), results)
+        Assert.assertEquals(listOf("a"), fetchedUrls)
+    }
+
+    @Test
+    fun `Too few filtered suggestions are shown before fetching`() = runBlocking {
+        responses["a"] = listOf("ab1", "ac")
+        responses["ab"] = listOf("ab1", "ab2", "ab3")
+
+        suggest("a")
+        val results = suggest("ab")
+
+        Assert.assertEquals(listOf(listOf("ab1"), listOf("ab1", "ab2", "ab3")), results)
+        Assert.assertEquals(listOf("a", "ab"), fetchedUrls)
+    }
+
+    @Test
+    fun `Engine without suggestions does not fetch`() = runBlocking {
+        val results = engine.suggestions(ENGINE, "a", null) { null }.toList()
+
+        Assert.assertEquals(listOf(emptyList<String>()), results)
+        Assert.assertTrue(fetchedUrls.isEmpty())
+    }
+
+    @Test
+    fun `Filtered suggestions are emitted once when the engine has no suggestions`() = runBlocking {
+        responses["a"] = listOf("ab1", "ac")
+
+        suggest("a")
+        val results = engine.suggestions(ENGINE, "ab", null) { null }.toList()
+
+        Assert.assertEquals(listOf(listOf("ab1")), results)
+        Assert.assertEquals(listOf("a"), fetchedUrls)
+    }
+
+    private suspend fun suggest(query: String) = engine.suggestions(ENGINE, query, null) { it }.toList()
+
+    companion object {
+        private const val ENGINE = "engine"
+    }
+}
@@ -80,7 +80,7 @@ class FocusWebChromeClient extends WebChromeClient {
 
         try {
             new FavIconUtils.SaveBitmapTask(new FileUtils.GetFaviconFolder(
-                    new WeakReference<>(view.getContext())).get(), url, icon,
+                    new WeakReference<>(view.getContext())).get(), icon,
                     new BrowsingHistoryManager.UpdateHistoryWrapper(title, url),
                     Bitmap.CompressFormat.PNG, DimenUtils.PNG_QUALITY_DONT_CARE).execute();
         } catch (ExecutionException | InterruptedException e) {
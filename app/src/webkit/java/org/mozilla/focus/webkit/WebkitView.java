@@ -28,7 +28,6 @@ import androidx.annotation.NonNull;
 import org.mozilla.fileutils.FileUtils;
 import org.mozilla.focus.BuildConfig;
 import org.mozilla.focus.history.BrowsingHistoryManager;
-import org.mozilla.focus.history.model.Site;
 import org.mozilla.focus.utils.AppConstants;
 import org.mozilla.focus.utils.SupportUtils;
 import org.mozilla.focus.web.WebViewProvider;
@@ -380,8 +379,7 @@ public class WebkitView extends NestedWebView implements TabView {
                         return;
                     }
 
-                    Site site = BrowsingHistoryManager.prepareSiteForFirstInsert(url, getTitle(), System.currentTimeMillis());
-                    BrowsingHistoryManager.getInstance().insert(site, null);
+                    BrowsingHistoryManager.getInstance().recordVisit(url, getTitle(), System.currentTimeMillis());
                 });
     }
 
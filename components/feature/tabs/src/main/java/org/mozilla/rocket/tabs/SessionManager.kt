@@ -11,6 +11,7 @@ import android.os.Handler
 import android.os.Looper
 import android.os.Message
 import android.text.TextUtils
+import android.view.Choreographer
 import android.webkit.ValueCallback
 import android.webkit.WebChromeClient
 import mozilla.components.support.base.observer.Consumable
@@ -30,6 +31,7 @@ import java.util.LinkedList
 internal val MSG_FOCUS_TAB = 0x1001
 internal val MSG_ADDED_TAB = 0x1002
 internal val MSG_REMOVEDED_TAB = 0x1003
+internal val MSG_RESTORED_TABS = 0x1004
 
 /**
  * Class to help on sessions management, such as adding or removing sessions.
@@ -91,6 +93,7 @@ class SessionManager @JvmOverloads constructor(
             focusRef = WeakReference<Session>(getTab(focusTabId))
         }
 
+        notifier.notifyTabsRestored(ArrayList(sessions), focusRef.get())
         notifyObservers { onSessionCountChanged(sessions.size) }
     }
 
@@ -446,11 +449,21 @@ class SessionManager @JvmOverloads constructor(
 
         val ENUM_KEY = "_key_enum"
 
+        private val pendingAdded = LinkedHashSet<Session>()
+        private val pendingRemoved = LinkedHashSet<Session>()
+        private var pendingFocusChanged = false
+        private var pendingFocus: Session? = null
+        private var pendingFactor: Factor? = null
+        private var isFrameScheduled = false
+
+        private val frameCallback = Choreographer.FrameCallback { dispatchChanges() }
+
         override fun handleMessage(msg: Message) {
             when (msg.what) {
                 MSG_FOCUS_TAB -> focusTab(msg.obj as Session?, msg.data.getSerializable(ENUM_KEY) as Factor)
                 MSG_ADDED_TAB -> addedTab(msg)
                 MSG_REMOVEDED_TAB -> removedTab(msg)
+                MSG_RESTORED_TABS -> restoredTabs(msg)
                 else -> {
                 }
             }
@@ -468,16 +481,30 @@ class SessionManager @JvmOverloads constructor(
             this.sendMessage(msg)
         }
 
+        fun notifyTabsRestored(sessions: List<Session>, focus: Session?) {
+            val msg = this.obtainMessage(MSG_RESTORED_TABS)
+            msg.obj = Pair(sessions, focus)
+            this.sendMessage(msg)
+        }
+
         fun addedTab(msg: Message) {
             val pair = (msg.obj as Pair<*, *>).let {
                 (it.first as Session to it.second as Bundle?)
             }
             observable.notifyObservers { onSessionAdded(pair.first, pair.second) }
+            recordAdded(pair.first)
         }
 
         fun removedTab(msg: Message) {
             val session = msg.obj as Session
             observable.destroySession(session)
+            recordRemoved(session)
+        }
+
+        private fun restoredTabs(msg: Message) {
+            val pair = msg.obj as Pair<*, *>
+            (pair.first as List<*>).forEach { recordAdded(it as Session) }
+            (pair.second as Session?)?.let { recordFocus(it, Factor.FACTOR_UNKNOWN) }
         }
 
         fun notifyTabFocused(session: Session?, factor: Factor) {
@@ -495,9 +522,76 @@ class SessionManager @JvmOverloads constructor(
             }
 
             observable.notifyObservers { onFocusChanged(session, factor) }
+            recordFocus(session, factor)
+        }
+
+        private fun recordAdded(session: Session) {
+            pendingAdded.add(session)
+            scheduleDispatch()
+        }
+
+        private fun recordRemoved(session: Session) {
+            // a session which is added and removed within the same frame is not worth reporting
+            if (!pendingAdded.remove(session)) {
+                pendingRemoved.add(session)
+            }
+            scheduleDispatch()
+        }
+
+        private fun recordFocus(session: Session?, factor: Factor) {
+            pendingFocusChanged = true
+            pendingFocus = session
+            pendingFactor = factor
+            scheduleDispatch()
+        }
+
+        private fun scheduleDispatch() {
+            if (!isFrameScheduled) {
+                isFrameScheduled = true
+                Choreographer.getInstance().postFrameCallback(frameCallback)
+            }
+        }
+
+        private fun dispatchChanges() {
+            isFrameScheduled = false
+            val changes = ChangeSet(
+                ArrayList(pendingAdded),
+                ArrayList(pendingRemoved),
+                pendingFocusChanged,
+                pendingFocus,
+                pendingFactor,
+                observable.tabsCount
+            )
+            pendingAdded.clear()
+            pendingRemoved.clear()
+            pendingFocusChanged = false
+            pendingFocus = null
+            pendingFactor = null
+
+            observable.notifyObservers { onSessionsChanged(changes) }
         }
     }
 
+    /**
+     * A coalesced set of changes which happened to the sessions within one frame.
+     *
+     * @property added sessions added in this frame, in the order they were added
+     * @property removed sessions removed in this frame, a session added and removed in the same
+     *                   frame appears in neither list
+     * @property isFocusChanged true if the focus changed at least once in this frame
+     * @property focus the focused session at the end of this frame, only meaningful if [isFocusChanged]
+     * @property factor the factor of the last focus change, null if focus did not change
+     * @property count total sessions count when this change set is delivered
+     */
+    class ChangeSet internal constructor(
+        val added: List<Session>,
+        val removed: List<Session>,
+        val isFocusChanged: Boolean,
+        val focus: Session?,
+        val factor: Factor?,
+        val count: Int
+    )
+
     enum class Factor(val value: Int) {
         FACTOR_UNKNOWN(1),
         FACTOR_TAB_ADDED(2),
@@ -532,5 +626,14 @@ class SessionManager @JvmOverloads constructor(
          * @param count total tabs count
          */
         fun onSessionCountChanged(count: Int) = Unit
+
+        /**
+         * Notify the host application what happened to the sessions since the last frame. Unlike
+         * the per-event callbacks above, this is invoked at most once per frame, so it is the
+         * preferred way to refresh any UI which depends on the whole list of sessions.
+         *
+         * @param changes the coalesced adds, removes and the final focus of this frame
+         */
+        fun onSessionsChanged(changes: ChangeSet) = Unit
     }
 }
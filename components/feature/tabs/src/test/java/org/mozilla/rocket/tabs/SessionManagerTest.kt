@@ -19,6 +19,7 @@ import org.junit.Before
 import org.junit.Ignore
 import org.junit.Test
 import org.junit.runner.RunWith
+import org.mockito.ArgumentCaptor
 import org.mockito.ArgumentMatchers
 import org.mockito.ArgumentMatchers.eq
 import org.mockito.Mockito.spy
@@ -405,6 +406,50 @@ class SessionManagerTest {
         Assert.assertNull(mgr.focusSession)
     }
 
+    @Test
+    fun testSessionsChangedIsCoalesced() {
+        val spy = spy(Observer::class.java)
+        mgr.register(spy)
+        val tabId0 = mgr.addTab("url0", TabUtil.argument(null, false, true))
+        val tabId1 = mgr.addTab("url1", TabUtil.argument(null, false, false))
+        val tabId2 = mgr.addTab("url2", TabUtil.argument(null, false, true))
+        mgr.closeTab(tabId1!!)
+        mgr.switchToTab(tabId0!!)
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+
+        val captor = ArgumentCaptor.forClass(SessionManager.ChangeSet::class.java)
+        verify(spy, times(1)).onSessionsChanged(captor.capture())
+        val changes = captor.value
+        Assert.assertEquals(listOf(tabId0, tabId2), changes.added.map { it.id })
+        Assert.assertTrue(changes.removed.isEmpty())
+        Assert.assertTrue(changes.isFocusChanged)
+        Assert.assertEquals(tabId0, changes.focus!!.id)
+        Assert.assertEquals(Factor.FACTOR_TAB_SWITCHED, changes.factor)
+        Assert.assertEquals(2, changes.count)
+        mgr.unregister(spy)
+    }
+
+    @Test
+    fun testSessionsChangedReportsRemoval() {
+        mgr.restore(states, urls[0])
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+
+        val spy = spy(Observer::class.java)
+        mgr.register(spy)
+        mgr.dropTab(urls[1])
+        mgr.dropTab(urls[2])
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+
+        val captor = ArgumentCaptor.forClass(SessionManager.ChangeSet::class.java)
+        verify(spy, times(1)).onSessionsChanged(captor.capture())
+        val changes = captor.value
+        Assert.assertTrue(changes.added.isEmpty())
+        Assert.assertEquals(listOf(urls[1], urls[2]), changes.removed.map { it.id })
+        Assert.assertFalse(changes.isFocusChanged)
+        Assert.assertEquals(urls.size - 2, changes.count)
+        mgr.unregister(spy)
+    }
+
     private class DefaultTabViewProvider : TabViewProvider() {
         override fun create(): TabView {
             return DefaultTabView()
@@ -1,45 +1,123 @@
 package org.mozilla.httprequest;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 public class HttpRequest {
 
+    public static final int STATUS_NETWORK_ERROR = -1;
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    // An upper bound for pre-sizing from an untrusted Content-Length, the buffer still grows past it.
+    private static final int MAX_INITIAL_BUFFER_SIZE = 1024 * 1024;
+    // Rough inflation ratio of the JSON payloads we fetch, used to pre-size gzip bodies.
+    private static final int GZIP_RATIO_ESTIMATE = 4;
+
     public static String get(URL url, final String userAgent) {
         return get(url, 2000, userAgent);
     }
 
 
     public static String get(URL url, int timeout, final String userAgent) {
+        final Response response = get(url, timeout, userAgent, Collections.<String, String>emptyMap());
+        return response.isSuccessful() ? response.getBody() : "";
+    }
+
+    /**
+     * Same as {@link #get(URL, int, String)}, but allows extra request headers (e.g. conditional
+     * request validators) and exposes the status and the response headers to the caller.
+     */
+    public static Response get(URL url, int timeout, final String userAgent, Map<String, String> requestHeaders) {
 
-        String line = "";
         HttpURLConnection urlConnection = null;
+        final NetworkMetrics.Transfer transfer = NetworkMetrics.getInstance().begin();
 
         try {
             urlConnection = (HttpURLConnection) url.openConnection();
             urlConnection.setRequestProperty("User-Agent", userAgent);
+            // Asking for gzip explicitly turns off the transparent decompression of the platform
+            // connection, so we inflate it ourselves below and still see the real Content-Length.
+            urlConnection.setRequestProperty("Accept-Encoding", "gzip");
+            for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                urlConnection.setRequestProperty(header.getKey(), header.getValue());
+            }
             if (timeout > 0) {
                 urlConnection.setConnectTimeout(timeout);
+                urlConnection.setReadTimeout(timeout);
             }
 
-            line = readLines(urlConnection);
-        } catch (IOException ignored) {
+            urlConnection.connect();
+            transfer.connected();
+            final int status = urlConnection.getResponseCode();
+            transfer.firstByte(status);
+            final Map<String, String> headers = collectHeaders(urlConnection);
+            if (status < 200 || status >= 300) {
+                // Nothing worth reading, e.g. 304 Not Modified. The connection can still be
+                // reused as long as we don't disconnect it.
+                closeQuietly(status >= HttpURLConnection.HTTP_BAD_REQUEST ? urlConnection.getErrorStream() : null);
+                transfer.finish();
+                return new Response(status, EMPTY_BODY, headers);
+            }
 
-        } finally {
+            // Closing the fully read stream, rather than disconnecting, hands the socket back to
+            // the keep-alive pool shared with every other HttpURLConnection in the process.
+            final byte[] body = readBody(urlConnection);
+            transfer.bytesRead(body.length);
+            transfer.finish();
+            return new Response(status, body, headers);
+        } catch (IOException e) {
+            // callers only see STATUS_NETWORK_ERROR, the metrics keep what went wrong
+            transfer.fail(e);
             if (urlConnection != null) {
                 urlConnection.disconnect();
             }
         }
-        return line;
+        return new Response(STATUS_NETWORK_ERROR, EMPTY_BODY, Collections.<String, String>emptyMap());
     }
 
-    private static String readLines(URLConnection connection) throws IOException {
+    private static Map<String, String> collectHeaders(URLConnection connection) {
+        final Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, List<String>> field : connection.getHeaderFields().entrySet()) {
+            // the status line is reported with a null name
+            if (field.getKey() == null || field.getValue() == null) {
+                continue;
+            }
+            final StringBuilder value = new StringBuilder();
+            for (String v : field.getValue()) {
+                if (value.length() > 0) {
+                    value.append(',');
+                }
+                value.append(v);
+            }
+            headers.put(field.getKey().toLowerCase(Locale.ROOT), value.toString());
+        }
+        return headers;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // nothing to do
+        }
+    }
+
+    private static byte[] readBody(URLConnection connection) throws IOException {
         InputStream inputStream;
         try {
             inputStream = connection.getInputStream();
@@ -47,22 +125,83 @@ public class HttpRequest {
             // IndexOutOfBoundsException sometimes is thrown by the okHttp library
             // bundled within the android framework, we can only catch the exception here,
             // or use the latest okHttp3.
-            return "";
+            return EMPTY_BODY;
         }
 
-        StringBuilder total = new StringBuilder();
-        try (BufferedReader bufferedReader = createReader(inputStream)) {
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                total.append(line).append('\n');
-            }
+        final int contentLength = connection.getContentLength();
+        final boolean isGzip = "gzip".equalsIgnoreCase(connection.getContentEncoding());
+        try (InputStream stream = isGzip ? new GZIPInputStream(inputStream, DEFAULT_BUFFER_SIZE) : inputStream) {
+            return readFully(stream, initialBufferSize(contentLength, isGzip));
         }
+    }
 
-        return total.toString();
+    private static int initialBufferSize(int contentLength, boolean isGzip) {
+        if (contentLength < 0) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+        final long expected = isGzip ? (long) contentLength * GZIP_RATIO_ESTIMATE : contentLength;
+        // one spare byte so an exact Content-Length is confirmed by EOF without growing the buffer
+        return (int) Math.min(expected + 1, MAX_INITIAL_BUFFER_SIZE);
     }
 
-    private static BufferedReader createReader(InputStream stream) throws IOException {
-        InputStreamReader reader = new InputStreamReader(new BufferedInputStream(stream), "utf-8");
-        return new BufferedReader(reader);
+    /**
+     * Reads straight into the buffer which becomes the body, instead of decoding line by line and
+     * copying through a StringBuilder.
+     */
+    private static byte[] readFully(InputStream stream, int initialSize) throws IOException {
+        byte[] buffer = new byte[initialSize];
+        int count = 0;
+        int read;
+        while (true) {
+            if (count == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            read = stream.read(buffer, count, buffer.length - count);
+            if (read < 0) {
+                break;
+            }
+            count += read;
+        }
+        return count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+
+    public static final class Response {
+        public final int status;
+        // Decoded (gunzipped) body as received, empty unless the request succeeded.
+        public final byte[] bytes;
+        private final Map<String, String> headers;
+        private String body;
+
+        Response(int status, byte[] bytes, Map<String, String> headers) {
+            this.status = status;
+            this.bytes = bytes;
+            this.headers = headers;
+        }
+
+        /**
+         * @return the body decoded as UTF-8, decoded once on first use
+         */
+        public String getBody() {
+            if (body == null) {
+                body = bytes.length == 0 ? "" : new String(bytes, StandardCharsets.UTF_8);
+            }
+            return body;
+        }
+
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        public boolean isNotModified() {
+            return status == HttpURLConnection.HTTP_NOT_MODIFIED;
+        }
+
+        /**
+         * @param name case-insensitive header name
+         * @return the header value, repeated headers are joined with ','. Null if absent.
+         */
+        public String getHeader(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
     }
 }
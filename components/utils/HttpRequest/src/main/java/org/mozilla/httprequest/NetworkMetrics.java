@@ -0,0 +1,359 @@
+package org.mozilla.httprequest;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings, sizes, status codes and cache hits of network requests, aggregated in memory per
+ * {@link Family} into fixed bucket histograms. Meant for the debug page and bug reports, nothing
+ * leaves the device.
+ *
+ * <p>A request is attributed to the family its caller runs in, see
+ * {@link #withFamily(Family, Callable)}, and to {@link Family#OTHER} otherwise.
+ */
+public final class NetworkMetrics {
+
+    public enum Family {
+        NEWS,
+        TRAVEL,
+        CONTENT,
+        MSRP,
+        SUGGESTIONS,
+        CONFIG,
+        TELEMETRY,
+        OTHER
+    }
+
+    // Upper bounds of the latency buckets, the last bucket takes everything above.
+    private static final long[] MILLIS_BOUNDS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+    // Upper bounds of the response size buckets.
+    private static final long[] BYTES_BOUNDS = {1 << 10, 4 << 10, 16 << 10, 64 << 10, 256 << 10, 1 << 20};
+
+    private static final NetworkMetrics INSTANCE = new NetworkMetrics();
+
+    private static final ThreadLocal<Family> CURRENT_FAMILY = new ThreadLocal<>();
+
+    private final Map<Family, Stats> stats = new EnumMap<>(Family.class);
+
+    public static NetworkMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    private NetworkMetrics() {
+        for (Family family : Family.values()) {
+            stats.put(family, new Stats());
+        }
+    }
+
+    /**
+     * Runs the callable with the requests it sends on this thread attributed to the family.
+     */
+    public static <T> T withFamily(Family family, Callable<T> callable) throws Exception {
+        final Family previous = CURRENT_FAMILY.get();
+        CURRENT_FAMILY.set(family);
+        try {
+            return callable.call();
+        } finally {
+            if (previous == null) {
+                CURRENT_FAMILY.remove();
+            } else {
+                CURRENT_FAMILY.set(previous);
+            }
+        }
+    }
+
+    public static Family currentFamily() {
+        final Family family = CURRENT_FAMILY.get();
+        return family == null ? Family.OTHER : family;
+    }
+
+    /**
+     * Starts timing a request of the current family, see {@link Transfer} for the phases.
+     */
+    public Transfer begin() {
+        return new Transfer(currentFamily(), System.nanoTime());
+    }
+
+    /**
+     * Counts a request which was answered by a cache, including a 304 revalidation.
+     */
+    public void recordCacheHit(Family family) {
+        final Stats s = stats.get(family);
+        synchronized (s) {
+            s.cacheHits++;
+        }
+    }
+
+    /**
+     * Counts a request which was sent again after a failure.
+     */
+    public void recordRetry(Family family) {
+        final Stats s = stats.get(family);
+        synchronized (s) {
+            s.retries++;
+        }
+    }
+
+    /**
+     * Counts a circuit breaker opening after too many failures in a row.
+     */
+    public void recordCircuitTrip(Family family) {
+        final Stats s = stats.get(family);
+        synchronized (s) {
+            s.circuitTrips++;
+        }
+    }
+
+    /**
+     * Counts a request which failed right away because its circuit breaker was open.
+     */
+    public void recordCircuitRejection(Family family) {
+        final Stats s = stats.get(family);
+        synchronized (s) {
+            s.circuitRejections++;
+        }
+    }
+
+    public void reset() {
+        for (Family family : Family.values()) {
+            final Stats s = stats.get(family);
+            synchronized (s) {
+                s.clear();
+            }
+        }
+    }
+
+    public List<Snapshot> snapshot() {
+        final List<Snapshot> snapshots = new ArrayList<>();
+        for (Family family : Family.values()) {
+            final Stats s = stats.get(family);
+            synchronized (s) {
+                snapshots.add(new Snapshot(family, s));
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * @return a plain text report of every family with traffic, for the debug page or a bug report
+     */
+    public String dump() {
+        final StringWriter writer = new StringWriter();
+        dump(new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    public void dump(PrintWriter writer) {
+        for (Snapshot s : snapshot()) {
+            if (s.requests == 0 && s.cacheHits == 0 && s.circuitRejections == 0) {
+                continue;
+            }
+            writer.println(String.format(Locale.ROOT, "%s: %d requests, %d failed, %d cache hits, %d KiB",
+                    s.family.name().toLowerCase(Locale.ROOT), s.requests, s.failures, s.cacheHits, s.bytes / 1024));
+            writer.println(String.format(Locale.ROOT, "  status 2xx %d, 3xx %d, 4xx %d, 5xx %d",
+                    s.statusClasses[2], s.statusClasses[3], s.statusClasses[4], s.statusClasses[5]));
+            if (s.retries != 0 || s.circuitTrips != 0 || s.circuitRejections != 0) {
+                writer.println(String.format(Locale.ROOT, "  %d retries, %d circuit trips, %d rejected while open",
+                        s.retries, s.circuitTrips, s.circuitRejections));
+            }
+            printHistogram(writer, "connect", s.connectMillis, MILLIS_BOUNDS, "ms");
+            printHistogram(writer, "ttfb", s.firstByteMillis, MILLIS_BOUNDS, "ms");
+            printHistogram(writer, "total", s.totalMillis, MILLIS_BOUNDS, "ms");
+            printHistogram(writer, "size", s.sizes, BYTES_BOUNDS, "B");
+            for (Map.Entry<String, Integer> error : s.errors.entrySet()) {
+                writer.println(String.format(Locale.ROOT, "  %s x%d", error.getKey(), error.getValue()));
+            }
+        }
+        writer.flush();
+    }
+
+    private static void printHistogram(PrintWriter writer, String name, int[] buckets, long[] bounds, String unit) {
+        int count = 0;
+        for (int bucket : buckets) {
+            count += bucket;
+        }
+        if (count == 0) {
+            return;
+        }
+        writer.println(String.format(Locale.ROOT, "  %s p50 <%s%s p90 <%s%s",
+                name, percentile(buckets, bounds, count, 50), unit, percentile(buckets, bounds, count, 90), unit));
+    }
+
+    // The upper bound of the bucket holding the percentile, buckets are too coarse for more.
+    private static String percentile(int[] buckets, long[] bounds, int count, int percent) {
+        final int rank = (count * percent + 99) / 100;
+        int seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return i < bounds.length ? Long.toString(bounds[i]) : "inf";
+            }
+        }
+        return "inf";
+    }
+
+    private static int bucketOf(long value, long[] bounds) {
+        for (int i = 0; i < bounds.length; i++) {
+            if (value <= bounds[i]) {
+                return i;
+            }
+        }
+        return bounds.length;
+    }
+
+    private void record(Transfer transfer, long endNanos, Exception error) {
+        final Stats s = stats.get(transfer.family);
+        synchronized (s) {
+            s.requests++;
+            if (transfer.connectedNanos != 0) {
+                s.connectMillis[bucketOf(toMillis(transfer.connectedNanos - transfer.startNanos), MILLIS_BOUNDS)]++;
+            }
+            if (transfer.firstByteNanos != 0) {
+                s.firstByteMillis[bucketOf(toMillis(transfer.firstByteNanos - transfer.startNanos), MILLIS_BOUNDS)]++;
+            }
+            s.totalMillis[bucketOf(toMillis(endNanos - transfer.startNanos), MILLIS_BOUNDS)]++;
+            if (transfer.status >= 100 && transfer.status < 600) {
+                s.statusClasses[transfer.status / 100]++;
+            }
+            if (error != null) {
+                s.failures++;
+                final String name = error.getClass().getSimpleName();
+                final Integer count = s.errors.get(name);
+                s.errors.put(name, count == null ? 1 : count + 1);
+            } else {
+                s.bytes += transfer.bytes;
+                s.sizes[bucketOf(transfer.bytes, BYTES_BOUNDS)]++;
+            }
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * One request being timed. Call {@link #connected()} once the socket is connected, which
+     * includes DNS and TLS, {@link #firstByte(int)} once the status line arrived, then exactly
+     * one of {@link #finish()} once the body was read or closed and {@link #fail(Exception)}.
+     * Later calls are ignored.
+     */
+    public final class Transfer {
+        private final Family family;
+        private final long startNanos;
+        private long connectedNanos;
+        private long firstByteNanos;
+        private int status;
+        private long bytes;
+        private boolean done;
+
+        Transfer(Family family, long startNanos) {
+            this.family = family;
+            this.startNanos = startNanos;
+        }
+
+        public synchronized void connected() {
+            connectedNanos = System.nanoTime();
+        }
+
+        public synchronized void firstByte(int status) {
+            this.status = status;
+            firstByteNanos = System.nanoTime();
+        }
+
+        public synchronized void bytesRead(long count) {
+            bytes += count;
+        }
+
+        public synchronized void finish() {
+            if (!done) {
+                done = true;
+                record(this, System.nanoTime(), null);
+            }
+        }
+
+        public synchronized void fail(Exception error) {
+            if (!done) {
+                done = true;
+                record(this, System.nanoTime(), error);
+            }
+        }
+    }
+
+    private static final class Stats {
+        int requests;
+        int failures;
+        int cacheHits;
+        int retries;
+        int circuitTrips;
+        int circuitRejections;
+        long bytes;
+        final int[] statusClasses = new int[6];
+        final int[] connectMillis = new int[MILLIS_BOUNDS.length + 1];
+        final int[] firstByteMillis = new int[MILLIS_BOUNDS.length + 1];
+        final int[] totalMillis = new int[MILLIS_BOUNDS.length + 1];
+        final int[] sizes = new int[BYTES_BOUNDS.length + 1];
+        final Map<String, Integer> errors = new TreeMap<>();
+
+        void clear() {
+            requests = 0;
+            failures = 0;
+            cacheHits = 0;
+            retries = 0;
+            circuitTrips = 0;
+            circuitRejections = 0;
+            bytes = 0;
+            Arrays.fill(statusClasses, 0);
+            Arrays.fill(connectMillis, 0);
+            Arrays.fill(firstByteMillis, 0);
+            Arrays.fill(totalMillis, 0);
+            Arrays.fill(sizes, 0);
+            errors.clear();
+        }
+    }
+
+    /**
+     * The numbers of one family at the time of {@link #snapshot()}.
+     */
+    public static final class Snapshot {
+        public final Family family;
+        public final int requests;
+        public final int failures;
+        public final int cacheHits;
+        public final int retries;
+        public final int circuitTrips;
+        public final int circuitRejections;
+        public final long bytes;
+        final int[] statusClasses;
+        final int[] connectMillis;
+        final int[] firstByteMillis;
+        final int[] totalMillis;
+        final int[] sizes;
+        final Map<String, Integer> errors;
+
+        Snapshot(Family family, Stats stats) {
+            this.family = family;
+            this.requests = stats.requests;
+            this.failures = stats.failures;
+            this.cacheHits = stats.cacheHits;
+            this.retries = stats.retries;
+            this.circuitTrips = stats.circuitTrips;
+            this.circuitRejections = stats.circuitRejections;
+            this.bytes = stats.bytes;
+            this.statusClasses = stats.statusClasses.clone();
+            this.connectMillis = stats.connectMillis.clone();
+            this.firstByteMillis = stats.firstByteMillis.clone();
+            this.totalMillis = stats.totalMillis.clone();
+            this.sizes = stats.sizes.clone();
+            this.errors = new TreeMap<>(stats.errors);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.mozilla.httprequest;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs network work by priority instead of first come, first served. Each {@link Priority} is a
+ * lane with its own concurrency limit. When a slot frees up, the most important lane with queued
+ * work goes first, so a suggestion request never waits behind a config refresh.
+ */
+public final class NetworkScheduler {
+
+    public enum Priority {
+        /** The user is waiting for the answer, e.g. search suggestions. */
+        INTERACTIVE(4),
+        /** Content currently on screen, e.g. the first page of a feed. */
+        VISIBLE_CONTENT(4),
+        /** Content the user is likely to see next. */
+        PREFETCH(2),
+        /** Work nobody is waiting for, e.g. remote config, check-ins and telemetry uploads. */
+        BACKGROUND(1);
+
+        private final int maxConcurrency;
+
+        Priority(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    // Lanes other than INTERACTIVE share these slots, interactive requests only count against their
+    // own limit so they can always start right away.
+    private static final int MAX_SHARED_CONCURRENCY = 6;
+
+    private static final NetworkScheduler INSTANCE = new NetworkScheduler();
+
+    private static final ThreadLocal<Priority> CURRENT_PRIORITY = new ThreadLocal<>();
+
+    private final Object lock = new Object();
+    private final Map<Priority, ArrayDeque<Task<?>>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Integer> running = new EnumMap<>(Priority.class);
+    private final Map<Priority, Executor> executors = new EnumMap<>(Priority.class);
+    private final ExecutorService workers = Executors.newCachedThreadPool(new WorkerThreadFactory());
+    private int sharedRunning;
+
+    public static NetworkScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    private NetworkScheduler() {
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            running.put(priority, 0);
+            executors.put(priority, command -> submit(priority, command, null));
+        }
+    }
+
+    /**
+     * Queues the callable in the lane of the given priority.
+     *
+     * @return a future which can be cancelled, a queued task is then dropped without running and a
+     * running one is interrupted
+     */
+    public <T> Future<T> submit(Priority priority, Callable<T> callable) {
+        final Task<T> task = new Task<>(priority, callable);
+        enqueue(task);
+        return task;
+    }
+
+    public Future<?> submit(Priority priority, Runnable runnable) {
+        return submit(priority, runnable, null);
+    }
+
+    private <T> Future<T> submit(Priority priority, Runnable runnable, T result) {
+        final Task<T> task = new Task<>(priority, runnable, result);
+        enqueue(task);
+        return task;
+    }
+
+    /**
+     * @return an executor running everything it is given in the lane of the given priority, for
+     * AsyncTask#executeOnExecutor or a coroutine dispatcher
+     */
+    public Executor executor(Priority priority) {
+        return executors.get(priority);
+    }
+
+    /**
+     * Runs the callable in the lane of the given priority and waits for its result, for blocking
+     * APIs. A caller which already runs in a lane keeps its slot and calls straight through, waiting
+     * for a second slot could deadlock.
+     */
+    public <T> T await(Priority priority, Callable<T> callable) throws Exception {
+        if (CURRENT_PRIORITY.get() != null) {
+            return callable.call();
+        }
+        final Future<T> future = submit(priority, callable);
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    private void enqueue(Task<?> task) {
+        synchronized (lock) {
+            queues.get(task.priority).add(task);
+            promote();
+        }
+    }
+
+    private void onFinished(Priority priority) {
+        synchronized (lock) {
+            running.put(priority, running.get(priority) - 1);
+            if (priority != Priority.INTERACTIVE) {
+                sharedRunning--;
+            }
+            promote();
+        }
+    }
+
+    // Must hold the lock. Priority.values() is ordered from the most important lane.
+    private void promote() {
+        for (Priority priority : Priority.values()) {
+            final ArrayDeque<Task<?>> queue = queues.get(priority);
+            while (!queue.isEmpty() && canStart(priority)) {
+                final Task<?> task = queue.poll();
+                if (task.isCancelled()) {
+                    continue;
+                }
+                running.put(priority, running.get(priority) + 1);
+                if (priority != Priority.INTERACTIVE) {
+                    sharedRunning++;
+                }
+                workers.execute(task);
+            }
+        }
+    }
+
+    private boolean canStart(Priority priority) {
+        return running.get(priority) < priority.maxConcurrency
+                && (priority == Priority.INTERACTIVE || sharedRunning < MAX_SHARED_CONCURRENCY);
+    }
+
+    private final class Task<T> extends FutureTask<T> {
+        private final Priority priority;
+
+        Task(Priority priority, Callable<T> callable) {
+            super(callable);
+            this.priority = priority;
+        }
+
+        Task(Priority priority, Runnable runnable, T result) {
+            super(runnable, result);
+            this.priority = priority;
+        }
+
+        @Override
+        public void run() {
+            CURRENT_PRIORITY.set(priority);
+            try {
+                super.run();
+            } finally {
+                CURRENT_PRIORITY.remove();
+                // don't leak a cancel(true) interrupt into the next task on this thread
+                Thread.interrupted();
+                onFinished(priority);
+            }
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger number = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "network-" + number.getAndIncrement());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.mozilla.httprequest;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class NetworkMetricsTest {
+
+    private final NetworkMetrics metrics = NetworkMetrics.getInstance();
+
+    @After
+    public void tearDown() {
+        metrics.reset();
+    }
+
+    @Test
+    public void requestIsCountedUnderTheFamilyOfItsCaller() throws Exception {
+        NetworkMetrics.withFamily(NetworkMetrics.Family.NEWS, () -> {
+            final NetworkMetrics.Transfer transfer = metrics.begin();
+            transfer.connected();
+            transfer.firstByte(200);
+            transfer.bytesRead(2048);
+            transfer.finish();
+            return null;
+        });
+
+        final NetworkMetrics.Snapshot news = snapshotOf(NetworkMetrics.Family.NEWS);
+        Assert.assertEquals(1, news.requests);
+        Assert.assertEquals(2048, news.bytes);
+        Assert.assertEquals(0, snapshotOf(NetworkMetrics.Family.OTHER).requests);
+        Assert.assertEquals(NetworkMetrics.Family.OTHER, NetworkMetrics.currentFamily());
+    }
+
+    @Test
+    public void failedRequestIsCountedOnce() {
+        final NetworkMetrics.Transfer transfer = metrics.begin();
+        transfer.fail(new IOException());
+        transfer.finish();
+
+        final NetworkMetrics.Snapshot other = snapshotOf(NetworkMetrics.Family.OTHER);
+        Assert.assertEquals(1, other.requests);
+        Assert.assertEquals(1, other.failures);
+        Assert.assertTrue(metrics.dump().contains("IOException x1"));
+    }
+
+    private NetworkMetrics.Snapshot snapshotOf(NetworkMetrics.Family family) {
+        for (NetworkMetrics.Snapshot snapshot : metrics.snapshot()) {
+            if (snapshot.family == family) {
+                return snapshot;
+            }
+        }
+        throw new AssertionError(family);
+    }
+}
@@ -0,0 +1,67 @@
+package org.mozilla.httprequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class NetworkSchedulerTest {
+
+    private final NetworkScheduler scheduler = NetworkScheduler.getInstance();
+
+    @Test
+    public void interactiveRunsWhileOtherLanesAreFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Future<?>> blockers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            blockers.add(scheduler.submit(NetworkScheduler.Priority.VISIBLE_CONTENT, () -> await(release)));
+            blockers.add(scheduler.submit(NetworkScheduler.Priority.BACKGROUND, () -> await(release)));
+        }
+
+        final Future<String> interactive = scheduler.submit(NetworkScheduler.Priority.INTERACTIVE, () -> "done");
+        Assert.assertEquals("done", interactive.get(1, TimeUnit.SECONDS));
+
+        release.countDown();
+        for (Future<?> blocker : blockers) {
+            blocker.get(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void cancelledTaskNeverRuns() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<?> blocker = scheduler.submit(NetworkScheduler.Priority.BACKGROUND, () -> await(release));
+        final boolean[] ran = {false};
+        final Future<?> queued = scheduler.submit(NetworkScheduler.Priority.BACKGROUND, () -> {
+            ran[0] = true;
+        });
+
+        Assert.assertTrue(queued.cancel(false));
+        release.countDown();
+        blocker.get(1, TimeUnit.SECONDS);
+        // the lane has one slot, anything queued after the cancelled task runs after it was skipped
+        scheduler.submit(NetworkScheduler.Priority.BACKGROUND, () -> { }).get(1, TimeUnit.SECONDS);
+        Assert.assertFalse(ran[0]);
+    }
+
+    @Test
+    public void awaitInsideALaneRunsInline() throws Exception {
+        // the background lane has a single slot, waiting for a second one would never return
+        final Future<String> future = scheduler.submit(NetworkScheduler.Priority.BACKGROUND,
+                () -> scheduler.await(NetworkScheduler.Priority.BACKGROUND, () -> "inline"));
+
+        Assert.assertEquals("inline", future.get(1, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.mozilla.cachedrequestloader;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.core.util.Pair;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpCacheTest {
+
+    private static final String PATH = "/path";
+    private static final String RESPONSE_BODY = "body";
+    private static final String KEY = "HTTP_CACHE_KEY";
+
+    private MockWebServer webServer;
+    private HttpCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        webServer = new MockWebServer();
+        cache = new HttpCache(InstrumentationRegistry.getTargetContext().getCacheDir(), KEY);
+        cache.delete();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cache.delete();
+        webServer.shutdown();
+    }
+
+    @Test
+    public void freshEntry_skipsNetwork() throws IOException, InterruptedException {
+        webServer.enqueue(new MockResponse()
+                .setBody(RESPONSE_BODY)
+                .addHeader("Cache-Control", "max-age=3600"));
+        webServer.start();
+        final String url = webServer.url(PATH).toString();
+
+        Pair<Integer, String> first = cache.load(url, null);
+        Assert.assertEquals(ResponseData.SOURCE_NETWORK, (int) first.first);
+        Assert.assertEquals(RESPONSE_BODY, first.second);
+
+        Pair<Integer, String> second = cache.load(url, null);
+        Assert.assertEquals(ResponseData.SOURCE_VALIDATED_CACHE, (int) second.first);
+        Assert.assertEquals(RESPONSE_BODY, second.second);
+        Assert.assertEquals(1, webServer.getRequestCount());
+    }
+
+    @Test
+    public void staleEntry_revalidatesWithEtag() throws IOException, InterruptedException {
+        webServer.enqueue(new MockResponse()
+                .setBody(RESPONSE_BODY)
+                .addHeader("Cache-Control", "no-cache")
+                .addHeader("ETag", "\"v1\""));
+        webServer.enqueue(new MockResponse().setResponseCode(304));
+        webServer.start();
+        final String url = webServer.url(PATH).toString();
+
+        cache.load(url, null);
+        Pair<Integer, String> second = cache.load(url, null);
+
+        webServer.takeRequest();
+        RecordedRequest conditional = webServer.takeRequest();
+        Assert.assertEquals("\"v1\"", conditional.getHeader("If-None-Match"));
+        Assert.assertEquals(ResponseData.SOURCE_VALIDATED_CACHE, (int) second.first);
+        Assert.assertEquals(RESPONSE_BODY, second.second);
+    }
+
+    @Test
+    public void noStore_isNotCached() throws IOException, InterruptedException {
+        webServer.enqueue(new MockResponse()
+                .setBody(RESPONSE_BODY)
+                .addHeader("Cache-Control", "no-store"));
+        webServer.enqueue(new MockResponse().setBody(RESPONSE_BODY));
+        webServer.start();
+        final String url = webServer.url(PATH).toString();
+
+        cache.load(url, null);
+        Pair<Integer, String> second = cache.load(url, null);
+
+        webServer.takeRequest();
+        RecordedRequest unconditional = webServer.takeRequest();
+        Assert.assertNull(unconditional.getHeader("If-None-Match"));
+        Assert.assertEquals(ResponseData.SOURCE_NETWORK, (int) second.first);
+    }
+
+    @Test
+    public void gzipBody_isInflatedWithoutLineBreaks() throws IOException, InterruptedException {
+        final Buffer gzipped = new Buffer();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped.outputStream())) {
+            gzip.write("{\r\n  \"a\": 1\n}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        webServer.enqueue(new MockResponse()
+                .setBody(gzipped)
+                .addHeader("Content-Encoding", "gzip"));
+        webServer.start();
+
+        Pair<Integer, String> result = cache.load(webServer.url(PATH).toString(), null);
+
+        Assert.assertEquals("gzip", webServer.takeRequest().getHeader("Accept-Encoding"));
+        Assert.assertEquals("{  \"a\": 1}", result.second);
+    }
+}
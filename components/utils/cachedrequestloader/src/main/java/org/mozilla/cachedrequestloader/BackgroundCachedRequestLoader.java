@@ -4,17 +4,14 @@ import android.content.Context;
 import android.net.TrafficStats;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.util.Pair;
-import android.text.TextUtils;
 import android.util.Log;
 
 import org.mozilla.fileutils.FileUtils;
-import org.mozilla.httprequest.HttpRequest;
+import org.mozilla.httprequest.NetworkScheduler;
 import org.mozilla.threadutils.ThreadUtils;
 
 import java.io.File;
 import java.lang.ref.WeakReference;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -61,41 +58,28 @@ public class BackgroundCachedRequestLoader implements RequestLoaderDelegation.Re
         });
     }
 
-    public void loadFromRemote(Context context, ResponseData stringLiveData, String subscriptionUrl, String userAgent, int socketTag) {
-        backgroundExecutorService.submit(() -> {
+    public void loadFromRemote(Context context, String subscriptionKey, ResponseData stringLiveData, String subscriptionUrl, String userAgent, int socketTag) {
+        NetworkScheduler.getInstance().submit(NetworkScheduler.Priority.PREFETCH, () -> {
             TrafficStats.setThreadStatsTag(socketTag);
             try {
                 sleepIfTesting(context, delayNetworkLoad);
-                String string = HttpRequest.get(new URL(subscriptionUrl), userAgent);
-                string = string.replace("\n", "");
-                stringLiveData.postValue(new Pair<>(ResponseData.SOURCE_NETWORK, string));
-                if (TextUtils.isEmpty(string)) {
-                    requestLoaderDelegation.deleteCache();
-                } else {
-                    requestLoaderDelegation.writeToCache(string);
-                }
-            } catch (MalformedURLException e) {
+                File cacheDir = new FileUtils.GetCache(new WeakReference<>(context)).get();
+                stringLiveData.postValue(new HttpCache(cacheDir, subscriptionKey).load(subscriptionUrl, userAgent));
+            } catch (ExecutionException | InterruptedException e) {
                 // treat network error as no data
                 stringLiveData.postValue(new Pair<>(ResponseData.SOURCE_NETWORK, ""));
                 e.printStackTrace();
+                Log.e(TAG, "Failed to open Cache directory when loading from remote");
+            } finally {
+                TrafficStats.clearThreadStatsTag();
             }
         });
     }
 
-    public void writeToCache(String string, Context context, String subscriptionKey) {
-        try {
-            final Runnable runnable = new FileUtils.WriteStringToFileRunnable(new File(new FileUtils.GetCache(new WeakReference<>(context)).get(), subscriptionKey), string);
-            ThreadUtils.postToBackgroundThread(runnable);
-        } catch (ExecutionException | InterruptedException e) {
-            e.printStackTrace();
-            Log.e(TAG, "Failed to open cache directory when writing to cache.");
-        }
-    }
-
     public void deleteCache(Context context, String subscriptionKey) {
         try {
-            final Runnable runnable = new FileUtils.DeleteFileRunnable(new File(new FileUtils.GetCache(new WeakReference<>(context)).get(), subscriptionKey));
-            ThreadUtils.postToBackgroundThread(runnable);
+            final HttpCache cache = new HttpCache(new FileUtils.GetCache(new WeakReference<>(context)).get(), subscriptionKey);
+            ThreadUtils.postToBackgroundThread(cache::delete);
         } catch (ExecutionException | InterruptedException e) {
             e.printStackTrace();
             Log.e(TAG, "Failed to open cache directory when deleting cache.");
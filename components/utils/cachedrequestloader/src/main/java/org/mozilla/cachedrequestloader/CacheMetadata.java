@@ -0,0 +1,205 @@
+package org.mozilla.cachedrequestloader;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import android.text.TextUtils;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.mozilla.httprequest.HttpRequest;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Validators and freshness of a cached response, stored next to the cached body.
+ */
+final class CacheMetadata {
+
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "last_modified";
+    private static final String KEY_EXPIRES_AT = "expires_at";
+    private static final String KEY_CONTENT_LENGTH = "content_length";
+    private static final String KEY_FETCH_DURATION = "fetch_duration";
+
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    @Nullable
+    final String etag;
+    @Nullable
+    final String lastModified;
+    // Epoch millis until which the body can be used without asking the server, 0 means revalidate.
+    final long expiresAt;
+    // Size of the body on the wire, what a conditional or skipped request saves.
+    final long contentLength;
+    // How long the last full download took, what a skipped request saves.
+    final long fetchDuration;
+
+    CacheMetadata(@Nullable String etag, @Nullable String lastModified, long expiresAt, long contentLength, long fetchDuration) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.expiresAt = expiresAt;
+        this.contentLength = contentLength;
+        this.fetchDuration = fetchDuration;
+    }
+
+    boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    boolean hasValidators() {
+        return !TextUtils.isEmpty(etag) || !TextUtils.isEmpty(lastModified);
+    }
+
+    Map<String, String> getConditionalHeaders() {
+        Map<String, String> headers = new HashMap<>();
+        if (!TextUtils.isEmpty(etag)) {
+            headers.put("If-None-Match", etag);
+        }
+        if (!TextUtils.isEmpty(lastModified)) {
+            headers.put("If-Modified-Since", lastModified);
+        }
+        return headers;
+    }
+
+    /**
+     * Keep the validators and sizes of this entry, but refresh its lifetime from a 304 response.
+     */
+    CacheMetadata revalidate(@NonNull HttpRequest.Response notModified, long now) {
+        String newEtag = notModified.getHeader("ETag");
+        String newLastModified = notModified.getHeader("Last-Modified");
+        return new CacheMetadata(
+                TextUtils.isEmpty(newEtag) ? etag : newEtag,
+                TextUtils.isEmpty(newLastModified) ? lastModified : newLastModified,
+                computeExpiresAt(notModified, now),
+                contentLength,
+                fetchDuration);
+    }
+
+    /**
+     * @return the metadata to store with a successful response, or null if the response
+     * must not be stored at all (Cache-Control: no-store).
+     */
+    @Nullable
+    static CacheMetadata fromResponse(@NonNull HttpRequest.Response response, long contentLength, long now, long fetchDuration) {
+        if (hasDirective(response.getHeader("Cache-Control"), "no-store")) {
+            return null;
+        }
+        return new CacheMetadata(
+                response.getHeader("ETag"),
+                response.getHeader("Last-Modified"),
+                computeExpiresAt(response, now),
+                contentLength,
+                fetchDuration);
+    }
+
+    private static long computeExpiresAt(HttpRequest.Response response, long now) {
+        final String cacheControl = response.getHeader("Cache-Control");
+        if (hasDirective(cacheControl, "no-cache")) {
+            return 0;
+        }
+        final long maxAge = getMaxAgeSeconds(cacheControl);
+        if (maxAge >= 0) {
+            return now + (maxAge - getAgeSeconds(response)) * 1000;
+        }
+        final Date expires = parseHttpDate(response.getHeader("Expires"));
+        if (expires != null) {
+            final Date date = parseHttpDate(response.getHeader("Date"));
+            // Expires is relative to the server clock
+            return now + expires.getTime() - (date != null ? date.getTime() : now);
+        }
+        return 0;
+    }
+
+    private static boolean hasDirective(@Nullable String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String token : cacheControl.split(",")) {
+            if (directive.equalsIgnoreCase(token.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getMaxAgeSeconds(@Nullable String cacheControl) {
+        if (cacheControl == null) {
+            return -1;
+        }
+        for (String token : cacheControl.split(",")) {
+            String directive = token.trim().toLowerCase(Locale.ROOT);
+            if (directive.startsWith("max-age=")) {
+                try {
+                    return Long.parseLong(directive.substring("max-age=".length()).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long getAgeSeconds(HttpRequest.Response response) {
+        final String age = response.getHeader("Age");
+        if (age == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(age.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Nullable
+    private static Date parseHttpDate(@Nullable String value) {
+        if (TextUtils.isEmpty(value)) {
+            return null;
+        }
+        SimpleDateFormat format = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return format.parse(value);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    String toJson() {
+        JSONObject object = new JSONObject();
+        try {
+            object.put(KEY_ETAG, etag);
+            object.put(KEY_LAST_MODIFIED, lastModified);
+            object.put(KEY_EXPIRES_AT, expiresAt);
+            object.put(KEY_CONTENT_LENGTH, contentLength);
+            object.put(KEY_FETCH_DURATION, fetchDuration);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+        return object.toString();
+    }
+
+    @Nullable
+    static CacheMetadata fromJson(@Nullable String json) {
+        if (TextUtils.isEmpty(json)) {
+            return null;
+        }
+        try {
+            JSONObject object = new JSONObject(json);
+            return new CacheMetadata(
+                    object.optString(KEY_ETAG, null),
+                    object.optString(KEY_LAST_MODIFIED, null),
+                    object.optLong(KEY_EXPIRES_AT),
+                    object.optLong(KEY_CONTENT_LENGTH),
+                    object.optLong(KEY_FETCH_DURATION));
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+}
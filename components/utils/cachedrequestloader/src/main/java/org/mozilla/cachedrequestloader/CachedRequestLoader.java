@@ -1,17 +1,16 @@
 package org.mozilla.cachedrequestloader;
 
 import android.content.Context;
+import android.net.TrafficStats;
 import android.os.AsyncTask;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.util.Pair;
-import android.text.TextUtils;
 import android.util.Log;
 
 import org.mozilla.fileutils.FileUtils;
-import org.mozilla.httptask.SimpleLoadUrlTask;
+import org.mozilla.httprequest.NetworkScheduler;
 import org.mozilla.threadutils.ThreadUtils;
 
-import java.io.File;
 import java.lang.ref.WeakReference;
 import java.util.concurrent.ExecutionException;
 
@@ -57,63 +56,66 @@ public class CachedRequestLoader implements RequestLoaderDelegation.RequestLoade
         }
     }
 
-    public void loadFromRemote(Context context, ResponseData stringLiveData, String subscriptionUrl, String userAgent, int socketTag) {
-        postDelayIfTesting(() -> loadFromRemoteInternal(stringLiveData, subscriptionUrl, userAgent, socketTag), context, delayNetworkLoad);
+    public void loadFromRemote(Context context, String subscriptionKey, ResponseData stringLiveData, String subscriptionUrl, String userAgent, int socketTag) {
+        postDelayIfTesting(() -> loadFromRemoteInternal(context, subscriptionKey, stringLiveData, subscriptionUrl, userAgent, socketTag), context, delayNetworkLoad);
     }
 
-    private void loadFromRemoteInternal(ResponseData stringLiveData, String subscriptionUrl, String userAgent, int socketTag) {
-        new RemoteLoadUrlTask(stringLiveData, this).executeOnExecutor(AsyncTask.SERIAL_EXECUTOR, subscriptionUrl, userAgent, Integer.toString(socketTag));
-    }
-
-    private static Pair<Integer, String> convertToPair(String input) {
-        return new Pair<>(ResponseData.SOURCE_CACHE, input);
-    }
-
-    public void writeToCache(String string, Context context, String subscriptionKey) {
+    private void loadFromRemoteInternal(Context context, String subscriptionKey, ResponseData stringLiveData, String subscriptionUrl, String userAgent, int socketTag) {
         try {
-            final Runnable runnable = new FileUtils.WriteStringToFileRunnable(new File(new FileUtils.GetCache(new WeakReference<>(context)).get(), subscriptionKey), string);
-            ThreadUtils.postToBackgroundThread(runnable);
+            final HttpCache cache = new HttpCache(new FileUtils.GetCache(new WeakReference<>(context)).get(), subscriptionKey);
+            new RemoteLoadUrlTask(stringLiveData, cache, subscriptionUrl, userAgent, socketTag)
+                    .executeOnExecutor(NetworkScheduler.getInstance().executor(NetworkScheduler.Priority.VISIBLE_CONTENT));
         } catch (ExecutionException | InterruptedException e) {
             e.printStackTrace();
-            Log.e(TAG, "Failed to open cache directory when writing to cache.");
+            Log.e(TAG, "Failed to open Cache directory when loading from remote");
+            stringLiveData.setValue(new Pair<>(ResponseData.SOURCE_NETWORK, ""));
         }
     }
 
+    private static Pair<Integer, String> convertToPair(String input) {
+        return new Pair<>(ResponseData.SOURCE_CACHE, input);
+    }
+
     public void deleteCache(Context context, String subscriptionKey) {
         try {
-            final Runnable runnable = new FileUtils.DeleteFileRunnable(new File(new FileUtils.GetCache(new WeakReference<>(context)).get(), subscriptionKey));
-            ThreadUtils.postToBackgroundThread(runnable);
+            final HttpCache cache = new HttpCache(new FileUtils.GetCache(new WeakReference<>(context)).get(), subscriptionKey);
+            ThreadUtils.postToBackgroundThread(cache::delete);
         } catch (ExecutionException | InterruptedException e) {
             e.printStackTrace();
             Log.e(TAG, "Failed to open cache directory when deleting cache.");
         }
     }
 
-    private static class RemoteLoadUrlTask extends SimpleLoadUrlTask {
+    private static class RemoteLoadUrlTask extends AsyncTask<Void, Void, Pair<Integer, String>> {
 
         private ResponseData liveData;
-        private WeakReference<CachedRequestLoader> urlSubscriptionWeakReference;
+        private HttpCache cache;
+        private String url;
+        private String userAgent;
+        private int socketTag;
 
-        private RemoteLoadUrlTask(ResponseData liveData, CachedRequestLoader cachedRequestLoader) {
+        private RemoteLoadUrlTask(ResponseData liveData, HttpCache cache, String url, String userAgent, int socketTag) {
             this.liveData = liveData;
-            urlSubscriptionWeakReference = new WeakReference<>(cachedRequestLoader);
+            this.cache = cache;
+            this.url = url;
+            this.userAgent = userAgent;
+            this.socketTag = socketTag;
         }
 
-
         @Override
-        protected void onPostExecute(String line) {
-            line = line.replaceAll("\n", "");
-            this.liveData.setValue(new Pair<>(ResponseData.SOURCE_NETWORK, line) );
-            CachedRequestLoader cachedRequestLoader = urlSubscriptionWeakReference.get();
-            if (cachedRequestLoader == null) {
-                return;
-            }
-            if (TextUtils.isEmpty(line)) {
-                cachedRequestLoader.requestLoaderDelegation.deleteCache();
-            } else {
-                cachedRequestLoader.requestLoaderDelegation.writeToCache(line);
+        protected Pair<Integer, String> doInBackground(Void... voids) {
+            TrafficStats.setThreadStatsTag(socketTag);
+            try {
+                return cache.load(url, userAgent);
+            } finally {
+                TrafficStats.clearThreadStatsTag();
             }
         }
+
+        @Override
+        protected void onPostExecute(Pair<Integer, String> result) {
+            this.liveData.setValue(result);
+        }
     }
 
     private void postDelayIfTesting(Runnable runnable, Context context, boolean shouldDelay) {
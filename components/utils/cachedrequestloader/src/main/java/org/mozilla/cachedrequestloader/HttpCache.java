@@ -0,0 +1,129 @@
+package org.mozilla.cachedrequestloader;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.core.util.Pair;
+import android.text.TextUtils;
+import android.util.Log;
+
+import org.mozilla.fileutils.FileUtils;
+import org.mozilla.httprequest.HttpRequest;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Loads a subscription through an HTTP cache kept in the cache directory. The body is stored under
+ * the subscription key, as before, and its validators and expiry next to it.
+ */
+final class HttpCache {
+
+    private static final String TAG = "CachedRequestLoader";
+    private static final String METADATA_SUFFIX = ".meta";
+    private static final int TIMEOUT = 2000;
+
+    private final File dir;
+    private final String key;
+
+    HttpCache(@NonNull File dir, @NonNull String key) {
+        this.dir = dir;
+        this.key = key;
+    }
+
+    /**
+     * Serves the cached body while it is fresh, otherwise asks the server, conditionally if the
+     * entry has validators.
+     *
+     * @return the body with its source, an empty body on network error
+     */
+    @WorkerThread
+    Pair<Integer, String> load(String url, String userAgent) {
+        final CacheMetadata metadata = CacheMetadata.fromJson(readIfExists(key + METADATA_SUFFIX));
+        final String cachedBody = metadata == null ? null : readIfExists(key);
+        final boolean hasCachedBody = !TextUtils.isEmpty(cachedBody);
+
+        if (hasCachedBody && metadata.isFresh(System.currentTimeMillis())) {
+            HttpCacheStats.onFreshHit(metadata.contentLength, metadata.fetchDuration);
+            return new Pair<>(ResponseData.SOURCE_VALIDATED_CACHE, cachedBody);
+        }
+
+        final Map<String, String> headers = hasCachedBody && metadata.hasValidators()
+                ? metadata.getConditionalHeaders()
+                : Collections.<String, String>emptyMap();
+        final long start = SystemClock.elapsedRealtime();
+        final HttpRequest.Response response;
+        try {
+            response = HttpRequest.get(new URL(url), TIMEOUT, userAgent, headers);
+        } catch (MalformedURLException e) {
+            // treat network error as no data
+            return new Pair<>(ResponseData.SOURCE_NETWORK, "");
+        }
+        final long duration = SystemClock.elapsedRealtime() - start;
+        final long now = System.currentTimeMillis();
+
+        if (response.isNotModified() && hasCachedBody) {
+            HttpCacheStats.onNotModified(metadata.contentLength, metadata.fetchDuration - duration);
+            writeMetadata(metadata.revalidate(response, now));
+            return new Pair<>(ResponseData.SOURCE_VALIDATED_CACHE, cachedBody);
+        }
+
+        HttpCacheStats.onMiss();
+        final long contentLength = response.bytes.length;
+        final String body = new String(response.bytes, 0, stripLineBreaks(response.bytes), StandardCharsets.UTF_8);
+        if (TextUtils.isEmpty(body)) {
+            delete();
+        } else {
+            final CacheMetadata newMetadata = CacheMetadata.fromResponse(response, contentLength, now, duration);
+            if (newMetadata == null) {
+                delete();
+            } else {
+                FileUtils.writeStringToFile(dir, key, body);
+                writeMetadata(newMetadata);
+            }
+        }
+        return new Pair<>(ResponseData.SOURCE_NETWORK, body);
+    }
+
+    /**
+     * Drops CR and LF in place, the same way the cached copy loses them when it is read back line
+     * by line, so the network and the cache deliver identical strings. Neither byte can be part of
+     * a multi-byte UTF-8 sequence, so this is safe before decoding.
+     *
+     * @return the length of the compacted content
+     */
+    private static int stripLineBreaks(byte[] bytes) {
+        int length = 0;
+        for (byte b : bytes) {
+            if (b != '\n' && b != '\r') {
+                bytes[length++] = b;
+            }
+        }
+        return length;
+    }
+
+    @Nullable
+    private String readIfExists(String fileName) {
+        return new File(dir, fileName).exists() ? FileUtils.readStringFromFile(dir, fileName) : null;
+    }
+
+    private void writeMetadata(CacheMetadata metadata) {
+        FileUtils.writeStringToFile(dir, key + METADATA_SUFFIX, metadata.toJson());
+    }
+
+    void delete() {
+        deleteFile(new File(dir, key));
+        deleteFile(new File(dir, key + METADATA_SUFFIX));
+    }
+
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.e(TAG, "Failed to delete " + file.getName());
+        }
+    }
+}
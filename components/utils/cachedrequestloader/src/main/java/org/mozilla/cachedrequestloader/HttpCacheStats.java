@@ -0,0 +1,82 @@
+package org.mozilla.cachedrequestloader;
+
+import org.mozilla.httprequest.NetworkMetrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide counters of what the HTTP cache of the request loaders saved.
+ */
+public final class HttpCacheStats {
+
+    private static final AtomicLong freshHits = new AtomicLong();
+    private static final AtomicLong notModifiedHits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong bytesSaved = new AtomicLong();
+    private static final AtomicLong latencySavedMillis = new AtomicLong();
+
+    private HttpCacheStats() {
+    }
+
+    /**
+     * The cached body was still fresh, the request was not sent at all.
+     */
+    static void onFreshHit(long bytes, long latencyMillis) {
+        freshHits.incrementAndGet();
+        NetworkMetrics.getInstance().recordCacheHit(NetworkMetrics.currentFamily());
+        bytesSaved.addAndGet(bytes);
+        latencySavedMillis.addAndGet(latencyMillis);
+    }
+
+    /**
+     * The server answered 304, only the body download was saved.
+     */
+    static void onNotModified(long bytes, long latencyMillis) {
+        notModifiedHits.incrementAndGet();
+        NetworkMetrics.getInstance().recordCacheHit(NetworkMetrics.currentFamily());
+        bytesSaved.addAndGet(bytes);
+        latencySavedMillis.addAndGet(Math.max(0, latencyMillis));
+    }
+
+    static void onMiss() {
+        misses.incrementAndGet();
+    }
+
+    public static long getFreshHits() {
+        return freshHits.get();
+    }
+
+    public static long getNotModifiedHits() {
+        return notModifiedHits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public static long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    public static long getLatencySavedMillis() {
+        return latencySavedMillis.get();
+    }
+
+    /**
+     * @return a one line report of the counters, for the debug page or a bug report
+     */
+    public static String dump() {
+        return String.format(Locale.ROOT,
+                "http cache: %d fresh hits, %d not modified, %d misses, %d KiB and %d ms saved",
+                getFreshHits(), getNotModifiedHits(), getMisses(), getBytesSaved() / 1024, getLatencySavedMillis());
+    }
+
+    public static void reset() {
+        freshHits.set(0);
+        notModifiedHits.set(0);
+        misses.set(0);
+        bytesSaved.set(0);
+        latencySavedMillis.set(0);
+    }
+}
@@ -35,25 +35,20 @@ public class RequestLoaderDelegation {
             if (!forceNetwork) {
                 requestLoader.loadFromCache(context, subscriptionKey, stringLiveData);
             }
-            requestLoader.loadFromRemote(context, stringLiveData, subscriptionUrl, userAgent, socketTag);
+            requestLoader.loadFromRemote(context, subscriptionKey, stringLiveData, subscriptionUrl, userAgent, socketTag);
         }
         return stringLiveData;
     }
 
-    void writeToCache(String string) {
-        requestLoader.writeToCache(string, context, subscriptionKey);
-    }
-
-    void deleteCache() {
-        requestLoader.deleteCache(context, subscriptionKey);
-    }
-
     interface RequestLoader {
         void loadFromCache(Context context, String subscriptionKey, ResponseData stringLiveData);
 
-        void loadFromRemote(Context context, ResponseData stringLiveData, String subscriptionUrl, String userAgent, int socketTag);
-
-        void writeToCache(String string, Context context, String subscriptionKey);
+        /**
+         * Load through the HTTP cache: skip the network while the cached body is fresh, otherwise
+         * revalidate it with If-None-Match/If-Modified-Since, and store the result with its
+         * validators.
+         */
+        void loadFromRemote(Context context, String subscriptionKey, ResponseData stringLiveData, String subscriptionUrl, String userAgent, int socketTag);
 
         void deleteCache(Context context, String subscriptionKey);
     }
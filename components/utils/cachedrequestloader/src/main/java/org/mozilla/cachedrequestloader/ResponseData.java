@@ -9,6 +9,9 @@ public class ResponseData extends MutableLiveData<Pair<Integer, String>> {
 
     public static final int SOURCE_NETWORK = 0;
     public static final int SOURCE_CACHE = 1;
+    // A cached body which is fresh or has just been confirmed by the server (304), it is as
+    // authoritative as a network response.
+    public static final int SOURCE_VALIDATED_CACHE = 2;
 
     private boolean networkReturned;
 
@@ -37,7 +40,7 @@ public class ResponseData extends MutableLiveData<Pair<Integer, String>> {
     }
 
     private void setNetworkReturned(Pair<Integer, String> value) {
-        if (value != null && value.first != null && SOURCE_NETWORK == value.first) {
+        if (value != null && value.first != null && (SOURCE_NETWORK == value.first || SOURCE_VALIDATED_CACHE == value.first)) {
             networkReturned = true;
         }
     }
@@ -29,6 +29,7 @@ import java.nio.charset.Charset;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -193,17 +194,15 @@ public class FavIconUtils {
     public static class SaveBitmapTask extends AsyncTask<Void, Void, String> {
 
         private File directory;
-        private String url;
         private Bitmap bitmap;
         private Consumer<String> callback;
         private final Bitmap.CompressFormat compressFormat;
         private final int quality;
 
 
-        public SaveBitmapTask(File directory, String url, Bitmap bitmap, Consumer<String> callback,
+        public SaveBitmapTask(File directory, Bitmap bitmap, Consumer<String> callback,
                               Bitmap.CompressFormat compressFormat, int quality) {
             this.directory = directory;
-            this.url = url;
             this.bitmap = bitmap;
             this.callback = callback;
             this.compressFormat = compressFormat;
@@ -217,24 +216,22 @@ public class FavIconUtils {
 
         @Override
         protected String doInBackground(Void... voids) {
-            return saveBitmapToDirectory(directory, url, bitmap, compressFormat, quality);
+            return saveBitmapToDirectory(directory, bitmap, compressFormat, quality);
         }
     }
 
     public static class SaveBitmapsTask extends AsyncTask<Void, Void, List<String>> {
 
         private File directory;
-        private List<String> urls;
         private List<byte[]> bytesList;
         private FavIconUtils.Consumer<List<String>> callback;
         private final Bitmap.CompressFormat compressFormat;
         private final int quality;
 
-        public SaveBitmapsTask(File directory, List<String> urls, List<byte[]> bytesList,
+        public SaveBitmapsTask(File directory, List<byte[]> bytesList,
                                FavIconUtils.Consumer<List<String>> callback,
                                Bitmap.CompressFormat compressFormat, int quality) {
             this.directory = directory;
-            this.urls = urls;
             this.bytesList = bytesList;
             this.callback = callback;
             this.compressFormat = compressFormat;
@@ -249,67 +246,59 @@ public class FavIconUtils {
         @Override
         protected List<String> doInBackground(Void... voids) {
             List<String> ret = new ArrayList<>();
-            for (int i = 0 ; i < urls.size() ; i++) {
-                byte[] bytes = bytesList.get(i);
+            for (byte[] bytes : bytesList) {
                 Bitmap bitmap = BitmapFactory.decodeByteArray(bytes, 0, bytes.length);
-                ret.add(FavIconUtils.saveBitmapToDirectory(directory, urls.get(i), bitmap,
-                        compressFormat, quality));
+                ret.add(FavIconUtils.saveBitmapToDirectory(directory, bitmap, compressFormat, quality));
             }
             return ret;
         }
     }
 
+    /**
+     * Saves the icon in a file named after its content, so pages sharing an icon share the file
+     * and an icon already saved isn't written again.
+     *
+     * @return the uri of the file, or null if it couldn't be saved
+     */
     public static String saveBitmapToDirectory(@NonNull final File dir,
-                                               @NonNull final String url,
                                                @NonNull final Bitmap bitmap,
                                                @NonNull final Bitmap.CompressFormat compressFormat,
                                                final int quality) {
-        // Use encoded url as default if No MD5 algorithm
-        String fileName = Uri.encode(url);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bitmap.compress(compressFormat, quality, bos);
+        byte[] bitmapData = bos.toByteArray();
+
+        String fileName;
         try {
-            fileName = generateMD5(url);
+            fileName = generateMD5(bitmapData);
         } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
+            // Use the hash code of the bytes as default if No MD5 algorithm
+            fileName = Integer.toHexString(Arrays.hashCode(bitmapData)) + "_" + bitmapData.length;
         }
 
-        return FavIconUtils.saveBitmapToFile(dir, fileName, bitmap, compressFormat, quality);
-    }
-
-    private static String saveBitmapToFile(@NonNull final File dir,
-                                           @NonNull final String fileName,
-                                           @NonNull final Bitmap bitmap,
-                                           @NonNull final Bitmap.CompressFormat compressFormat,
-                                           final int quality) {
-        ensureDir(dir);
-
-        try {
-            //create a file to write bitmap data
-            File file = new File(dir, fileName);
-            if (file.exists() && !file.delete()) {
-                return Uri.fromFile(file).toString();
-            }
-            if (!file.createNewFile()) {
-               if (file.exists()) {
-                   return Uri.fromFile(file).toString();
-               } else {
-                   return null;
-               }
-            }
-            //Convert bitmap to byte array
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            bitmap.compress(compressFormat, quality, bos);
-            byte[] bitmapData = bos.toByteArray();
-
-            //write the bytes in file
-            try (FileOutputStream fos = new FileOutputStream(file) ) {
-                fos.write(bitmapData);
-                fos.flush();
-            }
+        if (!ensureDir(dir)) {
+            return null;
+        }
+        File file = new File(dir, fileName);
+        if (file.exists()) {
             return Uri.fromFile(file).toString();
+        }
+
+        // Written aside and renamed, so a reader never sees a partial file
+        File tempFile = new File(dir, fileName + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+            fos.write(bitmapData);
+            fos.flush();
         } catch (IOException e) {
             e.printStackTrace();
+            tempFile.delete();
+            return null;
+        }
+        if (!tempFile.renameTo(file) && !file.exists()) {
+            tempFile.delete();
             return null;
         }
+        return Uri.fromFile(file).toString();
     }
 
     public static Bitmap getIconFromAssets(Context context, String path) {
@@ -338,8 +327,12 @@ public class FavIconUtils {
     }
 
     public static String generateMD5(String string) throws NoSuchAlgorithmException {
+        return generateMD5(string.getBytes(Charset.defaultCharset()));
+    }
+
+    public static String generateMD5(byte[] bytes) throws NoSuchAlgorithmException {
         MessageDigest messageDigest = MessageDigest.getInstance("MD5");
-        messageDigest.update(string.getBytes(Charset.defaultCharset()));
+        messageDigest.update(bytes);
         byte[] result = messageDigest.digest();
         StringBuilder sb = new StringBuilder();
         for (byte character : result) {